@@ -6,10 +6,12 @@ package sg.edu.ntu.gamify_demo;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @SpringBootApplication
 @MapperScan("sg.edu.ntu.gamify_demo.mappers")
+@EnableScheduling
 public class GamifyDemoApplication {
 
 	public static void main(String[] args) {
@@ -7,6 +7,7 @@ import sg.edu.ntu.gamify_demo.models.TaskEvent;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.models.enums.TaskStatus;
 import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+import sg.edu.ntu.gamify_demo.services.TaskCompletionCounter;
 import sg.edu.ntu.gamify_demo.strategies.task.TaskPointsCalculationStrategy;
 
 /**
@@ -20,6 +21,8 @@ public class CalculatePointsCommand implements TaskEventCommand {
     private final JsonNode eventData;
     private final TaskEventRepository taskEventRepository;
     private final TaskPointsCalculationStrategy pointsCalculationStrategy;
+    private final String idempotencyKey;
+    private final TaskCompletionCounter taskCompletionCounter;
     
     /**
      * Constructor for the command.
@@ -36,11 +39,55 @@ public class CalculatePointsCommand implements TaskEventCommand {
             JsonNode eventData,
             TaskEventRepository taskEventRepository,
             TaskPointsCalculationStrategy pointsCalculationStrategy) {
+        this(user, taskId, eventData, taskEventRepository, pointsCalculationStrategy, null);
+    }
+    
+    /**
+     * Constructor for the command with an idempotency key.
+     * 
+     * @param user The user executing the command.
+     * @param taskId The ID of the task.
+     * @param eventData Additional data about the event.
+     * @param taskEventRepository Repository for task events.
+     * @param pointsCalculationStrategy Strategy for calculating points.
+     * @param idempotencyKey Key stored on the task event to reject duplicate deliveries, or null.
+     */
+    public CalculatePointsCommand(
+            User user,
+            String taskId,
+            JsonNode eventData,
+            TaskEventRepository taskEventRepository,
+            TaskPointsCalculationStrategy pointsCalculationStrategy,
+            String idempotencyKey) {
+        this(user, taskId, eventData, taskEventRepository, pointsCalculationStrategy, idempotencyKey, null);
+    }
+    
+    /**
+     * Constructor for the command with an idempotency key and a completion counter.
+     * 
+     * @param user The user executing the command.
+     * @param taskId The ID of the task.
+     * @param eventData Additional data about the event.
+     * @param taskEventRepository Repository for task events.
+     * @param pointsCalculationStrategy Strategy for calculating points.
+     * @param idempotencyKey Key stored on the task event to reject duplicate deliveries, or null.
+     * @param taskCompletionCounter Counter incremented with the saved event, or null.
+     */
+    public CalculatePointsCommand(
+            User user,
+            String taskId,
+            JsonNode eventData,
+            TaskEventRepository taskEventRepository,
+            TaskPointsCalculationStrategy pointsCalculationStrategy,
+            String idempotencyKey,
+            TaskCompletionCounter taskCompletionCounter) {
         this.user = user;
         this.taskId = taskId;
         this.eventData = eventData;
         this.taskEventRepository = taskEventRepository;
         this.pointsCalculationStrategy = pointsCalculationStrategy;
+        this.idempotencyKey = idempotencyKey;
+        this.taskCompletionCounter = taskCompletionCounter;
     }
     
     /**
@@ -59,6 +106,7 @@ public class CalculatePointsCommand implements TaskEventCommand {
         taskEvent.setStatus(TaskStatus.COMPLETED);
         taskEvent.setCompletionTime(ZonedDateTime.now());
         taskEvent.setMetadata(eventData);
+        taskEvent.setIdempotencyKey(idempotencyKey);
         
         // Calculate points but don't store them in the TaskEvent
         // (we'll use them in the PointsEarnedEvent)
@@ -66,7 +114,13 @@ public class CalculatePointsCommand implements TaskEventCommand {
         
         // Save the calculated points in the task event
         taskEvent.setPointsEarned(points);
-        return taskEventRepository.save(taskEvent);
+        TaskEvent saved = taskEventRepository.save(taskEvent);
+        
+        // Count the completion in the same transaction as the event
+        if (taskCompletionCounter != null) {
+            taskCompletionCounter.recordCompletion(user.getId(), eventData);
+        }
+        return saved;
     }
     
     /**
@@ -4,16 +4,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import sg.edu.ntu.gamify_demo.services.PointsService;
-import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
-import sg.edu.ntu.gamify_demo.events.domain.PointsEarnedEvent;
-import sg.edu.ntu.gamify_demo.models.PointsTransaction;
 import sg.edu.ntu.gamify_demo.models.TaskEvent;
 import sg.edu.ntu.gamify_demo.models.User;
-import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
 
 /**
  * Command to record a points transaction for a completed task.
  * This follows the Command pattern to encapsulate the transaction recording logic.
+ * The award goes through PointsService, so the balance is updated by a single statement
+ * (or buffered in write-behind mode) rather than by writing back the loaded user.
  */
 public class RecordTransactionCommand implements TaskEventCommand {
     
@@ -21,9 +19,7 @@ public class RecordTransactionCommand implements TaskEventCommand {
     private final String taskId;
     private final JsonNode eventData;
     private final Long points;
-    private final PointsTransactionRepository pointsTransactionRepository;
     private final PointsService pointsService;
-    private final DomainEventPublisher domainEventPublisher;
     private final ObjectMapper objectMapper;
     
     /**
@@ -33,9 +29,7 @@ public class RecordTransactionCommand implements TaskEventCommand {
      * @param taskId The ID of the task.
      * @param eventData Additional data about the event.
      * @param points The points to record.
-     * @param pointsTransactionRepository Repository for points transactions.
      * @param pointsService Service for managing points.
-     * @param domainEventPublisher Publisher for domain events.
      * @param objectMapper JSON object mapper.
      */
     public RecordTransactionCommand(
@@ -43,17 +37,13 @@ public class RecordTransactionCommand implements TaskEventCommand {
             String taskId,
             JsonNode eventData,
             Long points,
-            PointsTransactionRepository pointsTransactionRepository,
             PointsService pointsService,
-            DomainEventPublisher domainEventPublisher,
             ObjectMapper objectMapper) {
         this.user = user;
         this.taskId = taskId;
         this.eventData = eventData;
         this.points = points;
-        this.pointsTransactionRepository = pointsTransactionRepository;
         this.pointsService = pointsService;
-        this.domainEventPublisher = domainEventPublisher;
         this.objectMapper = objectMapper;
     }
     
@@ -71,19 +61,6 @@ public class RecordTransactionCommand implements TaskEventCommand {
             metadata.set("eventData", eventData);
         }
         
-        // Create and save the points transaction
-        PointsTransaction transaction = new PointsTransaction(
-                user, 
-                "TASK_COMPLETED", 
-                points, 
-                metadata);
-        
-        // Save the transaction
-        PointsTransaction savedTransaction = pointsTransactionRepository.save(transaction);
-        
-        // Update user's points
-        user.addPointsTransaction(savedTransaction);
-        
         // Check if ladder status update should be skipped
         boolean skipLadderUpdate = false;
         if (eventData != null && eventData.has("skip_ladder_update")) {
@@ -92,13 +69,9 @@ public class RecordTransactionCommand implements TaskEventCommand {
             skipLadderUpdate = eventData.get("data").get("skip_ladder_update").asBoolean(false);
         }
         
-        // Publish a domain event for points earned only if ladder update is not skipped
-        if (!skipLadderUpdate) {
-            int newTotal = user.getAvailablePoints().intValue();
-            PointsEarnedEvent pointsEarnedEvent = new PointsEarnedEvent(
-                    user, points.intValue(), newTotal, "TASK_COMPLETED", eventData);
-            domainEventPublisher.publish(pointsEarnedEvent);
-        }
+        // Record the transaction and update the user's points; the points earned event
+        // is published only if ladder update is not skipped
+        pointsService.awardPoints(user, points, "TASK_COMPLETED", metadata, !skipLadderUpdate);
         
         // Return null as we're not creating a task event
         return null;
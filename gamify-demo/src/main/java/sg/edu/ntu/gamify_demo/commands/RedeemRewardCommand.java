@@ -1,12 +1,12 @@
 package sg.edu.ntu.gamify_demo.commands;
 
 import java.time.ZonedDateTime;
-import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.Builder;
 import sg.edu.ntu.gamify_demo.dtos.RedemptionResult;
 import sg.edu.ntu.gamify_demo.factories.RedemptionFactory;
+import sg.edu.ntu.gamify_demo.models.PointsTransaction;
 import sg.edu.ntu.gamify_demo.models.RewardRedemption;
 import sg.edu.ntu.gamify_demo.models.Rewards;
 import sg.edu.ntu.gamify_demo.models.User;
@@ -15,6 +15,7 @@ import sg.edu.ntu.gamify_demo.repositories.RewardRedemptionRepository;
 import sg.edu.ntu.gamify_demo.repositories.RewardRepository;
 import sg.edu.ntu.gamify_demo.repositories.UserRepository;
 import sg.edu.ntu.gamify_demo.services.MessageBrokerService;
+import sg.edu.ntu.gamify_demo.services.PointsMutationExecutor;
 import sg.edu.ntu.gamify_demo.services.PointsTransactionService;
 
 /**
@@ -33,14 +34,24 @@ public class RedeemRewardCommand {
     private final RedemptionFactory redemptionFactory;
     private final MessageBrokerService messageBroker;
     private final ObjectMapper objectMapper;
+    private final PointsMutationExecutor mutationExecutor;
     
     /**
      * Executes the reward redemption process.
+     * When a mutation executor is set, the redemption goes through it: it joins the caller's
+     * transaction if there is one, or runs on the user's lane in its own transaction, so it
+     * cannot interleave with other points changes for the same user.
      * 
      * @return A RedemptionResult containing the result of the redemption
      */
-    @Transactional
     public RedemptionResult execute() {
+        if (mutationExecutor != null) {
+            return mutationExecutor.execute(userId, this::redeem);
+        }
+        return redeem();
+    }
+    
+    private RedemptionResult redeem() {
         // Fetch user and reward
         User user = userRepository.findById(userId).orElse(null);
         Rewards reward = rewardRepository.findById(rewardId).orElse(null);
@@ -82,37 +93,44 @@ public class RedeemRewardCommand {
                 .build();
         }
         
-        // Update user's available points
-        Long updatedPoints = user.getAvailablePoints() - rewardCost;
-        user.setAvailablePoints(updatedPoints);
-        userRepository.save(user);
-        
         // Create redemption record
         RewardRedemption redemption = redemptionFactory.createRedemption(user, reward, RedemptionStatus.PROCESSING);
-        RewardRedemption savedRedemption = redemptionRepository.save(redemption);
         
         // Deduct points
         ObjectNode metadata = objectMapper.createObjectNode();
-        metadata.put("redemptionId", savedRedemption.getId());
+        metadata.put("redemptionId", redemption.getId());
         metadata.put("rewardId", reward.getId());
         metadata.put("rewardName", reward.getName());
         
-        // Record the points transaction
-        pointsTransactionService.recordPointsSpent(
+        // Debit the points and record the transaction; the debit only applies if the
+        // balance still covers the cost, so concurrent spends cannot overdraw it
+        PointsTransaction transaction = pointsTransactionService.recordPointsSpent(
             user, 
             rewardCost, 
             "REWARD_REDEMPTION", 
             metadata
         );
         
+        if (transaction == null) {
+            return RedemptionResult.builder()
+                .success(false)
+                .message("Insufficient points")
+                .updatedPointsBalance(user.getAvailablePoints())
+                .timestamp(ZonedDateTime.now())
+                .build();
+        }
+        
+        RewardRedemption savedRedemption = redemptionRepository.save(redemption);
+        Long updatedPoints = user.getAvailablePoints();
+        
         // Send redemption notification
-        sendRedemptionNotification(user, reward, savedRedemption);
+        sendRedemptionNotification(user, reward, savedRedemption, updatedPoints);
         
         // Return success result
         return RedemptionResult.builder()
             .success(true)
             .message("Reward redeemed successfully")
-            .updatedPointsBalance(user.getAvailablePoints())
+            .updatedPointsBalance(updatedPoints)
             .redemptionId(savedRedemption.getId())
             .timestamp(ZonedDateTime.now())
             .build();
@@ -121,7 +139,7 @@ public class RedeemRewardCommand {
     /**
      * Sends a notification about the redemption.
      */
-    private void sendRedemptionNotification(User user, Rewards reward, RewardRedemption redemption) {
+    private void sendRedemptionNotification(User user, Rewards reward, RewardRedemption redemption, Long updatedBalance) {
         if (messageBroker != null) {
             ObjectNode notification = objectMapper.createObjectNode();
             notification.put("userId", user.getId());
@@ -130,7 +148,7 @@ public class RedeemRewardCommand {
             notification.put("rewardId", reward.getId());
             notification.put("rewardName", reward.getName());
             notification.put("pointsSpent", reward.getCostInPoints());
-            notification.put("updatedBalance", user.getAvailablePoints());
+            notification.put("updatedBalance", updatedBalance);
             notification.put("status", redemption.getStatus());
             
             messageBroker.sendNotification("redemptions", notification);
@@ -18,6 +18,7 @@ public class TaskAssignedCommand implements TaskEventCommand {
     private final String taskId;
     private final JsonNode eventData;
     private final TaskEventRepository taskEventRepository;
+    private final String idempotencyKey;
     
     /**
      * Constructor for the TaskAssignedCommand.
@@ -32,10 +33,29 @@ public class TaskAssignedCommand implements TaskEventCommand {
             String taskId,
             JsonNode eventData,
             TaskEventRepository taskEventRepository) {
+        this(user, taskId, eventData, taskEventRepository, null);
+    }
+    
+    /**
+     * Constructor for the TaskAssignedCommand with an idempotency key.
+     * 
+     * @param user The user who was assigned the task.
+     * @param taskId The ID of the assigned task.
+     * @param eventData Additional data about the task.
+     * @param taskEventRepository Repository for task events.
+     * @param idempotencyKey Key stored on the task event to reject duplicate deliveries, or null.
+     */
+    public TaskAssignedCommand(
+            User user,
+            String taskId,
+            JsonNode eventData,
+            TaskEventRepository taskEventRepository,
+            String idempotencyKey) {
         this.user = user;
         this.taskId = taskId;
         this.eventData = eventData;
         this.taskEventRepository = taskEventRepository;
+        this.idempotencyKey = idempotencyKey;
     }
     
     @Override
@@ -47,6 +67,7 @@ public class TaskAssignedCommand implements TaskEventCommand {
         taskEvent.setTaskId(taskId);
         taskEvent.setEventType("TASK_ASSIGNED");
         taskEvent.setMetadata(eventData);
+        taskEvent.setIdempotencyKey(idempotencyKey);
         taskEvent.setStatus(TaskStatus.ASSIGNED);
         taskEvent.setAssignedAt(ZonedDateTime.now());
         
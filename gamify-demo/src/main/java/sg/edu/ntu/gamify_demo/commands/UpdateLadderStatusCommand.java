@@ -33,8 +33,8 @@ public class UpdateLadderStatusCommand implements TaskEventCommand {
      */
     @Override
     public TaskEvent execute() {
-        // Update the user's ladder status
-        ladderStatusService.updateUserLadderStatus(user.getId());
+        // Update the user's ladder status once the surrounding transaction commits
+        ladderStatusService.requestLadderStatusUpdate(user.getId());
         
         // Return null as we're not creating a task event
         return null;
@@ -4,6 +4,7 @@ import org.springframework.context.annotation.Configuration;
 import jakarta.annotation.PostConstruct;
 import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
 import sg.edu.ntu.gamify_demo.events.domain.subscribers.LadderStatusSubscriber;
+import sg.edu.ntu.gamify_demo.events.domain.subscribers.LeaderboardSubscriber;
 import sg.edu.ntu.gamify_demo.events.domain.subscribers.PointsEventSubscriber;
 import sg.edu.ntu.gamify_demo.events.domain.subscribers.TaskCompletedEventSubscriber;
 
@@ -18,6 +19,7 @@ public class EventConfig {
     private final TaskCompletedEventSubscriber taskCompletedEventSubscriber;
     private final PointsEventSubscriber pointsEventSubscriber;
     private final LadderStatusSubscriber ladderStatusSubscriber;
+    private final LeaderboardSubscriber leaderboardSubscriber;
     
     /**
      * Constructor for dependency injection.
@@ -26,11 +28,13 @@ public class EventConfig {
             DomainEventPublisher domainEventPublisher,
             TaskCompletedEventSubscriber taskCompletedEventSubscriber,
             PointsEventSubscriber pointsEventSubscriber,
-            LadderStatusSubscriber ladderStatusSubscriber) {
+            LadderStatusSubscriber ladderStatusSubscriber,
+            LeaderboardSubscriber leaderboardSubscriber) {
         this.domainEventPublisher = domainEventPublisher;
         this.taskCompletedEventSubscriber = taskCompletedEventSubscriber;
         this.pointsEventSubscriber = pointsEventSubscriber;
         this.ladderStatusSubscriber = ladderStatusSubscriber;
+        this.leaderboardSubscriber = leaderboardSubscriber;
     }
     
     /**
@@ -43,5 +47,6 @@ public class EventConfig {
         domainEventPublisher.register(taskCompletedEventSubscriber);
         domainEventPublisher.register(pointsEventSubscriber);
         domainEventPublisher.register(ladderStatusSubscriber);
+        domainEventPublisher.register(leaderboardSubscriber);
     }
 }
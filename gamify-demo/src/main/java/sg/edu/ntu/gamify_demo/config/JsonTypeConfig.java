@@ -3,8 +3,10 @@ package sg.edu.ntu.gamify_demo.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 /**
@@ -24,7 +26,7 @@ public class JsonTypeConfig {
     public Jackson2ObjectMapperBuilderCustomizer jsonCustomizer() {
         return builder -> {
             builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-            builder.modules(new JavaTimeModule());
+            builder.modules(new JavaTimeModule(), sanitizingModule());
         };
     }
     
@@ -37,7 +39,20 @@ public class JsonTypeConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.registerModule(sanitizingModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return objectMapper;
     }
+
+    /**
+     * Creates a module that strips control characters from JSON trees as they are parsed,
+     * so request payloads bound to JsonNode arrive already sanitized.
+     * 
+     * @return The sanitizing module.
+     */
+    private static SimpleModule sanitizingModule() {
+        SimpleModule module = new SimpleModule("SanitizingJsonNodeModule");
+        module.addDeserializer(JsonNode.class, new SanitizingJsonNodeDeserializer());
+        return module;
+    }
 }
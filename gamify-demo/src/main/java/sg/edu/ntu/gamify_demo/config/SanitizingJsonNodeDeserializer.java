@@ -0,0 +1,132 @@
+package sg.edu.ntu.gamify_demo.config;
+
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Deserializer that builds a JsonNode tree while stripping control characters
+ * (other than carriage return, line feed and tab) from field names and string values.
+ * Sanitizing while the tree is built avoids serializing the request back to text,
+ * running a regex over it and parsing it a second time.
+ */
+public class SanitizingJsonNodeDeserializer extends StdDeserializer<JsonNode> {
+
+    private static final long serialVersionUID = 1L;
+
+    public SanitizingJsonNodeDeserializer() {
+        super(JsonNode.class);
+    }
+
+    @Override
+    public JsonNode deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return readValue(p, ctxt, ctxt.getNodeFactory());
+    }
+
+    @Override
+    public JsonNode getNullValue(DeserializationContext ctxt) {
+        return ctxt.getNodeFactory().nullNode();
+    }
+
+    /**
+     * Remove control characters other than CR, LF and tab.
+     * Returns the input unchanged (no copy) when there is nothing to remove.
+     *
+     * @param value The text to sanitize.
+     * @return The sanitized text.
+     */
+    public static String sanitize(String value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && !isStripped(value.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return value;
+        }
+
+        StringBuilder sanitized = new StringBuilder(length - 1);
+        sanitized.append(value, 0, i);
+        for (i++; i < length; i++) {
+            char c = value.charAt(i);
+            if (!isStripped(c)) {
+                sanitized.append(c);
+            }
+        }
+        return sanitized.toString();
+    }
+
+    private static boolean isStripped(char c) {
+        return (c < 0x20 && c != '\r' && c != '\n' && c != '\t') || c == 0x7F;
+    }
+
+    private JsonNode readValue(JsonParser p, DeserializationContext ctxt, JsonNodeFactory factory) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == null) {
+            token = p.nextToken();
+        }
+
+        switch (token) {
+            case START_OBJECT:
+            case FIELD_NAME:
+                return readObject(p, ctxt, factory);
+            case START_ARRAY:
+                return readArray(p, ctxt, factory);
+            case VALUE_STRING:
+                return factory.textNode(sanitize(p.getText()));
+            case VALUE_NUMBER_INT:
+                switch (p.getNumberType()) {
+                    case INT:
+                        return factory.numberNode(p.getIntValue());
+                    case LONG:
+                        return factory.numberNode(p.getLongValue());
+                    default:
+                        return factory.numberNode(p.getBigIntegerValue());
+                }
+            case VALUE_NUMBER_FLOAT:
+                if (ctxt.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+                    return factory.numberNode(p.getDecimalValue());
+                }
+                return factory.numberNode(p.getDoubleValue());
+            case VALUE_TRUE:
+                return factory.booleanNode(true);
+            case VALUE_FALSE:
+                return factory.booleanNode(false);
+            case VALUE_NULL:
+                return factory.nullNode();
+            case VALUE_EMBEDDED_OBJECT:
+                return factory.pojoNode(p.getEmbeddedObject());
+            default:
+                return (JsonNode) ctxt.handleUnexpectedToken(JsonNode.class, p);
+        }
+    }
+
+    private ObjectNode readObject(JsonParser p, DeserializationContext ctxt, JsonNodeFactory factory) throws IOException {
+        ObjectNode node = factory.objectNode();
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = sanitize(p.currentName());
+            p.nextToken();
+            node.set(name, readValue(p, ctxt, factory));
+        }
+        return node;
+    }
+
+    private ArrayNode readArray(JsonParser p, DeserializationContext ctxt, JsonNodeFactory factory) throws IOException {
+        ArrayNode node = factory.arrayNode();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            node.add(readValue(p, ctxt, factory));
+        }
+        return node;
+    }
+}
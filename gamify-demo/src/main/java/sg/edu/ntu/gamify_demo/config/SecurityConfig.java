@@ -80,6 +80,9 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.POST, "/api/user").permitAll()                  // User management 
                                 .requestMatchers(HttpMethod.POST, "/api/gamification/users").permitAll()    // Gamification
                                 .requestMatchers(HttpMethod.POST, "/tasks/events").permitAll()              // Tasks events
+                                .requestMatchers(HttpMethod.POST, "/tasks/events/batch").permitAll()        // Bulk tasks events
+                                .requestMatchers(HttpMethod.POST, "/tasks/events/stream").permitAll()       // Streamed tasks events
+                                .requestMatchers(HttpMethod.POST, "/tasks/events/async").permitAll()        // Queued tasks events
                                 .requestMatchers(HttpMethod.POST, "/rewards").permitAll()                   // Rewards
                                 .requestMatchers(HttpMethod.POST, "/rewards/redemptions").permitAll()       // Rewards redemptions
                                 .requestMatchers(HttpMethod.POST, "/rewards/redeem").permitAll()            // User redeem rewards
@@ -87,6 +90,11 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.POST, "/api/achievements/process").permitAll()  // Process user achievement events
                                 .requestMatchers(HttpMethod.POST, "/api/ladder/users").permitAll()          // Ladder system
                                 .requestMatchers(HttpMethod.POST, "/api/ladder/levels").permitAll()         // Post ladder levels
+                                .requestMatchers(HttpMethod.POST, "/api/ladder/recompute").permitAll()      // Ladder recompute
+                                .requestMatchers(HttpMethod.POST, "/api/ladder/users/backfill").permitAll() // Ladder status backfill
+                                .requestMatchers(HttpMethod.POST, "/api/ledger/snapshots").permitAll()      // Points ledger snapshots
+                                .requestMatchers(HttpMethod.POST, "/api/ledger/reconciliations").permitAll() // Ledger reconciliation
+                                .requestMatchers(HttpMethod.POST, "/api/leaderboard/rebuild").permitAll()   // Leaderboard rebuild
                                 .anyRequest().permitAll()
                 )
                 .build();
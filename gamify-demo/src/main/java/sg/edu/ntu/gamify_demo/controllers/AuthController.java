@@ -31,6 +31,7 @@ import sg.edu.ntu.gamify_demo.exceptions.DuplicateUserException;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.repositories.UserRepository;
 import sg.edu.ntu.gamify_demo.services.AuthenticationService;
+import sg.edu.ntu.gamify_demo.services.LadderStatusProvisioner;
 
 /**
  * Controller for handling authentication-related endpoints.
@@ -45,12 +46,14 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationService authService;
+    private final LadderStatusProvisioner ladderStatusProvisioner;
 
     public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder, 
-                          AuthenticationService authService) {
+                          AuthenticationService authService, LadderStatusProvisioner ladderStatusProvisioner) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authService = authService;
+        this.ladderStatusProvisioner = ladderStatusProvisioner;
     }
 
     /**
@@ -103,6 +106,9 @@ public class AuthController {
         // Save user to database
         User savedUser = userRepository.save(newUser);
 
+        // Provision the ladder status now so the first dashboard read doesn't have to
+        ladderStatusProvisioner.provision(savedUser.getId());
+
         // Build location URI with full context path
         URI location = ServletUriComponentsBuilder
                 .fromCurrentContextPath()
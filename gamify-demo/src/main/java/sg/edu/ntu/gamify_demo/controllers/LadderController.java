@@ -17,8 +17,13 @@ import org.springframework.web.bind.annotation.RestController;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.services.LadderDistributionService;
+import sg.edu.ntu.gamify_demo.services.LadderRecomputeService;
 import sg.edu.ntu.gamify_demo.services.LadderService; 
+import sg.edu.ntu.gamify_demo.services.LadderStatusProvisioner;
 import sg.edu.ntu.gamify_demo.interfaces.UserService;
+import sg.edu.ntu.gamify_demo.dtos.JobProgressDTO;
+import sg.edu.ntu.gamify_demo.dtos.LadderDistributionDTO;
 import sg.edu.ntu.gamify_demo.dtos.LadderStatusDTO;
 import sg.edu.ntu.gamify_demo.mappers.LadderStatusMapper;
 import sg.edu.ntu.gamify_demo.models.User;
@@ -45,6 +50,15 @@ public class LadderController {
     @Autowired
     private LadderService ladderService;
     
+    @Autowired
+    private LadderRecomputeService ladderRecomputeService;
+    
+    @Autowired
+    private LadderStatusProvisioner ladderStatusProvisioner;
+    
+    @Autowired
+    private LadderDistributionService ladderDistributionService;
+    
     @Autowired
     private GamificationFacade gamificationFacade;
     
@@ -68,6 +82,20 @@ public class LadderController {
         return ResponseEntity.ok(levels);
     }
     
+    /**
+     * Get how many users are at each level, with percentiles of earned points.
+     * 
+     * @return The level distribution.
+     */
+    @GetMapping("/distribution")
+    @Operation(summary = "Get level distribution", 
+              description = "Users per ladder level and earned points percentiles, served from in-memory counters")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved distribution",
+                content = @Content(schema = @Schema(implementation = LadderDistributionDTO.class)))
+    public ResponseEntity<LadderDistributionDTO> getLevelDistribution() {
+        return ResponseEntity.ok(ladderDistributionService.getDistribution());
+    }
+    
     /**
      * Get a user's current ladder status using path variable.
      * 
@@ -307,6 +335,76 @@ public class LadderController {
         }
     }
     
+    /**
+     * Recompute every user's level and points to next level from the current thresholds.
+     * 
+     * @param resume Whether to continue an unfinished run from its checkpoint.
+     * @return The progress of the started run, or an error if a run is already in progress.
+     */
+    @PostMapping("/recompute")
+    @Operation(summary = "Recompute all ladder statuses", 
+              description = "Reassign every user's level and points to next level in chunks, in the background")
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Recompute started",
+                    content = @Content(schema = @Schema(implementation = JobProgressDTO.class))),
+        @ApiResponse(responseCode = "409", description = "A recompute is already in progress")
+    })
+    public ResponseEntity<?> recomputeLadderStatuses(
+        @Parameter(description = "Continue an unfinished run instead of starting over", example = "false")
+        @RequestParam(defaultValue = "false") boolean resume) {
+        JobProgressDTO progress = ladderRecomputeService.start(resume);
+        
+        if (progress == null) {
+            ObjectNode errorJson = objectMapper.createObjectNode();
+            errorJson.put("error", "Recompute in progress");
+            errorJson.put("message", "Wait for the current ladder recompute to finish before starting another");
+            
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorJson);
+        }
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress);
+    }
+    
+    /**
+     * Create the ladder status of every user who doesn't have one yet.
+     * 
+     * @return The number of statuses created.
+     */
+    @PostMapping("/users/backfill")
+    @Operation(summary = "Backfill missing ladder statuses", 
+              description = "Create ladder statuses for all users without one, placed by their earned points")
+    @ApiResponse(responseCode = "200", description = "Backfill completed")
+    public ResponseEntity<ObjectNode> backfillLadderStatuses() {
+        int created = ladderStatusProvisioner.backfill();
+        
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("created", created);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Get the progress of the current or most recent ladder recompute.
+     * 
+     * @return The progress, or 404 if no recompute has run.
+     */
+    @GetMapping("/recompute")
+    @Operation(summary = "Get ladder recompute progress", 
+              description = "Retrieve the checkpointed progress of the current or most recent ladder recompute")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Progress retrieved",
+                    content = @Content(schema = @Schema(implementation = JobProgressDTO.class))),
+        @ApiResponse(responseCode = "404", description = "No recompute has run")
+    })
+    public ResponseEntity<JobProgressDTO> getRecomputeProgress() {
+        JobProgressDTO progress = ladderRecomputeService.getProgress();
+        
+        if (progress == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        return ResponseEntity.ok(progress);
+    }
+    
     /**
      * Exception handler for UserNotFoundException.
      * 
@@ -0,0 +1,191 @@
+package sg.edu.ntu.gamify_demo.controllers;
+
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import sg.edu.ntu.gamify_demo.dtos.LeaderboardEntryDTO;
+import sg.edu.ntu.gamify_demo.models.enums.LeaderboardWindow;
+import sg.edu.ntu.gamify_demo.services.LeaderBoardService;
+import sg.edu.ntu.gamify_demo.services.RollingLeaderboardService;
+
+/**
+ * REST controller for the leaderboard, served from the in-memory per-department rank indexes.
+ * Every entry carries both the global rank and the rank within the user's department.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+@Tag(name = "Leaderboard", description = "Users ranked by earned points")
+public class LeaderboardController {
+
+    private final LeaderBoardService leaderBoardService;
+    private final RollingLeaderboardService rollingLeaderboardService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LeaderboardController(LeaderBoardService leaderBoardService,
+                                 RollingLeaderboardService rollingLeaderboardService,
+                                 ObjectMapper objectMapper) {
+        this.leaderBoardService = leaderBoardService;
+        this.rollingLeaderboardService = rollingLeaderboardService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get the top of the leaderboard.
+     *
+     * @param limit The maximum number of entries.
+     * @return The entries in rank order.
+     */
+    @GetMapping
+    @Operation(summary = "Get top users", description = "The highest-ranked users by earned points; ties share a rank")
+    @ApiResponse(responseCode = "200", description = "Leaderboard retrieved",
+                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = LeaderboardEntryDTO.class))))
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTop(
+            @Parameter(description = "Maximum number of entries (at most 1000)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderBoardService.getTop(limit));
+    }
+
+    /**
+     * Get a user's place on the leaderboard.
+     *
+     * @param userId The ID of the user.
+     * @return The user's entry, or 404 if the user is not ranked.
+     */
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Get user rank", description = "A user's global rank, department rank and earned points")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Entry retrieved",
+                    content = @Content(schema = @Schema(implementation = LeaderboardEntryDTO.class))),
+        @ApiResponse(responseCode = "404", description = "User not ranked")
+    })
+    public ResponseEntity<LeaderboardEntryDTO> getUserEntry(
+            @Parameter(description = "User ID", required = true, example = "user-123")
+            @PathVariable String userId) {
+        LeaderboardEntryDTO entry = leaderBoardService.getUserEntry(userId);
+        return entry != null ? ResponseEntity.ok(entry) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Get the users ranked immediately above and below a user.
+     *
+     * @param userId The ID of the user.
+     * @param radius The number of users on each side.
+     * @return The window in rank order, including the user, or 404 if the user is not ranked.
+     */
+    @GetMapping("/users/{userId}/around")
+    @Operation(summary = "Get users around a user",
+               description = "The user's entry with up to radius users ranked directly above and below")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Window retrieved",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = LeaderboardEntryDTO.class)))),
+        @ApiResponse(responseCode = "404", description = "User not ranked")
+    })
+    public ResponseEntity<List<LeaderboardEntryDTO>> getAround(
+            @Parameter(description = "User ID", required = true, example = "user-123")
+            @PathVariable String userId,
+            @Parameter(description = "Users on each side (at most 100)", example = "5")
+            @RequestParam(defaultValue = "5") int radius) {
+        List<LeaderboardEntryDTO> window = leaderBoardService.getAround(userId, radius);
+        return window != null ? ResponseEntity.ok(window) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Get the top of a department's leaderboard.
+     *
+     * @param department The department.
+     * @param limit The maximum number of entries.
+     * @return The entries in department rank order.
+     */
+    @GetMapping("/departments/{department}")
+    @Operation(summary = "Get top users of a department",
+               description = "The highest-ranked users within a department, with their global ranks")
+    @ApiResponse(responseCode = "200", description = "Department leaderboard retrieved",
+                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = LeaderboardEntryDTO.class))))
+    public ResponseEntity<List<LeaderboardEntryDTO>> getDepartmentTop(
+            @Parameter(description = "Department", required = true, example = "IT")
+            @PathVariable String department,
+            @Parameter(description = "Maximum number of entries (at most 1000)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderBoardService.getDepartmentTop(department, limit));
+    }
+
+    /**
+     * Get the top of a time-windowed leaderboard.
+     *
+     * @param window The window: day, week or month.
+     * @param limit The maximum number of entries.
+     * @return The entries in rank order, ranked by points earned in the window.
+     */
+    @GetMapping("/windows/{window}")
+    @Operation(summary = "Get top users of a time window",
+               description = "The users who earned the most points today, over the last 7 days or over the last 30 days")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Leaderboard retrieved",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = LeaderboardEntryDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown window")
+    })
+    public ResponseEntity<List<LeaderboardEntryDTO>> getWindowTop(
+            @Parameter(description = "Time window: day, week or month", required = true, example = "week")
+            @PathVariable String window,
+            @Parameter(description = "Maximum number of entries (at most 1000)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(rollingLeaderboardService.getTop(LeaderboardWindow.fromName(window), limit));
+    }
+
+    /**
+     * Get a user's place on a time-windowed leaderboard.
+     *
+     * @param window The window: day, week or month.
+     * @param userId The ID of the user.
+     * @return The user's entry, or 404 if the user earned no points in the window.
+     */
+    @GetMapping("/windows/{window}/users/{userId}")
+    @Operation(summary = "Get user rank in a time window", description = "A user's rank by points earned in the window")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Entry retrieved",
+                    content = @Content(schema = @Schema(implementation = LeaderboardEntryDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown window"),
+        @ApiResponse(responseCode = "404", description = "No points earned in the window")
+    })
+    public ResponseEntity<LeaderboardEntryDTO> getWindowUserEntry(
+            @Parameter(description = "Time window: day, week or month", required = true, example = "week")
+            @PathVariable String window,
+            @Parameter(description = "User ID", required = true, example = "user-123")
+            @PathVariable String userId) {
+        LeaderboardEntryDTO entry = rollingLeaderboardService.getUserEntry(LeaderboardWindow.fromName(window), userId);
+        return entry != null ? ResponseEntity.ok(entry) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Rebuild the rank indexes from the users table.
+     *
+     * @return The number of users ranked.
+     */
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild leaderboard",
+               description = "Reload every user's earned points into the rank index, correcting any drift")
+    @ApiResponse(responseCode = "200", description = "Leaderboard rebuilt")
+    public ResponseEntity<ObjectNode> rebuild() {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("usersRanked", leaderBoardService.rebuild());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,150 @@
+package sg.edu.ntu.gamify_demo.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import sg.edu.ntu.gamify_demo.dtos.LedgerBalanceDTO;
+import sg.edu.ntu.gamify_demo.dtos.LedgerVerificationDTO;
+import sg.edu.ntu.gamify_demo.dtos.ReconciliationReportDTO;
+import sg.edu.ntu.gamify_demo.services.LedgerReconciliationService;
+import sg.edu.ntu.gamify_demo.services.PointsLedgerService;
+
+/**
+ * REST controller for the points ledger: balances rebuilt from points transactions,
+ * drift checks against the stored user balances, snapshot maintenance and full reconciliation runs.
+ */
+@RestController
+@RequestMapping("/api/ledger")
+@Tag(name = "Points Ledger", description = "Rebuild and verify balances from the points ledger")
+public class LedgerController {
+
+    private final PointsLedgerService ledgerService;
+    private final LedgerReconciliationService reconciliationService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LedgerController(PointsLedgerService ledgerService,
+                            LedgerReconciliationService reconciliationService,
+                            ObjectMapper objectMapper) {
+        this.ledgerService = ledgerService;
+        this.reconciliationService = reconciliationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get a user's balances as recorded by the ledger.
+     *
+     * @param userId The ID of the user.
+     * @return The ledger balances.
+     */
+    @GetMapping("/users/{userId}/balance")
+    @Operation(summary = "Get ledger balance",
+               description = "Rebuild a user's balances from the latest snapshot plus newer points transactions")
+    @ApiResponse(responseCode = "200", description = "Ledger balance computed",
+                 content = @Content(schema = @Schema(implementation = LedgerBalanceDTO.class)))
+    public ResponseEntity<LedgerBalanceDTO> getLedgerBalance(
+            @Parameter(description = "User ID", required = true, example = "user-123")
+            @PathVariable String userId) {
+        return ResponseEntity.ok(ledgerService.getLedgerBalance(userId));
+    }
+
+    /**
+     * Compare a user's stored balances with the ledger.
+     *
+     * @param userId The ID of the user.
+     * @return The comparison, including drift for each balance.
+     */
+    @GetMapping("/users/{userId}/verify")
+    @Operation(summary = "Verify user balances",
+               description = "Compare the user's earned and available points with the ledger and report any drift")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Verification completed",
+                    content = @Content(schema = @Schema(implementation = LedgerVerificationDTO.class))),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<LedgerVerificationDTO> verifyUser(
+            @Parameter(description = "User ID", required = true, example = "user-123")
+            @PathVariable String userId) {
+        return ResponseEntity.ok(ledgerService.verify(userId));
+    }
+
+    /**
+     * Run a snapshot pass now instead of waiting for the scheduled one.
+     *
+     * @return The number of snapshots advanced and the transaction ID watermark reached.
+     */
+    @PostMapping("/snapshots")
+    @Operation(summary = "Take balance snapshots",
+               description = "Roll per-user balance snapshots forward over the ledger rows of every transaction that has ended")
+    @ApiResponse(responseCode = "200", description = "Snapshot pass completed")
+    public ResponseEntity<ObjectNode> takeSnapshot() {
+        int advanced = ledgerService.takeSnapshot();
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("snapshotsAdvanced", advanced);
+        response.put("xidWatermark", ledgerService.getSnapshotPosition());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Start a reconciliation of every user's balances against the full ledger.
+     *
+     * @param repair Whether mismatched balances should be overwritten with the ledger values.
+     * @return The initial report of the job, or an error if a job is already running.
+     */
+    @PostMapping("/reconciliations")
+    @Operation(summary = "Start ledger reconciliation",
+               description = "Recompute every user's balances from points transactions in parallel id ranges "
+                           + "and report, or optionally repair, the users whose stored balances differ")
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Reconciliation started",
+                    content = @Content(schema = @Schema(implementation = ReconciliationReportDTO.class))),
+        @ApiResponse(responseCode = "409", description = "A reconciliation is already running")
+    })
+    public ResponseEntity<?> startReconciliation(
+            @Parameter(description = "Overwrite mismatched balances with the ledger values", example = "false")
+            @RequestParam(defaultValue = "false") boolean repair) {
+        ReconciliationReportDTO report = reconciliationService.start(repair);
+        if (report == null) {
+            ObjectNode errorJson = objectMapper.createObjectNode();
+            errorJson.put("error", "Reconciliation already running");
+            errorJson.put("message", "Wait for the current reconciliation to finish before starting another");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorJson);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(report);
+    }
+
+    /**
+     * Get the report of the most recent reconciliation.
+     *
+     * @return The report, or 404 if no reconciliation has run since startup.
+     */
+    @GetMapping("/reconciliations/latest")
+    @Operation(summary = "Get latest reconciliation report",
+               description = "Progress and findings of the most recent reconciliation, including one still running")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Report retrieved",
+                    content = @Content(schema = @Schema(implementation = ReconciliationReportDTO.class))),
+        @ApiResponse(responseCode = "404", description = "No reconciliation has run")
+    })
+    public ResponseEntity<ReconciliationReportDTO> getLatestReconciliation() {
+        ReconciliationReportDTO report = reconciliationService.getLatestReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+}
@@ -1,12 +1,18 @@
 package sg.edu.ntu.gamify_demo.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,12 +22,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.services.TaskEventBatchService;
+import sg.edu.ntu.gamify_demo.services.TaskEventIntakeService;
 import sg.edu.ntu.gamify_demo.services.TaskEventService;
+import sg.edu.ntu.gamify_demo.services.TaskEventStreamService;
 import sg.edu.ntu.gamify_demo.dtos.TaskEventDTO;
 import sg.edu.ntu.gamify_demo.dtos.TaskEventResponseDTO;
 import sg.edu.ntu.gamify_demo.mappers.TaskEventMapper;
 import sg.edu.ntu.gamify_demo.models.TaskEvent;
+import sg.edu.ntu.gamify_demo.models.TaskEventIntake;
 
 /**
  * REST controller for task event-related endpoints.
@@ -32,15 +43,26 @@ import sg.edu.ntu.gamify_demo.models.TaskEvent;
 @Tag(name = "Task Events", description = "Operations related to task events processing")
 public class TaskEventController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final TaskEventService taskEventService;
+    private final TaskEventBatchService taskEventBatchService;
+    private final TaskEventStreamService taskEventStreamService;
+    private final TaskEventIntakeService taskEventIntakeService;
     private final TaskEventMapper taskEventMapper;
     private final ObjectMapper objectMapper;
 
     /**
      * Constructor for dependency injection.
      */
-    public TaskEventController(TaskEventService taskEventService, TaskEventMapper taskEventMapper, ObjectMapper objectMapper) {
+    public TaskEventController(TaskEventService taskEventService, TaskEventBatchService taskEventBatchService,
+                               TaskEventStreamService taskEventStreamService,
+                               TaskEventIntakeService taskEventIntakeService,
+                               TaskEventMapper taskEventMapper, ObjectMapper objectMapper) {
         this.taskEventService = taskEventService;
+        this.taskEventBatchService = taskEventBatchService;
+        this.taskEventStreamService = taskEventStreamService;
+        this.taskEventIntakeService = taskEventIntakeService;
         this.taskEventMapper = taskEventMapper;
         this.objectMapper = objectMapper;
     }
@@ -58,6 +80,7 @@ public class TaskEventController {
         @ApiResponse(responseCode = "200", description = "Task event processed successfully",
                     content = @Content(schema = @Schema(implementation = TaskEventResponseDTO.class))),
         @ApiResponse(responseCode = "400", description = "Invalid request format/missing fields"),
+        @ApiResponse(responseCode = "409", description = "A concurrent delivery of the same event is in progress"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<ObjectNode> processTaskEvent(
@@ -72,7 +95,9 @@ public class TaskEventController {
                               "details": "Additional event information"
                           }
                       }""")))
-        @RequestBody JsonNode eventData) {
+        @RequestBody JsonNode eventData,
+        @Parameter(description = "Optional client key; retries with the same key are processed only once")
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             // Validate required fields
             if (!eventData.has("userId") || !eventData.has("taskId") || !eventData.has("event_type")) {
@@ -82,18 +107,174 @@ public class TaskEventController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
-            // Sanitize the event data to remove any control characters
-            String sanitizedJson = eventData.toString().replaceAll("[\\p{Cntrl}&&[^\r\n\t]]", "");
-            JsonNode sanitizedEventData = objectMapper.readTree(sanitizedJson);
-            
-            ObjectNode response = taskEventService.processTaskEvent(sanitizedEventData);
+            // Control characters are already stripped by SanitizingJsonNodeDeserializer
+            ObjectNode response = taskEventService.processTaskEvent(eventData, idempotencyKey);
             
             // Add priority to response if available
-            if (sanitizedEventData.has("data") && sanitizedEventData.get("data").has("priority")) {
-                response.put("priority", sanitizedEventData.get("data").get("priority").asText());
+            if (eventData.has("data") && eventData.get("data").has("priority")) {
+                response.put("priority", eventData.get("data").get("priority").asText());
             }
             
             return ResponseEntity.ok(response);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same event committed first
+            ObjectNode errorResponse = objectMapper.createObjectNode();
+            errorResponse.put("error", "Conflict");
+            errorResponse.put("message", "Duplicate task event is already being processed; retry to get its result");
+            return ResponseEntity.status(409).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            ObjectNode errorResponse = objectMapper.createObjectNode();
+            errorResponse.put("error", "Bad Request");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            ObjectNode errorResponse = objectMapper.createObjectNode();
+            errorResponse.put("error", "Internal Server Error");
+            errorResponse.put("message", "An unexpected error occurred: " + e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    /**
+     * Process a batch of task events.
+     * Events are committed in chunks; each item gets its own result so a bad event
+     * does not fail the rest of the batch.
+     * 
+     * @param events JSON array of events, each in the format accepted by POST /tasks/events.
+     * @return A summary and the per-item results in input order.
+     */
+    @PostMapping("/events/batch")
+    @Operation(summary = "Process task events in bulk", 
+               description = "Processes an array of task events in chunked transactions and returns a result per event")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch processed; inspect per-item results for failures"),
+        @ApiResponse(responseCode = "400", description = "Request body is not a JSON array"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ObjectNode> processTaskEventBatch(
+        @Parameter(description = "Array of events in JSON format", required = true,
+                  content = @Content(schema = @Schema(example = """
+                      [
+                          {
+                              "userId": "123e4567-e89b-12d3-a456-426614174000",
+                              "taskId": "task-789",
+                              "event_type": "TASK_COMPLETED",
+                              "data": { "priority": "HIGH" }
+                          },
+                          {
+                              "userId": "123e4567-e89b-12d3-a456-426614174000",
+                              "taskId": "task-790",
+                              "event_type": "TASK_ASSIGNED"
+                          }
+                      ]""")))
+        @RequestBody JsonNode events) {
+        try {
+            if (events == null || !events.isArray()) {
+                ObjectNode errorResponse = objectMapper.createObjectNode();
+                errorResponse.put("error", "Bad Request");
+                errorResponse.put("message", "Request body must be a JSON array of task events");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
+            // Control characters are already stripped by SanitizingJsonNodeDeserializer
+            ArrayNode results = taskEventBatchService.processBatch(events);
+
+            int succeeded = 0;
+            for (JsonNode result : results) {
+                if (result.path("success").asBoolean(false)) {
+                    succeeded++;
+                }
+            }
+
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("total", results.size());
+            response.put("succeeded", succeeded);
+            response.put("failed", results.size() - succeeded);
+            response.put("chunkSize", taskEventBatchService.getChunkSize());
+            response.set("results", results);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ObjectNode errorResponse = objectMapper.createObjectNode();
+            errorResponse.put("error", "Bad Request");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            ObjectNode errorResponse = objectMapper.createObjectNode();
+            errorResponse.put("error", "Internal Server Error");
+            errorResponse.put("message", "An unexpected error occurred: " + e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    /**
+     * Process a stream of newline-delimited JSON task events.
+     * Events are committed in fixed-size windows and a result line is streamed back for
+     * each event as soon as its window commits, followed by a summary line.
+     * 
+     * @param body The NDJSON request body.
+     * @return The NDJSON results.
+     * @throws IOException If the request body cannot be opened.
+     */
+    @PostMapping(value = "/events/stream", consumes = NDJSON, produces = NDJSON)
+    @Operation(summary = "Stream task events", 
+               description = "Processes newline-delimited JSON task events in windowed transactions and streams NDJSON results back")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream accepted; inspect per-line results and the summary line for failures")
+    })
+    public ResponseEntity<StreamingResponseBody> processTaskEventStream(
+        @Parameter(description = "One task event per line, each in the format accepted by POST /tasks/events", required = true,
+                  content = @Content(schema = @Schema(example = """
+                      {"userId": "123e4567-e89b-12d3-a456-426614174000", "taskId": "task-789", "event_type": "TASK_COMPLETED"}
+                      {"userId": "123e4567-e89b-12d3-a456-426614174000", "taskId": "task-790", "event_type": "TASK_ASSIGNED"}""")))
+        InputStream body) throws IOException {
+        StreamingResponseBody stream = output -> taskEventStreamService.processStream(body, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(stream);
+    }
+
+    /**
+     * Accept a task event for asynchronous processing.
+     * The event is stored in the intake queue and acknowledged immediately; points, ladder
+     * and achievement updates happen in the background.
+     * 
+     * @param eventData JSON data containing userId, taskId, eventType, and additional event data.
+     * @return The tracking ID and where to poll for the outcome.
+     */
+    @PostMapping("/events/async")
+    @Operation(summary = "Queue task event", 
+               description = "Accepts a task event for background processing and returns a tracking ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Task event accepted for processing"),
+        @ApiResponse(responseCode = "400", description = "Invalid request format/missing fields"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ObjectNode> queueTaskEvent(
+        @Parameter(description = "Event data in JSON format", required = true,
+                  content = @Content(schema = @Schema(example = """
+                      {
+                          "userId": "123e4567-e89b-12d3-a456-426614174000",
+                          "taskId": "task-789",
+                          "event_type": "TASK_COMPLETED",
+                          "data": {
+                              "priority": "HIGH"
+                          }
+                      }""")))
+        @RequestBody JsonNode eventData,
+        @Parameter(description = "Optional client key; retries with the same key are processed only once")
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            // Control characters are already stripped by SanitizingJsonNodeDeserializer
+            if (idempotencyKey != null && eventData.isObject()) {
+                ((ObjectNode) eventData).put("idempotency_key", idempotencyKey);
+            }
+            TaskEventIntake intake = taskEventIntakeService.submit(eventData);
+
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("trackingId", intake.getTrackingId());
+            response.put("status", intake.getStatus().toString());
+            response.put("statusUrl", "/tasks/events/async/" + intake.getTrackingId());
+            return ResponseEntity.accepted().body(response);
         } catch (IllegalArgumentException e) {
             ObjectNode errorResponse = objectMapper.createObjectNode();
             errorResponse.put("error", "Bad Request");
@@ -107,6 +288,49 @@ public class TaskEventController {
         }
     }
 
+    /**
+     * Get the processing status of a queued task event.
+     * 
+     * @param trackingId The tracking ID returned when the event was queued.
+     * @return The status, plus the pipeline result or error once processing has finished.
+     */
+    @GetMapping("/events/async/{trackingId}")
+    @Operation(summary = "Get queued task event status", 
+              description = "Reports whether a queued task event is pending, processing, completed or failed")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved status"),
+        @ApiResponse(responseCode = "404", description = "Tracking ID not found")
+    })
+    public ResponseEntity<ObjectNode> getQueuedTaskEventStatus(
+        @Parameter(description = "Tracking ID of the queued event", example = "123e4567-e89b-12d3-a456-426614174000")
+        @PathVariable String trackingId) {
+        TaskEventIntake intake = taskEventIntakeService.getByTrackingId(trackingId);
+        if (intake == null) {
+            ObjectNode errorResponse = objectMapper.createObjectNode();
+            errorResponse.put("error", "Not Found");
+            errorResponse.put("message", "No queued task event with tracking ID: " + trackingId);
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("trackingId", intake.getTrackingId());
+        response.put("status", intake.getStatus().toString());
+        response.put("attempts", intake.getAttempts());
+        if (intake.getCreatedAt() != null) {
+            response.put("acceptedAt", intake.getCreatedAt().toString());
+        }
+        if (intake.getProcessedAt() != null) {
+            response.put("processedAt", intake.getProcessedAt().toString());
+        }
+        if (intake.getResult() != null) {
+            response.set("result", intake.getResult());
+        }
+        if (intake.getError() != null) {
+            response.put("error", intake.getError());
+        }
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get a task event by its ID.
      * 
@@ -0,0 +1,27 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import java.time.ZonedDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+
+/**
+ * Progress of a chunked background job, as recorded by its checkpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobProgressDTO {
+    private String jobName;
+    private JobStatus status;
+    private String cursor;
+    private long processedCount;
+    private long changedCount;
+    private ZonedDateTime startedAt;
+    private ZonedDateTime updatedAt;
+    private ZonedDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How users are spread over the ladder: the count at each level and percentiles of earned points.
+ * Percentiles are bucketed, so they are accurate to within about 12% of the value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LadderDistributionDTO {
+    private long totalUsers;
+    private List<LevelCountDTO> levels;
+    private Map<String, Long> earnedPointsPercentiles;
+    private ZonedDateTime reconciledAt;
+}
@@ -0,0 +1,23 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's place on the leaderboard: the global rank and the rank within the user's department.
+ * Time-windowed leaderboards have no department rank.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardEntryDTO {
+    private long rank;
+    private Long departmentRank;
+    private String userId;
+    private String username;
+    private String department;
+    private long earnedPoints;
+}
@@ -0,0 +1,20 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's balances as rebuilt from the points ledger: the latest snapshot plus newer rows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerBalanceDTO {
+    private String userId;
+    private Long snapshotLedgerSeq;
+    private Long earnedPoints;
+    private Long availablePoints;
+}
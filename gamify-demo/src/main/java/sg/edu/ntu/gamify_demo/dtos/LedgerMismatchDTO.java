@@ -0,0 +1,22 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user whose stored balances disagree with the sums of their points transactions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerMismatchDTO {
+    private String userId;
+    private Long userEarnedPoints;
+    private Long userAvailablePoints;
+    private Long ledgerEarnedPoints;
+    private Long ledgerAvailablePoints;
+    private boolean repaired;
+}
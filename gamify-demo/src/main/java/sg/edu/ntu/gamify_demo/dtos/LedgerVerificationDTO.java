@@ -0,0 +1,25 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Comparison of a user's ledger balances with the balances stored on the user.
+ * Drift is the stored value (plus any write-behind points not yet flushed) minus the ledger value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerVerificationDTO {
+    private String userId;
+    private LedgerBalanceDTO ledger;
+    private Long userEarnedPoints;
+    private Long userAvailablePoints;
+    private Long pendingWriteBehindPoints;
+    private Long earnedDrift;
+    private Long availableDrift;
+    private boolean consistent;
+}
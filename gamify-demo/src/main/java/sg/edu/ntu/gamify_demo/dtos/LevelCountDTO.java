@@ -0,0 +1,19 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The number of users at one ladder level.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LevelCountDTO {
+    private Long level;
+    private String label;
+    private long userCount;
+}
@@ -0,0 +1,32 @@
+package sg.edu.ntu.gamify_demo.dtos;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+
+/**
+ * Progress and findings of a ledger reconciliation run.
+ * Only the first mismatches are listed; mismatchCount covers all of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReportDTO {
+    private String jobId;
+    private JobStatus status;
+    private boolean repair;
+    private ZonedDateTime startedAt;
+    private ZonedDateTime finishedAt;
+    private long rangesCompleted;
+    private long usersChecked;
+    private long mismatchCount;
+    private long repairedCount;
+    private long skippedCount;
+    private List<LedgerMismatchDTO> mismatches;
+    private String error;
+}
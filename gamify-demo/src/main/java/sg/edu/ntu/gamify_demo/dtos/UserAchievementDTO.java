@@ -21,4 +21,6 @@ public class UserAchievementDTO {
     private List<AchievementDTO> achievements;
     private int totalAchievements;
     private int earnedAchievements;
+    private int currentStreak;
+    private int longestStreak;
 }
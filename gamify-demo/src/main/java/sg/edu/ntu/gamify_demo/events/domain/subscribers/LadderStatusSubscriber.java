@@ -31,7 +31,7 @@ public class LadderStatusSubscriber implements DomainEventSubscriber<PointsEarne
     @Override
     public void onEvent(PointsEarnedEvent event) {
         User user = event.getUser();
-        ladderStatusService.updateUserLadderStatus(user.getId());
+        ladderStatusService.requestLadderStatusUpdate(user.getId());
     }
     
     /**
@@ -0,0 +1,47 @@
+package sg.edu.ntu.gamify_demo.events.domain.subscribers;
+
+import org.springframework.stereotype.Component;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEvent;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEventSubscriber;
+import sg.edu.ntu.gamify_demo.events.domain.PointsEarnedEvent;
+import sg.edu.ntu.gamify_demo.services.LeaderBoardService;
+
+/**
+ * Subscriber for PointsEarnedEvent to keep the leaderboard ranks current.
+ * This follows the Observer pattern to react to points being earned.
+ */
+@Component
+public class LeaderboardSubscriber implements DomainEventSubscriber<PointsEarnedEvent> {
+    
+    private final LeaderBoardService leaderBoardService;
+    
+    /**
+     * Constructor for dependency injection.
+     */
+    public LeaderboardSubscriber(LeaderBoardService leaderBoardService) {
+        this.leaderBoardService = leaderBoardService;
+    }
+    
+    /**
+     * Handle a PointsEarnedEvent by re-ranking the user.
+     * The user's earned points are used rather than the event's total, which some
+     * publishers fill with available points.
+     * 
+     * @param event The PointsEarnedEvent.
+     */
+    @Override
+    public void onEvent(PointsEarnedEvent event) {
+        leaderBoardService.recordScore(event.getUser());
+    }
+    
+    /**
+     * Check if this subscriber is interested in a specific type of domain event.
+     * 
+     * @param eventType The class of the domain event.
+     * @return True if this subscriber is interested in PointsEarnedEvent, false otherwise.
+     */
+    @Override
+    public boolean isInterestedIn(Class<? extends DomainEvent> eventType) {
+        return eventType == PointsEarnedEvent.class;
+    }
+}
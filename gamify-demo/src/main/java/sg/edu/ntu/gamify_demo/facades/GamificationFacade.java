@@ -108,8 +108,8 @@ public class GamificationFacade {
             // Award points to the user
             pointsService.awardPoints(userId, points, "TASK_COMPLETED", metadata);
             
-            // Update the user's ladder status
-            updateUserLadderStatus(userId);
+            // Update the user's ladder status; coalesced with the update the award requested
+            ladderStatusService.requestLadderStatusUpdate(userId);
         }
         
         return taskEvent;
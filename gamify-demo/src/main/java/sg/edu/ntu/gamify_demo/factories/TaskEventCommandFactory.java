@@ -10,11 +10,10 @@ import sg.edu.ntu.gamify_demo.commands.RecordTransactionCommand;
 import sg.edu.ntu.gamify_demo.commands.TaskAssignedCommand;
 import sg.edu.ntu.gamify_demo.commands.TaskEventCommand;
 import sg.edu.ntu.gamify_demo.commands.UpdateLadderStatusCommand;
-import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
 import sg.edu.ntu.gamify_demo.interfaces.LadderStatusService;
 import sg.edu.ntu.gamify_demo.models.User;
-import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
 import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+import sg.edu.ntu.gamify_demo.services.TaskCompletionCounter;
 import sg.edu.ntu.gamify_demo.strategies.task.TaskPointsCalculationStrategy;
 
 /**
@@ -25,31 +24,28 @@ import sg.edu.ntu.gamify_demo.strategies.task.TaskPointsCalculationStrategy;
 public class TaskEventCommandFactory {
     
     private final TaskEventRepository taskEventRepository;
-    private final PointsTransactionRepository pointsTransactionRepository;
     private final TaskPointsCalculationStrategy pointsCalculationStrategy;
     private final PointsService pointsService;
     private final LadderStatusService ladderStatusService;
     private final ObjectMapper objectMapper;
-    private final DomainEventPublisher domainEventPublisher;
+    private final TaskCompletionCounter taskCompletionCounter;
     
     /**
      * Constructor for dependency injection.
      */
     public TaskEventCommandFactory(
             TaskEventRepository taskEventRepository,
-            PointsTransactionRepository pointsTransactionRepository,
             TaskPointsCalculationStrategy pointsCalculationStrategy,
             PointsService pointsService,
             LadderStatusService ladderStatusService,
             ObjectMapper objectMapper,
-            DomainEventPublisher domainEventPublisher) {
+            TaskCompletionCounter taskCompletionCounter) {
         this.taskEventRepository = taskEventRepository;
-        this.pointsTransactionRepository = pointsTransactionRepository;
         this.pointsCalculationStrategy = pointsCalculationStrategy;
         this.pointsService = pointsService;
         this.ladderStatusService = ladderStatusService;
         this.objectMapper = objectMapper;
-        this.domainEventPublisher = domainEventPublisher;
+        this.taskCompletionCounter = taskCompletionCounter;
     }
     
     /**
@@ -63,6 +59,22 @@ public class TaskEventCommandFactory {
      * @throws IllegalArgumentException If the event type is not supported.
      */
     public TaskEventCommand createCommand(String eventType, User user, String taskId, JsonNode eventData) {
+        return createCommand(eventType, user, taskId, eventData, null);
+    }
+    
+    /**
+     * Create a command for processing a task event that is recorded under an idempotency key.
+     * 
+     * @param eventType The type of event.
+     * @param user The user associated with the event.
+     * @param taskId The ID of the task.
+     * @param eventData Additional data about the event.
+     * @param idempotencyKey Key stored on the resulting task event, or null.
+     * @return The appropriate command for the event type.
+     * @throws IllegalArgumentException If the event type is not supported.
+     */
+    public TaskEventCommand createCommand(String eventType, User user, String taskId, JsonNode eventData,
+                                          String idempotencyKey) {
         switch (eventType) {
             case "TASK_COMPLETED":
                 // Create individual commands
@@ -71,7 +83,9 @@ public class TaskEventCommandFactory {
                         taskId,
                         eventData,
                         taskEventRepository,
-                        pointsCalculationStrategy);
+                        pointsCalculationStrategy,
+                        idempotencyKey,
+                        taskCompletionCounter);
                 
                 // Get the points from the calculation command
                 Long points = calculatePointsCommand.getCalculatedPoints();
@@ -81,9 +95,7 @@ public class TaskEventCommandFactory {
                         taskId,
                         eventData,
                         points,
-                        pointsTransactionRepository,
                         pointsService,
-                        domainEventPublisher,
                         objectMapper);
                 
                 // Check if ladder status update should be skipped
@@ -109,7 +121,8 @@ public class TaskEventCommandFactory {
                         user,
                         taskId,
                         eventData,
-                        taskEventRepository);
+                        taskEventRepository,
+                        idempotencyKey);
                 
             default:
                 throw new IllegalArgumentException("Unsupported event type: " + eventType);
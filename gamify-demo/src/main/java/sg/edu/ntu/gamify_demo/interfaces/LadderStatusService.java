@@ -23,4 +23,13 @@ public interface LadderStatusService {
      * @return The updated ladder status as a DTO, or null if the user doesn't exist.
      */
     LadderStatusDTO updateUserLadderStatus(String userId);
+    
+    /**
+     * Request an update of a user's ladder status.
+     * Within a transaction the update is deferred to commit and runs once per user,
+     * however many times it is requested; otherwise it runs immediately.
+     * 
+     * @param userId The ID of the user.
+     */
+    void requestLadderStatusUpdate(String userId);
 }
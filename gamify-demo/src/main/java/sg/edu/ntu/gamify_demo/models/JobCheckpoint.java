@@ -0,0 +1,58 @@
+package sg.edu.ntu.gamify_demo.models;
+
+import java.time.ZonedDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+
+/**
+ * The JobCheckpoint class records the progress of a chunked background job.
+ * The cursor is the last key the job finished, so a run interrupted by a restart
+ * can resume after it instead of starting over.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private JobStatus status;
+
+    @Column(name = "cursor")
+    private String cursor;
+
+    @Column(name = "processed_count", nullable = false)
+    private long processedCount;
+
+    @Column(name = "changed_count", nullable = false)
+    private long changedCount;
+
+    @Column(name = "started_at", nullable = false)
+    private ZonedDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private ZonedDateTime finishedAt;
+
+    @Column(name = "error", columnDefinition = "text")
+    private String error;
+}
@@ -0,0 +1,47 @@
+package sg.edu.ntu.gamify_demo.models;
+
+import java.time.ZonedDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The PointsBalanceSnapshot class holds a user's balances as summed from the points ledger
+ * rows written by transactions with an ID below a watermark; every such transaction had
+ * ended when the snapshot was taken, so the set of rows it covers can no longer change.
+ * A user's current ledger balance is the snapshot plus the rows at or above the watermark.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "points_balance_snapshots")
+public class PointsBalanceSnapshot {
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Column(name = "ledger_seq", nullable = false)
+    private Long ledgerSeq;
+
+    @Column(name = "earned_points", nullable = false)
+    private Long earnedPoints;
+
+    @Column(name = "available_points", nullable = false)
+    private Long availablePoints;
+
+    @Column(name = "taken_at", nullable = false)
+    private ZonedDateTime takenAt;
+
+    // Rows written by transactions with a lower ID are included; ledgerSeq is the latest of them
+    @Column(name = "xid_watermark", nullable = false)
+    private Long xidWatermark;
+}
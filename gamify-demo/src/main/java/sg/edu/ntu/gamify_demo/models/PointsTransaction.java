@@ -3,6 +3,8 @@ package sg.edu.ntu.gamify_demo.models;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
@@ -10,6 +12,7 @@ import org.hibernate.annotations.Type;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -22,6 +25,8 @@ import lombok.Setter;
 /**
  * The PointsTransaction class represents a transaction that affects a user's points.
  * It records point earnings and redemptions with metadata about the event.
+ * Rows are append-only; the database-assigned ledger sequence orders them, and the ID of the
+ * database transaction that wrote each row decides which balance snapshots include it.
  */
 @Getter
 @Setter
@@ -29,7 +34,11 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "points_transactions")
+@Table(name = "points_transactions", indexes = {
+    @Index(name = "idx_points_transactions_ledger_seq", columnList = "ledger_seq"),
+    @Index(name = "idx_points_transactions_user_ledger_seq", columnList = "user_id, ledger_seq"),
+    @Index(name = "idx_points_transactions_xid", columnList = "xid")
+})
 public class PointsTransaction {
     @Id
     @Column(name = "transaction_id")
@@ -57,6 +66,19 @@ public class PointsTransaction {
     @Column(name = "created_at")
     private ZonedDateTime createdAt;
     
+    // Read back after the insert, so listeners can tell which rows a ledger read covered
+    @Generated(event = EventType.INSERT)
+    @Column(name = "ledger_seq", insertable = false, updatable = false, columnDefinition = "bigserial")
+    private Long ledgerSeq;
+    
+    @Column(name = "xid", insertable = false, updatable = false)
+    private Long xid;
+    
+    // False while a write-behind award is recorded here but not yet added to the user's balances
+    @Builder.Default
+    @Column(name = "applied", nullable = false)
+    private boolean applied = true;
+    
     /**
      * Constructs a PointsTransaction with the provided details.
      * 
@@ -72,5 +94,6 @@ public class PointsTransaction {
         this.points = points;
         this.timestamp = ZonedDateTime.now();
         this.metadata = metadata;
+        this.applied = true;
     }
 }
@@ -0,0 +1,38 @@
+package sg.edu.ntu.gamify_demo.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The TaskCompletionCount class holds the number of task events a user has completed,
+ * either of one task type or, under the task type "", of every type.
+ * Counts are incremented in the transaction that saves the completed task event.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(TaskCompletionCountId.class)
+@Table(name = "task_completion_counts")
+public class TaskCompletionCount {
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Id
+    @Column(name = "task_type")
+    private String taskType;
+
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount;
+}
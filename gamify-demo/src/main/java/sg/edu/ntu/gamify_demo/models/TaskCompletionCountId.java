@@ -0,0 +1,26 @@
+package sg.edu.ntu.gamify_demo.models;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Composite key class for TaskCompletionCount.
+ * This class represents the composite primary key for the task_completion_counts table,
+ * which consists of user_id and task_type.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaskCompletionCountId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Field names must match the property names in TaskCompletionCount entity
+    private String userId;
+    private String taskType;
+}
@@ -78,6 +78,9 @@ public class TaskEvent {
     @Column(name = "points_earned")
     private Long pointsEarned;
     
+    @Column(name = "idempotency_key", length = 512, unique = true)
+    private String idempotencyKey;
+    
     /**
      * Constructs a TaskEvent for a task assignment.
      * 
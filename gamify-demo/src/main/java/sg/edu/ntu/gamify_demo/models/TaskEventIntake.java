@@ -0,0 +1,132 @@
+package sg.edu.ntu.gamify_demo.models;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import sg.edu.ntu.gamify_demo.models.enums.IntakeStatus;
+
+/**
+ * The TaskEventIntake class represents a raw task event accepted for asynchronous processing.
+ * The generated ID doubles as the arrival sequence, so workers can replay a user's events in order.
+ * An entry being processed is leased to the instance that claimed it; a lease that is not
+ * finished in time expires and the entry is claimed again.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "task_event_intake", indexes = {
+    @Index(name = "idx_task_event_intake_tracking_id", columnList = "tracking_id", unique = true),
+    @Index(name = "idx_task_event_intake_status_id", columnList = "status, id")
+})
+public class TaskEventIntake {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "tracking_id", nullable = false, length = 36)
+    private String trackingId;
+
+    @Column(name = "user_id", nullable = false, length = 36)
+    private String userId;
+
+    @Type(JsonType.class)
+    @Column(name = "payload", columnDefinition = "json", nullable = false)
+    private JsonNode payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private IntakeStatus status;
+
+    @Type(JsonType.class)
+    @Column(name = "result", columnDefinition = "json")
+    private JsonNode result;
+
+    @Column(name = "error", columnDefinition = "text")
+    private String error;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private ZonedDateTime claimedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private ZonedDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private ZonedDateTime processedAt;
+
+    /**
+     * Constructs a pending intake entry for a raw task event.
+     * 
+     * @param userId The ID of the user the event belongs to.
+     * @param payload The raw event as submitted by the client.
+     */
+    public TaskEventIntake(String userId, JsonNode payload) {
+        this.trackingId = UUID.randomUUID().toString();
+        this.userId = userId;
+        this.payload = payload;
+        this.status = IntakeStatus.PENDING;
+        this.attempts = 0;
+    }
+
+    /**
+     * Marks this entry as processed successfully.
+     * 
+     * @param result The response produced by the task event pipeline.
+     */
+    public void markCompleted(JsonNode result) {
+        this.status = IntakeStatus.COMPLETED;
+        this.result = result;
+        this.error = null;
+        this.processedAt = ZonedDateTime.now();
+    }
+
+    /**
+     * Returns this entry to the queue after a failed attempt, to be claimed again.
+     * 
+     * @param error The reason the attempt failed.
+     */
+    public void markForRetry(String error) {
+        this.status = IntakeStatus.PENDING;
+        this.error = error;
+        this.claimedBy = null;
+        this.claimedAt = null;
+    }
+
+    /**
+     * Marks this entry as failed.
+     * 
+     * @param error The reason processing failed.
+     */
+    public void markFailed(String error) {
+        this.status = IntakeStatus.FAILED;
+        this.error = error;
+        this.processedAt = ZonedDateTime.now();
+    }
+}
@@ -0,0 +1,43 @@
+package sg.edu.ntu.gamify_demo.models;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The UserStreak class holds a user's run of consecutive active days, a day being active
+ * if the user recorded a points transaction on it. The current streak is the run ending
+ * on the last active date; it is broken once a whole day passes without activity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_streaks")
+public class UserStreak {
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Column(name = "last_active_date", nullable = false)
+    private LocalDate lastActiveDate;
+
+    @Column(name = "current_streak", nullable = false)
+    private Integer currentStreak;
+
+    @Column(name = "longest_streak", nullable = false)
+    private Integer longestStreak;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package sg.edu.ntu.gamify_demo.models.enums;
+
+/**
+ * Enum representing the possible statuses of a queued task event.
+ */
+public enum IntakeStatus {
+    /**
+     * The event has been accepted and is waiting for a worker.
+     */
+    PENDING,
+
+    /**
+     * The event has been claimed by a worker and is being processed.
+     */
+    PROCESSING,
+
+    /**
+     * The event has been processed successfully.
+     */
+    COMPLETED,
+
+    /**
+     * The event could not be processed.
+     */
+    FAILED
+}
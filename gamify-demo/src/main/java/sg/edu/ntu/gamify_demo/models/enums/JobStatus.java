@@ -0,0 +1,21 @@
+package sg.edu.ntu.gamify_demo.models.enums;
+
+/**
+ * Enum representing the possible statuses of a background admin job.
+ */
+public enum JobStatus {
+    /**
+     * The job has started and has not finished yet.
+     */
+    RUNNING,
+
+    /**
+     * The job finished and its report is complete.
+     */
+    COMPLETED,
+
+    /**
+     * The job stopped because of an error; its report covers the work done before it.
+     */
+    FAILED
+}
@@ -0,0 +1,48 @@
+package sg.edu.ntu.gamify_demo.models.enums;
+
+/**
+ * Enum representing the rolling time windows of the time-windowed leaderboards.
+ * Each window covers the current day and the days before it, ending at midnight.
+ */
+public enum LeaderboardWindow {
+    /**
+     * Points earned today.
+     */
+    DAY(1),
+
+    /**
+     * Points earned over the last 7 days, including today.
+     */
+    WEEK(7),
+
+    /**
+     * Points earned over the last 30 days, including today.
+     */
+    MONTH(30);
+
+    private final int days;
+
+    LeaderboardWindow(int days) {
+        this.days = days;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Parse a window name, ignoring case.
+     *
+     * @param name The name, such as "week".
+     * @return The window.
+     * @throws IllegalArgumentException If the name is not a window.
+     */
+    public static LeaderboardWindow fromName(String name) {
+        for (LeaderboardWindow window : values()) {
+            if (window.name().equalsIgnoreCase(name)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Unknown leaderboard window: " + name + " (expected day, week or month)");
+    }
+}
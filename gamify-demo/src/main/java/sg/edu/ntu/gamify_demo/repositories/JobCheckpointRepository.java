@@ -0,0 +1,12 @@
+package sg.edu.ntu.gamify_demo.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+
+/**
+ * Repository for JobCheckpoint entities, keyed by job name.
+ */
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -4,7 +4,9 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import sg.edu.ntu.gamify_demo.models.Leaderboard;
 import sg.edu.ntu.gamify_demo.models.User;
 
@@ -46,4 +48,57 @@ public interface LeaderboardRepository extends JpaRepository<Leaderboard, String
      */
     @Query(value = "SELECT l FROM Leaderboard l ORDER BY l.rank ASC LIMIT ?1")
     List<Leaderboard> findTopUsers(int limit);
+    
+    /**
+     * Outcome of syncing one chunk of leaderboard entries.
+     */
+    interface SyncChunk {
+        String getLastUserId();
+        Long getLastEarnedPoints();
+        Long getLastRank();
+        Long getScanned();
+        Long getChanged();
+    }
+    
+    /**
+     * Sync the leaderboard entries of the next chunk of users, in rank order, with their
+     * user rows. Ranks are computed with RANK() over the chunk and offset by the number of
+     * users in earlier chunks; users tied with the last user of the previous chunk share its rank.
+     * Only entries whose values actually change are written.
+     * 
+     * @param afterEarnedPoints The earned points of the last user of the previous chunk (Long.MAX_VALUE to start).
+     * @param afterUserId The ID of the last user of the previous chunk ("" to start).
+     * @param afterRank The rank of the last user of the previous chunk (0 to start).
+     * @param usersBefore The number of users in earlier chunks.
+     * @param limit The maximum number of users in the chunk.
+     * @return The last user of the chunk with their rank (nulls once no users remain), and the rows scanned and changed.
+     */
+    @Transactional
+    @Query(value = "WITH batch AS ("
+            + "SELECT id, username, department, earned_points, RANK() OVER (ORDER BY earned_points DESC) AS local_rank "
+            + "FROM users WHERE earned_points <= :afterEarnedPoints "
+            + "AND (earned_points < :afterEarnedPoints OR id > :afterUserId) "
+            + "ORDER BY earned_points DESC, id LIMIT :limit), "
+            + "ranked AS ("
+            + "SELECT b.id, b.username, b.department, b.earned_points, "
+            + "CASE WHEN b.earned_points = :afterEarnedPoints THEN CAST(:afterRank AS bigint) "
+            + "ELSE CAST(:usersBefore AS bigint) + b.local_rank END AS rank, "
+            + "ROW_NUMBER() OVER (ORDER BY b.earned_points, b.id DESC) AS from_end "
+            + "FROM batch b), "
+            + "updated AS ("
+            + "UPDATE leaderboard l SET username = r.username, department = r.department, "
+            + "earned_points = r.earned_points, rank = r.rank "
+            + "FROM ranked r WHERE l.user_id = r.id AND (l.username <> r.username "
+            + "OR l.department IS DISTINCT FROM r.department OR l.earned_points <> r.earned_points OR l.rank <> r.rank) "
+            + "RETURNING l.user_id) "
+            + "SELECT (SELECT id FROM ranked WHERE from_end = 1) AS \"lastUserId\", "
+            + "(SELECT earned_points FROM ranked WHERE from_end = 1) AS \"lastEarnedPoints\", "
+            + "(SELECT rank FROM ranked WHERE from_end = 1) AS \"lastRank\", "
+            + "(SELECT COUNT(*) FROM batch) AS \"scanned\", "
+            + "(SELECT COUNT(*) FROM updated) AS \"changed\"", nativeQuery = true)
+    SyncChunk syncChunk(@Param("afterEarnedPoints") long afterEarnedPoints,
+                        @Param("afterUserId") String afterUserId,
+                        @Param("afterRank") long afterRank,
+                        @Param("usersBefore") long usersBefore,
+                        @Param("limit") int limit);
 }
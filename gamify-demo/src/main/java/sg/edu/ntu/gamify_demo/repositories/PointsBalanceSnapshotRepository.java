@@ -0,0 +1,42 @@
+package sg.edu.ntu.gamify_demo.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import sg.edu.ntu.gamify_demo.models.PointsBalanceSnapshot;
+
+/**
+ * Repository for PointsBalanceSnapshot entities.
+ */
+@Repository
+public interface PointsBalanceSnapshotRepository extends JpaRepository<PointsBalanceSnapshot, String> {
+
+    /**
+     * Roll every user's snapshot forward to a transaction ID watermark in one statement.
+     * Only ledger rows between a user's current watermark and the new one are summed,
+     * so each run reads the transactions recorded since the previous one.
+     *
+     * @param watermark A transaction ID below which every transaction has ended (exclusive).
+     * @return The number of snapshots created or advanced.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO points_balance_snapshots "
+            + "(user_id, ledger_seq, xid_watermark, earned_points, available_points, taken_at) "
+            + "SELECT t.user_id, GREATEST(COALESCE(MAX(s.ledger_seq), 0), MAX(t.ledger_seq)), :watermark, "
+            + "COALESCE(MAX(s.earned_points), 0) + SUM(CASE WHEN t.points > 0 THEN t.points ELSE 0 END), "
+            + "COALESCE(MAX(s.available_points), 0) + SUM(t.points), "
+            + "CURRENT_TIMESTAMP "
+            + "FROM points_transactions t "
+            + "LEFT JOIN points_balance_snapshots s ON s.user_id = t.user_id "
+            + "WHERE t.xid >= COALESCE(s.xid_watermark, 0) AND t.xid < :watermark "
+            + "GROUP BY t.user_id "
+            + "ON CONFLICT (user_id) DO UPDATE SET ledger_seq = EXCLUDED.ledger_seq, "
+            + "xid_watermark = EXCLUDED.xid_watermark, "
+            + "earned_points = EXCLUDED.earned_points, available_points = EXCLUDED.available_points, "
+            + "taken_at = EXCLUDED.taken_at", nativeQuery = true)
+    int advanceTo(@Param("watermark") long watermark);
+}
@@ -1,9 +1,14 @@
 package sg.edu.ntu.gamify_demo.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import sg.edu.ntu.gamify_demo.models.PointsTransaction;
 import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 /**
@@ -36,4 +41,123 @@ public interface PointsTransactionRepository extends JpaRepository<PointsTransac
      * @return A list of points transactions for the user and event type.
      */
     List<PointsTransaction> findByUserAndEventType(User user, String eventType);
+    
+    /**
+     * Get the oldest transaction ID still in progress. Every transaction with a lower ID has
+     * committed or rolled back, so the ledger rows they wrote are final.
+     * 
+     * @return The xmin of the current snapshot.
+     */
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long findFinishedXidWatermark();
+    
+    /**
+     * Sum a user's ledger rows written by transactions at or above a watermark.
+     * Earned points count only positive rows; available points count every row.
+     * 
+     * @param userId The ID of the user.
+     * @param watermark The transaction ID to start from (inclusive).
+     * @return The earned and available deltas.
+     */
+    @Query(value = "SELECT CAST(COALESCE(SUM(CASE WHEN points > 0 THEN points ELSE 0 END), 0) AS bigint) AS \"earnedPoints\", "
+            + "CAST(COALESCE(SUM(points), 0) AS bigint) AS \"availablePoints\" "
+            + "FROM points_transactions WHERE user_id = :userId AND xid >= :watermark", nativeQuery = true)
+    PointsBalance sumPointsSince(@Param("userId") String userId, @Param("watermark") long watermark);
+    
+    /**
+     * Points a user earned on one day, and the latest ledger row they were summed from.
+     */
+    interface DailyPoints {
+        String getUserId();
+        Long getEpochDay();
+        Long getPoints();
+        Long getMaxLedgerSeq();
+    }
+    
+    /**
+     * Sum the points each user earned per day since a point in time.
+     * Days are calendar days in the given zone, numbered from 1970-01-01; spends are ignored.
+     * 
+     * @param since The earliest transaction time to include.
+     * @param zone The time zone name the days are counted in.
+     * @return One row per user and day with earned points and the highest ledger sequence summed.
+     */
+    @Query(value = "SELECT user_id AS \"userId\", "
+            + "CAST(CAST(created_at AT TIME ZONE :zone AS date) - DATE '1970-01-01' AS bigint) AS \"epochDay\", "
+            + "CAST(SUM(points) AS bigint) AS \"points\", "
+            + "MAX(ledger_seq) AS \"maxLedgerSeq\" "
+            + "FROM points_transactions WHERE created_at >= :since AND points > 0 "
+            + "GROUP BY 1, 2", nativeQuery = true)
+    List<DailyPoints> sumDailyEarnedPointsSince(@Param("since") ZonedDateTime since, @Param("zone") String zone);
+    
+    /**
+     * A user whose stored balances differ from the sums of their ledger rows.
+     */
+    interface LedgerMismatch {
+        String getUserId();
+        Long getUserEarnedPoints();
+        Long getUserAvailablePoints();
+        Long getLedgerEarnedPoints();
+        Long getLedgerAvailablePoints();
+    }
+    
+    /**
+     * Recompute balances from the full ledger for a range of user IDs and return the users that disagree.
+     * 
+     * @param afterId The lower bound of the range (exclusive).
+     * @param toId The upper bound of the range (inclusive).
+     * @return The mismatched users in the range.
+     */
+    @Query(value = "SELECT u.id AS \"userId\", u.earned_points AS \"userEarnedPoints\", u.available_points AS \"userAvailablePoints\", "
+            + "CAST(COALESCE(SUM(CASE WHEN t.points > 0 THEN t.points ELSE 0 END), 0) AS bigint) AS \"ledgerEarnedPoints\", "
+            + "CAST(COALESCE(SUM(t.points), 0) AS bigint) AS \"ledgerAvailablePoints\" "
+            + "FROM users u LEFT JOIN points_transactions t ON t.user_id = u.id "
+            + "WHERE u.id > :afterId AND u.id <= :toId "
+            + "GROUP BY u.id, u.earned_points, u.available_points "
+            + "HAVING u.earned_points <> COALESCE(SUM(CASE WHEN t.points > 0 THEN t.points ELSE 0 END), 0) "
+            + "OR u.available_points <> COALESCE(SUM(t.points), 0)", nativeQuery = true)
+    List<LedgerMismatch> findLedgerMismatches(@Param("afterId") String afterId, @Param("toId") String toId);
+    
+    /**
+     * Outcome of applying a user's write-behind awards.
+     */
+    interface AppliedAwards {
+        Long getPoints();
+        Long getAwards();
+        String getSource();
+        Long getEarnedPoints();
+        Long getAvailablePoints();
+    }
+    
+    /**
+     * Add a user's unapplied write-behind awards to their balances and mark the rows applied,
+     * in one statement. Running it again applies nothing more, so a flush that is retried
+     * after it has already committed cannot credit the same points twice.
+     * 
+     * @param userId The ID of the user.
+     * @return The points and number of awards applied with the source of the latest one, and
+     *         the new balances (null if there was nothing to apply).
+     */
+    @Transactional
+    @Query(value = "WITH awards AS ("
+            + "UPDATE points_transactions SET applied = true WHERE user_id = :userId AND NOT applied "
+            + "RETURNING points, event_type, ledger_seq), "
+            + "total AS (SELECT CAST(COALESCE(SUM(points), 0) AS bigint) AS points, COUNT(*) AS awards FROM awards), "
+            + "balance AS ("
+            + "UPDATE users u SET earned_points = u.earned_points + t.points, available_points = u.available_points + t.points "
+            + "FROM total t WHERE u.id = :userId AND t.awards > 0 "
+            + "RETURNING u.earned_points, u.available_points) "
+            + "SELECT t.points AS \"points\", t.awards AS \"awards\", "
+            + "(SELECT event_type FROM awards ORDER BY ledger_seq DESC LIMIT 1) AS \"source\", "
+            + "b.earned_points AS \"earnedPoints\", b.available_points AS \"availablePoints\" "
+            + "FROM total t LEFT JOIN balance b ON true", nativeQuery = true)
+    AppliedAwards applyBufferedAwards(@Param("userId") String userId);
+    
+    /**
+     * Find the users with write-behind awards not yet added to their balances.
+     * 
+     * @return The user IDs.
+     */
+    @Query(value = "SELECT DISTINCT user_id FROM points_transactions WHERE NOT applied", nativeQuery = true)
+    List<String> findUserIdsWithUnappliedAwards();
 }
@@ -0,0 +1,93 @@
+package sg.edu.ntu.gamify_demo.repositories;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sg.edu.ntu.gamify_demo.models.TaskCompletionCount;
+import sg.edu.ntu.gamify_demo.models.TaskCompletionCountId;
+
+/**
+ * Repository for TaskCompletionCount entities.
+ */
+@Repository
+public interface TaskCompletionCountRepository extends JpaRepository<TaskCompletionCount, TaskCompletionCountId> {
+
+    /**
+     * Outcome of seeding one chunk of users' counts.
+     */
+    interface SeedChunk {
+        String getLastUserId();
+        Long getScanned();
+        Long getChanged();
+    }
+
+    /**
+     * Get a user's completed task count for one task type, or for every type under "".
+     *
+     * @param userId The ID of the user.
+     * @param taskType The task type.
+     * @return The count, empty if the user has completed no task of the type.
+     */
+    @Query("SELECT c.completedCount FROM TaskCompletionCount c WHERE c.userId = :userId AND c.taskType = :taskType")
+    Optional<Long> findCompletedCount(@Param("userId") String userId, @Param("taskType") String taskType);
+
+    /**
+     * Add to a user's completed task count, creating the row if needed.
+     *
+     * @param userId The ID of the user.
+     * @param taskType The task type, or "" for the count of every type.
+     * @param amount The number of completions to add.
+     * @return The number of rows written.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO task_completion_counts (user_id, task_type, completed_count) "
+            + "VALUES (:userId, :taskType, :amount) "
+            + "ON CONFLICT (user_id, task_type) DO UPDATE "
+            + "SET completed_count = task_completion_counts.completed_count + EXCLUDED.completed_count", nativeQuery = true)
+    int increment(@Param("userId") String userId, @Param("taskType") String taskType, @Param("amount") long amount);
+
+    /**
+     * Block increments until the current transaction ends, so counts seeded in it
+     * cannot overwrite a completion committed meanwhile.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "LOCK TABLE task_completion_counts IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForSeeding();
+
+    /**
+     * Set the counts of the next chunk of users, in key order, from their completed task events.
+     * Each user gets a row for every type ("") and one per non-empty task type in the events'
+     * metadata; only rows whose values actually change are written.
+     *
+     * @param afterUserId The last user ID of the previous chunk ("" to start from the beginning).
+     * @param limit The maximum number of users in the chunk.
+     * @return The last user ID in the chunk (null once no users remain), and the users scanned and rows changed.
+     */
+    @Transactional
+    @Query(value = "WITH batch AS ("
+            + "SELECT id FROM users WHERE id > :afterUserId ORDER BY id LIMIT :limit), "
+            + "counted AS ("
+            + "SELECT e.user_id, e.metadata->>'taskType' AS task_type, "
+            + "GROUPING(e.metadata->>'taskType') AS all_types, COUNT(*) AS completed_count "
+            + "FROM batch b JOIN task_events e ON e.user_id = b.id "
+            + "WHERE e.status = 'COMPLETED' "
+            + "GROUP BY GROUPING SETS ((e.user_id), (e.user_id, e.metadata->>'taskType'))), "
+            + "upserted AS ("
+            + "INSERT INTO task_completion_counts (user_id, task_type, completed_count) "
+            + "SELECT user_id, CASE WHEN all_types = 1 THEN '' ELSE task_type END, completed_count FROM counted "
+            + "WHERE all_types = 1 OR task_type <> '' "
+            + "ON CONFLICT (user_id, task_type) DO UPDATE SET completed_count = EXCLUDED.completed_count "
+            + "WHERE task_completion_counts.completed_count <> EXCLUDED.completed_count "
+            + "RETURNING 1) "
+            + "SELECT (SELECT MAX(id) FROM batch) AS \"lastUserId\", "
+            + "(SELECT COUNT(*) FROM batch) AS \"scanned\", "
+            + "(SELECT COUNT(*) FROM upserted) AS \"changed\"", nativeQuery = true)
+    SeedChunk seedChunk(@Param("afterUserId") String afterUserId, @Param("limit") int limit);
+}
@@ -0,0 +1,71 @@
+package sg.edu.ntu.gamify_demo.repositories;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import sg.edu.ntu.gamify_demo.models.TaskEventIntake;
+import sg.edu.ntu.gamify_demo.models.enums.IntakeStatus;
+
+/**
+ * Repository for TaskEventIntake entities.
+ */
+@Repository
+public interface TaskEventIntakeRepository extends JpaRepository<TaskEventIntake, Long> {
+
+    /**
+     * Find an intake entry by the tracking ID returned to the client.
+     * 
+     * @param trackingId The tracking ID.
+     * @return The intake entry, if found.
+     */
+    Optional<TaskEventIntake> findByTrackingId(String trackingId);
+
+    /**
+     * Claim the oldest pending intake entries for one instance in a single statement.
+     * Rows locked by another instance's claim are skipped rather than waited for, so
+     * concurrent dispatchers never claim the same entry. Only a user's earliest unfinished
+     * entry can be claimed: one behind an earlier PENDING or PROCESSING entry of the same
+     * user waits for it, so a user's entries run one at a time and in arrival order across
+     * instances, including entries re-queued after a lease expiry or a failed attempt.
+     * 
+     * @param claimedBy The ID of the claiming instance.
+     * @param limit The maximum number of entries to claim.
+     * @return The claimed entries, now PROCESSING, at most one per user, in no particular order.
+     */
+    @Transactional
+    @Query(value = "UPDATE task_event_intake SET status = 'PROCESSING', attempts = attempts + 1, "
+            + "claimed_by = :claimedBy, claimed_at = now() "
+            + "WHERE id IN (SELECT i.id FROM task_event_intake i WHERE i.status = 'PENDING' "
+            + "AND NOT EXISTS (SELECT 1 FROM task_event_intake p WHERE p.user_id = i.user_id AND p.id < i.id "
+            + "AND p.status IN ('PENDING', 'PROCESSING')) "
+            + "ORDER BY i.id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING *", nativeQuery = true)
+    List<TaskEventIntake> claimPending(@Param("claimedBy") String claimedBy, @Param("limit") int limit);
+
+    /**
+     * Count intake entries with the given status.
+     * 
+     * @param status The status to count.
+     * @return The number of entries.
+     */
+    long countByStatus(IntakeStatus status);
+
+    /**
+     * Re-queue entries whose lease has expired: claimed by an instance that stopped or
+     * stalled before finishing them. Entries still within their lease are left alone.
+     * 
+     * @param leaseMs How long a claim is held, in milliseconds.
+     * @return The number of entries re-queued.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE task_event_intake SET status = 'PENDING', claimed_by = NULL, claimed_at = NULL "
+            + "WHERE status = 'PROCESSING' "
+            + "AND (claimed_at IS NULL OR claimed_at < now() - :leaseMs * interval '1 millisecond')", nativeQuery = true)
+    int requeueExpired(@Param("leaseMs") long leaseMs);
+}
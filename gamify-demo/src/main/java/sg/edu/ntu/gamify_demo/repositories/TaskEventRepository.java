@@ -4,7 +4,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import sg.edu.ntu.gamify_demo.models.TaskEvent;
 import sg.edu.ntu.gamify_demo.models.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for TaskEvent entities.
@@ -44,4 +46,20 @@ public interface TaskEventRepository extends JpaRepository<TaskEvent, String> {
      * @return A list of task events for the user and task.
      */
     List<TaskEvent> findByUserAndTaskId(User user, String taskId);
+    
+    /**
+     * Find the task event recorded under an idempotency key.
+     * 
+     * @param idempotencyKey The idempotency key.
+     * @return The task event, if one was recorded.
+     */
+    Optional<TaskEvent> findByIdempotencyKey(String idempotencyKey);
+    
+    /**
+     * Find the task events recorded under any of the given idempotency keys.
+     * 
+     * @param idempotencyKeys The idempotency keys.
+     * @return The matching task events.
+     */
+    List<TaskEvent> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
 }
@@ -2,6 +2,8 @@ package sg.edu.ntu.gamify_demo.repositories;
 
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sg.edu.ntu.gamify_demo.models.Achievement;
 import sg.edu.ntu.gamify_demo.models.User;
@@ -23,6 +25,10 @@ public interface UserAchievementRepository extends JpaRepository<UserAchievement
     // Check if a user has a specific achievement
     boolean existsByUserAndAchievement(User user, Achievement achievement);
     
+    // The IDs of all achievements a user has earned
+    @Query("SELECT ua.achievement.achievementId FROM UserAchievement ua WHERE ua.user.id = :userId")
+    List<String> findEarnedAchievementIds(@Param("userId") String userId);
+    
     // Count the number of achievements a user has earned
     long countByUser(User user);
 }
@@ -1,7 +1,12 @@
 package sg.edu.ntu.gamify_demo.repositories;
 
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import sg.edu.ntu.gamify_demo.models.LadderLevel;
 import sg.edu.ntu.gamify_demo.models.UserLadderStatus;
 
@@ -19,4 +24,107 @@ public interface UserLadderStatusRepository extends JpaRepository<UserLadderStat
      * @return True if any users are at the level, false otherwise.
      */
     boolean existsByCurrentLevel(LadderLevel level);
+    
+    /**
+     * Outcome of recomputing one chunk of ladder statuses.
+     */
+    interface RecomputeChunk {
+        String getLastUserId();
+        Long getScanned();
+        Long getChanged();
+    }
+    
+    /**
+     * Recompute the level and points-to-next of the next chunk of users, in key order,
+     * from their earned points and the current ladder_levels thresholds.
+     * A user is raised to the highest level whose threshold their points meet; as in the
+     * incremental update, levels are never lost. Only rows whose values actually change are written.
+     * 
+     * @param afterUserId The last user ID of the previous chunk ("" to start from the beginning).
+     * @param limit The maximum number of users in the chunk.
+     * @return The last user ID in the chunk (null once no users remain), and the rows scanned and changed.
+     */
+    @Transactional
+    @Query(value = "WITH batch AS ("
+            + "SELECT user_id FROM user_ladder_status WHERE user_id > :afterUserId ORDER BY user_id LIMIT :limit), "
+            + "target AS ("
+            + "SELECT s.user_id, u.earned_points, GREATEST(s.current_level, COALESCE((SELECT l.level FROM ladder_levels l "
+            + "WHERE l.points_required <= u.earned_points ORDER BY l.level DESC LIMIT 1), s.current_level)) AS level "
+            + "FROM batch b JOIN user_ladder_status s ON s.user_id = b.user_id JOIN users u ON u.id = s.user_id), "
+            + "computed AS ("
+            + "SELECT t.user_id, t.earned_points, t.level, COALESCE((SELECT GREATEST(n.points_required - t.earned_points, 0) "
+            + "FROM ladder_levels n WHERE n.level > t.level ORDER BY n.level LIMIT 1), 0) AS points_to_next_level "
+            + "FROM target t), "
+            + "updated AS ("
+            + "UPDATE user_ladder_status s SET current_level = c.level, earned_points = c.earned_points, "
+            + "points_to_next_level = c.points_to_next_level, updated_at = CURRENT_TIMESTAMP "
+            + "FROM computed c WHERE s.user_id = c.user_id AND (s.current_level <> c.level "
+            + "OR s.earned_points <> c.earned_points OR s.points_to_next_level <> c.points_to_next_level) "
+            + "RETURNING s.user_id) "
+            + "SELECT (SELECT MAX(user_id) FROM batch) AS \"lastUserId\", "
+            + "(SELECT COUNT(*) FROM batch) AS \"scanned\", "
+            + "(SELECT COUNT(*) FROM updated) AS \"changed\"", nativeQuery = true)
+    RecomputeChunk recomputeChunk(@Param("afterUserId") String afterUserId, @Param("limit") int limit);
+    
+    /**
+     * Create the ladder status of one user from their earned points, if it doesn't exist yet.
+     * The level is the highest one whose threshold the points meet, or the lowest level.
+     * 
+     * @param userId The ID of the user.
+     * @return 1 if the status was created, 0 if it already existed or the user doesn't exist.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_ladder_status (id, user_id, current_level, earned_points, points_to_next_level, updated_at) "
+            + "SELECT p.id, p.id, p.level, p.earned_points, COALESCE((SELECT GREATEST(n.points_required - p.earned_points, 0) "
+            + "FROM ladder_levels n WHERE n.level > p.level ORDER BY n.level LIMIT 1), 0), CURRENT_TIMESTAMP "
+            + "FROM (SELECT u.id, u.earned_points, COALESCE((SELECT l.level FROM ladder_levels l "
+            + "WHERE l.points_required <= u.earned_points ORDER BY l.level DESC LIMIT 1), "
+            + "(SELECT MIN(level) FROM ladder_levels)) AS level FROM users u WHERE u.id = :userId) p "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int provisionForUser(@Param("userId") String userId);
+    
+    /**
+     * Create the missing ladder status of every user in one statement, computed the same
+     * way as provisionForUser.
+     * 
+     * @return The number of statuses created.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_ladder_status (id, user_id, current_level, earned_points, points_to_next_level, updated_at) "
+            + "SELECT p.id, p.id, p.level, p.earned_points, COALESCE((SELECT GREATEST(n.points_required - p.earned_points, 0) "
+            + "FROM ladder_levels n WHERE n.level > p.level ORDER BY n.level LIMIT 1), 0), CURRENT_TIMESTAMP "
+            + "FROM (SELECT u.id, u.earned_points, COALESCE((SELECT l.level FROM ladder_levels l "
+            + "WHERE l.points_required <= u.earned_points ORDER BY l.level DESC LIMIT 1), "
+            + "(SELECT MIN(level) FROM ladder_levels)) AS level FROM users u "
+            + "WHERE NOT EXISTS (SELECT 1 FROM user_ladder_status s WHERE s.user_id = u.id)) p "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int provisionMissing();
+    
+    /**
+     * Number of users at a level, or with an earned points value.
+     */
+    interface ValueCount {
+        Long getValue();
+        Long getUserCount();
+    }
+    
+    /**
+     * Count the users at each level.
+     * 
+     * @return One row per level that has users.
+     */
+    @Query(value = "SELECT current_level AS \"value\", COUNT(*) AS \"userCount\" "
+            + "FROM user_ladder_status GROUP BY current_level", nativeQuery = true)
+    List<ValueCount> countByLevel();
+    
+    /**
+     * Count the users with each earned points value.
+     * 
+     * @return One row per distinct earned points value.
+     */
+    @Query(value = "SELECT earned_points AS \"value\", COUNT(*) AS \"userCount\" "
+            + "FROM user_ladder_status GROUP BY earned_points", nativeQuery = true)
+    List<ValueCount> countByEarnedPoints();
 }
@@ -4,7 +4,11 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 import sg.edu.ntu.gamify_demo.models.User;
 
 public interface UserRepository extends JpaRepository<User, String> {
@@ -18,4 +22,55 @@ public interface UserRepository extends JpaRepository<User, String> {
     @Override
     @NonNull
     List<User> findAll(@NonNull Sort sort);
+
+    // Balances returned by the atomic points updates below
+    interface PointsBalance {
+        Long getEarnedPoints();
+        Long getAvailablePoints();
+    }
+
+    // Atomically add to a user's balances in one statement; returns null if the user doesn't exist
+    @Transactional
+    @Query(value = "UPDATE users SET earned_points = earned_points + :earned, available_points = available_points + :available "
+            + "WHERE id = :userId "
+            + "RETURNING earned_points AS \"earnedPoints\", available_points AS \"availablePoints\"", nativeQuery = true)
+    PointsBalance addPoints(@Param("userId") String userId, @Param("earned") long earned, @Param("available") long available);
+
+    // Atomically debit available points only if the balance covers it; returns null if the user
+    // doesn't exist or doesn't have enough points
+    @Transactional
+    @Query(value = "UPDATE users SET available_points = available_points - :points "
+            + "WHERE id = :userId AND available_points >= :points "
+            + "RETURNING earned_points AS \"earnedPoints\", available_points AS \"availablePoints\"", nativeQuery = true)
+    PointsBalance debitAvailablePoints(@Param("userId") String userId, @Param("points") long points);
+
+    // Keyset paging for range jobs: the id `offset` rows past afterId (offset 0 is the next id),
+    // or null if fewer rows remain
+    @Query(value = "SELECT id FROM users WHERE id > :afterId ORDER BY id OFFSET :offset LIMIT 1", nativeQuery = true)
+    String findKeysetBoundary(@Param("afterId") String afterId, @Param("offset") int offset);
+
+    // Score and display fields of a user, for rebuilding the in-memory leaderboard
+    interface UserScore {
+        String getId();
+        String getUsername();
+        String getDepartment();
+        Long getEarnedPoints();
+    }
+
+    @Query("SELECT u.id AS id, u.username AS username, u.department AS department, u.earnedPoints AS earnedPoints FROM User u")
+    List<UserScore> findAllScores();
+
+    @Query("SELECT MAX(u.id) FROM User u")
+    String findMaxId();
+
+    long countByIdGreaterThan(String afterId);
+
+    // Overwrite both balances only if they still hold the expected values; returns 0 if they changed
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.earnedPoints = :earned, u.availablePoints = :available "
+            + "WHERE u.id = :userId AND u.earnedPoints = :expectedEarned AND u.availablePoints = :expectedAvailable")
+    int replaceBalances(@Param("userId") String userId,
+                        @Param("expectedEarned") long expectedEarned, @Param("expectedAvailable") long expectedAvailable,
+                        @Param("earned") long earned, @Param("available") long available);
 }
@@ -0,0 +1,100 @@
+package sg.edu.ntu.gamify_demo.repositories;
+
+import java.time.LocalDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sg.edu.ntu.gamify_demo.models.UserStreak;
+
+/**
+ * Repository for UserStreak entities.
+ */
+@Repository
+public interface UserStreakRepository extends JpaRepository<UserStreak, String> {
+
+    /**
+     * Outcome of seeding one chunk of users' streaks.
+     */
+    interface SeedChunk {
+        String getLastUserId();
+        Long getScanned();
+        Long getChanged();
+    }
+
+    /**
+     * Record that a user was active on a day, in one statement.
+     * The day after the last active date extends the current streak, a later day starts a
+     * new one, and the last active date itself or an earlier day changes nothing.
+     *
+     * @param userId The ID of the user.
+     * @param day The day the user was active.
+     * @return 1 if the streak was created or advanced, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_streaks (user_id, last_active_date, current_streak, longest_streak, updated_at) "
+            + "VALUES (:userId, :day, 1, 1, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (user_id) DO UPDATE SET "
+            + "current_streak = CASE WHEN EXCLUDED.last_active_date = user_streaks.last_active_date + 1 "
+            + "THEN user_streaks.current_streak + 1 ELSE 1 END, "
+            + "longest_streak = GREATEST(user_streaks.longest_streak, "
+            + "CASE WHEN EXCLUDED.last_active_date = user_streaks.last_active_date + 1 "
+            + "THEN user_streaks.current_streak + 1 ELSE 1 END), "
+            + "last_active_date = EXCLUDED.last_active_date, updated_at = EXCLUDED.updated_at "
+            + "WHERE EXCLUDED.last_active_date > user_streaks.last_active_date", nativeQuery = true)
+    int recordActivity(@Param("userId") String userId, @Param("day") LocalDate day);
+
+    /**
+     * Block activity updates until the current transaction ends, so streaks seeded in it
+     * cannot overwrite an activity committed meanwhile.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "LOCK TABLE user_streaks IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForSeeding();
+
+    /**
+     * Set the streaks of the next chunk of users, in key order, from the days of their
+     * points transactions in a time zone. Runs of consecutive days are found by subtracting
+     * each day's position from it, which is constant within a run; only rows whose values
+     * actually change are written.
+     *
+     * @param afterUserId The last user ID of the previous chunk ("" to start from the beginning).
+     * @param limit The maximum number of users in the chunk.
+     * @param zone The time zone whose calendar days are counted.
+     * @return The last user ID in the chunk (null once no users remain), and the users scanned and rows changed.
+     */
+    @Transactional
+    @Query(value = "WITH batch AS ("
+            + "SELECT id FROM users WHERE id > :afterUserId ORDER BY id LIMIT :limit), "
+            + "days AS ("
+            + "SELECT DISTINCT t.user_id, CAST(t.\"timestamp\" AT TIME ZONE :zone AS date) AS day "
+            + "FROM batch b JOIN points_transactions t ON t.user_id = b.id WHERE t.\"timestamp\" IS NOT NULL), "
+            + "runs AS ("
+            + "SELECT user_id, day, day - CAST(ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY day) AS integer) AS run "
+            + "FROM days), "
+            + "islands AS ("
+            + "SELECT user_id, MAX(day) AS last_day, COUNT(*) AS length FROM runs GROUP BY user_id, run), "
+            + "streaks AS ("
+            + "SELECT DISTINCT ON (user_id) user_id, last_day, length AS current_streak, "
+            + "MAX(length) OVER (PARTITION BY user_id) AS longest_streak "
+            + "FROM islands ORDER BY user_id, last_day DESC), "
+            + "upserted AS ("
+            + "INSERT INTO user_streaks (user_id, last_active_date, current_streak, longest_streak, updated_at) "
+            + "SELECT user_id, last_day, current_streak, longest_streak, CURRENT_TIMESTAMP FROM streaks "
+            + "ON CONFLICT (user_id) DO UPDATE SET last_active_date = EXCLUDED.last_active_date, "
+            + "current_streak = EXCLUDED.current_streak, longest_streak = EXCLUDED.longest_streak, "
+            + "updated_at = EXCLUDED.updated_at "
+            + "WHERE (user_streaks.last_active_date, user_streaks.current_streak, user_streaks.longest_streak) "
+            + "IS DISTINCT FROM (EXCLUDED.last_active_date, EXCLUDED.current_streak, EXCLUDED.longest_streak) "
+            + "RETURNING 1) "
+            + "SELECT (SELECT MAX(id) FROM batch) AS \"lastUserId\", "
+            + "(SELECT COUNT(*) FROM batch) AS \"scanned\", "
+            + "(SELECT COUNT(*) FROM upserted) AS \"changed\"", nativeQuery = true)
+    SeedChunk seedChunk(@Param("afterUserId") String afterUserId, @Param("limit") int limit,
+                        @Param("zone") String zone);
+}
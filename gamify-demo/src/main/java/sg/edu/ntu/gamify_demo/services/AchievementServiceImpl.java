@@ -18,22 +18,28 @@ public class AchievementServiceImpl implements AchievementService {
 
     private final AchievementRepository achievementRepository;
     private final AchievementFactory achievementFactory;
+    private final AchievementTriggerIndex achievementTriggerIndex;
     
     /**
      * Constructor for dependency injection.
      * 
      * @param achievementRepository Repository for achievements.
      * @param achievementFactory Factory for creating achievements.
+     * @param achievementTriggerIndex Index of the achievements each event type triggers.
      */
-    public AchievementServiceImpl(AchievementRepository achievementRepository, AchievementFactory achievementFactory) {
+    public AchievementServiceImpl(AchievementRepository achievementRepository, AchievementFactory achievementFactory,
+                                  AchievementTriggerIndex achievementTriggerIndex) {
         this.achievementRepository = achievementRepository;
         this.achievementFactory = achievementFactory;
+        this.achievementTriggerIndex = achievementTriggerIndex;
     }
     
     @Override
     public Achievement createAchievement(String name, String description, JsonNode criteria) {
         Achievement achievement = achievementFactory.createAchievement(name, description, criteria);
-        return achievementRepository.save(achievement);
+        Achievement saved = achievementRepository.save(achievement);
+        achievementTriggerIndex.refreshAfterCommit();
+        return saved;
     }
 
     @Override
@@ -60,7 +66,9 @@ public class AchievementServiceImpl implements AchievementService {
         achievement.setDescription(description);
         achievement.setCriteria(criteria);
         
-        return achievementRepository.save(achievement);
+        Achievement saved = achievementRepository.save(achievement);
+        achievementTriggerIndex.refreshAfterCommit();
+        return saved;
     }
 
     @Override
@@ -71,5 +79,6 @@ public class AchievementServiceImpl implements AchievementService {
         }
         
         achievementRepository.deleteById(achievementId);
+        achievementTriggerIndex.refreshAfterCommit();
     }
 }
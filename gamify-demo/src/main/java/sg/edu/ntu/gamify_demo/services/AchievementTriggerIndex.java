@@ -0,0 +1,168 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.models.Achievement;
+import sg.edu.ntu.gamify_demo.repositories.AchievementRepository;
+import sg.edu.ntu.gamify_demo.strategies.achievement.AchievementCriteriaEvaluator;
+import sg.edu.ntu.gamify_demo.strategies.achievement.CompiledCriteria;
+
+/**
+ * In-memory index of the achievements each event type can trigger.
+ * The catalog changes rarely but is consulted on every event, so it is held as an immutable
+ * snapshot mapping event types to triggers, built once from the achievements' criteria.
+ * An achievement with "requiredLevel" is triggered by LEVEL_UP, one with "taskCount" by
+ * TASK_COMPLETED, and one with an "eventType" by that event type. Each trigger's criteria
+ * are compiled into a predicate when the snapshot is built.
+ */
+@Component
+public class AchievementTriggerIndex {
+
+    private final AchievementRepository achievementRepository;
+    private final AchievementCriteriaEvaluator criteriaEvaluator;
+    private volatile Snapshot current;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public AchievementTriggerIndex(AchievementRepository achievementRepository,
+                                   AchievementCriteriaEvaluator criteriaEvaluator) {
+        this.achievementRepository = achievementRepository;
+        this.criteriaEvaluator = criteriaEvaluator;
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Load the catalog and swap in a new snapshot.
+     * Loads are serialized, so a reload that read the table before a commit can never
+     * overwrite one that read it afterwards.
+     *
+     * @return The new snapshot.
+     */
+    public synchronized Snapshot reload() {
+        Snapshot snapshot = new Snapshot(achievementRepository.findAll(), criteriaEvaluator);
+        current = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Reload the snapshot once the current transaction commits, or now if there is none.
+     * Call this after any write to achievements.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * An achievement that an event type can trigger.
+     *
+     * @param achievementId The ID of the achievement.
+     * @param criteria The compiled criteria, with the type implied by the event filled in.
+     */
+    public record Trigger(String achievementId, CompiledCriteria criteria) {
+    }
+
+    /**
+     * An immutable view of the catalog, grouped by triggering event type.
+     */
+    public static final class Snapshot {
+        private final Map<String, List<Trigger>> byEventType = new HashMap<>();
+        private final int achievementCount;
+
+        Snapshot(List<Achievement> achievements, AchievementCriteriaEvaluator criteriaEvaluator) {
+            int count = 0;
+            for (Achievement achievement : achievements) {
+                Map<String, JsonNode> triggers = triggersOf(achievement.getCriteria());
+                for (Map.Entry<String, JsonNode> trigger : triggers.entrySet()) {
+                    byEventType.computeIfAbsent(trigger.getKey(), eventType -> new ArrayList<>())
+                            .add(new Trigger(achievement.getAchievementId(), criteriaEvaluator.compile(trigger.getValue())));
+                }
+                if (!triggers.isEmpty()) {
+                    count++;
+                }
+            }
+            byEventType.replaceAll((eventType, triggers) -> Collections.unmodifiableList(triggers));
+            this.achievementCount = count;
+        }
+
+        /**
+         * Get the achievements an event type can trigger.
+         *
+         * @param eventType The event type.
+         * @return The triggers, empty if the event type triggers nothing.
+         */
+        public List<Trigger> triggersFor(String eventType) {
+            if (eventType == null) {
+                return List.of();
+            }
+            return byEventType.getOrDefault(eventType, List.of());
+        }
+
+        /**
+         * Get the number of achievements triggered by at least one event type.
+         *
+         * @return The number of achievements.
+         */
+        public int size() {
+            return achievementCount;
+        }
+
+        /**
+         * Work out the event types that trigger an achievement and the criteria to compile
+         * for each. Level and task count criteria without a type get the type their event
+         * implies, on a copy so the catalog entity is left as it is.
+         */
+        private static Map<String, JsonNode> triggersOf(JsonNode criteria) {
+            Map<String, JsonNode> triggers = new LinkedHashMap<>();
+            if (criteria == null) {
+                return triggers;
+            }
+            if (criteria.has("requiredLevel")) {
+                triggers.put("LEVEL_UP", withDefaultType(criteria, "LEVEL_BASED"));
+            }
+            if (criteria.has("taskCount")) {
+                triggers.put("TASK_COMPLETED", withDefaultType(criteria, "TASK_COMPLETION_COUNT"));
+            }
+            if (criteria.has("eventType")) {
+                triggers.putIfAbsent(criteria.get("eventType").asText(), criteria);
+            }
+            return triggers;
+        }
+
+        private static JsonNode withDefaultType(JsonNode criteria, String type) {
+            if (criteria.has("type")) {
+                return criteria;
+            }
+            ObjectNode copy = ((ObjectNode) criteria).deepCopy();
+            copy.put("type", type);
+            return copy;
+        }
+    }
+}
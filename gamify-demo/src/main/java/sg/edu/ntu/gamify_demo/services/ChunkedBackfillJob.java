@@ -0,0 +1,165 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.ZonedDateTime;
+import java.util.function.BooleanSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+
+/**
+ * A backfill over users in key-ordered chunks, each seeded in its own transaction and
+ * checkpointed in job_checkpoints, so an interrupted or failed run resumes where it stopped.
+ */
+final class ChunkedBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedBackfillJob.class);
+
+    /**
+     * Seeds one chunk of users. Runs inside the chunk's transaction.
+     */
+    @FunctionalInterface
+    interface Step {
+        /**
+         * @param afterUserId The last user ID of the previous chunk ("" to start from the beginning).
+         * @return The outcome of the chunk, scanning no users once none remain.
+         */
+        Chunk seed(String afterUserId);
+    }
+
+    /**
+     * Outcome of seeding one chunk.
+     *
+     * @param lastUserId The last user ID in the chunk.
+     * @param scanned The number of users scanned.
+     * @param changed The number of rows changed.
+     */
+    record Chunk(String lastUserId, long scanned, long changed) {
+    }
+
+    private final String jobName;
+    private final String description;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Step step;
+    private final BooleanSupplier restartRequested;
+
+    ChunkedBackfillJob(String jobName, String description, JobCheckpointRepository jobCheckpointRepository,
+                       TransactionTemplate transactionTemplate, Step step) {
+        this(jobName, description, jobCheckpointRepository, transactionTemplate, step, () -> false);
+    }
+
+    /**
+     * @param restartRequested Checked before every chunk; when true, the run starts over from the beginning.
+     */
+    ChunkedBackfillJob(String jobName, String description, JobCheckpointRepository jobCheckpointRepository,
+                       TransactionTemplate transactionTemplate, Step step, BooleanSupplier restartRequested) {
+        this.jobName = jobName;
+        this.description = description;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.step = step;
+        this.restartRequested = restartRequested;
+    }
+
+    /**
+     * Run the backfill to the end.
+     *
+     * @param resume Whether to continue an unfinished run from its checkpoint instead of starting over.
+     * @return The checkpoint of the finished run.
+     */
+    synchronized JobCheckpoint run(boolean resume) {
+        return complete(start(resume));
+    }
+
+    /**
+     * Mark a run as started without seeding any chunks yet.
+     *
+     * @param resume Whether to continue an unfinished run from its checkpoint instead of starting over.
+     * @return The saved RUNNING checkpoint, to be passed to {@link #complete(JobCheckpoint)}.
+     */
+    JobCheckpoint start(boolean resume) {
+        ZonedDateTime now = ZonedDateTime.now();
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(jobName).orElse(null);
+        if (checkpoint == null) {
+            checkpoint = JobCheckpoint.builder().jobName(jobName).build();
+        }
+        if (!resume || checkpoint.getStatus() == null || checkpoint.getStatus() == JobStatus.COMPLETED) {
+            reset(checkpoint, now);
+        }
+        checkpoint.setStatus(JobStatus.RUNNING);
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setFinishedAt(null);
+        checkpoint.setError(null);
+        return jobCheckpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Seed the remaining chunks of a started run.
+     *
+     * @param checkpoint The checkpoint returned by {@link #start(boolean)}.
+     * @return The checkpoint of the finished run.
+     */
+    JobCheckpoint complete(JobCheckpoint checkpoint) {
+        try {
+            while (true) {
+                if (restartRequested.getAsBoolean()) {
+                    logger.info("{} restarting from the beginning", description);
+                    reset(checkpoint, ZonedDateTime.now());
+                }
+
+                String cursor = checkpoint.getCursor();
+                Chunk chunk = transactionTemplate.execute(status -> step.seed(cursor));
+                if (chunk == null || chunk.scanned() == 0) {
+                    break;
+                }
+
+                checkpoint.setCursor(chunk.lastUserId());
+                checkpoint.setProcessedCount(checkpoint.getProcessedCount() + chunk.scanned());
+                checkpoint.setChangedCount(checkpoint.getChangedCount() + chunk.changed());
+                checkpoint.setUpdatedAt(ZonedDateTime.now());
+                checkpoint = jobCheckpointRepository.save(checkpoint);
+            }
+
+            checkpoint.setStatus(JobStatus.COMPLETED);
+            logger.info("{} completed: {} users checked, {} rows changed",
+                    description, checkpoint.getProcessedCount(), checkpoint.getChangedCount());
+        } catch (RuntimeException e) {
+            logger.error("{} failed after user {}", description, checkpoint.getCursor(), e);
+            checkpoint.setStatus(JobStatus.FAILED);
+            checkpoint.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setFinishedAt(now);
+        return jobCheckpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Run the backfill unless a run has already completed, resuming an interrupted or failed one.
+     * Database errors are logged rather than thrown, so they don't stop the application starting.
+     */
+    void runUnlessCompleted() {
+        try {
+            boolean completed = jobCheckpointRepository.findById(jobName)
+                    .map(checkpoint -> checkpoint.getStatus() == JobStatus.COMPLETED)
+                    .orElse(false);
+            if (!completed) {
+                run(true);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("{} failed at startup", description, e);
+        }
+    }
+
+    private static void reset(JobCheckpoint checkpoint, ZonedDateTime now) {
+        checkpoint.setCursor("");
+        checkpoint.setProcessedCount(0);
+        checkpoint.setChangedCount(0);
+        checkpoint.setStartedAt(now);
+    }
+}
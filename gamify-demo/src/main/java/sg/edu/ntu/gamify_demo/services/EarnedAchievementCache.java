@@ -0,0 +1,178 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sg.edu.ntu.gamify_demo.repositories.UserAchievementRepository;
+
+/**
+ * Bounded cache of the achievements each user has earned.
+ * Every achievement gets a dense ordinal the first time it is seen, and a user's earned
+ * achievements are held as a bit set of ordinals, loaded with one query on a miss, so an
+ * "already earned?" check is a bit test. Ordinals are never reused, so catalog changes
+ * need no invalidation. Awards made through UserAchievementService set their bit once
+ * they commit; anything else that writes user_achievements must call invalidate.
+ */
+@Component
+public class EarnedAchievementCache {
+
+    private final UserAchievementRepository userAchievementRepository;
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final Map<String, BitSet> earned;
+    // Loads in flight per user, guarded by the earned lock; a change to the user during a
+    // load bumps its stamp, so that load is not cached while loads for other users are
+    private final Map<String, Loading> loading = new HashMap<>();
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public EarnedAchievementCache(UserAchievementRepository userAchievementRepository,
+                                  @Value("${gamify.achievements.earned-cache.size:10000}") int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Earned achievement cache size must be positive");
+        }
+        this.userAchievementRepository = userAchievementRepository;
+        this.earned = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BitSet> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Check whether a user has earned an achievement.
+     *
+     * @param userId The ID of the user.
+     * @param achievementId The ID of the achievement.
+     * @return true if the user has earned the achievement.
+     */
+    public boolean hasEarned(String userId, String achievementId) {
+        int ordinal = ordinalOf(achievementId);
+        synchronized (earned) {
+            BitSet bits = earned.get(userId);
+            if (bits != null) {
+                return bits.get(ordinal);
+            }
+        }
+        return load(userId, ordinal);
+    }
+
+    /**
+     * Record that a user earned an achievement once the current transaction commits,
+     * or now if there is none.
+     *
+     * @param userId The ID of the user.
+     * @param achievementId The ID of the achievement.
+     */
+    public void markEarnedAfterCommit(String userId, String achievementId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markEarned(userId, achievementId);
+                }
+            });
+        } else {
+            markEarned(userId, achievementId);
+        }
+    }
+
+    private void markEarned(String userId, String achievementId) {
+        int ordinal = ordinalOf(achievementId);
+        synchronized (earned) {
+            changed(userId);
+            BitSet bits = earned.get(userId);
+            if (bits != null) {
+                bits.set(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Drop a user's cached achievements, so the next check reloads them.
+     *
+     * @param userId The ID of the user.
+     */
+    public void invalidate(String userId) {
+        synchronized (earned) {
+            changed(userId);
+            earned.remove(userId);
+        }
+    }
+
+    /**
+     * Get the number of users cached.
+     *
+     * @return The number of users.
+     */
+    public int size() {
+        synchronized (earned) {
+            return earned.size();
+        }
+    }
+
+    /**
+     * Load a user's achievements into the cache and test one bit before the set is shared.
+     */
+    private boolean load(String userId, int ordinal) {
+        Loading inFlight;
+        long before;
+        synchronized (earned) {
+            inFlight = loading.computeIfAbsent(userId, id -> new Loading());
+            inFlight.loads++;
+            before = inFlight.stamp;
+        }
+
+        BitSet bits = new BitSet(nextOrdinal.get());
+        boolean loaded = false;
+        try {
+            for (String achievementId : userAchievementRepository.findEarnedAchievementIds(userId)) {
+                bits.set(ordinalOf(achievementId));
+            }
+            loaded = true;
+        } finally {
+            synchronized (earned) {
+                if (loaded && inFlight.stamp == before) {
+                    earned.put(userId, bits);
+                }
+                if (--inFlight.loads == 0) {
+                    loading.remove(userId);
+                }
+            }
+        }
+        return bits.get(ordinal);
+    }
+
+    /**
+     * Note a change to a user's achievements for any load of the user in flight.
+     * Call with the earned lock held.
+     */
+    private void changed(String userId) {
+        Loading inFlight = loading.get(userId);
+        if (inFlight != null) {
+            inFlight.stamp++;
+        }
+    }
+
+    private int ordinalOf(String achievementId) {
+        Integer ordinal = ordinals.get(achievementId);
+        return ordinal != null ? ordinal : ordinals.computeIfAbsent(achievementId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    /**
+     * Loads in flight for one user and the user's change stamp while they run.
+     */
+    private static final class Loading {
+        private int loads;
+        private long stamp;
+    }
+}
@@ -3,7 +3,6 @@ package sg.edu.ntu.gamify_demo.services;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -12,6 +11,8 @@ import sg.edu.ntu.gamify_demo.interfaces.UserAchievementService;
 import sg.edu.ntu.gamify_demo.interfaces.UserService;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.models.UserAchievement;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
 
 /**
  * Service for gamification features including points, achievements, and notifications.
@@ -22,6 +23,9 @@ public class GamificationService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserRepository userRepository;
+    
     @Autowired
     private AchievementService achievementService;
     
@@ -34,6 +38,9 @@ public class GamificationService {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private PointsMutationExecutor mutationExecutor;
+    
     /**
      * Get a user's earned points.
      * 
@@ -47,6 +54,8 @@ public class GamificationService {
     
     /**
      * Award points to a user and process any achievements they may have earned.
+     * The update goes through the points mutation executor, joining the caller's transaction
+     * if there is one.
      * 
      * @param userId The ID of the user.
      * @param points The number of points to award.
@@ -54,20 +63,26 @@ public class GamificationService {
      * @param eventData Additional data about the event.
      * @return The user's new total earned points.
      */
-    @Transactional
     public Long awardPoints(String userId, Long points, String eventType, JsonNode eventData) {
-        User user = userService.getUserById(userId);
+        return mutationExecutor.execute(userId, () -> applyAward(userId, points, eventType, eventData));
+    }
+    
+    private Long applyAward(String userId, Long points, String eventType, JsonNode eventData) {
+        // Update user's points in a single statement
+        PointsBalance balance = userRepository.addPoints(userId, points, points);
         
-        if (user == null) {
+        if (balance == null) {
+            // No such user; let the user service report it as before
+            userService.getUserById(userId);
             return 0L;
         }
         
-        // Update user's points
-        Long currentPoints = user.getEarnedPoints();
-        Long newPoints = currentPoints + points;
-        user.setEarnedPoints(newPoints);
-        user.setAvailablePoints(user.getAvailablePoints() + points);
-        userService.updateUser(user.getId(), user);
+        Long newPoints = balance.getEarnedPoints();
+        User user = userService.getUserById(userId);
+        // Keep the loaded user in step with the update, so flushing it later in the
+        // same transaction writes the new balances rather than stale ones
+        user.setEarnedPoints(balance.getEarnedPoints());
+        user.setAvailablePoints(balance.getAvailablePoints());
         
         // Process achievements
         processAchievements(user, eventType, eventData);
@@ -115,6 +130,7 @@ public class GamificationService {
     
     /**
      * Spend points from a user's available points.
+     * Goes through the points mutation executor, like {@link #awardPoints}.
      * 
      * @param userId The ID of the user.
      * @param points The number of points to spend.
@@ -122,31 +138,27 @@ public class GamificationService {
      * @param eventData Additional data about the event.
      * @return True if the points were successfully spent, false if the user doesn't have enough points.
      */
-    @Transactional
     public boolean spendPoints(String userId, Long points, String eventType, JsonNode eventData) {
-        User user = userService.getUserById(userId);
-        
-        if (user == null) {
-            return false;
-        }
-        
-        Long availablePoints = user.getAvailablePoints();
+        return mutationExecutor.execute(userId, () -> applySpend(userId, points, eventType, eventData));
+    }
+    
+    private boolean applySpend(String userId, Long points, String eventType, JsonNode eventData) {
+        // Debit user's available points only if the balance covers it
+        PointsBalance balance = userRepository.debitAvailablePoints(userId, points);
         
-        if (availablePoints < points) {
+        if (balance == null) {
+            // Either the user doesn't exist (reported by the user service) or can't afford it
+            userService.getUserById(userId);
             return false;
         }
         
-        // Update user's available points
-        user.setAvailablePoints(availablePoints - points);
-        userService.updateUser(user.getId(), user);
-        
         // Notify about points spent
         if (messageBroker != null) {
             ObjectNode notification = objectMapper.createObjectNode();
             notification.put("userId", userId);
             notification.put("eventType", "POINTS_SPENT");
             notification.put("points", points);
-            notification.put("newTotal", user.getAvailablePoints());
+            notification.put("newTotal", balance.getAvailablePoints());
             
             messageBroker.sendNotification("points", notification);
         }
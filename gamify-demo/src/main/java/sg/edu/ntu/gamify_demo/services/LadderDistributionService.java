@@ -0,0 +1,227 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sg.edu.ntu.gamify_demo.dtos.LadderDistributionDTO;
+import sg.edu.ntu.gamify_demo.dtos.LevelCountDTO;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository.ValueCount;
+
+/**
+ * Service for the distribution of users over the ladder.
+ * Counts per level and a log-bucketed histogram of earned points are kept in memory and
+ * adjusted whenever a ladder status update moves a user, so reads never touch the database.
+ * A periodic reconciliation rebuilds both from user_ladder_status to correct any drift,
+ * such as statuses created or bulk-recomputed outside the incremental path.
+ */
+@Service
+public class LadderDistributionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadderDistributionService.class);
+
+    // Values below 16 get their own bucket; above that, each power of two is split into 8
+    private static final int EXACT_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = EXACT_LIMIT + (63 - 4) * SUB_BUCKETS;
+
+    private static final double[] PERCENTILES = {0.5, 0.75, 0.9, 0.99};
+
+    private final UserLadderStatusRepository userLadderStatusRepository;
+    private final LadderLevelIndex ladderLevelIndex;
+    private volatile Counters counters = new Counters(null);
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LadderDistributionService(UserLadderStatusRepository userLadderStatusRepository,
+                                     LadderLevelIndex ladderLevelIndex) {
+        this.userLadderStatusRepository = userLadderStatusRepository;
+        this.ladderLevelIndex = ladderLevelIndex;
+    }
+
+    /**
+     * Record that a user's ladder status changed.
+     * Applied once the current transaction commits, so rolled-back updates are not counted.
+     *
+     * @param oldLevel The previous level.
+     * @param newLevel The new level.
+     * @param oldPoints The previous earned points.
+     * @param newPoints The new earned points.
+     */
+    public void recordChange(Long oldLevel, Long newLevel, Long oldPoints, Long newPoints) {
+        if (Objects.equals(oldLevel, newLevel) && Objects.equals(oldPoints, newPoints)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(oldLevel, newLevel, oldPoints, newPoints);
+                }
+            });
+        } else {
+            apply(oldLevel, newLevel, oldPoints, newPoints);
+        }
+    }
+
+    private void apply(Long oldLevel, Long newLevel, Long oldPoints, Long newPoints) {
+        Counters current = counters;
+        if (!Objects.equals(oldLevel, newLevel)) {
+            current.addLevel(oldLevel, -1);
+            current.addLevel(newLevel, 1);
+        }
+        if (!Objects.equals(oldPoints, newPoints)) {
+            current.addPoints(oldPoints, -1);
+            current.addPoints(newPoints, 1);
+        }
+    }
+
+    /**
+     * Get the current distribution from the in-memory counters.
+     *
+     * @return The users at each level and the earned points percentiles.
+     */
+    public LadderDistributionDTO getDistribution() {
+        Counters current = counters;
+
+        List<LevelCountDTO> levels = new ArrayList<>();
+        long totalUsers = 0;
+        for (LadderLevel level : ladderLevelIndex.snapshot().getLevels()) {
+            long count = current.levelCount(level.getLevel());
+            totalUsers += count;
+            levels.add(LevelCountDTO.builder()
+                    .level(level.getLevel())
+                    .label(level.getLabel())
+                    .userCount(count)
+                    .build());
+        }
+
+        return LadderDistributionDTO.builder()
+                .totalUsers(totalUsers)
+                .levels(levels)
+                .earnedPointsPercentiles(percentiles(current))
+                .reconciledAt(current.reconciledAt)
+                .build();
+    }
+
+    /**
+     * Rebuild the counters from user_ladder_status.
+     * Updates committed while the rebuild runs may be missed; the next run picks them up.
+     */
+    @Scheduled(fixedDelayString = "${gamify.ladder.distribution.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Counters rebuilt = new Counters(ZonedDateTime.now());
+        for (ValueCount row : userLadderStatusRepository.countByLevel()) {
+            rebuilt.addLevel(row.getValue(), row.getUserCount());
+        }
+        for (ValueCount row : userLadderStatusRepository.countByEarnedPoints()) {
+            rebuilt.addPoints(row.getValue(), row.getUserCount());
+        }
+
+        Counters previous = counters;
+        counters = rebuilt;
+        logger.debug("Reconciled ladder distribution: {} users (counters had {})",
+                rebuilt.totalPoints(), previous.totalPoints());
+    }
+
+    private static Map<String, Long> percentiles(Counters current) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long total = current.totalPoints();
+        if (total <= 0) {
+            return result;
+        }
+
+        int bucket = 0;
+        long seen = 0;
+        for (double percentile : PERCENTILES) {
+            long rank = Math.max(1, (long) Math.ceil(percentile * total));
+            while (bucket < BUCKET_COUNT - 1 && seen + Math.max(0, current.points.get(bucket)) < rank) {
+                seen += Math.max(0, current.points.get(bucket));
+                bucket++;
+            }
+            result.put("p" + Math.round(percentile * 100), bucketUpperBound(bucket));
+        }
+        return result;
+    }
+
+    /**
+     * Get the histogram bucket of a points value.
+     */
+    static int bucketFor(long points) {
+        if (points < EXACT_LIMIT) {
+            return (int) Math.max(0, points);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(points);
+        int subBucket = (int) (points >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_LIMIT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the largest points value that falls into a bucket.
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT_LIMIT) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (SUB_BUCKETS + subBucket) * width;
+        return lower + width - 1;
+    }
+
+    /**
+     * One generation of counters. Reconciliation swaps in a new generation rather than
+     * resetting this one in place, so readers never see a half-rebuilt histogram.
+     */
+    private static final class Counters {
+        private final ConcurrentHashMap<Long, AtomicLong> levels = new ConcurrentHashMap<>();
+        private final AtomicLongArray points = new AtomicLongArray(BUCKET_COUNT);
+        private final ZonedDateTime reconciledAt;
+
+        Counters(ZonedDateTime reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        void addLevel(Long level, long delta) {
+            if (level != null) {
+                levels.computeIfAbsent(level, key -> new AtomicLong()).addAndGet(delta);
+            }
+        }
+
+        void addPoints(Long earnedPoints, long delta) {
+            if (earnedPoints != null) {
+                points.addAndGet(bucketFor(earnedPoints), delta);
+            }
+        }
+
+        long levelCount(Long level) {
+            AtomicLong count = levels.get(level);
+            return count != null ? Math.max(0, count.get()) : 0L;
+        }
+
+        long totalPoints() {
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                total += Math.max(0, points.get(i));
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.repositories.LadderLevelRepository;
+
+/**
+ * In-memory index of the ladder levels.
+ * Levels change rarely but are read on every points award, so they are held as an immutable,
+ * versioned snapshot of sorted arrays and resolved by binary search. Writers swap in a new
+ * snapshot once their transaction commits; readers keep whichever snapshot they started with.
+ */
+@Component
+public class LadderLevelIndex {
+
+    private final LadderLevelRepository ladderLevelRepository;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Snapshot current;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LadderLevelIndex(LadderLevelRepository ladderLevelRepository) {
+        this.ladderLevelRepository = ladderLevelRepository;
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Load the levels and swap in a new snapshot.
+     * Loads are serialized, so a reload that read the table before a commit can never
+     * overwrite one that read it afterwards.
+     *
+     * @return The new snapshot.
+     */
+    public synchronized Snapshot reload() {
+        Snapshot snapshot = new Snapshot(versions.incrementAndGet(), ladderLevelRepository.findAllByOrderByLevelAsc());
+        current = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Reload the snapshot once the current transaction commits, or now if there is none.
+     * Call this after any write to ladder_levels.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * An immutable view of the ladder levels, sorted by level number.
+     * The LadderLevel instances are detached copies shared between threads and must not be modified.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final long[] levelNumbers;
+        private final long[] minPointsFrom;
+        private final LadderLevel[] levels;
+
+        Snapshot(long version, List<LadderLevel> sortedLevels) {
+            this.version = version;
+            int count = sortedLevels.size();
+            this.levelNumbers = new long[count];
+            this.minPointsFrom = new long[count];
+            this.levels = new LadderLevel[count];
+
+            for (int i = 0; i < count; i++) {
+                LadderLevel level = sortedLevels.get(i);
+                levels[i] = new LadderLevel(level.getLevel(), level.getLabel(), level.getPointsRequired(), level.getCreatedAt());
+                levelNumbers[i] = level.getLevel();
+            }
+            // Suffix minimum of the thresholds: non-decreasing even if an admin configured a
+            // higher level with a lower threshold, so it can be binary searched
+            long min = Long.MAX_VALUE;
+            for (int i = count - 1; i >= 0; i--) {
+                min = Math.min(min, levels[i].getPointsRequired());
+                minPointsFrom[i] = min;
+            }
+        }
+
+        /**
+         * Get the highest level whose points requirement is met.
+         *
+         * @param points The user's earned points.
+         * @return The level, or null if no level's requirement is met.
+         */
+        public LadderLevel levelFor(long points) {
+            // The last index whose suffix minimum is within reach is itself within reach,
+            // and every higher index requires more than points
+            int low = 0;
+            int high = minPointsFrom.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (minPointsFrom[mid] <= points) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found >= 0 ? levels[found] : null;
+        }
+
+        /**
+         * Get a level by its number.
+         *
+         * @param level The level number.
+         * @return The level, or null if it doesn't exist.
+         */
+        public LadderLevel find(long level) {
+            int index = Arrays.binarySearch(levelNumbers, level);
+            return index >= 0 ? levels[index] : null;
+        }
+
+        /**
+         * Get the first level above a level number.
+         *
+         * @param level The level number.
+         * @return The next level, or null if there is none.
+         */
+        public LadderLevel nextAfter(long level) {
+            int index = Arrays.binarySearch(levelNumbers, level);
+            int next = index >= 0 ? index + 1 : -index - 1;
+            return next < levels.length ? levels[next] : null;
+        }
+
+        /**
+         * Get all levels in ascending order.
+         *
+         * @return An unmodifiable list of the levels.
+         */
+        public List<LadderLevel> getLevels() {
+            return Collections.unmodifiableList(Arrays.asList(levels));
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return levels.length;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PreDestroy;
+import sg.edu.ntu.gamify_demo.dtos.JobProgressDTO;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository.RecomputeChunk;
+
+/**
+ * Service for recomputing every user's ladder status after the ladder thresholds change.
+ * Users are processed in key-ordered chunks, each recomputed by one set-based statement
+ * over user_ladder_status, users and ladder_levels. Chunks run through a ChunkedBackfillJob
+ * in the background, so a run interrupted by a restart resumes where it stopped.
+ */
+@Service
+public class LadderRecomputeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadderRecomputeService.class);
+
+    static final String JOB_NAME = "ladder-recompute";
+
+    private final UserLadderStatusRepository userLadderStatusRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final LadderDistributionService ladderDistributionService;
+    private final int chunkSize;
+    private final ChunkedBackfillJob recomputeJob;
+    private final ExecutorService worker;
+    private final AtomicBoolean restartRequested = new AtomicBoolean();
+    private boolean running;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LadderRecomputeService(UserLadderStatusRepository userLadderStatusRepository,
+                                  JobCheckpointRepository jobCheckpointRepository,
+                                  LadderDistributionService ladderDistributionService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${gamify.ladder.recompute.chunk-size:5000}") int chunkSize) {
+        this.userLadderStatusRepository = userLadderStatusRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.ladderDistributionService = ladderDistributionService;
+        this.chunkSize = Math.max(1, chunkSize);
+        // Chunks finished before a threshold change were computed from the old thresholds
+        this.recomputeJob = new ChunkedBackfillJob(JOB_NAME, "Ladder recompute", jobCheckpointRepository,
+                new TransactionTemplate(transactionManager), this::recomputeChunk,
+                () -> restartRequested.getAndSet(false));
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ladder-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start a recompute in the background.
+     *
+     * @param resume Whether to continue an unfinished run from its checkpoint instead of starting over.
+     * @return The progress of the run, or null if a run is already in progress.
+     */
+    public synchronized JobProgressDTO start(boolean resume) {
+        if (running) {
+            return null;
+        }
+
+        JobCheckpoint saved = recomputeJob.start(resume);
+        running = true;
+        worker.execute(() -> run(saved));
+        return toProgress(saved);
+    }
+
+    /**
+     * Recompute once the current transaction commits, or now if there is none.
+     * A run already in progress is restarted from the beginning, since the chunks it
+     * has finished were computed from the old thresholds.
+     */
+    public void requestRecomputeAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestRecompute();
+                }
+            });
+        } else {
+            requestRecompute();
+        }
+    }
+
+    private synchronized void requestRecompute() {
+        if (running) {
+            restartRequested.set(true);
+        } else {
+            start(false);
+        }
+    }
+
+    /**
+     * Resume a run that was still in progress when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        jobCheckpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> checkpoint.getStatus() == JobStatus.RUNNING)
+                .ifPresent(checkpoint -> {
+                    logger.info("Resuming ladder recompute after user {}", checkpoint.getCursor());
+                    start(true);
+                });
+    }
+
+    /**
+     * Get the progress of the current or most recent run.
+     *
+     * @return The progress, or null if no run has ever started.
+     */
+    public JobProgressDTO getProgress() {
+        return jobCheckpointRepository.findById(JOB_NAME).map(this::toProgress).orElse(null);
+    }
+
+    /**
+     * Check whether a run is in progress.
+     *
+     * @return true if a run is in progress.
+     */
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    void run(JobCheckpoint checkpoint) {
+        try {
+            JobCheckpoint finished = recomputeJob.complete(checkpoint);
+            // Levels moved in bulk, bypassing the incremental distribution counters
+            if (finished.getStatus() == JobStatus.COMPLETED && finished.getChangedCount() > 0) {
+                ladderDistributionService.reconcile();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Ladder recompute could not be finished", e);
+        } finally {
+            finish();
+        }
+    }
+
+    private ChunkedBackfillJob.Chunk recomputeChunk(String afterUserId) {
+        RecomputeChunk chunk = userLadderStatusRepository.recomputeChunk(afterUserId, chunkSize);
+        if (chunk == null || chunk.getScanned() == null) {
+            return null;
+        }
+        return new ChunkedBackfillJob.Chunk(chunk.getLastUserId(), chunk.getScanned(), chunk.getChanged());
+    }
+
+    private synchronized void finish() {
+        running = false;
+        if (restartRequested.getAndSet(false)) {
+            start(false);
+        }
+    }
+
+    private JobProgressDTO toProgress(JobCheckpoint checkpoint) {
+        return JobProgressDTO.builder()
+                .jobName(checkpoint.getJobName())
+                .status(checkpoint.getStatus())
+                .cursor(checkpoint.getCursor())
+                .processedCount(checkpoint.getProcessedCount())
+                .changedCount(checkpoint.getChangedCount())
+                .startedAt(checkpoint.getStartedAt())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .finishedAt(checkpoint.getFinishedAt())
+                .error(checkpoint.getError())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // An interrupted run keeps its RUNNING checkpoint and resumes on the next startup
+        worker.shutdownNow();
+    }
+}
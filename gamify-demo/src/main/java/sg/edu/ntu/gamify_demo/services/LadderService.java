@@ -2,10 +2,11 @@ package sg.edu.ntu.gamify_demo.services;
 
 import java.time.ZonedDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +24,8 @@ import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
 @Service
 public class LadderService {
     
+    private static final Logger logger = LoggerFactory.getLogger(LadderService.class);
+    
     @Autowired
     private UserService userService;
     
@@ -35,16 +38,27 @@ public class LadderService {
     @Autowired
     private UserLadderStatusRepository userLadderStatusRepository;
     
+    @Autowired
+    private LadderLevelIndex ladderLevelIndex;
+    
+    @Autowired
+    private LadderRecomputeService ladderRecomputeService;
+    
+    @Autowired
+    private LadderStatusProvisioner ladderStatusProvisioner;
+    
+    @Autowired
+    private LadderDistributionService ladderDistributionService;
+    
     /**
      * Get all ladder levels.
      * 
      * @return A map of level numbers to points required.
      */
     public Map<Long, Long> getLadderLevels() {
-        List<LadderLevel> levels = ladderLevelRepository.findAll();
         Map<Long, Long> ladderLevels = new HashMap<>();
         
-        for (LadderLevel level : levels) {
+        for (LadderLevel level : ladderLevelIndex.snapshot().getLevels()) {
             ladderLevels.put(level.getLevel(), level.getPointsRequired());
         }
         
@@ -64,7 +78,14 @@ public class LadderService {
             return status.get();
         }
         
-        // If the user doesn't have a ladder status yet, create one
+        // Statuses are provisioned at registration; a missing one is created with a single
+        // insert, and the full initialization below is only a fallback
+        ladderStatusProvisioner.provision(userId);
+        status = userLadderStatusRepository.findById(userId);
+        if (status.isPresent()) {
+            return status.get();
+        }
+        
         User user = userService.getUserById(userId);
         
         if (user == null) {
@@ -83,9 +104,7 @@ public class LadderService {
     @Transactional(propagation = Propagation.REQUIRED)
     public UserLadderStatus initializeUserLadderStatus(User user) {
         try {
-            // Add transaction boundary logging
-            System.out.println("Starting transaction for user ladder status initialization: " + 
-                (user != null ? user.getId() : "null user"));
+            logger.debug("Initializing ladder status for user {}", user != null ? user.getId() : null);
             
             // Ensure user is not null and has a valid ID
             if (user == null || user.getId() == null) {
@@ -93,11 +112,12 @@ public class LadderService {
             }
             
             // Get the first ladder level
-            LadderLevel firstLevel = ladderLevelRepository.findByLevel(1);
+            LadderLevelIndex.Snapshot levels = ladderLevelIndex.snapshot();
+            LadderLevel firstLevel = levels.find(1);
             
             if (firstLevel == null) {
                 // Create a default first level if none exists
-                System.out.println("First ladder level not found, creating default level");
+                logger.warn("First ladder level not found, creating default level");
                 firstLevel = new LadderLevel();
                 firstLevel.setLevel(1L);
                 firstLevel.setLabel("Beginner");
@@ -106,25 +126,25 @@ public class LadderService {
                 
                 try {
                     firstLevel = ladderLevelRepository.save(firstLevel);
-                    System.out.println("Created default ladder level: " + firstLevel.getLevel());
+                    logger.debug("Created default ladder level {}", firstLevel.getLevel());
                     
                     // Verify the level was saved correctly
                     LadderLevel verifyLevel = ladderLevelRepository.findByLevel(1);
                     if (verifyLevel == null) {
-                        System.err.println("ERROR: Failed to save default ladder level!");
+                        logger.warn("Default ladder level was not found after saving it");
                     } else {
-                        System.out.println("Verified default ladder level exists with ID: " + verifyLevel.getLevel());
+                        logger.debug("Verified default ladder level {} exists", verifyLevel.getLevel());
                     }
                 } catch (Exception e) {
-                    System.err.println("Error saving default ladder level: " + e.getMessage());
-                    e.printStackTrace();
+                    logger.warn("Error saving default ladder level, retrying", e);
                     
                     // Try one more time with a direct constructor
                     firstLevel = new LadderLevel(1L, "Beginner", 0L);
                     firstLevel = ladderLevelRepository.save(firstLevel);
                 }
+                ladderLevelIndex.refreshAfterCommit();
             } else {
-                System.out.println("Found existing ladder level: " + firstLevel.getLevel());
+                logger.debug("Found existing ladder level {}", firstLevel.getLevel());
             }
             
             // Create a new ladder status for the user with explicit ID assignment
@@ -136,7 +156,7 @@ public class LadderService {
             status.setPointsToNextLevel(100L); // Default points to next level
             
             // Calculate points to next level
-            LadderLevel nextLevel = ladderLevelRepository.findByLevel(firstLevel.getLevel().intValue() + 1);
+            LadderLevel nextLevel = levels.find(firstLevel.getLevel() + 1);
             if (nextLevel != null) {
                 Long pointsToNextLevel = nextLevel.getPointsRequired() - 
                     (user.getEarnedPoints() != null ? user.getEarnedPoints() : 0L);
@@ -147,7 +167,7 @@ public class LadderService {
             
             // Double-check ID and current level are set before saving
             if (status.getId() == null) {
-                System.out.println("WARNING: ID is still null after explicit assignment, setting from user ID");
+                logger.warn("Ladder status ID is still null after explicit assignment, setting it from the user ID");
                 status.setId(user.getId());
             }
             
@@ -155,15 +175,13 @@ public class LadderService {
                 status.setCurrentLevel(firstLevel);
             }
             
-            System.out.println("Saving UserLadderStatus with ID: " + status.getId());
             UserLadderStatus savedStatus = userLadderStatusRepository.save(status);
-            System.out.println("Successfully saved UserLadderStatus with ID: " + savedStatus.getId());
+            logger.debug("Saved ladder status for user {}", savedStatus.getId());
             
             return savedStatus;
         } catch (Exception e) {
-            // Log the exception for debugging
-            System.err.println("Error initializing UserLadderStatus: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Error initializing ladder status for user {}, saving a minimal one",
+                    user != null ? user.getId() : null, e);
             
             // Create a minimal valid status to avoid constraint violations
             if (user == null || user.getId() == null) {
@@ -171,7 +189,7 @@ public class LadderService {
             }
             
             // Get or create a default level
-            LadderLevel defaultLevel = ladderLevelRepository.findByLevel(1);
+            LadderLevel defaultLevel = ladderLevelIndex.snapshot().find(1);
             if (defaultLevel == null) {
                 defaultLevel = new LadderLevel();
                 defaultLevel.setLevel(1L);
@@ -179,6 +197,7 @@ public class LadderService {
                 defaultLevel.setPointsRequired(0L);
                 defaultLevel.setCreatedAt(ZonedDateTime.now());
                 defaultLevel = ladderLevelRepository.save(defaultLevel);
+                ladderLevelIndex.refreshAfterCommit();
             }
             
             // Create using constructor to ensure ID is set
@@ -224,33 +243,25 @@ public class LadderService {
             return null;
         }
         
+        Long previousLevel = status.getCurrentLevel().getLevel();
+        Long previousPoints = status.getEarnedPoints();
+        
         // Update earned points
         status.setEarnedPoints(user.getEarnedPoints());
         
-        // Check if the user has leveled up
-        List<LadderLevel> levels = ladderLevelRepository.findAllByOrderByLevelAsc();
+        // Check if the user has leveled up (levels are never lost)
+        LadderLevelIndex.Snapshot levels = ladderLevelIndex.snapshot();
         LadderLevel currentLevel = status.getCurrentLevel();
+        LadderLevel reachedLevel = levels.levelFor(user.getEarnedPoints());
         LadderLevel newLevel = currentLevel;
         
-        for (LadderLevel level : levels) {
-            if (level.getLevel() > currentLevel.getLevel() && user.getEarnedPoints() >= level.getPointsRequired()) {
-                newLevel = level;
-            }
-        }
-        
-        // Update level if changed
-        if (newLevel.getLevel() != currentLevel.getLevel()) {
+        if (reachedLevel != null && reachedLevel.getLevel() > currentLevel.getLevel()) {
+            newLevel = reachedLevel;
             status.setCurrentLevel(newLevel);
         }
         
         // Calculate points to next level
-        LadderLevel nextLevel = null;
-        for (LadderLevel level : levels) {
-            if (level.getLevel() > newLevel.getLevel()) {
-                nextLevel = level;
-                break;
-            }
-        }
+        LadderLevel nextLevel = levels.nextAfter(newLevel.getLevel());
         
         Long pointsToNextLevel = nextLevel != null ? 
                 nextLevel.getPointsRequired() - user.getEarnedPoints() : 
@@ -259,7 +270,10 @@ public class LadderService {
         status.setPointsToNextLevel(Math.max(0L, pointsToNextLevel));
         status.setUpdatedAt(ZonedDateTime.now());
         
-        return userLadderStatusRepository.save(status);
+        UserLadderStatus updatedStatus = userLadderStatusRepository.save(status);
+        ladderDistributionService.recordChange(previousLevel, newLevel.getLevel(),
+                previousPoints, user.getEarnedPoints());
+        return updatedStatus;
     }
     
     /**
@@ -269,7 +283,7 @@ public class LadderService {
      * @return The label for the level.
      */
     public String getLevelLabel(int level) {
-        LadderLevel ladderLevel = ladderLevelRepository.findByLevel(level);
+        LadderLevel ladderLevel = ladderLevelIndex.snapshot().find(level);
         return ladderLevel != null ? ladderLevel.getLabel() : "Unknown";
     }
     
@@ -289,7 +303,10 @@ public class LadderService {
         ladderLevel.setPointsRequired((long)pointsRequired);
         ladderLevel.setCreatedAt(ZonedDateTime.now());
         
-        return ladderLevelRepository.save(ladderLevel);
+        LadderLevel saved = ladderLevelRepository.save(ladderLevel);
+        ladderLevelIndex.refreshAfterCommit();
+        ladderRecomputeService.requestRecomputeAfterCommit();
+        return saved;
     }
     
     /**
@@ -308,10 +325,17 @@ public class LadderService {
             return null;
         }
         
+        boolean thresholdChanged = ladderLevel.getPointsRequired() != pointsRequired;
         ladderLevel.setLabel(label);
         ladderLevel.setPointsRequired((long)pointsRequired);
         
-        return ladderLevelRepository.save(ladderLevel);
+        LadderLevel saved = ladderLevelRepository.save(ladderLevel);
+        ladderLevelIndex.refreshAfterCommit();
+        if (thresholdChanged) {
+            // Existing statuses were computed from the old threshold
+            ladderRecomputeService.requestRecomputeAfterCommit();
+        }
+        return saved;
     }
     
     /**
@@ -334,6 +358,8 @@ public class LadderService {
         }
         
         ladderLevelRepository.delete(ladderLevel);
+        ladderLevelIndex.refreshAfterCommit();
+        ladderRecomputeService.requestRecomputeAfterCommit();
         return true;
     }
 }
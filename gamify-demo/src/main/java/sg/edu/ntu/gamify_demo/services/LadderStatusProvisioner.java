@@ -0,0 +1,118 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.ZonedDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.repositories.LadderLevelRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
+
+/**
+ * Creates ladder statuses ahead of the first read.
+ * Users get their status when they register, and a backfill creates any that are missing
+ * with one INSERT ... SELECT, so the lazy creation in the ladder services is only a fallback.
+ * Only repositories are used here, which lets the user services depend on it without a cycle.
+ */
+@Component
+public class LadderStatusProvisioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadderStatusProvisioner.class);
+
+    private final UserLadderStatusRepository userLadderStatusRepository;
+    private final LadderLevelRepository ladderLevelRepository;
+    private final LadderLevelIndex ladderLevelIndex;
+    private final TransactionTemplate savepointTemplate;
+    private final boolean backfillOnStartup;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LadderStatusProvisioner(UserLadderStatusRepository userLadderStatusRepository,
+                                   LadderLevelRepository ladderLevelRepository,
+                                   LadderLevelIndex ladderLevelIndex,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${gamify.ladder.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.userLadderStatusRepository = userLadderStatusRepository;
+        this.ladderLevelRepository = ladderLevelRepository;
+        this.ladderLevelIndex = ladderLevelIndex;
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * Create a user's ladder status if it doesn't exist yet.
+     * Inside a transaction, such as the one saving a new user, the status is created under a
+     * savepoint: a failure rolls back only the status, and the caller's transaction can
+     * still commit. Failures are logged rather than thrown, since the status is still
+     * created lazily on the first read.
+     *
+     * @param userId The ID of the user.
+     * @return true if the status was created by this call.
+     */
+    public boolean provision(String userId) {
+        try {
+            return Boolean.TRUE.equals(savepointTemplate.execute(status -> {
+                ensureLevelExists();
+                return userLadderStatusRepository.provisionForUser(userId) > 0;
+            }));
+        } catch (DataAccessException e) {
+            logger.warn("Could not provision ladder status for user {}; it will be created on first read", userId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Create the ladder status of every user who doesn't have one.
+     * Failures are thrown, so a caller's transaction fails with them rather than committing
+     * after a swallowed error.
+     *
+     * @return The number of statuses created.
+     */
+    public int backfill() {
+        ensureLevelExists();
+        int created = userLadderStatusRepository.provisionMissing();
+        if (created > 0) {
+            logger.info("Backfilled {} missing ladder statuses", created);
+        }
+        return created;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            backfill();
+        } catch (DataAccessException e) {
+            logger.warn("Ladder status backfill failed at startup", e);
+        }
+    }
+
+    /**
+     * Make sure there is a level to place users on, creating the default first level
+     * if the ladder is empty.
+     */
+    private void ensureLevelExists() {
+        if (ladderLevelIndex.snapshot().size() > 0 || ladderLevelIndex.reload().size() > 0) {
+            return;
+        }
+
+        LadderLevel defaultLevel = new LadderLevel();
+        defaultLevel.setLevel(1L);
+        defaultLevel.setLabel("Beginner");
+        defaultLevel.setPointsRequired(0L);
+        defaultLevel.setCreatedAt(ZonedDateTime.now());
+        ladderLevelRepository.save(defaultLevel);
+        ladderLevelIndex.refreshAfterCommit();
+    }
+}
@@ -1,8 +1,9 @@
 package sg.edu.ntu.gamify_demo.services;
 
 import java.time.ZonedDateTime;
-import java.util.List;
 import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,10 +25,16 @@ import sg.edu.ntu.gamify_demo.strategies.PointsCalculationStrategy;
 @Service
 public class LadderStatusServiceImpl implements LadderStatusService {
     
+    private static final Logger logger = LoggerFactory.getLogger(LadderStatusServiceImpl.class);
+    
     private final UserService userService;
     private final LadderLevelRepository ladderLevelRepository;
     private final UserLadderStatusRepository userLadderStatusRepository;
     private final PointsCalculationStrategy pointsCalculationStrategy;
+    private final LadderLevelIndex ladderLevelIndex;
+    private final LadderStatusProvisioner ladderStatusProvisioner;
+    private final LadderDistributionService ladderDistributionService;
+    private final LadderUpdateCoalescer ladderUpdateCoalescer;
     
     /**
      * Constructor for dependency injection.
@@ -36,11 +43,19 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             UserService userService,
             LadderLevelRepository ladderLevelRepository,
             UserLadderStatusRepository userLadderStatusRepository,
-            PointsCalculationStrategy pointsCalculationStrategy) {
+            PointsCalculationStrategy pointsCalculationStrategy,
+            LadderLevelIndex ladderLevelIndex,
+            LadderStatusProvisioner ladderStatusProvisioner,
+            LadderDistributionService ladderDistributionService,
+            LadderUpdateCoalescer ladderUpdateCoalescer) {
         this.userService = userService;
         this.ladderLevelRepository = ladderLevelRepository;
         this.userLadderStatusRepository = userLadderStatusRepository;
         this.pointsCalculationStrategy = pointsCalculationStrategy;
+        this.ladderLevelIndex = ladderLevelIndex;
+        this.ladderStatusProvisioner = ladderStatusProvisioner;
+        this.ladderDistributionService = ladderDistributionService;
+        this.ladderUpdateCoalescer = ladderUpdateCoalescer;
     }
     
     @Override
@@ -69,27 +84,25 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             return null;
         }
         
+        Long previousLevel = status.getCurrentLevel().getLevel();
+        Long previousPoints = status.getEarnedPoints();
+        
         // Update earned points
         status.setEarnedPoints(user.getEarnedPoints());
         
-        // Check if the user has leveled up
-        List<LadderLevel> levels = ladderLevelRepository.findAllByOrderByLevelAsc();
+        // Check if the user has leveled up (levels are never lost)
+        LadderLevelIndex.Snapshot levels = ladderLevelIndex.snapshot();
         LadderLevel currentLevel = status.getCurrentLevel();
+        LadderLevel reachedLevel = levels.levelFor(user.getEarnedPoints());
         LadderLevel newLevel = currentLevel;
         
-        for (LadderLevel level : levels) {
-            if (level.getLevel() > currentLevel.getLevel() && user.getEarnedPoints() >= level.getPointsRequired()) {
-                newLevel = level;
-            }
-        }
-        
-        // Update level if changed
-        if (newLevel.getLevel() != currentLevel.getLevel()) {
+        if (reachedLevel != null && reachedLevel.getLevel() > currentLevel.getLevel()) {
+            newLevel = reachedLevel;
             status.setCurrentLevel(newLevel);
         }
         
         // Find the next level
-        LadderLevel nextLevel = findNextLevel(levels, newLevel);
+        LadderLevel nextLevel = levels.nextAfter(newLevel.getLevel());
         
         // Calculate points to next level using the strategy
         Long pointsToNextLevel = (long) pointsCalculationStrategy.calculatePointsToNextLevel(
@@ -99,10 +112,17 @@ public class LadderStatusServiceImpl implements LadderStatusService {
         status.setUpdatedAt(ZonedDateTime.now());
         
         UserLadderStatus updatedStatus = userLadderStatusRepository.save(status);
+        ladderDistributionService.recordChange(previousLevel, newLevel.getLevel(),
+                previousPoints, user.getEarnedPoints());
         
         return convertToDTO(updatedStatus);
     }
     
+    @Override
+    public void requestLadderStatusUpdate(String userId) {
+        ladderUpdateCoalescer.markDirty(userId, this::updateUserLadderStatus);
+    }
+    
     /**
      * Get a user's ladder status entity.
      * If the user doesn't have a ladder status yet, initialize one.
@@ -117,7 +137,14 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             return statusOpt.get();
         }
         
-        // If the user doesn't have a ladder status yet, create one
+        // Statuses are provisioned at registration; a missing one is created with a single
+        // insert, and the full initialization below is only a fallback
+        ladderStatusProvisioner.provision(userId);
+        statusOpt = userLadderStatusRepository.findById(userId);
+        if (statusOpt.isPresent()) {
+            return statusOpt.get();
+        }
+        
         User user = userService.getUserById(userId);
         
         if (user == null) {
@@ -136,9 +163,7 @@ public class LadderStatusServiceImpl implements LadderStatusService {
     @Transactional(propagation = Propagation.REQUIRED)
     private UserLadderStatus initializeUserLadderStatus(User user) {
         try {
-            // Add transaction boundary logging
-            System.out.println("LadderStatusServiceImpl: Starting transaction for user ladder status initialization: " + 
-                (user != null ? user.getId() : "null user"));
+            logger.debug("Initializing ladder status for user {}", user != null ? user.getId() : null);
             
             // Ensure user is not null and has a valid ID
             if (user == null || user.getId() == null) {
@@ -146,11 +171,12 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             }
             
             // Get the first ladder level
-            LadderLevel firstLevel = ladderLevelRepository.findByLevel(1);
+            LadderLevelIndex.Snapshot levels = ladderLevelIndex.snapshot();
+            LadderLevel firstLevel = levels.find(1);
             
             if (firstLevel == null) {
                 // Create a default first level if none exists
-                System.out.println("LadderStatusServiceImpl: First ladder level not found, creating default level");
+                logger.warn("First ladder level not found, creating default level");
                 firstLevel = new LadderLevel();
                 firstLevel.setLevel(1L);
                 firstLevel.setLabel("Beginner");
@@ -159,25 +185,25 @@ public class LadderStatusServiceImpl implements LadderStatusService {
                 
                 try {
                     firstLevel = ladderLevelRepository.save(firstLevel);
-                    System.out.println("LadderStatusServiceImpl: Created default ladder level: " + firstLevel.getLevel());
+                    logger.debug("Created default ladder level {}", firstLevel.getLevel());
                     
                     // Verify the level was saved correctly
                     LadderLevel verifyLevel = ladderLevelRepository.findByLevel(1);
                     if (verifyLevel == null) {
-                        System.err.println("LadderStatusServiceImpl: ERROR: Failed to save default ladder level!");
+                        logger.warn("Default ladder level was not found after saving it");
                     } else {
-                        System.out.println("LadderStatusServiceImpl: Verified default ladder level exists with ID: " + verifyLevel.getLevel());
+                        logger.debug("Verified default ladder level {} exists", verifyLevel.getLevel());
                     }
                 } catch (Exception e) {
-                    System.err.println("LadderStatusServiceImpl: Error saving default ladder level: " + e.getMessage());
-                    e.printStackTrace();
+                    logger.warn("Error saving default ladder level, retrying", e);
                     
                     // Try one more time with a direct constructor
                     firstLevel = new LadderLevel(1L, "Beginner", 0L);
                     firstLevel = ladderLevelRepository.save(firstLevel);
                 }
+                ladderLevelIndex.refreshAfterCommit();
             } else {
-                System.out.println("LadderStatusServiceImpl: Found existing ladder level: " + firstLevel.getLevel());
+                logger.debug("Found existing ladder level {}", firstLevel.getLevel());
             }
             
             // Create a new ladder status for the user with explicit ID assignment
@@ -189,8 +215,7 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             status.setPointsToNextLevel(100L); // Default points to next level
             
             // Find the next level
-            List<LadderLevel> levels = ladderLevelRepository.findAllByOrderByLevelAsc();
-            LadderLevel nextLevel = findNextLevel(levels, firstLevel);
+            LadderLevel nextLevel = levels.nextAfter(firstLevel.getLevel());
             
             // Calculate points to next level using the strategy
             if (nextLevel != null) {
@@ -205,19 +230,17 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             
             // Double-check ID is set before saving
             if (status.getId() == null) {
-                System.out.println("LadderStatusServiceImpl: WARNING: ID is still null after explicit assignment, setting from user ID");
+                logger.warn("Ladder status ID is still null after explicit assignment, setting it from the user ID");
                 status.setId(user.getId());
             }
             
-            System.out.println("LadderStatusServiceImpl: Saving UserLadderStatus with ID: " + status.getId());
             UserLadderStatus savedStatus = userLadderStatusRepository.save(status);
-            System.out.println("LadderStatusServiceImpl: Successfully saved UserLadderStatus with ID: " + savedStatus.getId());
+            logger.debug("Saved ladder status for user {}", savedStatus.getId());
             
             return savedStatus;
         } catch (Exception e) {
-            // Log the exception for debugging
-            System.err.println("Error initializing UserLadderStatus: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Error initializing ladder status for user {}, saving a minimal one",
+                    user != null ? user.getId() : null, e);
             
             // Create a minimal valid status to avoid constraint violations
             if (user == null || user.getId() == null) {
@@ -252,7 +275,7 @@ public class LadderStatusServiceImpl implements LadderStatusService {
      * @return The default ladder level.
      */
     private LadderLevel ensureDefaultLevelExists() {
-        LadderLevel defaultLevel = ladderLevelRepository.findByLevel(1);
+        LadderLevel defaultLevel = ladderLevelIndex.snapshot().find(1);
         if (defaultLevel == null) {
             defaultLevel = new LadderLevel();
             defaultLevel.setLevel(1L);
@@ -260,26 +283,11 @@ public class LadderStatusServiceImpl implements LadderStatusService {
             defaultLevel.setPointsRequired(0L);
             defaultLevel.setCreatedAt(ZonedDateTime.now());
             defaultLevel = ladderLevelRepository.save(defaultLevel);
+            ladderLevelIndex.refreshAfterCommit();
         }
         return defaultLevel;
     }
     
-    /**
-     * Find the next level after the current level.
-     * 
-     * @param levels All ladder levels, ordered by level.
-     * @param currentLevel The current level.
-     * @return The next level, or null if at max level.
-     */
-    private LadderLevel findNextLevel(List<LadderLevel> levels, LadderLevel currentLevel) {
-        for (LadderLevel level : levels) {
-            if (level.getLevel() > currentLevel.getLevel()) {
-                return level;
-            }
-        }
-        return null; // No next level (at max level)
-    }
-    
     /**
      * Convert a UserLadderStatus entity to a LadderStatusDTO.
      * 
@@ -0,0 +1,121 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces ladder status updates within a transaction.
+ * A task completion reaches the ladder through several paths (the points award, the
+ * PointsEarnedEvent subscriber and the task command itself); each of them only marks the user
+ * dirty here, and every dirty user is recomputed once just before the transaction commits.
+ * Each user's update runs under a savepoint, so one that fails is rolled back on its own and
+ * the transaction still commits. Outside a transaction the update runs immediately.
+ */
+@Component
+public class LadderUpdateCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LadderUpdateCoalescer.class);
+
+    private final Counter deferred;
+    private final Counter coalesced;
+    private final TransactionTemplate savepointTemplate;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LadderUpdateCoalescer(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.deferred = Counter.builder("gamify.ladder.updates.deferred")
+                .description("Ladder status updates deferred to transaction commit")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("gamify.ladder.updates.coalesced")
+                .description("Ladder status updates avoided because the user was already pending")
+                .register(meterRegistry);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Mark a user's ladder status as needing an update.
+     *
+     * @param userId The ID of the user.
+     * @param update The update to run for each dirty user.
+     */
+    public void markDirty(String userId, Consumer<String> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.accept(userId);
+            return;
+        }
+
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork == null) {
+            unitOfWork = new UnitOfWork(update, savepointTemplate);
+            TransactionSynchronizationManager.registerSynchronization(unitOfWork);
+        }
+        if (unitOfWork.dirty.add(userId)) {
+            deferred.increment();
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Find this transaction's unit of work. Synchronizations are suspended along with their
+     * transaction, so a REQUIRES_NEW transaction gets a unit of work of its own.
+     */
+    private static UnitOfWork currentUnitOfWork() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof UnitOfWork unitOfWork && !unitOfWork.flushed) {
+                return unitOfWork;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The users marked dirty in one transaction.
+     */
+    private static final class UnitOfWork implements TransactionSynchronization {
+        private final Set<String> dirty = new LinkedHashSet<>();
+        private final Consumer<String> update;
+        private final TransactionTemplate savepointTemplate;
+        private boolean flushed;
+
+        UnitOfWork(Consumer<String> update, TransactionTemplate savepointTemplate) {
+            this.update = update;
+            this.savepointTemplate = savepointTemplate;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Updates run inside the committing transaction; a user marked dirty during the
+            // flush itself is picked up by the next pass
+            while (!dirty.isEmpty()) {
+                List<String> userIds = new ArrayList<>(dirty);
+                dirty.clear();
+                for (String userId : userIds) {
+                    try {
+                        savepointTemplate.executeWithoutResult(status -> update.accept(userId));
+                    } catch (RuntimeException e) {
+                        // A failed ladder update must not fail the points award that caused it;
+                        // rolling back to the savepoint keeps the transaction committable
+                        logger.error("Error updating ladder status for user {}", userId, e);
+                    }
+                }
+            }
+            flushed = true;
+        }
+    }
+}
@@ -1,12 +1,464 @@
-// Java class for LeaderBoardService
-// LeaderBoardService.java
-
 package sg.edu.ntu.gamify_demo.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sg.edu.ntu.gamify_demo.dtos.LeaderboardEntryDTO;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.UserScore;
+
+/**
+ * Service for the leaderboard, ranked by earned points.
+ * Ranks are served from in-memory RankIndex shards, one per department, that are rebuilt from
+ * the users table at startup and kept current by PointsEarnedEvent. Each event sets the user's
+ * committed score, so decreases show as well as increases; a periodic rebuild picks up changes
+ * made without an event, such as reconciliation repairs, admin edits and deleted users, and
+ * corrects events applied out of order. An update touches only the
+ * user's shard, each shard has its own lock, and global ranks and lists are derived by summing
+ * shard counts and k-way merging shard entries. The merged views are not a snapshot across
+ * shards: an update landing in another department mid-read may or may not be reflected.
+ * The leaderboard table is a periodically persisted copy of the global ranks: only rows whose
+ * rank or points changed since the last run are written.
+ */
+@Service
 public class LeaderBoardService {
-    // Constructor
-    public LeaderBoardService() {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderBoardService.class);
+
+    static final int MAX_LIMIT = 1000;
+    static final int MAX_RADIUS = 100;
+    private static final int PERSIST_BATCH_SIZE = 500;
+
+    // Rows without a ladder status are skipped until the status is provisioned
+    private static final String UPSERT_SQL =
+            "INSERT INTO leaderboard (user_id, username, department, earned_points, current_level, rank) "
+            + "SELECT u.id, u.username, u.department, ?, s.current_level, ? "
+            + "FROM users u JOIN user_ladder_status s ON s.user_id = u.id WHERE u.id = ? "
+            + "ON CONFLICT (user_id) DO UPDATE SET username = EXCLUDED.username, department = EXCLUDED.department, "
+            + "earned_points = EXCLUDED.earned_points, current_level = EXCLUDED.current_level, rank = EXCLUDED.rank";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, RankIndex.Ranked> persisted = new HashMap<>();
+    private final Object rebuildLock = new Object();
+    private volatile Shards shards = new Shards();
+    private volatile Shards rebuilding;
+    private volatile boolean loaded;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LeaderBoardService(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record a user's earned points once the current transaction commits, or now if there is none.
+     *
+     * @param user The user, carrying the new earned points.
+     */
+    public void recordScore(User user) {
+        String userId = user.getId();
+        String username = user.getUsername();
+        String department = user.getDepartment();
+        long earnedPoints = user.getEarnedPoints() != null ? user.getEarnedPoints() : 0L;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, username, department, earnedPoints);
+                }
+            });
+        } else {
+            apply(userId, username, department, earnedPoints);
+        }
+    }
+
+    private void apply(String userId, String username, String department, long earnedPoints) {
+        profiles.put(userId, new Profile(username, department));
+        // A rebuild in progress gets the update too, in case it read the user before it
+        Shards pending = rebuilding;
+        if (pending != null) {
+            pending.update(userId, department, earnedPoints);
+        }
+        shards.update(userId, department, earnedPoints);
+    }
+
+    /**
+     * Get the top of the leaderboard.
+     *
+     * @param limit The maximum number of entries, capped at MAX_LIMIT.
+     * @return The entries in rank order.
+     */
+    public List<LeaderboardEntryDTO> getTop(int limit) {
+        Shards current = shards;
+        int k = Math.min(Math.max(limit, 0), MAX_LIMIT);
+
+        // The global top k is among the top k of every department
+        List<List<RankIndex.Ranked>> heads = new ArrayList<>();
+        for (RankIndex shard : current.all()) {
+            heads.add(shard.top(k));
+        }
+        List<RankIndex.Ranked> merged = merge(heads, k);
+        return toDTOs(merged, rerank(current, merged, 0));
+    }
+
+    /**
+     * Get a user's place on the leaderboard.
+     *
+     * @param userId The ID of the user.
+     * @return The user's global and department ranks, or null if the user is not ranked.
+     */
+    public LeaderboardEntryDTO getUserEntry(String userId) {
+        Shards current = shards;
+        RankIndex.Ranked inDepartment = current.find(userId);
+        if (inDepartment == null) {
+            return null;
+        }
+        return toDTO(inDepartment, current.countAbove(inDepartment.score()) + 1);
+    }
+
+    /**
+     * Get a user's neighbourhood on the leaderboard.
+     *
+     * @param userId The ID of the user.
+     * @param radius The number of users to include above and below, capped at MAX_RADIUS.
+     * @return The user and the neighbouring entries in rank order, or null if the user is not ranked.
+     */
+    public List<LeaderboardEntryDTO> getAround(String userId, int radius) {
+        Shards current = shards;
+        RankIndex.Ranked self = current.find(userId);
+        if (self == null) {
+            return null;
+        }
+        int r = Math.min(Math.max(radius, 0), MAX_RADIUS);
+
+        // The r users on either side globally are among the r on either side in every department
+        List<List<RankIndex.Ranked>> windows = new ArrayList<>();
+        for (RankIndex shard : current.all()) {
+            long before = shard.countBefore(self.score(), userId);
+            long from = Math.max(0, before - r);
+            windows.add(shard.range(from, (int) (before - from) + r + 1));
+        }
+        List<RankIndex.Ranked> merged = merge(windows, Integer.MAX_VALUE);
+
+        int selfIndex = -1;
+        for (int i = 0; i < merged.size() && selfIndex < 0; i++) {
+            if (merged.get(i).userId().equals(userId)) {
+                selfIndex = i;
+            }
+        }
+        if (selfIndex < 0) {
+            // Moved to another department while the windows were read
+            return null;
+        }
+
+        int start = Math.max(0, selfIndex - r);
+        List<RankIndex.Ranked> window = merged.subList(start, Math.min(merged.size(), selfIndex + r + 1));
+        long firstPosition = current.countBefore(self.score(), userId) - (selfIndex - start);
+        return toDTOs(window, rerank(current, window, firstPosition));
+    }
+
+    /**
+     * Get the top of a department's leaderboard.
+     *
+     * @param department The department.
+     * @param limit The maximum number of entries, capped at MAX_LIMIT.
+     * @return The entries in department rank order, empty if the department has no ranked users.
+     */
+    public List<LeaderboardEntryDTO> getDepartmentTop(String department, int limit) {
+        Shards current = shards;
+        RankIndex shard = current.shard(department);
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        if (shard == null) {
+            return entries;
+        }
+        for (RankIndex.Ranked ranked : shard.top(Math.min(Math.max(limit, 0), MAX_LIMIT))) {
+            entries.add(toDTO(ranked, current.countAbove(ranked.score()) + 1));
+        }
+        return entries;
+    }
+
+    /**
+     * Rebuild the department shards from the users table and swap them in.
+     * A score recorded while the rebuild runs is newer than the one it read, so it is kept.
+     *
+     * @return The number of users ranked.
+     */
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            Shards fresh = new Shards();
+            rebuilding = fresh;
+            try {
+                for (UserScore score : userRepository.findAllScores()) {
+                    profiles.put(score.getId(), new Profile(score.getUsername(), score.getDepartment()));
+                    fresh.seed(score.getId(), score.getDepartment(),
+                            score.getEarnedPoints() != null ? score.getEarnedPoints() : 0L);
+                }
+                shards = fresh;
+                loaded = true;
+            } finally {
+                rebuilding = null;
+            }
+            logger.info("Leaderboard rebuilt with {} users", fresh.size());
+            return fresh.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            logger.warn("Leaderboard rebuild failed at startup", e);
+        }
+    }
+
+    /**
+     * Rebuild periodically, so scores changed without a PointsEarnedEvent are brought in line.
+     */
+    @Scheduled(fixedDelayString = "${gamify.leaderboard.rebuild-interval-ms:600000}",
+            initialDelayString = "${gamify.leaderboard.rebuild-interval-ms:600000}")
+    public void rebuildPeriodically() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            logger.warn("Periodic leaderboard rebuild failed; retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Write global ranks and points that changed since the last run to the leaderboard table.
+     *
+     * @return The number of rows written.
+     */
+    @Scheduled(fixedDelayString = "${gamify.leaderboard.persist-interval-ms:60000}")
+    public synchronized int persist() {
+        if (!loaded) {
+            return 0;
+        }
+
+        Shards current = shards;
+        List<List<RankIndex.Ranked>> departments = new ArrayList<>();
+        for (RankIndex shard : current.all()) {
+            departments.add(shard.range(0, shard.size()));
+        }
+        List<RankIndex.Ranked> changed = new ArrayList<>();
+        for (RankIndex.Ranked ranked : rerank(current, merge(departments, Integer.MAX_VALUE), 0)) {
+            RankIndex.Ranked previous = persisted.get(ranked.userId());
+            if (previous == null || previous.rank() != ranked.rank() || previous.score() != ranked.score()) {
+                changed.add(ranked);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        int written = 0;
+        try {
+            int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, changed, PERSIST_BATCH_SIZE, (statement, ranked) -> {
+                statement.setLong(1, ranked.score());
+                statement.setLong(2, ranked.rank());
+                statement.setString(3, ranked.userId());
+            });
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    RankIndex.Ranked ranked = changed.get(i++);
+                    if (count != 0) {
+                        persisted.put(ranked.userId(), ranked);
+                        written++;
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Persisting the leaderboard failed; retrying on the next run", e);
+        }
+        logger.debug("Persisted {} of {} changed leaderboard rows", written, changed.size());
+        return written;
+    }
+
+    /**
+     * Build an entry with the display fields of a ranked user, for boards ranked elsewhere.
+     *
+     * @param userId The ID of the user.
+     * @param points The points the user is ranked by.
+     * @param rank The user's rank.
+     * @return The entry, without a department rank.
+     */
+    LeaderboardEntryDTO describe(String userId, long points, long rank) {
+        Profile profile = profiles.get(userId);
+        return LeaderboardEntryDTO.builder()
+                .rank(rank)
+                .userId(userId)
+                .username(profile != null ? profile.username() : null)
+                .department(profile != null ? profile.department() : null)
+                .earnedPoints(points)
+                .build();
+    }
+
+    /**
+     * Merge entries of several shards, each in rank order, into one list in rank order.
+     */
+    static List<RankIndex.Ranked> merge(List<List<RankIndex.Ranked>> lists, int limit) {
+        // Heap of {list, offset} cursors ordered by the entry they point at
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, lists.size()),
+                (a, b) -> RankIndex.RANK_ORDER.compare(lists.get(a[0]).get(a[1]), lists.get(b[0]).get(b[1])));
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+
+        List<RankIndex.Ranked> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<RankIndex.Ranked> list = lists.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Assign global ranks and positions to consecutive entries of the merged order.
+     */
+    private static List<RankIndex.Ranked> rerank(Shards current, List<RankIndex.Ranked> merged, long firstPosition) {
+        List<RankIndex.Ranked> global = new ArrayList<>(merged.size());
+        if (merged.isEmpty()) {
+            return global;
+        }
+
+        long position = firstPosition;
+        long previousScore = merged.get(0).score();
+        long rank = current.countAbove(previousScore) + 1;
+        for (RankIndex.Ranked entry : merged) {
+            if (entry.score() != previousScore) {
+                rank = position + 1;
+                previousScore = entry.score();
+            }
+            global.add(new RankIndex.Ranked(entry.userId(), entry.score(), rank, position));
+            position++;
+        }
+        return global;
+    }
+
+    private List<LeaderboardEntryDTO> toDTOs(List<RankIndex.Ranked> inDepartment, List<RankIndex.Ranked> global) {
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(global.size());
+        for (int i = 0; i < global.size(); i++) {
+            entries.add(toDTO(inDepartment.get(i), global.get(i).rank()));
+        }
+        return entries;
     }
 
-    // Methods
+    private LeaderboardEntryDTO toDTO(RankIndex.Ranked inDepartment, long rank) {
+        Profile profile = profiles.get(inDepartment.userId());
+        return LeaderboardEntryDTO.builder()
+                .rank(rank)
+                .departmentRank(inDepartment.rank())
+                .userId(inDepartment.userId())
+                .username(profile != null ? profile.username() : null)
+                .department(profile != null ? profile.department() : null)
+                .earnedPoints(inDepartment.score())
+                .build();
+    }
+
+    /**
+     * One RankIndex per department. Users without a department share a shard.
+     */
+    private static final class Shards {
+        private final Map<String, RankIndex> byDepartment = new ConcurrentHashMap<>();
+        private final Map<String, String> departmentOf = new ConcurrentHashMap<>();
+
+        void update(String userId, String department, long score) {
+            String key = key(department);
+            // Serialized per user, so a department move can't leave the user in two shards
+            departmentOf.compute(userId, (id, previous) -> {
+                if (previous != null && !previous.equals(key)) {
+                    RankIndex old = byDepartment.get(previous);
+                    if (old != null) {
+                        old.remove(userId);
+                    }
+                }
+                byDepartment.computeIfAbsent(key, k -> new RankIndex()).update(userId, score);
+                return key;
+            });
+        }
+
+        void seed(String userId, String department, long score) {
+            String key = key(department);
+            departmentOf.computeIfAbsent(userId, id -> {
+                byDepartment.computeIfAbsent(key, k -> new RankIndex()).update(userId, score);
+                return key;
+            });
+        }
+
+        RankIndex.Ranked find(String userId) {
+            String key = departmentOf.get(userId);
+            RankIndex shard = key != null ? byDepartment.get(key) : null;
+            return shard != null ? shard.find(userId) : null;
+        }
+
+        RankIndex shard(String department) {
+            return byDepartment.get(key(department));
+        }
+
+        Collection<RankIndex> all() {
+            return byDepartment.values();
+        }
+
+        long countAbove(long score) {
+            long count = 0;
+            for (RankIndex shard : byDepartment.values()) {
+                count += shard.countAbove(score);
+            }
+            return count;
+        }
+
+        long countBefore(long score, String userId) {
+            long count = 0;
+            for (RankIndex shard : byDepartment.values()) {
+                count += shard.countBefore(score, userId);
+            }
+            return count;
+        }
+
+        int size() {
+            int size = 0;
+            for (RankIndex shard : byDepartment.values()) {
+                size += shard.size();
+            }
+            return size;
+        }
+
+        private static String key(String department) {
+            return department != null ? department : "";
+        }
+    }
+
+    /**
+     * Display fields of a ranked user.
+     */
+    private record Profile(String username, String department) {
+    }
 }
@@ -1,10 +1,14 @@
 package sg.edu.ntu.gamify_demo.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sg.edu.ntu.gamify_demo.models.Leaderboard;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.repositories.LeaderboardRepository;
+import sg.edu.ntu.gamify_demo.repositories.LeaderboardRepository.SyncChunk;
 import sg.edu.ntu.gamify_demo.repositories.UserRepository;
 
 /**
@@ -14,12 +18,17 @@ import sg.edu.ntu.gamify_demo.repositories.UserRepository;
 @Service
 public class LeaderboardSyncService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardSyncService.class);
+
     private final LeaderboardRepository leaderboardRepository;
     private final UserRepository userRepository;
+    private final int chunkSize;
 
-    public LeaderboardSyncService(LeaderboardRepository leaderboardRepository, UserRepository userRepository) {
+    public LeaderboardSyncService(LeaderboardRepository leaderboardRepository, UserRepository userRepository,
+                                  @Value("${gamify.leaderboard.sync.chunk-size:5000}") int chunkSize) {
         this.leaderboardRepository = leaderboardRepository;
         this.userRepository = userRepository;
+        this.chunkSize = Math.max(1, chunkSize);
     }
 
     /**
@@ -47,15 +56,43 @@ public class LeaderboardSyncService {
     }
 
     /**
-     * Synchronizes all leaderboard entries with their respective users' data.
+     * Synchronizes all leaderboard entries with their respective users' data and re-ranks them.
      * This is useful for bulk updates or scheduled synchronization.
+     * Users are walked in rank order by keyset, and each chunk is synced and committed by one
+     * set-based statement, so no entities are loaded and no transaction spans the whole table.
+     * Points that change during the run can leave ranks slightly off across chunk boundaries
+     * until the next run.
+     * 
+     * @return The number of leaderboard entries that changed.
      */
-    @Transactional
-    public void syncAllLeaderboards() {
-        leaderboardRepository.findAll().forEach(leaderboard -> {
-            leaderboard.syncWithUser();
-            leaderboardRepository.save(leaderboard);
-        });
+    public long syncAllLeaderboards() {
+        long afterEarnedPoints = Long.MAX_VALUE;
+        String afterUserId = "";
+        long afterRank = 0;
+        long scanned = 0;
+        long changed = 0;
+
+        while (true) {
+            SyncChunk chunk = leaderboardRepository.syncChunk(afterEarnedPoints, afterUserId, afterRank, scanned, chunkSize);
+            long chunkScanned = chunk != null && chunk.getScanned() != null ? chunk.getScanned() : 0L;
+            if (chunkScanned == 0) {
+                break;
+            }
+
+            afterEarnedPoints = chunk.getLastEarnedPoints();
+            afterUserId = chunk.getLastUserId();
+            afterRank = chunk.getLastRank();
+            scanned += chunkScanned;
+            changed += chunk.getChanged();
+            logger.info("Leaderboard sync: {} users ranked, {} entries changed", scanned, changed);
+
+            if (chunkScanned < chunkSize) {
+                break;
+            }
+        }
+
+        logger.info("Leaderboard sync completed: {} users ranked, {} entries changed", scanned, changed);
+        return changed;
     }
 
     /**
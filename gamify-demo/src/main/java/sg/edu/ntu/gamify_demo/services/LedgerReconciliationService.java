@@ -0,0 +1,275 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import sg.edu.ntu.gamify_demo.dtos.LedgerMismatchDTO;
+import sg.edu.ntu.gamify_demo.dtos.ReconciliationReportDTO;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository.LedgerMismatch;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+
+/**
+ * Service for reconciling stored user balances against the full points ledger.
+ * A dispatcher thread walks the users table by keyset pagination and hands each id range
+ * to a fork-join pool, where one grouped query recomputes the range's balances from
+ * points_transactions and returns only the users that disagree. Mismatches are reported
+ * and, when requested, repaired with a compare-and-set update.
+ */
+@Service
+public class LedgerReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciliationService.class);
+
+    static final int MAX_REPORTED_MISMATCHES = 1000;
+
+    private final UserRepository userRepository;
+    private final PointsTransactionRepository pointsTransactionRepository;
+    private final PointsWriteBehindAggregator writeBehind;
+    private final int parallelism;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final ExecutorService dispatcher;
+    private ReconciliationJob latest;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public LedgerReconciliationService(UserRepository userRepository,
+                                       PointsTransactionRepository pointsTransactionRepository,
+                                       PointsWriteBehindAggregator writeBehind,
+                                       @Value("${gamify.points.reconciliation.parallelism:4}") int parallelism,
+                                       @Value("${gamify.points.reconciliation.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.pointsTransactionRepository = pointsTransactionRepository;
+        this.writeBehind = writeBehind;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start a reconciliation job in the background.
+     *
+     * @param repair Whether mismatched balances should be overwritten with the ledger values.
+     * @return The initial report of the new job, or null if a job is already running.
+     */
+    public synchronized ReconciliationReportDTO start(boolean repair) {
+        if (latest != null && latest.status == JobStatus.RUNNING) {
+            return null;
+        }
+
+        ReconciliationJob job = new ReconciliationJob(UUID.randomUUID().toString(), repair);
+        latest = job;
+        dispatcher.execute(() -> run(job));
+        return job.toReport();
+    }
+
+    /**
+     * Get the report of the most recent job, including one still running.
+     *
+     * @return The report, or null if no job has been started since startup.
+     */
+    public synchronized ReconciliationReportDTO getLatestReport() {
+        return latest != null ? latest.toReport() : null;
+    }
+
+    /**
+     * Walk the users table and reconcile it range by range.
+     * At most twice the pool's parallelism ranges are queued at once, so the dispatcher
+     * never gets far ahead of the workers on a large table.
+     */
+    void run(ReconciliationJob job) {
+        logger.info("Ledger reconciliation {} started (repair={})", job.id, job.repair);
+        int permits = parallelism * 2;
+        Semaphore inFlight = new Semaphore(permits);
+
+        try {
+            String afterId = "";
+            while (job.error == null) {
+                String toId = userRepository.findKeysetBoundary(afterId, chunkSize - 1);
+                long size = chunkSize;
+                if (toId == null) {
+                    size = userRepository.countByIdGreaterThan(afterId);
+                    toId = size > 0 ? userRepository.findMaxId() : null;
+                }
+                if (toId == null) {
+                    break;
+                }
+
+                inFlight.acquire();
+                String rangeStart = afterId;
+                String rangeEnd = toId;
+                long rangeSize = size;
+                pool.execute(() -> {
+                    try {
+                        reconcileRange(job, rangeStart, rangeEnd);
+                        job.usersChecked.addAndGet(rangeSize);
+                        job.rangesCompleted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        job.fail(e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+
+                if (size < chunkSize) {
+                    break;
+                }
+                afterId = toId;
+            }
+
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        } catch (RuntimeException e) {
+            job.fail(e);
+        }
+
+        finish(job);
+    }
+
+    /**
+     * Reconcile the users with IDs in (afterId, toId].
+     */
+    void reconcileRange(ReconciliationJob job, String afterId, String toId) {
+        List<LedgerMismatch> mismatches = pointsTransactionRepository.findLedgerMismatches(afterId, toId);
+        for (LedgerMismatch mismatch : mismatches) {
+            boolean repaired = false;
+            if (job.repair) {
+                repaired = repair(mismatch);
+                if (repaired) {
+                    job.repairedCount.incrementAndGet();
+                } else {
+                    job.skippedCount.incrementAndGet();
+                }
+            }
+            job.addMismatch(LedgerMismatchDTO.builder()
+                    .userId(mismatch.getUserId())
+                    .userEarnedPoints(mismatch.getUserEarnedPoints())
+                    .userAvailablePoints(mismatch.getUserAvailablePoints())
+                    .ledgerEarnedPoints(mismatch.getLedgerEarnedPoints())
+                    .ledgerAvailablePoints(mismatch.getLedgerAvailablePoints())
+                    .repaired(repaired)
+                    .build());
+        }
+    }
+
+    /**
+     * Overwrite a user's balances with the ledger values.
+     * Users with buffered write-behind points are skipped, since their ledger legitimately
+     * runs ahead of the stored balance. The update only applies if the balances still hold
+     * the values the mismatch was computed from; anything that moved them since also wrote
+     * the ledger in the same transaction, so the next run will look at it again.
+     *
+     * @return true if the balances were replaced.
+     */
+    private boolean repair(LedgerMismatch mismatch) {
+        if (writeBehind != null && writeBehind.getPendingPoints(mismatch.getUserId()) != 0) {
+            return false;
+        }
+
+        return userRepository.replaceBalances(mismatch.getUserId(),
+                mismatch.getUserEarnedPoints(), mismatch.getUserAvailablePoints(),
+                mismatch.getLedgerEarnedPoints(), mismatch.getLedgerAvailablePoints()) == 1;
+    }
+
+    private synchronized void finish(ReconciliationJob job) {
+        job.finishedAt = ZonedDateTime.now();
+        job.status = job.error == null ? JobStatus.COMPLETED : JobStatus.FAILED;
+        logger.info("Ledger reconciliation {} {}: {} users checked, {} mismatches, {} repaired, {} skipped",
+                job.id, job.status, job.usersChecked.get(), job.mismatchCount.get(),
+                job.repairedCount.get(), job.skippedCount.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        pool.shutdown();
+        try {
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Progress of one reconciliation run. Counters are updated by the pool's workers;
+     * status and finish time are guarded by the service's lock.
+     */
+    static final class ReconciliationJob {
+        final String id;
+        final boolean repair;
+        final ZonedDateTime startedAt = ZonedDateTime.now();
+        final AtomicLong rangesCompleted = new AtomicLong();
+        final AtomicLong usersChecked = new AtomicLong();
+        final AtomicLong mismatchCount = new AtomicLong();
+        final AtomicLong repairedCount = new AtomicLong();
+        final AtomicLong skippedCount = new AtomicLong();
+        private final List<LedgerMismatchDTO> mismatches = new ArrayList<>();
+        volatile JobStatus status = JobStatus.RUNNING;
+        volatile ZonedDateTime finishedAt;
+        volatile String error;
+
+        ReconciliationJob(String id, boolean repair) {
+            this.id = id;
+            this.repair = repair;
+        }
+
+        void addMismatch(LedgerMismatchDTO mismatch) {
+            mismatchCount.incrementAndGet();
+            synchronized (mismatches) {
+                if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                    mismatches.add(mismatch);
+                }
+            }
+        }
+
+        void fail(Exception e) {
+            logger.error("Ledger reconciliation {} failed", id, e);
+            if (error == null) {
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+        }
+
+        ReconciliationReportDTO toReport() {
+            List<LedgerMismatchDTO> reported;
+            synchronized (mismatches) {
+                reported = new ArrayList<>(mismatches);
+            }
+            return ReconciliationReportDTO.builder()
+                    .jobId(id)
+                    .status(status)
+                    .repair(repair)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .rangesCompleted(rangesCompleted.get())
+                    .usersChecked(usersChecked.get())
+                    .mismatchCount(mismatchCount.get())
+                    .repairedCount(repairedCount.get())
+                    .skippedCount(skippedCount.get())
+                    .mismatches(reported)
+                    .error(error)
+                    .build();
+        }
+    }
+}
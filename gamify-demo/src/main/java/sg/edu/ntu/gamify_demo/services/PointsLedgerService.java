@@ -0,0 +1,130 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import sg.edu.ntu.gamify_demo.dtos.LedgerBalanceDTO;
+import sg.edu.ntu.gamify_demo.dtos.LedgerVerificationDTO;
+import sg.edu.ntu.gamify_demo.exceptions.UserNotFoundException;
+import sg.edu.ntu.gamify_demo.models.PointsBalanceSnapshot;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.PointsBalanceSnapshotRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
+
+/**
+ * Service for rebuilding balances from the points ledger.
+ * points_transactions is append-only, and each row records the ID of the database transaction
+ * that wrote it. Per-user snapshots record the balances summed over the rows of transactions
+ * below a watermark, so a balance is the snapshot plus the rows at or above it rather than
+ * the user's whole history.
+ */
+@Service
+public class PointsLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsLedgerService.class);
+
+    private final PointsTransactionRepository pointsTransactionRepository;
+    private final PointsBalanceSnapshotRepository snapshotRepository;
+    private final UserRepository userRepository;
+    private final PointsWriteBehindAggregator writeBehind;
+    private long snapshotPosition;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public PointsLedgerService(PointsTransactionRepository pointsTransactionRepository,
+                               PointsBalanceSnapshotRepository snapshotRepository,
+                               UserRepository userRepository,
+                               PointsWriteBehindAggregator writeBehind) {
+        this.pointsTransactionRepository = pointsTransactionRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.userRepository = userRepository;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Get a user's balances as recorded by the ledger.
+     *
+     * @param userId The ID of the user.
+     * @return The ledger balances.
+     */
+    @Transactional(readOnly = true)
+    public LedgerBalanceDTO getLedgerBalance(String userId) {
+        PointsBalanceSnapshot snapshot = snapshotRepository.findById(userId).orElse(null);
+        long watermark = snapshot != null ? snapshot.getXidWatermark() : 0L;
+        PointsBalance delta = pointsTransactionRepository.sumPointsSince(userId, watermark);
+
+        return LedgerBalanceDTO.builder()
+                .userId(userId)
+                .snapshotLedgerSeq(snapshot != null ? snapshot.getLedgerSeq() : 0L)
+                .earnedPoints((snapshot != null ? snapshot.getEarnedPoints() : 0L) + delta.getEarnedPoints())
+                .availablePoints((snapshot != null ? snapshot.getAvailablePoints() : 0L) + delta.getAvailablePoints())
+                .build();
+    }
+
+    /**
+     * Compare a user's stored balances with the ledger.
+     * Reads run in one repeatable-read transaction so a concurrent award cannot show up
+     * on one side of the comparison only.
+     *
+     * @param userId The ID of the user.
+     * @return The comparison.
+     * @throws UserNotFoundException if the user doesn't exist.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public LedgerVerificationDTO verify(String userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        LedgerBalanceDTO ledger = getLedgerBalance(userId);
+        long pending = writeBehind != null ? writeBehind.getPendingPoints(userId) : 0L;
+
+        long earnedDrift = user.getEarnedPoints() + pending - ledger.getEarnedPoints();
+        long availableDrift = user.getAvailablePoints() + pending - ledger.getAvailablePoints();
+
+        return LedgerVerificationDTO.builder()
+                .userId(userId)
+                .ledger(ledger)
+                .userEarnedPoints(user.getEarnedPoints())
+                .userAvailablePoints(user.getAvailablePoints())
+                .pendingWriteBehindPoints(pending)
+                .earnedDrift(earnedDrift)
+                .availableDrift(availableDrift)
+                .consistent(earnedDrift == 0 && availableDrift == 0)
+                .build();
+    }
+
+    /**
+     * Roll the snapshots forward.
+     * Each run snapshots up to the oldest transaction still in progress, so only rows whose
+     * transactions have ended are folded in. A row that commits later, however long its
+     * transaction stays open, is above the watermark and still counted on top of the snapshot.
+     *
+     * @return The number of user snapshots created or advanced.
+     */
+    @Scheduled(fixedDelayString = "${gamify.points.ledger.snapshot-interval-ms:300000}")
+    public synchronized int takeSnapshot() {
+        long watermark = pointsTransactionRepository.findFinishedXidWatermark();
+        if (watermark <= snapshotPosition) {
+            return 0;
+        }
+
+        int advanced = snapshotRepository.advanceTo(watermark);
+        snapshotPosition = watermark;
+        logger.info("Advanced {} points balance snapshots to transaction ID watermark {}", advanced, watermark);
+        return advanced;
+    }
+
+    /**
+     * Get the transaction ID watermark the last snapshot run advanced to.
+     *
+     * @return The watermark, or 0 if no snapshot has been taken since startup.
+     */
+    public synchronized long getSnapshotPosition() {
+        return snapshotPosition;
+    }
+}
@@ -2,7 +2,8 @@ package sg.edu.ntu.gamify_demo.services;
 
 import java.time.ZonedDateTime;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import sg.edu.ntu.gamify_demo.events.EventPublisher;
@@ -14,6 +15,8 @@ import sg.edu.ntu.gamify_demo.interfaces.UserService;
 import sg.edu.ntu.gamify_demo.models.PointsTransaction;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
 
 /**
  * Service for handling points-related operations.
@@ -23,28 +26,43 @@ import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
 public class PointsService {
     
     private final UserService userService;
+    private final UserRepository userRepository;
     private final PointsTransactionRepository pointsTransactionRepository;
     private final EventPublisher eventPublisher;
     private final DomainEventPublisher domainEventPublisher;
     private final ObjectMapper objectMapper;
     private final LadderStatusService ladderService;
+    private final PointsMutationExecutor mutationExecutor;
+    private final PointsWriteBehindAggregator writeBehind;
+    private final StreakTracker streakTracker;
+    private final RollingLeaderboardService rollingLeaderboard;
     
     /**
      * Constructor for dependency injection.
      */
     public PointsService(
             UserService userService,
+            UserRepository userRepository,
             PointsTransactionRepository pointsTransactionRepository,
             EventPublisher eventPublisher,
             DomainEventPublisher domainEventPublisher,
             ObjectMapper objectMapper,
-            LadderStatusService ladderService) {
+            LadderStatusService ladderService,
+            PointsMutationExecutor mutationExecutor,
+            PointsWriteBehindAggregator writeBehind,
+            StreakTracker streakTracker,
+            RollingLeaderboardService rollingLeaderboard) {
         this.userService = userService;
+        this.userRepository = userRepository;
         this.pointsTransactionRepository = pointsTransactionRepository;
         this.eventPublisher = eventPublisher;
         this.domainEventPublisher = domainEventPublisher;
         this.objectMapper = objectMapper;
         this.ladderService = ladderService;
+        this.mutationExecutor = mutationExecutor;
+        this.writeBehind = writeBehind;
+        this.streakTracker = streakTracker;
+        this.rollingLeaderboard = rollingLeaderboard;
     }
     
     /**
@@ -60,35 +78,112 @@ public class PointsService {
     
     /**
      * Award points to a user and record the transaction.
+     * The update goes through the points mutation executor: it joins the caller's transaction
+     * if there is one, or runs on the user's lane otherwise, so concurrent awards and spends
+     * for the same user are applied in turn.
+     * In write-behind mode only the transaction is recorded now; the points are buffered once
+     * it commits, and the balance update and ladder recompute are left to the next
+     * {@link PointsWriteBehindAggregator} flush.
      * 
      * @param userId The ID of the user.
      * @param points The number of points to award.
      * @param source The source of the points (e.g., "TASK_COMPLETED").
      * @param metadata Additional data about the transaction.
-     * @return The user's new total earned points.
+     * @return The user's new total earned points, including any points not yet flushed.
      */
-    @Transactional
     public Long awardPoints(String userId, Long points, String source, JsonNode metadata) {
-        User user = userService.getUserById(userId);
+        return awardPoints(userId, null, points, source, metadata, true);
+    }
+    
+    /**
+     * Award points to a user who is already loaded, such as the user of a task event.
+     * Works like {@link #awardPoints(String, Long, String, JsonNode)}, and keeps the given
+     * entity in step with the new balance.
+     * 
+     * @param user The user.
+     * @param points The number of points to award.
+     * @param source The source of the points (e.g., "TASK_COMPLETED").
+     * @param metadata Additional data about the transaction.
+     * @param notify Whether to publish a PointsEarnedEvent and request a ladder status update
+     *               (false for task events flagged skip_ladder_update). A write-behind flush
+     *               always publishes one event for all of a user's buffered points.
+     * @return The user's new total earned points, including any points not yet flushed.
+     */
+    public Long awardPoints(User user, Long points, String source, JsonNode metadata, boolean notify) {
+        return awardPoints(user.getId(), user, points, source, metadata, notify);
+    }
+    
+    private Long awardPoints(String userId, User user, Long points, String source, JsonNode metadata,
+                             boolean notify) {
+        if (writeBehind != null && writeBehind.isEnabled()) {
+            return bufferAward(userId, user, points, source, metadata);
+        }
+        return mutationExecutor.execute(userId, () -> applyAward(userId, user, points, source, metadata, notify));
+    }
+    
+    private Long bufferAward(String userId, User loadedUser, Long points, String source, JsonNode metadata) {
+        User user = loadedUser != null ? loadedUser : userService.getUserById(userId);
         
         if (user == null) {
             return 0L;
         }
         
-        // Update user's points
-        Long currentPoints = user.getEarnedPoints();
-        Long newPoints = currentPoints + points;
-        user.setEarnedPoints(newPoints);
-        user.setAvailablePoints(user.getAvailablePoints() + points);
-        userService.updateUser(user.getId(), user);
+        // Record the transaction now, unapplied; the balance catches up on the next flush
+        PointsTransaction transaction = new PointsTransaction(user, source, points, metadata);
+        transaction.setCreatedAt(ZonedDateTime.now());
+        transaction.setApplied(false);
+        pointsTransactionRepository.save(transaction);
+        streakTracker.recordActivity(userId, transaction.getTimestamp());
+        rollingLeaderboard.recordTransaction(transaction);
+        
+        long pendingPoints;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Buffer the points only once the transaction is committed, so a rollback cannot
+            // leave them pending and a flush cannot apply them before the transaction is visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeBehind.add(userId, points, source);
+                }
+            });
+            pendingPoints = writeBehind.getPendingPoints(userId) + points;
+        } else {
+            pendingPoints = writeBehind.add(userId, points, source);
+        }
+        return user.getEarnedPoints() + pendingPoints;
+    }
+    
+    private Long applyAward(String userId, User loadedUser, Long points, String source, JsonNode metadata,
+                            boolean notify) {
+        // Update user's points in a single statement
+        PointsBalance balance = userRepository.addPoints(userId, points, points);
+        
+        if (balance == null) {
+            // No such user; let the user service report it as before
+            userService.getUserById(userId);
+            return 0L;
+        }
+        
+        Long newPoints = balance.getEarnedPoints();
+        User user = loadedUser != null ? loadedUser : userService.getUserById(userId);
+        // Keep the loaded user in step with the update, so flushing it later in the
+        // same transaction writes the new balances rather than stale ones
+        user.setEarnedPoints(balance.getEarnedPoints());
+        user.setAvailablePoints(balance.getAvailablePoints());
         
         // Create a points transaction
         PointsTransaction transaction = new PointsTransaction(user, source, points, metadata);
         transaction.setCreatedAt(ZonedDateTime.now());
         pointsTransactionRepository.save(transaction);
+        streakTracker.recordActivity(userId, transaction.getTimestamp());
+        rollingLeaderboard.recordTransaction(transaction);
+        
+        if (!notify) {
+            return newPoints;
+        }
         
         // Update the user's ladder status
-        ladderService.updateUserLadderStatus(user.getId());
+        ladderService.requestLadderStatusUpdate(user.getId());
         
         // Publish points earned event using domain events
         if (domainEventPublisher != null) {
@@ -102,6 +197,7 @@ public class PointsService {
     
     /**
      * Spend points from a user's available points.
+     * Goes through the points mutation executor, like {@link #awardPoints}.
      * 
      * @param userId The ID of the user.
      * @param points The number of points to spend.
@@ -109,32 +205,35 @@ public class PointsService {
      * @param metadata Additional data about the transaction.
      * @return True if the points were successfully spent, false if the user doesn't have enough points.
      */
-    @Transactional
     public boolean spendPoints(String userId, Long points, String source, JsonNode metadata) {
-        User user = userService.getUserById(userId);
-        
-        if (user == null) {
-            return false;
-        }
-        
-        Long availablePoints = user.getAvailablePoints();
+        return mutationExecutor.execute(userId, () -> applySpend(userId, points, source, metadata));
+    }
+    
+    private boolean applySpend(String userId, Long points, String source, JsonNode metadata) {
+        // Debit user's available points only if the balance covers it
+        PointsBalance balance = userRepository.debitAvailablePoints(userId, points);
         
-        if (availablePoints < points) {
+        if (balance == null) {
+            // Either the user doesn't exist (reported by the user service) or can't afford it
+            userService.getUserById(userId);
             return false;
         }
         
-        // Update user's available points
-        user.setAvailablePoints(availablePoints - points);
-        userService.updateUser(user.getId(), user);
+        User user = userService.getUserById(userId);
+        // Keep the loaded user in step with the update, so flushing it later in the
+        // same transaction writes the new balances rather than stale ones
+        user.setEarnedPoints(balance.getEarnedPoints());
+        user.setAvailablePoints(balance.getAvailablePoints());
         
         // Create a points transaction (negative points for spending)
         PointsTransaction transaction = new PointsTransaction(user, source, -points, metadata);
         transaction.setCreatedAt(ZonedDateTime.now());
         pointsTransactionRepository.save(transaction);
+        streakTracker.recordActivity(userId, transaction.getTimestamp());
         
         // Publish points spent event using domain events
         if (domainEventPublisher != null) {
-            PointsSpentEvent event = new PointsSpentEvent(user, points.intValue(), user.getAvailablePoints().intValue(), source, metadata);
+            PointsSpentEvent event = new PointsSpentEvent(user, points.intValue(), balance.getAvailablePoints().intValue(), source, metadata);
             domainEventPublisher.publish(event);
         }
         // Legacy event publishing (will be handled by DomainEventPublisher's legacy forwarding)
@@ -9,10 +9,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
+import sg.edu.ntu.gamify_demo.exceptions.UserNotFoundException;
 import sg.edu.ntu.gamify_demo.models.PointsTransaction;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
 import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
 
 /**
  * Service for managing points transactions.
@@ -26,7 +28,9 @@ public class PointsTransactionService {
     private final PointsTransactionRepository pointsTransactionRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final RollingLeaderboardService rollingLeaderboard;
     private final MessageBrokerService messageBroker;
+    private final StreakTracker streakTracker;
     
     /**
      * Records points earned by a user and updates their point balances.
@@ -37,6 +41,7 @@ public class PointsTransactionService {
      * @param metadata Additional data about the event
      * @return The created points transaction
      * @throws IllegalArgumentException if points is not positive
+     * @throws UserNotFoundException if the user doesn't exist
      */
     @Transactional
     public PointsTransaction recordPointsEarned(User user, long points, String eventType, JsonNode metadata) {
@@ -53,16 +58,23 @@ public class PointsTransactionService {
         transaction.setTimestamp(ZonedDateTime.now());
         transaction.setMetadata(metadata);
         
-        // Update user points
-        user.setEarnedPoints(user.getEarnedPoints() + points);
-        user.setAvailablePoints(user.getAvailablePoints() + points);
-        userRepository.save(user);
+        // Update user points in a single statement
+        PointsBalance balance = userRepository.addPoints(user.getId(), points, points);
+        if (balance == null) {
+            throw new UserNotFoundException("User not found with id: " + user.getId());
+        }
+        // Keep the user in step with the update, so flushing it later in the
+        // same transaction writes the new balances rather than stale ones
+        user.setEarnedPoints(balance.getEarnedPoints());
+        user.setAvailablePoints(balance.getAvailablePoints());
         
         // Save transaction
         PointsTransaction savedTransaction = pointsTransactionRepository.save(transaction);
+        streakTracker.recordActivity(user.getId(), transaction.getTimestamp());
+        rollingLeaderboard.recordTransaction(savedTransaction);
         
         // Send notification
-        sendPointsNotification(user, points, "POINTS_EARNED", user.getAvailablePoints());
+        sendPointsNotification(user, points, "POINTS_EARNED", balance.getAvailablePoints());
         
         return savedTransaction;
     }
@@ -83,10 +95,15 @@ public class PointsTransactionService {
             throw new IllegalArgumentException("Points spent must be positive");
         }
         
-        // Check if user has enough points
-        if (user.getAvailablePoints() < points) {
+        // Debit the user's available points only if the balance covers it
+        PointsBalance balance = userRepository.debitAvailablePoints(user.getId(), points);
+        if (balance == null) {
             return null;
         }
+        // Keep the user in step with the update, so flushing it later in the
+        // same transaction writes the new balances rather than stale ones
+        user.setEarnedPoints(balance.getEarnedPoints());
+        user.setAvailablePoints(balance.getAvailablePoints());
         
         // Create transaction (with negative points to indicate spending)
         PointsTransaction transaction = new PointsTransaction();
@@ -97,12 +114,12 @@ public class PointsTransactionService {
         transaction.setTimestamp(ZonedDateTime.now());
         transaction.setMetadata(metadata);
         
-        // Save transaction without updating user points again
-        // (points are already updated in RedeemRewardCommand)
+        // Save transaction
         PointsTransaction savedTransaction = pointsTransactionRepository.save(transaction);
+        streakTracker.recordActivity(user.getId(), transaction.getTimestamp());
         
         // Send notification
-        sendPointsNotification(user, points, "POINTS_SPENT", user.getAvailablePoints());
+        sendPointsNotification(user, points, "POINTS_SPENT", balance.getAvailablePoints());
         
         return savedTransaction;
     }
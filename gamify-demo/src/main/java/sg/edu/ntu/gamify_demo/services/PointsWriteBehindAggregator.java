@@ -0,0 +1,221 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
+import sg.edu.ntu.gamify_demo.events.domain.PointsEarnedEvent;
+import sg.edu.ntu.gamify_demo.interfaces.UserService;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository.AppliedAwards;
+
+/**
+ * Write-behind buffer for points awards (opt-in via gamify.points.write-behind.enabled).
+ * While enabled, PointsService still records every award as a points transaction right
+ * away, marked unapplied, and only adds the points here. Once per window each user with
+ * pending points gets one balance update, which applies and marks their unapplied rows in
+ * one statement, and one PointsEarnedEvent, which drives the ladder recompute.
+ * The unapplied rows, not this buffer, are what a flush adds, so a retried flush cannot
+ * credit points twice and awards left unapplied by a crash are flushed at the next startup.
+ */
+@Component
+public class PointsWriteBehindAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsWriteBehindAggregator.class);
+
+    private final PointsTransactionRepository pointsTransactionRepository;
+    private final UserService userService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final PointsMutationExecutor mutationExecutor;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long windowMs;
+    private final Map<String, PendingPoints> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public PointsWriteBehindAggregator(PointsTransactionRepository pointsTransactionRepository,
+                                       UserService userService,
+                                       DomainEventPublisher domainEventPublisher,
+                                       PointsMutationExecutor mutationExecutor,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${gamify.points.write-behind.enabled:false}") boolean enabled,
+                                       @Value("${gamify.points.write-behind.window-ms:1000}") long windowMs) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("Write-behind window must be positive");
+        }
+        this.pointsTransactionRepository = pointsTransactionRepository;
+        this.userService = userService;
+        this.domainEventPublisher = domainEventPublisher;
+        this.mutationExecutor = mutationExecutor;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+
+        if (meterRegistry != null) {
+            Gauge.builder("gamify.points.write_behind.window", this, aggregator -> aggregator.enabled ? aggregator.windowMs : 0)
+                    .description("Write-behind flush window for points awards (0 when disabled)")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("gamify.points.write_behind.pending_users", pending, Map::size)
+                    .description("Users with points awaiting a write-behind flush")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Check whether awards should be buffered rather than applied immediately.
+     *
+     * @return True if write-behind mode is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the flush window.
+     *
+     * @return The window in milliseconds.
+     */
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Buffer points for a user until the next flush.
+     *
+     * @param userId The ID of the user.
+     * @param points The number of points awarded.
+     * @param source The source of the award.
+     * @return The points now pending for the user.
+     */
+    public long add(String userId, long points, String source) {
+        return pending.merge(userId, new PendingPoints(points, 1, source), PendingPoints::plus).points();
+    }
+
+    /**
+     * Get the points buffered for a user but not yet written to the users table.
+     *
+     * @param userId The ID of the user.
+     * @return The pending points, or 0 if none.
+     */
+    public long getPendingPoints(String userId) {
+        PendingPoints points = pending.get(userId);
+        return points != null ? points.points() : 0L;
+    }
+
+    /**
+     * Apply every user's pending points: one balance update and one PointsEarnedEvent per user.
+     * Each user is flushed on their lane of the points mutation executor, so the update is
+     * ordered with that user's spends. A user whose flush fails, or isn't known to have
+     * committed, stays pending for the next window; their rows are applied at most once.
+     *
+     * @return The number of users flushed.
+     */
+    @Scheduled(fixedDelayString = "${gamify.points.write-behind.window-ms:1000}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int flushed = 0;
+        for (String userId : new ArrayList<>(pending.keySet())) {
+            PendingPoints points = pending.remove(userId);
+            if (points != null && flushUser(userId, points)) {
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Flush the awards a previous run recorded but never applied, e.g. because it crashed
+     * before the window closed. Runs whether or not write-behind mode is still enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void flushUnapplied() {
+        try {
+            List<String> users = pointsTransactionRepository.findUserIdsWithUnappliedAwards();
+            if (users.isEmpty()) {
+                return;
+            }
+            logger.info("Flushing unapplied write-behind awards for {} users", users.size());
+            for (String userId : users) {
+                flushUser(userId, new PendingPoints(0, 0, null));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not look up unapplied write-behind awards at startup", e);
+        }
+    }
+
+    /**
+     * Flush everything still pending before the application context closes.
+     * Whatever cannot be flushed stays unapplied in points_transactions for the next startup.
+     */
+    @PreDestroy
+    public void shutdown() {
+        int flushed = flush();
+        if (!pending.isEmpty()) {
+            List<String> users = new ArrayList<>(pending.keySet());
+            logger.warn("Write-behind points for {} users will be flushed at the next startup: {}", users.size(), users);
+        } else if (flushed > 0) {
+            logger.info("Flushed write-behind points for {} users at shutdown", flushed);
+        }
+    }
+
+    private boolean flushUser(String userId, PendingPoints points) {
+        try {
+            mutationExecutor.execute(userId, () -> apply(userId));
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Write-behind flush failed for user {}, retrying next window: {}", userId, e.getMessage());
+            pending.merge(userId, points, (newer, failed) -> failed.plus(newer));
+            return false;
+        }
+    }
+
+    private Void apply(String userId) {
+        AppliedAwards applied = pointsTransactionRepository.applyBufferedAwards(userId);
+        if (applied == null || applied.getEarnedPoints() == null) {
+            // Nothing left to apply, e.g. an earlier flush committed after its caller gave up
+            return null;
+        }
+
+        if (domainEventPublisher != null) {
+            User user = userService.getUserById(userId);
+            ObjectNode metadata = objectMapper.createObjectNode();
+            metadata.put("writeBehind", true);
+            metadata.put("awards", applied.getAwards());
+            domainEventPublisher.publish(new PointsEarnedEvent(
+                    user, applied.getPoints().intValue(), applied.getEarnedPoints().intValue(), applied.getSource(), metadata));
+        }
+        return null;
+    }
+
+    /**
+     * Points buffered for one user; the source is that of the latest award.
+     */
+    private record PendingPoints(long points, int awards, String source) {
+
+        PendingPoints plus(PendingPoints other) {
+            return new PendingPoints(points + other.points, awards + other.awards, other.source);
+        }
+    }
+}
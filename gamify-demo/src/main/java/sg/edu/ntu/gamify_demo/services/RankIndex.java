@@ -0,0 +1,341 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic index of user scores.
+ * Users are kept in a treap ordered by score descending, then user ID, with every node
+ * tracking the size of its subtree, so a score update, the rank of a user and the position
+ * of the k-th entry all take O(log n), and k consecutive entries take O(log n + k).
+ * Ranks follow competition ranking: users with equal scores share a rank, and the next
+ * distinct score is ranked by the number of users ahead of it.
+ */
+public final class RankIndex {
+
+    /**
+     * A user's place in the index.
+     *
+     * @param userId The ID of the user.
+     * @param score The user's score.
+     * @param rank The user's rank, starting at 1.
+     * @param position The user's zero-based position in rank order, unique per user.
+     */
+    public record Ranked(String userId, long score, long rank, long position) {
+    }
+
+    /**
+     * Rank order of entries, for merging the entries of several indexes.
+     */
+    public static final Comparator<Ranked> RANK_ORDER =
+            Comparator.comparingLong(Ranked::score).reversed().thenComparing(Ranked::userId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final Random priorities = new Random();
+    private Node root;
+
+    /**
+     * Set a user's score, adding the user if needed.
+     *
+     * @param userId The ID of the user.
+     * @param score The new score.
+     */
+    public void update(String userId, long score) {
+        lock.writeLock().lock();
+        try {
+            put(userId, score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a user.
+     *
+     * @param userId The ID of the user.
+     * @return true if the user was indexed.
+     */
+    public boolean remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodes.remove(userId);
+            if (existing == null) {
+                return false;
+            }
+            root = delete(root, existing.score, userId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get a user's rank and position.
+     *
+     * @param userId The ID of the user.
+     * @return The user's place, or null if the user is not indexed.
+     */
+    public Ranked find(String userId) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(userId);
+            if (node == null) {
+                return null;
+            }
+            return new Ranked(userId, node.score, above(node.score) + 1, before(node.score, userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get consecutive entries in rank order.
+     *
+     * @param fromPosition The zero-based position of the first entry.
+     * @param count The maximum number of entries.
+     * @return The entries, fewer than count if the index ends first.
+     */
+    public List<Ranked> range(long fromPosition, int count) {
+        lock.readLock().lock();
+        try {
+            return collect(fromPosition, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the highest-ranked entries.
+     *
+     * @param k The maximum number of entries.
+     * @return The top k entries in rank order.
+     */
+    public List<Ranked> top(int k) {
+        return range(0, k);
+    }
+
+    /**
+     * Get the number of users with a score above a value.
+     *
+     * @param score The score.
+     * @return The number of users ahead of the score.
+     */
+    public long countAbove(long score) {
+        lock.readLock().lock();
+        try {
+            return above(score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of users ordered before a score and user ID, whether or not that user is indexed.
+     *
+     * @param score The score.
+     * @param userId The user ID breaking ties.
+     * @return The number of users ahead in rank order.
+     */
+    public long countBefore(long score, String userId) {
+        lock.readLock().lock();
+        try {
+            return before(score, userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed users.
+     *
+     * @return The number of users.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(String userId, long score) {
+        Node existing = nodes.get(userId);
+        if (existing != null) {
+            if (existing.score == score) {
+                return;
+            }
+            root = delete(root, existing.score, userId);
+        }
+        Node node = new Node(userId, score, priorities.nextInt());
+        nodes.put(userId, node);
+        Node[] parts = split(root, score, userId);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    private List<Ranked> collect(long fromPosition, int count) {
+        if (fromPosition < 0 || fromPosition >= size(root) || count <= 0) {
+            return new ArrayList<>();
+        }
+        List<Ranked> result = new ArrayList<>((int) Math.min(count, size(root) - fromPosition));
+
+        // Descend to the first entry, keeping the ancestors still to be visited in order
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        long skip = fromPosition;
+        while (node != null) {
+            long leftSize = size(node.left);
+            if (skip < leftSize) {
+                path.push(node);
+                node = node.left;
+            } else if (skip == leftSize) {
+                path.push(node);
+                break;
+            } else {
+                skip -= leftSize + 1;
+                node = node.right;
+            }
+        }
+
+        long position = fromPosition;
+        long rank = above(path.peek().score) + 1;
+        long previousScore = path.peek().score;
+        while (!path.isEmpty() && result.size() < count) {
+            Node current = path.pop();
+            if (current.score != previousScore) {
+                rank = position + 1;
+                previousScore = current.score;
+            }
+            result.add(new Ranked(current.userId, current.score, rank, position));
+            position++;
+            for (Node next = current.right; next != null; next = next.left) {
+                path.push(next);
+            }
+        }
+        return result;
+    }
+
+    private long above(long score) {
+        long count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private long before(long score, String userId) {
+        long count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(node.score, node.userId, score, userId) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Split a subtree into the nodes ordered before a key and the rest.
+     */
+    private static Node[] split(Node node, long score, String userId) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(node.score, node.userId, score, userId) < 0) {
+            Node[] parts = split(node.right, score, userId);
+            node.right = parts[0];
+            node.resize();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, userId);
+        node.left = parts[1];
+        node.resize();
+        return new Node[] {parts[0], node};
+    }
+
+    /**
+     * Merge two subtrees where every node of the first is ordered before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.resize();
+            return first;
+        }
+        second.left = merge(first, second.left);
+        second.resize();
+        return second;
+    }
+
+    private static Node delete(Node node, long score, String userId) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(score, userId, node.score, node.userId);
+        if (order == 0) {
+            return merge(node.left, node.right);
+        }
+        if (order < 0) {
+            node.left = delete(node.left, score, userId);
+        } else {
+            node.right = delete(node.right, score, userId);
+        }
+        node.resize();
+        return node;
+    }
+
+    /**
+     * Rank order: higher scores first, ties broken by user ID.
+     */
+    private static int compare(long score, String userId, long otherScore, String otherUserId) {
+        int order = Long.compare(otherScore, score);
+        return order != 0 ? order : userId.compareTo(otherUserId);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Node {
+        private final String userId;
+        private final long score;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        Node(String userId, long score, int priority) {
+            this.userId = userId;
+            this.score = score;
+            this.priority = priority;
+        }
+
+        void resize() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+}
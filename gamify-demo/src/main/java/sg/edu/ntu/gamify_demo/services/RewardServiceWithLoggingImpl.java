@@ -43,6 +43,7 @@ public class RewardServiceWithLoggingImpl implements RewardService, RewardRedemp
     private final ObjectMapper objectMapper;
     private final MessageBrokerService messageBroker;
     private final List<RedemptionObserver> observers;
+    private final PointsMutationExecutor mutationExecutor;
     
     private final Logger logger = LoggerFactory.getLogger(RewardService.class);
 
@@ -204,6 +205,7 @@ public class RewardServiceWithLoggingImpl implements RewardService, RewardRedemp
             .redemptionFactory(redemptionFactory)
             .messageBroker(messageBroker)
             .objectMapper(objectMapper)
+            .mutationExecutor(mutationExecutor)
             .build();
         
         RedemptionResult result = command.execute();
@@ -0,0 +1,340 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sg.edu.ntu.gamify_demo.dtos.LeaderboardEntryDTO;
+import sg.edu.ntu.gamify_demo.models.PointsTransaction;
+import sg.edu.ntu.gamify_demo.models.enums.LeaderboardWindow;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository.DailyPoints;
+
+/**
+ * Service for the day, week and month leaderboards, ranked by points earned in the window.
+ * Each active user has a ring of per-day point buckets covering the longest window, so a
+ * window total is a sum over at most 30 buckets, and each window has its own RankIndex.
+ * Every earning row written to points_transactions adds to today's bucket once it commits
+ * and re-ranks the user in every window, whether or not the award went on to update the
+ * user's ladder status. At midnight in the configured zone the oldest day drops out of
+ * every window, so all windows are re-ranked from the rings. The rings are rebuilt from
+ * points_transactions at startup.
+ */
+@Service
+public class RollingLeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingLeaderboardService.class);
+
+    static final int RING_DAYS = 30;
+
+    private final PointsTransactionRepository pointsTransactionRepository;
+    private final LeaderBoardService leaderBoardService;
+    private final Clock clock;
+    private volatile Boards boards;
+    private volatile Boards rebuilding;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    @Autowired
+    public RollingLeaderboardService(PointsTransactionRepository pointsTransactionRepository,
+                                     LeaderBoardService leaderBoardService,
+                                     @Value("${gamify.leaderboard.rolling.zone:UTC}") String zone) {
+        this(pointsTransactionRepository, leaderBoardService, Clock.system(ZoneId.of(zone)));
+    }
+
+    RollingLeaderboardService(PointsTransactionRepository pointsTransactionRepository,
+                              LeaderBoardService leaderBoardService,
+                              Clock clock) {
+        this.pointsTransactionRepository = pointsTransactionRepository;
+        this.leaderBoardService = leaderBoardService;
+        this.clock = clock;
+        this.boards = new Boards(today(), false);
+    }
+
+    /**
+     * Add the points of a ledger row to today's windows once the current transaction commits,
+     * or now if there is none. Called wherever a points_transactions row is written; spends
+     * are ignored.
+     *
+     * @param transaction The ledger row just saved.
+     */
+    public void recordTransaction(PointsTransaction transaction) {
+        long points = transaction.getPoints();
+        if (points <= 0) {
+            return;
+        }
+
+        String userId = transaction.getUser().getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordCommitted(userId, points, transaction.getLedgerSeq());
+                }
+            });
+        } else {
+            recordCommitted(userId, points, transaction.getLedgerSeq());
+        }
+    }
+
+    /**
+     * Add the points of a committed ledger row to today's windows.
+     * The current boards skip rows already counted by the rebuild they came from. A rebuild
+     * in progress is given the row too, and keeps it only if its ledger read did not.
+     *
+     * @param ledgerSeq The row's ledger sequence, or null if unknown (always counted).
+     */
+    void recordCommitted(String userId, long points, Long ledgerSeq) {
+        long day = today();
+        long seq = ledgerSeq != null ? ledgerSeq : Long.MAX_VALUE;
+        Boards pending = rebuilding;
+        Boards current = boards;
+        if (pending != null && pending != current) {
+            pending.record(userId, day, points, seq);
+        }
+        current.record(userId, day, points, seq);
+    }
+
+    /**
+     * Get the top of a window's leaderboard.
+     *
+     * @param window The time window.
+     * @param limit The maximum number of entries, capped at LeaderBoardService.MAX_LIMIT.
+     * @return The entries in rank order.
+     */
+    public List<LeaderboardEntryDTO> getTop(LeaderboardWindow window, int limit) {
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        int k = Math.min(Math.max(limit, 0), LeaderBoardService.MAX_LIMIT);
+        for (RankIndex.Ranked ranked : boards.index(window).top(k)) {
+            entries.add(leaderBoardService.describe(ranked.userId(), ranked.score(), ranked.rank()));
+        }
+        return entries;
+    }
+
+    /**
+     * Get a user's place on a window's leaderboard.
+     *
+     * @param window The time window.
+     * @param userId The ID of the user.
+     * @return The user's entry, or null if the user earned no points in the window.
+     */
+    public LeaderboardEntryDTO getUserEntry(LeaderboardWindow window, String userId) {
+        RankIndex.Ranked ranked = boards.index(window).find(userId);
+        return ranked != null ? leaderBoardService.describe(userId, ranked.score(), ranked.rank()) : null;
+    }
+
+    /**
+     * Move every window forward to the current day, dropping the points of days that left it.
+     * Users are re-ranked one at a time in place, so for the duration of the pass some
+     * entries still show the previous day's totals.
+     */
+    @Scheduled(cron = "0 0 0 * * *", zone = "${gamify.leaderboard.rolling.zone:UTC}")
+    public synchronized void rollover() {
+        long today = today();
+        int active = boards.rollTo(today);
+        logger.info("Rolled leaderboards over to {}: {} active users", LocalDate.ofEpochDay(today), active);
+    }
+
+    /**
+     * Rebuild the rings and windows from the points earned in the last RING_DAYS days.
+     * Rows that commit while the ledger is read are held back until the read finishes, then
+     * counted only if their ledger sequence is above the highest one the read summed, so
+     * none is counted twice.
+     *
+     * @return The number of active users.
+     */
+    public synchronized int rebuild() {
+        long today = today();
+        ZonedDateTime since = LocalDate.ofEpochDay(today - RING_DAYS + 1).atStartOfDay(clock.getZone());
+        Boards fresh = new Boards(today, true);
+        rebuilding = fresh;
+        try {
+            long readSeq = 0;
+            for (DailyPoints row : pointsTransactionRepository.sumDailyEarnedPointsSince(since, clock.getZone().getId())) {
+                fresh.add(row.getUserId(), row.getEpochDay(), row.getPoints());
+                if (row.getMaxLedgerSeq() != null) {
+                    readSeq = Math.max(readSeq, row.getMaxLedgerSeq());
+                }
+            }
+            fresh.settle(readSeq);
+            boards = fresh;
+        } finally {
+            rebuilding = null;
+        }
+        logger.info("Rebuilt rolling leaderboards from the ledger: {} active users", fresh.size());
+        return fresh.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            logger.warn("Rolling leaderboard rebuild failed at startup", e);
+        }
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    /**
+     * The rings and window indexes as of one day.
+     * Each user's ring is only changed inside a compute on the ring map, which also orders
+     * the re-ranking of that user's concurrent awards. Boards built by a rebuild hold back
+     * live rows until the ledger read settles, and then skip the rows it already counted.
+     */
+    private static final class Boards {
+        private volatile long day;
+        private final Map<String, DayRing> rings = new ConcurrentHashMap<>();
+        private final Map<LeaderboardWindow, RankIndex> indexes = new EnumMap<>(LeaderboardWindow.class);
+        private long readSeq;
+        private List<LedgerRow> heldBack;
+
+        Boards(long day, boolean rebuilding) {
+            this.day = day;
+            this.heldBack = rebuilding ? new ArrayList<>() : null;
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                indexes.put(window, new RankIndex());
+            }
+        }
+
+        /**
+         * Add a committed ledger row unless the ledger read these boards were built from counted it.
+         */
+        void record(String userId, long epochDay, long points, long ledgerSeq) {
+            synchronized (this) {
+                if (heldBack != null) {
+                    heldBack.add(new LedgerRow(userId, epochDay, points, ledgerSeq));
+                    return;
+                }
+                if (ledgerSeq <= readSeq) {
+                    return;
+                }
+            }
+            add(userId, epochDay, points);
+        }
+
+        /**
+         * Finish a rebuild's ledger read and count the held-back rows it did not cover.
+         */
+        void settle(long ledgerSeq) {
+            List<LedgerRow> held;
+            synchronized (this) {
+                readSeq = ledgerSeq;
+                held = heldBack;
+                heldBack = null;
+            }
+            for (LedgerRow row : held) {
+                record(row.userId(), row.epochDay(), row.points(), row.ledgerSeq());
+            }
+        }
+
+        RankIndex index(LeaderboardWindow window) {
+            return indexes.get(window);
+        }
+
+        void add(String userId, long epochDay, long points) {
+            rings.compute(userId, (id, ring) -> {
+                DayRing updated = ring != null ? ring : new DayRing();
+                updated.add(epochDay, points);
+                rank(id, updated);
+                return updated;
+            });
+        }
+
+        /**
+         * Re-rank every user as of a new day, dropping the rings that have no points left.
+         *
+         * @return The number of users still active.
+         */
+        int rollTo(long today) {
+            day = today;
+            for (String userId : rings.keySet()) {
+                rings.computeIfPresent(userId, (id, ring) -> {
+                    rank(id, ring);
+                    return ring.sum(today, RING_DAYS) > 0 ? ring : null;
+                });
+            }
+            return rings.size();
+        }
+
+        int size() {
+            return rings.size();
+        }
+
+        private void rank(String userId, DayRing ring) {
+            long asOf = Math.max(day, ring.lastDay);
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                long total = ring.sum(asOf, window.getDays());
+                if (total > 0) {
+                    indexes.get(window).update(userId, total);
+                } else {
+                    indexes.get(window).remove(userId);
+                }
+            }
+        }
+    }
+
+    private record LedgerRow(String userId, long epochDay, long points, long ledgerSeq) {
+    }
+
+    /**
+     * A user's points per day over the last RING_DAYS days, indexed by day modulo RING_DAYS.
+     */
+    static final class DayRing {
+        private final long[] points = new long[RING_DAYS];
+        private long lastDay = Long.MIN_VALUE;
+
+        void add(long day, long amount) {
+            if (lastDay == Long.MIN_VALUE) {
+                lastDay = day;
+            } else if (day > lastDay) {
+                // Clear the buckets of the days skipped since the last award
+                for (long d = lastDay + 1; d <= day && d <= lastDay + RING_DAYS; d++) {
+                    points[slot(d)] = 0;
+                }
+                lastDay = day;
+            } else if (day <= lastDay - RING_DAYS) {
+                return;
+            }
+            points[slot(day)] += amount;
+        }
+
+        /**
+         * Sum the points of the days in (today - days, today].
+         */
+        long sum(long today, int days) {
+            if (lastDay == Long.MIN_VALUE) {
+                return 0;
+            }
+            long total = 0;
+            long first = Math.max(today - days + 1, lastDay - RING_DAYS + 1);
+            for (long d = first; d <= Math.min(today, lastDay); d++) {
+                total += points[slot(d)];
+            }
+            return total;
+        }
+
+        private static int slot(long day) {
+            return (int) Math.floorMod(day, (long) RING_DAYS);
+        }
+    }
+}
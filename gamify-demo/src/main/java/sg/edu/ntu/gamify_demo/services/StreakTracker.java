@@ -0,0 +1,144 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.models.UserStreak;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserStreakRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserStreakRepository.SeedChunk;
+
+/**
+ * Service for users' activity streaks: runs of consecutive calendar days, in the configured
+ * zone, on which a user recorded a points transaction.
+ * Each user's last active date, current streak and longest streak are kept in user_streaks
+ * and advanced by one statement as transactions are recorded, so checking a consecutive
+ * days achievement reads one row instead of the user's transactions.
+ * A backfill seeds the streaks from points_transactions in key-ordered chunks of users,
+ * checkpointed after every chunk; it runs at startup until it has completed once.
+ */
+@Service
+public class StreakTracker {
+
+    static final String JOB_NAME = "streak-backfill";
+
+    private final UserStreakRepository userStreakRepository;
+    private final Clock clock;
+    private final int chunkSize;
+    private final boolean backfillOnStartup;
+    private final ChunkedBackfillJob backfillJob;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    @Autowired
+    public StreakTracker(UserStreakRepository userStreakRepository,
+                         JobCheckpointRepository jobCheckpointRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${gamify.achievements.streak.zone:UTC}") String zone,
+                         @Value("${gamify.achievements.streak.chunk-size:1000}") int chunkSize,
+                         @Value("${gamify.achievements.streak.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this(userStreakRepository, jobCheckpointRepository, transactionManager,
+                Clock.system(ZoneId.of(zone)), chunkSize, backfillOnStartup);
+    }
+
+    StreakTracker(UserStreakRepository userStreakRepository,
+                  JobCheckpointRepository jobCheckpointRepository,
+                  PlatformTransactionManager transactionManager,
+                  Clock clock,
+                  int chunkSize,
+                  boolean backfillOnStartup) {
+        this.userStreakRepository = userStreakRepository;
+        this.clock = clock;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.backfillOnStartup = backfillOnStartup;
+        this.backfillJob = new ChunkedBackfillJob(JOB_NAME, "Streak backfill",
+                jobCheckpointRepository, new TransactionTemplate(transactionManager), this::seedChunk);
+    }
+
+    /**
+     * A user's streaks.
+     *
+     * @param current The consecutive active days ending today or yesterday, or 0 if the streak is broken.
+     * @param longest The longest run of consecutive active days.
+     */
+    public record Streak(int current, int longest) {
+    }
+
+    /**
+     * Record a user's activity. Call this in the transaction that records the points transaction.
+     *
+     * @param userId The ID of the user.
+     * @param timestamp When the user was active, or null for now.
+     */
+    public void recordActivity(String userId, ZonedDateTime timestamp) {
+        ZonedDateTime at = timestamp != null ? timestamp : ZonedDateTime.now(clock);
+        userStreakRepository.recordActivity(userId, at.withZoneSameInstant(clock.getZone()).toLocalDate());
+    }
+
+    /**
+     * Get a user's streaks as of today.
+     *
+     * @param userId The ID of the user.
+     * @return The streaks, both 0 if the user has never been active.
+     */
+    public Streak getStreak(String userId) {
+        UserStreak streak = userStreakRepository.findById(userId).orElse(null);
+        if (streak == null) {
+            return new Streak(0, 0);
+        }
+        boolean unbroken = !streak.getLastActiveDate().isBefore(LocalDate.now(clock).minusDays(1));
+        return new Streak(unbroken ? streak.getCurrentStreak() : 0, streak.getLongestStreak());
+    }
+
+    /**
+     * Get the longest run of consecutive days a user has been active.
+     *
+     * @param userId The ID of the user.
+     * @return The longest streak, 0 if the user has never been active.
+     */
+    public int getLongestStreak(String userId) {
+        return userStreakRepository.findById(userId).map(UserStreak::getLongestStreak).orElse(0);
+    }
+
+    /**
+     * Seed every user's streaks from the days of their points transactions.
+     * Each chunk locks the streaks against updates while it is seeded, so activity
+     * committed during the backfill is not lost.
+     *
+     * @param resume Whether to continue an unfinished run from its checkpoint instead of starting over.
+     * @return The checkpoint of the finished run.
+     */
+    public JobCheckpoint backfill(boolean resume) {
+        return backfillJob.run(resume);
+    }
+
+    /**
+     * Seed the streaks at startup unless a backfill has already completed, resuming
+     * an interrupted or failed one from its checkpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfillJob.runUnlessCompleted();
+        }
+    }
+
+    private ChunkedBackfillJob.Chunk seedChunk(String afterUserId) {
+        userStreakRepository.lockForSeeding();
+        SeedChunk chunk = userStreakRepository.seedChunk(afterUserId, chunkSize, clock.getZone().getId());
+        if (chunk == null || chunk.getScanned() == null) {
+            return null;
+        }
+        return new ChunkedBackfillJob.Chunk(chunk.getLastUserId(), chunk.getScanned(), chunk.getChanged());
+    }
+}
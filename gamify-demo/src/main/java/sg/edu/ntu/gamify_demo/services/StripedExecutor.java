@@ -0,0 +1,187 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A fixed set of single-threaded lanes selected by hashing a key.
+ * Work submitted for the same key always runs on the same lane, one task at a time and
+ * in submission order, while work for keys on other lanes runs in parallel.
+ * When a meter registry is supplied, the queue depth of every lane is exposed as the
+ * gauge "gamify.stripes.queue.depth" tagged with the executor name and stripe index.
+ */
+public class StripedExecutor {
+
+    private final String name;
+    private final ThreadPoolExecutor[] lanes;
+    private final ThreadLocal<Integer> currentStripe = new ThreadLocal<>();
+
+    /**
+     * Create the lanes and register their queue-depth gauges.
+     *
+     * @param name The executor name, used for thread names and metric tags.
+     * @param stripeCount The number of lanes.
+     * @param meterRegistry The registry for queue-depth gauges, or null for none.
+     */
+    public StripedExecutor(String name, int stripeCount, MeterRegistry meterRegistry) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.name = name;
+        this.lanes = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            int stripe = i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(() -> {
+                    currentStripe.set(stripe);
+                    r.run();
+                }, name + "-" + stripe);
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            if (meterRegistry != null) {
+                Gauge.builder("gamify.stripes.queue.depth", lanes[i], lane -> lane.getQueue().size())
+                        .description("Tasks waiting on a striped executor lane")
+                        .tag("executor", name)
+                        .tag("stripe", String.valueOf(i))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Get the lane a key maps to.
+     *
+     * @param key The key, typically a user ID.
+     * @return The stripe index.
+     */
+    public int stripeFor(String key) {
+        return Math.floorMod(Objects.hashCode(key), lanes.length);
+    }
+
+    /**
+     * Queue a task on the key's lane without waiting for it.
+     *
+     * @param key The key selecting the lane.
+     * @param task The task to run.
+     */
+    public void execute(String key, Runnable task) {
+        lanes[stripeFor(key)].execute(task);
+    }
+
+    /**
+     * Run a task on the key's lane and wait for its result.
+     * A task already running on that lane is executed inline, so nested calls for the
+     * same key cannot deadlock waiting on their own lane.
+     *
+     * @param key The key selecting the lane.
+     * @param task The task to run.
+     * @return The task's result.
+     */
+    public <T> T call(String key, Callable<T> task) {
+        return call(key, task, 0);
+    }
+
+    /**
+     * Run a task on the key's lane and wait at most the given time for it to start.
+     * A task still queued when the wait runs out is withdrawn and never runs. A task that
+     * has started is waited for until it finishes, so its result or exception is always
+     * what the caller sees and a task that went on to succeed is never reported as failed.
+     *
+     * @param key The key selecting the lane.
+     * @param task The task to run.
+     * @param timeoutMillis How long to wait for the task to start, or 0 to wait indefinitely.
+     * @return The task's result.
+     * @throws IllegalStateException If the task was withdrawn without running.
+     */
+    public <T> T call(String key, Callable<T> task, long timeoutMillis) {
+        int stripe = stripeFor(key);
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future = null;
+        try {
+            if (Integer.valueOf(stripe).equals(currentStripe.get())) {
+                return task.call();
+            }
+
+            future = lanes[stripe].submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                return task.call();
+            });
+            if (timeoutMillis <= 0) {
+                return future.get();
+            }
+            try {
+                return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    throw new IllegalStateException("Timed out after " + timeoutMillis + " ms waiting for "
+                            + name + " lane " + stripe + "; the task was not run", e);
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + name + " lane " + stripe, e);
+        } catch (Exception e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * Get the number of tasks waiting on a lane, excluding the one running.
+     *
+     * @param stripe The stripe index.
+     * @return The queue depth.
+     */
+    public int getQueueDepth(int stripe) {
+        return lanes[stripe].getQueue().size();
+    }
+
+    /**
+     * Get the number of lanes.
+     *
+     * @return The stripe count.
+     */
+    public int getStripeCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Stop accepting work and wait for queued tasks to finish.
+     *
+     * @param timeoutSeconds How long to wait for each lane.
+     */
+    public void shutdown(long timeoutSeconds) throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
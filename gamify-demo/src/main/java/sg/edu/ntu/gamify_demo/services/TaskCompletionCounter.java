@@ -0,0 +1,140 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+import sg.edu.ntu.gamify_demo.repositories.TaskCompletionCountRepository;
+import sg.edu.ntu.gamify_demo.repositories.TaskCompletionCountRepository.SeedChunk;
+
+/**
+ * Service for the per-user counts of completed tasks, in total and per task type.
+ * Counts are incremented in the transaction that saves each completed task event, so
+ * checking a task completion achievement reads one row instead of the user's events.
+ * A backfill seeds the counts from task_events in key-ordered chunks of users,
+ * checkpointed after every chunk; it runs at startup until it has completed once.
+ */
+@Service
+public class TaskCompletionCounter {
+
+    static final String JOB_NAME = "task-completion-backfill";
+    static final String ALL_TYPES = "";
+
+    private final TaskCompletionCountRepository taskCompletionCountRepository;
+    private final int chunkSize;
+    private final boolean backfillOnStartup;
+    private final ChunkedBackfillJob backfillJob;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public TaskCompletionCounter(TaskCompletionCountRepository taskCompletionCountRepository,
+                                 JobCheckpointRepository jobCheckpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${gamify.tasks.completion-counts.chunk-size:1000}") int chunkSize,
+                                 @Value("${gamify.tasks.completion-counts.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.taskCompletionCountRepository = taskCompletionCountRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.backfillOnStartup = backfillOnStartup;
+        this.backfillJob = new ChunkedBackfillJob(JOB_NAME, "Task completion count backfill",
+                jobCheckpointRepository, new TransactionTemplate(transactionManager), this::seedChunk);
+    }
+
+    /**
+     * Count a completed task event. Call this in the transaction that saves the event.
+     *
+     * @param userId The ID of the user.
+     * @param metadata The event's metadata, whose "taskType" is counted if present.
+     */
+    public void recordCompletion(String userId, JsonNode metadata) {
+        recordCompletions(userId, Collections.singletonList(metadata));
+    }
+
+    /**
+     * Count a user's completed task events with one increment per task type.
+     * Rows are incremented in key order, so concurrent callers lock them in the same order.
+     * Call this in the transaction that saves the events.
+     *
+     * @param userId The ID of the user.
+     * @param metadata The metadata of each event.
+     */
+    public void recordCompletions(String userId, Collection<JsonNode> metadata) {
+        if (metadata.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> byType = new TreeMap<>();
+        byType.put(ALL_TYPES, (long) metadata.size());
+        for (JsonNode eventMetadata : metadata) {
+            String taskType = taskTypeOf(eventMetadata);
+            if (taskType != null) {
+                byType.merge(taskType, 1L, Long::sum);
+            }
+        }
+        byType.forEach((taskType, amount) -> taskCompletionCountRepository.increment(userId, taskType, amount));
+    }
+
+    /**
+     * Get the number of task events a user has completed.
+     *
+     * @param userId The ID of the user.
+     * @param taskType The task type to count, or null to count every type.
+     * @return The number of completed task events.
+     */
+    public long getCompletedCount(String userId, String taskType) {
+        String key = taskType == null || taskType.isEmpty() ? ALL_TYPES : taskType;
+        return taskCompletionCountRepository.findCompletedCount(userId, key).orElse(0L);
+    }
+
+    /**
+     * Seed every user's counts from their completed task events.
+     * Each chunk locks the counts against increments while it is seeded, so completions
+     * committed during the backfill are neither lost nor counted twice.
+     *
+     * @param resume Whether to continue an unfinished run from its checkpoint instead of starting over.
+     * @return The checkpoint of the finished run.
+     */
+    public JobCheckpoint backfill(boolean resume) {
+        return backfillJob.run(resume);
+    }
+
+    /**
+     * Seed the counts at startup unless a backfill has already completed, resuming
+     * an interrupted or failed one from its checkpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfillJob.runUnlessCompleted();
+        }
+    }
+
+    private ChunkedBackfillJob.Chunk seedChunk(String afterUserId) {
+        taskCompletionCountRepository.lockForSeeding();
+        SeedChunk chunk = taskCompletionCountRepository.seedChunk(afterUserId, chunkSize);
+        if (chunk == null || chunk.getScanned() == null) {
+            return null;
+        }
+        return new ChunkedBackfillJob.Chunk(chunk.getLastUserId(), chunk.getScanned(), chunk.getChanged());
+    }
+
+    /**
+     * Get the task type an event is counted under, besides the count of every type.
+     */
+    private static String taskTypeOf(JsonNode metadata) {
+        if (metadata == null || !metadata.hasNonNull("taskType")) {
+            return null;
+        }
+        String taskType = metadata.get("taskType").asText();
+        return taskType.isEmpty() ? null : taskType;
+    }
+}
@@ -0,0 +1,385 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
+import sg.edu.ntu.gamify_demo.events.domain.PointsEarnedEvent;
+import sg.edu.ntu.gamify_demo.events.domain.TaskCompletedEvent;
+import sg.edu.ntu.gamify_demo.models.PointsTransaction;
+import sg.edu.ntu.gamify_demo.models.TaskEvent;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.models.enums.TaskStatus;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
+import sg.edu.ntu.gamify_demo.strategies.task.TaskPointsCalculationStrategy;
+
+/**
+ * Service for ingesting task events in bulk.
+ * Events are processed in fixed-size chunks, each chunk in its own transaction. Within a chunk
+ * the task event and points transaction inserts are flushed together so Hibernate can send them
+ * as JDBC batches, and each distinct user gets a single balance update, ladder recompute and
+ * set of completion count increments and streak update.
+ */
+@Service
+public class TaskEventBatchService {
+
+    private final UserRepository userRepository;
+    private final TaskPointsCalculationStrategy pointsCalculationStrategy;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TaskEventDeduplicator deduplicator;
+    private final TaskCompletionCounter taskCompletionCounter;
+    private final StreakTracker streakTracker;
+    private final RollingLeaderboardService rollingLeaderboard;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public TaskEventBatchService(UserRepository userRepository,
+                                 TaskPointsCalculationStrategy pointsCalculationStrategy,
+                                 DomainEventPublisher domainEventPublisher,
+                                 TaskEventDeduplicator deduplicator,
+                                 TaskCompletionCounter taskCompletionCounter,
+                                 StreakTracker streakTracker,
+                                 RollingLeaderboardService rollingLeaderboard,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${gamify.tasks.batch.chunk-size:200}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Batch chunk size must be positive");
+        }
+        this.userRepository = userRepository;
+        this.pointsCalculationStrategy = pointsCalculationStrategy;
+        this.domainEventPublisher = domainEventPublisher;
+        this.deduplicator = deduplicator;
+        this.taskCompletionCounter = taskCompletionCounter;
+        this.streakTracker = streakTracker;
+        this.rollingLeaderboard = rollingLeaderboard;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Process a batch of task events.
+     *
+     * @param events JSON array of task events, each in the same format accepted by
+     *               {@link TaskEventService#processTaskEvent(JsonNode)}.
+     * @return One result per input event, in input order.
+     * @throws IllegalArgumentException if the payload is not a JSON array.
+     */
+    public ArrayNode processBatch(JsonNode events) {
+        if (events == null || !events.isArray()) {
+            throw new IllegalArgumentException("Request body must be a JSON array of task events");
+        }
+
+        ArrayNode results = objectMapper.createArrayNode();
+        for (int start = 0; start < events.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, events.size());
+            results.addAll(processChunk(events, start, end));
+        }
+        return results;
+    }
+
+    /**
+     * Get the number of events committed per transaction.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Process one chunk in its own transaction.
+     * Invalid items are reported individually; if the chunk itself fails to commit,
+     * every item in it is reported as failed.
+     *
+     * @param events The full batch.
+     * @param start Index of the first event in the chunk (inclusive).
+     * @param end Index of the last event in the chunk (exclusive).
+     * @return The results for the chunk.
+     */
+    private List<ObjectNode> processChunk(JsonNode events, int start, int end) {
+        try {
+            return transactionTemplate.execute(status -> writeChunk(events, start, end));
+        } catch (RuntimeException e) {
+            List<ObjectNode> failed = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                failed.add(errorResult(i, "Chunk rolled back: " + e.getMessage()));
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * Write a chunk of events. Must be called inside a transaction.
+     *
+     * @param events The full batch.
+     * @param start Index of the first event in the chunk (inclusive).
+     * @param end Index of the last event in the chunk (exclusive).
+     * @return The results for the chunk.
+     */
+    private List<ObjectNode> writeChunk(JsonNode events, int start, int end) {
+        Map<String, User> users = loadUsers(events, start, end);
+        Map<String, String> processed = deduplicator.findExistingEventIds(resolveKeys(events, start, end));
+        Map<String, Long> pointsByUser = new TreeMap<>();
+        Set<String> ladderUpdates = new LinkedHashSet<>();
+        // Sorted so concurrent chunks update the counters and streaks in the same order
+        Map<String, List<JsonNode>> completionsByUser = new TreeMap<>();
+        List<TaskCompletedEvent> completedEvents = new ArrayList<>();
+        List<ObjectNode> results = new ArrayList<>(end - start);
+
+        for (int i = start; i < end; i++) {
+            JsonNode eventData = events.get(i);
+            try {
+                String userId = eventData.has("userId") ? eventData.get("userId").asText() : null;
+                String taskId = eventData.has("taskId") ? eventData.get("taskId").asText() : null;
+                String eventType = eventData.has("event_type") ? eventData.get("event_type").asText() : null;
+                JsonNode additionalData = eventData.has("data") ? eventData.get("data") : objectMapper.createObjectNode();
+
+                if (userId == null || taskId == null || eventType == null) {
+                    throw new IllegalArgumentException("Missing required fields: userId, taskId, and event_type");
+                }
+
+                String idempotencyKey = deduplicator.resolveKey(eventData, null);
+                String existingEventId = processed.get(idempotencyKey);
+                if (existingEventId != null) {
+                    results.add(duplicateResult(i, existingEventId, userId, taskId, eventType));
+                    continue;
+                }
+
+                User user = users.get(userId);
+                if (user == null) {
+                    throw new IllegalArgumentException("User not found: " + userId);
+                }
+
+                TaskEvent taskEvent = buildTaskEvent(eventType, user, taskId, additionalData);
+                taskEvent.setIdempotencyKey(idempotencyKey);
+                ObjectNode result = successResult(i, taskEvent, userId, taskId, eventType);
+
+                if ("TASK_COMPLETED".equals(eventType)) {
+                    long points = taskEvent.getPointsEarned();
+                    entityManager.persist(taskEvent);
+                    PointsTransaction transaction = buildTransaction(user, taskId, additionalData, points);
+                    entityManager.persist(transaction);
+                    rollingLeaderboard.recordTransaction(transaction);
+                    pointsByUser.merge(userId, points, Long::sum);
+                    completionsByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(additionalData);
+                    if (!additionalData.path("skip_ladder_update").asBoolean(false)) {
+                        ladderUpdates.add(userId);
+                    }
+                    completedEvents.add(new TaskCompletedEvent(
+                            "TASK_COMPLETED", user, taskEvent, (int) points, additionalData));
+                    result.put("pointsAwarded", points);
+                } else {
+                    entityManager.persist(taskEvent);
+                }
+
+                processed.put(idempotencyKey, taskEvent.getEventId());
+                deduplicator.remember(idempotencyKey, taskEvent.getEventId());
+
+                if (additionalData.has("priority")) {
+                    result.put("priority", additionalData.get("priority").asText());
+                }
+                results.add(result);
+            } catch (RuntimeException e) {
+                results.add(errorResult(i, e.getMessage()));
+            }
+        }
+
+        // Flush so the inserts go out as JDBC batches, then one single-statement balance update
+        // per distinct user, in user order so concurrent chunks lock the rows in the same order
+        entityManager.flush();
+        for (Map.Entry<String, Long> entry : pointsByUser.entrySet()) {
+            PointsBalance balance = userRepository.addPoints(entry.getKey(), entry.getValue(), entry.getValue());
+            if (balance != null) {
+                User user = users.get(entry.getKey());
+                user.setEarnedPoints(balance.getEarnedPoints());
+                user.setAvailablePoints(balance.getAvailablePoints());
+            }
+        }
+        completionsByUser.forEach(taskCompletionCounter::recordCompletions);
+        for (String userId : completionsByUser.keySet()) {
+            streakTracker.recordActivity(userId, null);
+        }
+
+        // One ladder recompute per distinct user via the PointsEarnedEvent subscribers
+        for (String userId : ladderUpdates) {
+            User user = users.get(userId);
+            ObjectNode metadata = objectMapper.createObjectNode();
+            metadata.put("batch", true);
+            domainEventPublisher.publish(new PointsEarnedEvent(
+                    user, pointsByUser.get(userId).intValue(), user.getAvailablePoints().intValue(),
+                    "TASK_COMPLETED", metadata));
+        }
+        for (TaskCompletedEvent completedEvent : completedEvents) {
+            domainEventPublisher.publish(completedEvent);
+        }
+
+        return results;
+    }
+
+    /**
+     * Load every user referenced by the chunk with a single query.
+     *
+     * @param events The full batch.
+     * @param start Index of the first event in the chunk (inclusive).
+     * @param end Index of the last event in the chunk (exclusive).
+     * @return The users keyed by ID.
+     */
+    private Map<String, User> loadUsers(JsonNode events, int start, int end) {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (int i = start; i < end; i++) {
+            JsonNode userId = events.get(i).get("userId");
+            if (userId != null) {
+                userIds.add(userId.asText());
+            }
+        }
+
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+        return users;
+    }
+
+    /**
+     * Resolve the idempotency keys of every well-formed event in the chunk.
+     * Malformed events are skipped here and reported when the chunk is processed.
+     *
+     * @param events The full batch.
+     * @param start Index of the first event in the chunk (inclusive).
+     * @param end Index of the last event in the chunk (exclusive).
+     * @return The idempotency keys.
+     */
+    private List<String> resolveKeys(JsonNode events, int start, int end) {
+        List<String> keys = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            JsonNode eventData = events.get(i);
+            if (eventData.has("userId") && eventData.has("taskId") && eventData.has("event_type")) {
+                try {
+                    keys.add(deduplicator.resolveKey(eventData, null));
+                } catch (IllegalArgumentException e) {
+                    // Reported against the item itself
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Build (but do not persist) the task event for an item.
+     * Mirrors the entities produced by CalculatePointsCommand and TaskAssignedCommand.
+     *
+     * @param eventType The type of event.
+     * @param user The user associated with the event.
+     * @param taskId The ID of the task.
+     * @param additionalData Additional data about the event.
+     * @return The task event.
+     * @throws IllegalArgumentException If the event type is not supported.
+     */
+    private TaskEvent buildTaskEvent(String eventType, User user, String taskId, JsonNode additionalData) {
+        TaskEvent taskEvent = new TaskEvent();
+        taskEvent.setEventId(UUID.randomUUID().toString());
+        taskEvent.setUser(user);
+        taskEvent.setTaskId(taskId);
+        taskEvent.setEventType(eventType);
+        taskEvent.setMetadata(additionalData);
+
+        switch (eventType) {
+            case "TASK_COMPLETED":
+                taskEvent.setStatus(TaskStatus.COMPLETED);
+                taskEvent.setCompletionTime(ZonedDateTime.now());
+                taskEvent.setPointsEarned((long) pointsCalculationStrategy.calculatePoints(taskId, additionalData));
+                return taskEvent;
+            case "TASK_ASSIGNED":
+                taskEvent.setStatus(TaskStatus.ASSIGNED);
+                taskEvent.setAssignedAt(ZonedDateTime.now());
+                if (additionalData.has("dueDate")) {
+                    taskEvent.setDueDate(ZonedDateTime.parse(additionalData.get("dueDate").asText()));
+                }
+                return taskEvent;
+            default:
+                throw new IllegalArgumentException("Unsupported event type: " + eventType);
+        }
+    }
+
+    /**
+     * Build the points transaction for a completed task.
+     *
+     * @param user The user who earned the points.
+     * @param taskId The ID of the task.
+     * @param additionalData Additional data about the event.
+     * @param points The points earned.
+     * @return The points transaction.
+     */
+    private PointsTransaction buildTransaction(User user, String taskId, JsonNode additionalData, long points) {
+        ObjectNode metadata = objectMapper.createObjectNode();
+        metadata.put("taskId", taskId);
+        metadata.set("eventData", additionalData);
+        return new PointsTransaction(user, "TASK_COMPLETED", points, metadata);
+    }
+
+    /**
+     * Format the result for a successfully processed item.
+     */
+    private ObjectNode successResult(int index, TaskEvent taskEvent, String userId, String taskId, String eventType) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("index", index);
+        result.put("success", true);
+        result.put("eventId", taskEvent.getEventId());
+        result.put("userId", userId);
+        result.put("taskId", taskId);
+        result.put("eventType", eventType);
+        result.put("status", taskEvent.getStatus().toString());
+        return result;
+    }
+
+    /**
+     * Format the result for an item that was already processed.
+     */
+    private ObjectNode duplicateResult(int index, String eventId, String userId, String taskId, String eventType) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("index", index);
+        result.put("success", true);
+        result.put("duplicate", true);
+        result.put("eventId", eventId);
+        result.put("userId", userId);
+        result.put("taskId", taskId);
+        result.put("eventType", eventType);
+        return result;
+    }
+
+    /**
+     * Format the result for an item that could not be processed.
+     */
+    private ObjectNode errorResult(int index, String message) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("index", index);
+        result.put("success", false);
+        result.put("error", message);
+        return result;
+    }
+}
@@ -0,0 +1,199 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import sg.edu.ntu.gamify_demo.models.TaskEvent;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+
+/**
+ * Detects redelivered task events.
+ * Every task event is stored under an idempotency key, either supplied by the client or
+ * derived from (userId, taskId, event_type). The unique index on task_events.idempotency_key
+ * is the source of truth; a bounded LRU cache of recently committed keys lets retries
+ * short-circuit without touching the database.
+ */
+@Component
+public class TaskEventDeduplicator {
+
+    /**
+     * Maximum length of a client-supplied idempotency key.
+     */
+    public static final int MAX_CLIENT_KEY_LENGTH = 255;
+
+    private final TaskEventRepository taskEventRepository;
+    private final Map<String, String> recentKeys;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public TaskEventDeduplicator(TaskEventRepository taskEventRepository,
+                                 @Value("${gamify.tasks.idempotency.cache-size:10000}") int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Idempotency cache size must be positive");
+        }
+        this.taskEventRepository = taskEventRepository;
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Resolve the idempotency key for an event.
+     * A client key (header, or "idempotency_key" in the payload) wins over the natural key.
+     * Keys are scoped to the user so two users cannot collide on the same client key.
+     *
+     * @param eventData The event payload; must contain userId, taskId and event_type.
+     * @param clientKey The key from the Idempotency-Key header, or null.
+     * @return The key to store on the task event.
+     * @throws IllegalArgumentException if the client key is blank or too long.
+     */
+    public String resolveKey(JsonNode eventData, String clientKey) {
+        if (clientKey == null && eventData.hasNonNull("idempotency_key")) {
+            clientKey = eventData.get("idempotency_key").asText();
+        }
+
+        String userId = eventData.get("userId").asText();
+        if (clientKey != null) {
+            if (clientKey.isBlank() || clientKey.length() > MAX_CLIENT_KEY_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Idempotency key must be between 1 and " + MAX_CLIENT_KEY_LENGTH + " characters");
+            }
+            return userId + "|key|" + clientKey;
+        }
+        return userId + "|" + eventData.get("taskId").asText() + "|" + eventData.get("event_type").asText();
+    }
+
+    /**
+     * Find the event already recorded under a key, checking the recent-key cache first.
+     *
+     * @param idempotencyKey The idempotency key.
+     * @return The ID of the existing task event, or null if the key is new.
+     */
+    public String findExistingEventId(String idempotencyKey) {
+        String eventId = getCached(idempotencyKey);
+        if (eventId != null) {
+            return eventId;
+        }
+
+        eventId = taskEventRepository.findByIdempotencyKey(idempotencyKey)
+                .map(TaskEvent::getEventId)
+                .orElse(null);
+        if (eventId != null) {
+            cache(idempotencyKey, eventId);
+        }
+        return eventId;
+    }
+
+    /**
+     * Find the events already recorded under any of the given keys with at most one query.
+     *
+     * @param idempotencyKeys The idempotency keys.
+     * @return Existing task event IDs keyed by idempotency key; new keys are absent.
+     */
+    public Map<String, String> findExistingEventIds(Collection<String> idempotencyKeys) {
+        Map<String, String> existing = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String key : idempotencyKeys) {
+            String eventId = getCached(key);
+            if (eventId != null) {
+                existing.put(key, eventId);
+            } else {
+                misses.add(key);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (TaskEvent taskEvent : taskEventRepository.findByIdempotencyKeyIn(misses)) {
+                existing.put(taskEvent.getIdempotencyKey(), taskEvent.getEventId());
+                cache(taskEvent.getIdempotencyKey(), taskEvent.getEventId());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Remember a processed key. Inside a transaction the key is only cached once the
+     * transaction commits, so a rolled-back attempt can still be retried.
+     *
+     * @param idempotencyKey The idempotency key.
+     * @param eventId The ID of the task event stored under the key.
+     */
+    public void remember(String idempotencyKey, String eventId) {
+        if (idempotencyKey == null || eventId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(idempotencyKey, eventId);
+                }
+            });
+        } else {
+            cache(idempotencyKey, eventId);
+        }
+    }
+
+    /**
+     * Forget a key remembered by an attempt that was rolled back to a savepoint. Inside a
+     * transaction the key is dropped once the transaction commits, after it was cached.
+     *
+     * @param idempotencyKey The idempotency key.
+     */
+    public void forget(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    uncache(idempotencyKey);
+                }
+            });
+        } else {
+            uncache(idempotencyKey);
+        }
+    }
+
+    /**
+     * Get the number of keys currently cached.
+     *
+     * @return The cache size.
+     */
+    public int getCachedKeyCount() {
+        synchronized (recentKeys) {
+            return recentKeys.size();
+        }
+    }
+
+    private String getCached(String idempotencyKey) {
+        synchronized (recentKeys) {
+            return recentKeys.get(idempotencyKey);
+        }
+    }
+
+    private void cache(String idempotencyKey, String eventId) {
+        synchronized (recentKeys) {
+            recentKeys.put(idempotencyKey, eventId);
+        }
+    }
+
+    private void uncache(String idempotencyKey) {
+        synchronized (recentKeys) {
+            recentKeys.remove(idempotencyKey);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.databind.JsonNode;
+import sg.edu.ntu.gamify_demo.models.TaskEventIntake;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventIntakeRepository;
+
+/**
+ * Service for accepting task events for asynchronous processing.
+ * Accepted events are written to the intake table and acknowledged immediately;
+ * {@link TaskEventIntakeWorker} runs them through the task event pipeline later.
+ */
+@Service
+public class TaskEventIntakeService {
+
+    private final TaskEventIntakeRepository intakeRepository;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public TaskEventIntakeService(TaskEventIntakeRepository intakeRepository) {
+        this.intakeRepository = intakeRepository;
+    }
+
+    /**
+     * Accept a task event for asynchronous processing.
+     * Only the fields needed for routing are validated here; everything else is
+     * validated by the pipeline and reported through the status endpoint.
+     * 
+     * @param eventData JSON data containing userId, taskId, eventType, and additional event data.
+     * @return The pending intake entry, including its tracking ID.
+     * @throws IllegalArgumentException if required fields are missing.
+     */
+    public TaskEventIntake submit(JsonNode eventData) {
+        if (!eventData.hasNonNull("userId") || !eventData.hasNonNull("taskId") || !eventData.hasNonNull("event_type")) {
+            throw new IllegalArgumentException("Missing required fields: userId, taskId, and event_type");
+        }
+        return intakeRepository.save(new TaskEventIntake(eventData.get("userId").asText(), eventData));
+    }
+
+    /**
+     * Get an intake entry by its tracking ID.
+     * 
+     * @param trackingId The tracking ID returned when the event was accepted.
+     * @return The intake entry, or null if not found.
+     */
+    public TaskEventIntake getByTrackingId(String trackingId) {
+        return intakeRepository.findByTrackingId(trackingId).orElse(null);
+    }
+}
@@ -0,0 +1,154 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import sg.edu.ntu.gamify_demo.models.TaskEventIntake;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventIntakeRepository;
+
+/**
+ * Drains the task event intake table.
+ * A single dispatcher per instance claims pending entries in arrival order and hands each
+ * one to a worker chosen by hashing the user ID. Every worker is single-threaded, so a
+ * user's events are always processed in the order they were accepted while different users
+ * are processed in parallel. Claims skip rows locked by other instances and hold a lease;
+ * entries whose lease expires before they are finished are re-queued. An entry that fails
+ * on a database error is re-queued until it has been attempted max-attempts times.
+ */
+@Component
+public class TaskEventIntakeWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventIntakeWorker.class);
+
+    private final TaskEventIntakeRepository intakeRepository;
+    private final TaskEventService taskEventService;
+    private final StripedExecutor workers;
+    private final int batchSize;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public TaskEventIntakeWorker(TaskEventIntakeRepository intakeRepository,
+                                 TaskEventService taskEventService,
+                                 @Value("${gamify.tasks.intake.workers:4}") int workerCount,
+                                 @Value("${gamify.tasks.intake.batch-size:100}") int batchSize,
+                                 @Value("${gamify.tasks.intake.lease-ms:300000}") long leaseMs,
+                                 @Value("${gamify.tasks.intake.max-attempts:5}") int maxAttempts) {
+        if (workerCount <= 0 || batchSize <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Intake worker count, batch size and max attempts must be positive");
+        }
+        this.intakeRepository = intakeRepository;
+        this.taskEventService = taskEventService;
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.workers = new StripedExecutor("task-intake", workerCount, null);
+    }
+
+    /**
+     * Re-queue entries whose lease has expired, left in PROCESSING by an instance that
+     * stopped or stalled before finishing them. Entries other instances are still working
+     * on within their lease are left alone.
+     */
+    @Scheduled(fixedDelayString = "${gamify.tasks.intake.lease-ms:300000}")
+    public void requeueExpired() {
+        try {
+            int requeued = intakeRepository.requeueExpired(leaseMs);
+            if (requeued > 0) {
+                logger.info("Re-queued {} task event intake entries whose lease expired", requeued);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not re-queue in-progress task event intake entries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claim the next pending entries and hand them to the workers.
+     * Nothing new is claimed while a full batch is still in flight, so a slow pipeline
+     * leaves work in the table rather than in memory.
+     */
+    @Scheduled(fixedDelayString = "${gamify.tasks.intake.poll-interval-ms:500}")
+    public void dispatch() {
+        int capacity = batchSize - inFlight.get();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<TaskEventIntake> claimed = new ArrayList<>(intakeRepository.claimPending(instanceId, capacity));
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        // The claim returns rows in no particular order; hand them out in arrival order
+        claimed.sort(Comparator.comparing(TaskEventIntake::getId));
+        for (TaskEventIntake entry : claimed) {
+            inFlight.incrementAndGet();
+            workers.execute(entry.getUserId(), () -> process(entry));
+        }
+    }
+
+    /**
+     * Get the number of entries claimed but not yet finished.
+     * 
+     * @return The in-flight count.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Stop the workers, letting entries already handed to them finish.
+     * Anything not finished in time stays in PROCESSING and is re-queued once its lease expires.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown(10);
+    }
+
+    /**
+     * Run one entry through the task event pipeline and record the outcome.
+     * Database errors, such as a lost connection or a deadlock, are retried; anything else
+     * means the event itself is invalid and fails at once.
+     * 
+     * @param entry The claimed intake entry.
+     */
+    void process(TaskEventIntake entry) {
+        try {
+            ObjectNode result = taskEventService.processTaskEvent(entry.getPayload());
+            entry.markCompleted(result);
+        } catch (DataAccessException | TransactionException e) {
+            if (entry.getAttempts() < maxAttempts) {
+                logger.warn("Task event intake {} failed on attempt {}, retrying: {}",
+                        entry.getTrackingId(), entry.getAttempts(), e.getMessage());
+                entry.markForRetry(e.getMessage());
+            } else {
+                entry.markFailed(e.getMessage());
+            }
+        } catch (Exception e) {
+            entry.markFailed(e.getMessage());
+        }
+
+        try {
+            intakeRepository.save(entry);
+        } catch (Exception e) {
+            logger.error("Failed to record outcome of task event intake {}: {}", entry.getTrackingId(), e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
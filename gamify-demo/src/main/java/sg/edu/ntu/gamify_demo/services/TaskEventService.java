@@ -27,6 +27,7 @@ public class TaskEventService {
     private final TaskEventCommandFactory commandFactory;
     private final TaskPointsCalculationStrategy pointsCalculationStrategy;
     private final DomainEventPublisher domainEventPublisher;
+    private final TaskEventDeduplicator deduplicator;
     private final ObjectMapper objectMapper;
 
     /**
@@ -37,12 +38,14 @@ public class TaskEventService {
                             TaskEventCommandFactory commandFactory,
                             TaskPointsCalculationStrategy pointsCalculationStrategy,
                             DomainEventPublisher domainEventPublisher,
+                            TaskEventDeduplicator deduplicator,
                             ObjectMapper objectMapper) {
         this.taskEventRepository = taskEventRepository;
         this.userService = userService;
         this.commandFactory = commandFactory;
         this.pointsCalculationStrategy = pointsCalculationStrategy;
         this.domainEventPublisher = domainEventPublisher;
+        this.deduplicator = deduplicator;
         this.objectMapper = objectMapper;
     }
 
@@ -55,6 +58,22 @@ public class TaskEventService {
      */
     @Transactional
     public ObjectNode processTaskEvent(JsonNode eventData) {
+        return processTaskEvent(eventData, null);
+    }
+
+    /**
+     * Process a task event at most once.
+     * If an event was already recorded under the same idempotency key, the original
+     * event is reported back and nothing is written.
+     * 
+     * @param eventData JSON data containing userId, taskId, eventType, and additional event data.
+     * @param idempotencyKey Client-supplied idempotency key, or null to use the payload's
+     *                       idempotency_key field or the (userId, taskId, event_type) natural key.
+     * @return A response containing information about the processed event.
+     * @throws IllegalArgumentException if required fields are missing or invalid.
+     */
+    @Transactional
+    public ObjectNode processTaskEvent(JsonNode eventData, String idempotencyKey) {
         // Extract and validate required fields
         String userId = eventData.has("userId") ? eventData.get("userId").asText() : null;
         String taskId = eventData.has("taskId") ? eventData.get("taskId").asText() : null;
@@ -65,17 +84,42 @@ public class TaskEventService {
             throw new IllegalArgumentException("Missing required fields: userId, taskId, and event_type");
         }
 
+        String resolvedKey = deduplicator.resolveKey(eventData, idempotencyKey);
+        String existingEventId = deduplicator.findExistingEventId(resolvedKey);
+        if (existingEventId != null) {
+            return formatDuplicateResponse(existingEventId, userId, taskId, eventType);
+        }
+
         User user = userService.getUserById(userId);
         if (user == null) {
             throw new IllegalArgumentException("User not found: " + userId);
         }
 
+        return executeTaskEvent(user, taskId, eventType, additionalData, resolvedKey);
+    }
+
+    /**
+     * Run the command pipeline for an already validated task event.
+     * Not transactional on its own; callers provide the transaction so that several
+     * events can share one commit.
+     * 
+     * @param user The user associated with the event.
+     * @param taskId The ID of the task.
+     * @param eventType The type of event.
+     * @param additionalData Additional data about the event.
+     * @param idempotencyKey Key stored on the task event, or null.
+     * @return A response containing information about the processed event.
+     * @throws IllegalArgumentException if the event type is not supported.
+     */
+    public ObjectNode executeTaskEvent(User user, String taskId, String eventType, JsonNode additionalData,
+                                       String idempotencyKey) {
         // Execute the appropriate command for this event type
-        TaskEventCommand command = commandFactory.createCommand(eventType, user, taskId, additionalData);
+        TaskEventCommand command = commandFactory.createCommand(eventType, user, taskId, additionalData, idempotencyKey);
         TaskEvent taskEvent = command.execute();
+        deduplicator.remember(idempotencyKey, taskEvent.getEventId());
 
         // Prepare response
-        ObjectNode response = formatResponse(taskEvent, userId, taskId, eventType);
+        ObjectNode response = formatResponse(taskEvent, user.getId(), taskId, eventType);
 
         // Handle task completion specific logic
         if ("TASK_COMPLETED".equals(eventType)) {
@@ -126,6 +170,26 @@ public class TaskEventService {
         return response;
     }
     
+    /**
+     * Format the response for an event that was already processed.
+     * 
+     * @param eventId The ID of the original task event.
+     * @param userId The ID of the user.
+     * @param taskId The ID of the task.
+     * @param eventType The type of event.
+     * @return A formatted response flagged as a duplicate.
+     */
+    public ObjectNode formatDuplicateResponse(String eventId, String userId, String taskId, String eventType) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("success", true);
+        response.put("duplicate", true);
+        response.put("eventId", eventId);
+        response.put("userId", userId);
+        response.put("taskId", taskId);
+        response.put("eventType", eventType);
+        return response;
+    }
+    
     /**
      * Handle task completed event specific logic.
      * 
@@ -0,0 +1,337 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+
+/**
+ * Service for streaming ingestion of newline-delimited JSON task events.
+ * Events are read one at a time with a Jackson streaming parser and run through the
+ * regular command pipeline in fixed-size windows, one transaction per window. The results
+ * of each window are written back as NDJSON as soon as the window commits, and the
+ * persistence context is cleared, so memory use is bounded by the window size rather than
+ * the upload size.
+ */
+@Service
+public class TaskEventStreamService {
+
+    private static final Set<String> SUPPORTED_EVENT_TYPES = Set.of("TASK_COMPLETED", "TASK_ASSIGNED");
+
+    private final TaskEventService taskEventService;
+    private final UserRepository userRepository;
+    private final TaskEventDeduplicator deduplicator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate eventTemplate;
+    private final ObjectMapper objectMapper;
+    private final int windowSize;
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public TaskEventStreamService(TaskEventService taskEventService,
+                                  UserRepository userRepository,
+                                  TaskEventDeduplicator deduplicator,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${gamify.tasks.stream.window-size:100}") int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Stream window size must be positive");
+        }
+        this.taskEventService = taskEventService;
+        this.userRepository = userRepository;
+        this.deduplicator = deduplicator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventTemplate = new TransactionTemplate(transactionManager);
+        this.eventTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.objectMapper = objectMapper;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Read task events from an NDJSON stream and write one NDJSON result line per event,
+     * followed by a summary line.
+     *
+     * @param input The NDJSON request body.
+     * @param output The response body.
+     * @throws IOException If the response cannot be written.
+     */
+    public void processStream(InputStream input, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(null);
+
+        int total = 0;
+        int succeeded = 0;
+        List<JsonNode> window = new ArrayList<>(windowSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             MappingIterator<JsonNode> events = objectMapper.readValues(parser, JsonNode.class)) {
+            String parseError = null;
+            while (true) {
+                try {
+                    if (!events.hasNextValue()) {
+                        break;
+                    }
+                    window.add(events.nextValue());
+                } catch (JsonProcessingException e) {
+                    parseError = e.getOriginalMessage();
+                    break;
+                }
+
+                if (window.size() == windowSize) {
+                    succeeded += writeResults(generator, processWindow(window, total));
+                    total += window.size();
+                    window.clear();
+                }
+            }
+
+            if (!window.isEmpty()) {
+                succeeded += writeResults(generator, processWindow(window, total));
+                total += window.size();
+                window.clear();
+            }
+
+            ObjectNode summary = objectMapper.createObjectNode();
+            summary.put("summary", true);
+            summary.put("total", total);
+            summary.put("succeeded", succeeded);
+            summary.put("failed", total - succeeded);
+            if (parseError != null) {
+                summary.put("error", "Malformed NDJSON after line " + total + ": " + parseError);
+            }
+            writeLine(generator, summary);
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Get the number of events committed per transaction.
+     *
+     * @return The window size.
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Process one window in its own transaction.
+     * Items that fail validation are reported individually and never reach the command
+     * pipeline, and items already recorded under the same idempotency key are reported as
+     * duplicates. Each command runs under a savepoint, so one that fails is rolled back and
+     * reported on its own while the rest of the window commits. If the window itself fails,
+     * it is rolled back and every item in it is reported as failed so the client can resend
+     * the window.
+     *
+     * @param window The events in the window.
+     * @param offset The zero-based line number of the first event in the window.
+     * @return The results for the window.
+     */
+    private List<ObjectNode> processWindow(List<JsonNode> window, int offset) {
+        try {
+            List<ObjectNode> windowResults = transactionTemplate.execute(status -> {
+                Map<String, User> users = loadUsers(window);
+                ObjectNode[] results = new ObjectNode[window.size()];
+                String[] keys = new String[window.size()];
+                for (int i = 0; i < window.size(); i++) {
+                    JsonNode eventData = window.get(i);
+                    String error = validate(eventData, users);
+                    if (error == null) {
+                        try {
+                            keys[i] = deduplicator.resolveKey(eventData, null);
+                        } catch (IllegalArgumentException e) {
+                            error = e.getMessage();
+                        }
+                    }
+                    if (error != null) {
+                        results[i] = errorResult(offset + i, error);
+                    }
+                }
+
+                Map<String, String> processed = deduplicator.findExistingEventIds(
+                        Arrays.stream(keys).filter(Objects::nonNull).toList());
+                for (int i = 0; i < window.size(); i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    JsonNode eventData = window.get(i);
+                    String userId = eventData.get("userId").asText();
+                    String taskId = eventData.get("taskId").asText();
+                    String eventType = eventData.get("event_type").asText();
+
+                    String existingEventId = processed.get(keys[i]);
+                    if (existingEventId != null) {
+                        results[i] = taskEventService.formatDuplicateResponse(existingEventId, userId, taskId, eventType);
+                        results[i].put("line", offset + i);
+                        continue;
+                    }
+
+                    JsonNode additionalData = eventData.has("data") ? eventData.get("data") : objectMapper.createObjectNode();
+                    ObjectNode result;
+                    try {
+                        User user = users.get(userId);
+                        String idempotencyKey = keys[i];
+                        result = executeUnderSavepoint(
+                                () -> taskEventService.executeTaskEvent(user, taskId, eventType, additionalData, idempotencyKey));
+                    } catch (RuntimeException e) {
+                        // Drop the failed event's key and entities, and reload the users it may have changed
+                        deduplicator.forget(keys[i]);
+                        entityManager.clear();
+                        users = loadUsers(window);
+                        results[i] = errorResult(offset + i, e.getMessage());
+                        continue;
+                    }
+                    processed.put(keys[i], result.path("eventId").asText());
+                    result.put("line", offset + i);
+                    if (additionalData.has("priority")) {
+                        result.put("priority", additionalData.get("priority").asText());
+                    }
+                    results[i] = result;
+                }
+                return Arrays.asList(results);
+            });
+            // Detach the committed window so a persistence context that outlives the
+            // transaction (open-in-view) does not grow with the upload
+            entityManager.clear();
+            return windowResults;
+        } catch (RuntimeException e) {
+            List<ObjectNode> failed = new ArrayList<>(window.size());
+            for (int i = 0; i < window.size(); i++) {
+                failed.add(errorResult(offset + i, "Window rolled back: " + e.getMessage()));
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * Run one event under a savepoint of the window's transaction, flushing it there so
+     * constraint violations surface before the savepoint is released.
+     * If the event fails, the after-commit callbacks it registered (leaderboard, rolling
+     * leaderboard, earned-achievement cache, ladder distribution and write-behind updates)
+     * are discarded along with its rows, so the window's commit applies only those of the
+     * events that were kept.
+     *
+     * @param event The event to run.
+     * @return The event's result.
+     */
+    private ObjectNode executeUnderSavepoint(Supplier<ObjectNode> event) {
+        List<TransactionSynchronization> registered = TransactionSynchronizationManager.isSynchronizationActive()
+                ? TransactionSynchronizationManager.getSynchronizations()
+                : null;
+        try {
+            return eventTemplate.execute(eventStatus -> {
+                ObjectNode eventResult = event.get();
+                entityManager.flush();
+                return eventResult;
+            });
+        } catch (RuntimeException e) {
+            if (registered != null) {
+                TransactionSynchronizationManager.clearSynchronization();
+                TransactionSynchronizationManager.initSynchronization();
+                registered.forEach(TransactionSynchronizationManager::registerSynchronization);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Load every user referenced by the window with a single query.
+     *
+     * @param window The events in the window.
+     * @return The users keyed by ID.
+     */
+    private Map<String, User> loadUsers(List<JsonNode> window) {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (JsonNode eventData : window) {
+            JsonNode userId = eventData.get("userId");
+            if (userId != null) {
+                userIds.add(userId.asText());
+            }
+        }
+
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+        return users;
+    }
+
+    /**
+     * Validate an event before it enters the command pipeline.
+     *
+     * @param eventData The event.
+     * @param users The users loaded for the window.
+     * @return An error message, or null if the event is valid.
+     */
+    private String validate(JsonNode eventData, Map<String, User> users) {
+        if (!eventData.isObject() || !eventData.has("userId") || !eventData.has("taskId") || !eventData.has("event_type")) {
+            return "Missing required fields: userId, taskId, and event_type";
+        }
+        if (!users.containsKey(eventData.get("userId").asText())) {
+            return "User not found: " + eventData.get("userId").asText();
+        }
+        if (!SUPPORTED_EVENT_TYPES.contains(eventData.get("event_type").asText())) {
+            return "Unsupported event type: " + eventData.get("event_type").asText();
+        }
+        return null;
+    }
+
+    /**
+     * Write a window of results and flush them to the client.
+     *
+     * @return The number of successful results in the window.
+     */
+    private int writeResults(JsonGenerator generator, List<ObjectNode> results) throws IOException {
+        int succeeded = 0;
+        for (ObjectNode result : results) {
+            if (result.path("success").asBoolean(false)) {
+                succeeded++;
+            }
+            writeLine(generator, result);
+        }
+        generator.flush();
+        return succeeded;
+    }
+
+    private void writeLine(JsonGenerator generator, ObjectNode node) throws IOException {
+        objectMapper.writeTree(generator, node);
+        generator.writeRaw('\n');
+    }
+
+    private ObjectNode errorResult(int line, String message) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("line", line);
+        result.put("success", false);
+        result.put("error", message);
+        return result;
+    }
+}
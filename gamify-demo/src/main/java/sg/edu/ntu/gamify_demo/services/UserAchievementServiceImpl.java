@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import sg.edu.ntu.gamify_demo.dtos.UserAchievementDTO;
+import sg.edu.ntu.gamify_demo.exceptions.AchievementNotFoundException;
 import sg.edu.ntu.gamify_demo.exceptions.UserNotFoundException;
 import sg.edu.ntu.gamify_demo.factories.UserAchievementFactory;
 import sg.edu.ntu.gamify_demo.interfaces.AchievementService;
@@ -34,6 +35,9 @@ public class UserAchievementServiceImpl implements UserAchievementService {
     private final AchievementCriteriaEvaluator criteriaEvaluator;
     private final AchievementMapper achievementMapper;
     private final ObjectMapper objectMapper;
+    private final AchievementTriggerIndex achievementTriggerIndex;
+    private final EarnedAchievementCache earnedAchievementCache;
+    private final StreakTracker streakTracker;
     
     /**
      * Constructor for dependency injection.
@@ -45,6 +49,9 @@ public class UserAchievementServiceImpl implements UserAchievementService {
      * @param criteriaEvaluator Evaluator for achievement criteria.
      * @param achievementMapper Mapper for converting between entities and DTOs.
      * @param objectMapper Mapper for JSON objects.
+     * @param achievementTriggerIndex Index of the achievements each event type triggers.
+     * @param earnedAchievementCache Cache of the achievements each user has earned.
+     * @param streakTracker Tracker of users' activity streaks.
      */
     
     public UserAchievementServiceImpl(
@@ -54,7 +61,10 @@ public class UserAchievementServiceImpl implements UserAchievementService {
             UserAchievementFactory userAchievementFactory,
             AchievementCriteriaEvaluator criteriaEvaluator,
             AchievementMapper achievementMapper,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            AchievementTriggerIndex achievementTriggerIndex,
+            EarnedAchievementCache earnedAchievementCache,
+            StreakTracker streakTracker) {
         this.userAchievementRepository = userAchievementRepository;
         this.achievementService = achievementService;
         this.userService = userService;
@@ -62,6 +72,9 @@ public class UserAchievementServiceImpl implements UserAchievementService {
         this.criteriaEvaluator = criteriaEvaluator;
         this.achievementMapper = achievementMapper;
         this.objectMapper = objectMapper;
+        this.achievementTriggerIndex = achievementTriggerIndex;
+        this.earnedAchievementCache = earnedAchievementCache;
+        this.streakTracker = streakTracker;
     }
     
     @Override
@@ -73,12 +86,14 @@ public class UserAchievementServiceImpl implements UserAchievementService {
         }
         
         UserAchievement userAchievement = userAchievementFactory.createUserAchievement(user, achievement, metadata);
-        return userAchievementRepository.save(userAchievement);
+        UserAchievement saved = userAchievementRepository.save(userAchievement);
+        earnedAchievementCache.markEarnedAfterCommit(user.getId(), achievement.getAchievementId());
+        return saved;
     }
 
     @Override
     public boolean hasAchievement(User user, Achievement achievement) {
-        return userAchievementRepository.existsByUserAndAchievement(user, achievement);
+        return earnedAchievementCache.hasEarned(user.getId(), achievement.getAchievementId());
     }
 
     @Override
@@ -111,77 +126,41 @@ public class UserAchievementServiceImpl implements UserAchievementService {
     @Transactional
     public List<UserAchievement> processAchievements(User user, String eventType, JsonNode eventData) {
         List<UserAchievement> newAchievements = new ArrayList<>();
-        List<Achievement> allAchievements = achievementService.getAllAchievements();
         
-        for (Achievement achievement : allAchievements) {
-            // Skip if the user already has this achievement
-            if (hasAchievement(user, achievement)) {
+        // Only the achievements this event type can trigger are considered
+        List<AchievementTriggerIndex.Trigger> triggers = achievementTriggerIndex.snapshot().triggersFor(eventType);
+        if (triggers.isEmpty()) {
+            return newAchievements;
+        }
+        
+        for (AchievementTriggerIndex.Trigger trigger : triggers) {
+            // Skip the ones the user already has
+            if (earnedAchievementCache.hasEarned(user.getId(), trigger.achievementId())) {
                 continue;
             }
             
-            // Get the achievement criteria
-            JsonNode criteria = achievement.getCriteria();
-            if (criteria == null) {
+            // Check if the user meets the criteria
+            if (!trigger.criteria().test(user)) {
                 continue;
             }
             
-            // Check if this is a level-based achievement and the event is LEVEL_UP
-            if (criteria.has("requiredLevel") && eventType.equals("LEVEL_UP")) {
-                // Add type field if it doesn't exist
-                if (!criteria.has("type")) {
-                    ((ObjectNode) criteria).put("type", "LEVEL_BASED");
-                }
-                
-                // Check if the user meets the criteria
-                if (checkAchievementCriteria(user, achievement)) {
-                    // Create metadata for the achievement
-                    ObjectNode metadata = objectMapper.createObjectNode();
-                    metadata.put("eventType", eventType);
-                    metadata.set("eventData", eventData);
-                    
-                    // Award the achievement
-                    UserAchievement userAchievement = awardAchievement(user, achievement, metadata);
-                    if (userAchievement != null) {
-                        newAchievements.add(userAchievement);
-                    }
-                }
-            }
-            // Check if this is a task completion achievement and the event is TASK_COMPLETED
-            else if (criteria.has("taskCount") && eventType.equals("TASK_COMPLETED")) {
-                // Add type field if it doesn't exist
-                if (!criteria.has("type")) {
-                    ((ObjectNode) criteria).put("type", "TASK_COMPLETION_COUNT");
-                }
-                
-                // Check if the user meets the criteria
-                if (checkAchievementCriteria(user, achievement)) {
-                    // Create metadata for the achievement
-                    ObjectNode metadata = objectMapper.createObjectNode();
-                    metadata.put("eventType", eventType);
-                    metadata.set("eventData", eventData);
-                    
-                    // Award the achievement
-                    UserAchievement userAchievement = awardAchievement(user, achievement, metadata);
-                    if (userAchievement != null) {
-                        newAchievements.add(userAchievement);
-                    }
-                }
+            Achievement achievement;
+            try {
+                achievement = achievementService.getAchievementById(trigger.achievementId());
+            } catch (AchievementNotFoundException e) {
+                // Deleted since the index was built
+                continue;
             }
-            // Check if the achievement criteria has an eventType that matches the current event
-            else if (criteria.has("eventType") && criteria.get("eventType").asText().equals(eventType)) {
-                // Check if the user meets the criteria
-                if (checkAchievementCriteria(user, achievement)) {
-                    // Create metadata for the achievement
-                    ObjectNode metadata = objectMapper.createObjectNode();
-                    metadata.put("eventType", eventType);
-                    metadata.set("eventData", eventData);
-                    
-                    // Award the achievement
-                    UserAchievement userAchievement = awardAchievement(user, achievement, metadata);
-                    if (userAchievement != null) {
-                        newAchievements.add(userAchievement);
-                    }
-                }
+            
+            // Create metadata for the achievement
+            ObjectNode metadata = objectMapper.createObjectNode();
+            metadata.put("eventType", eventType);
+            metadata.set("eventData", eventData);
+            
+            // Award the achievement
+            UserAchievement userAchievement = awardAchievement(user, achievement, metadata);
+            if (userAchievement != null) {
+                newAchievements.add(userAchievement);
             }
         }
         
@@ -199,6 +178,10 @@ public class UserAchievementServiceImpl implements UserAchievementService {
         List<UserAchievement> userAchievements = getUserAchievements(user);
         List<Achievement> allAchievements = achievementService.getAllAchievements();
         
-        return achievementMapper.toUserAchievementDTO(user, userAchievements, allAchievements);
+        UserAchievementDTO dto = achievementMapper.toUserAchievementDTO(user, userAchievements, allAchievements);
+        StreakTracker.Streak streak = streakTracker.getStreak(userId);
+        dto.setCurrentStreak(streak.current());
+        dto.setLongestStreak(streak.longest());
+        return dto;
     }
 }
@@ -16,18 +16,23 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserValidator userValidator;
     private final PasswordEncoder encoder;
+    private final LadderStatusProvisioner ladderStatusProvisioner;
 
-    public UserServiceImpl(UserRepository userRepository, UserValidator userValidator, PasswordEncoder encoder) {
+    public UserServiceImpl(UserRepository userRepository, UserValidator userValidator, PasswordEncoder encoder,
+                           LadderStatusProvisioner ladderStatusProvisioner) {
         this.userRepository = userRepository;
         this.userValidator = userValidator;
         this.encoder = encoder;
+        this.ladderStatusProvisioner = ladderStatusProvisioner;
     }
 
     @Override
     public User createUser(User user) throws UserValidationException {
         userValidator.validateUser(user);
         user.setPasswordHash(encoder.encode(user.getPasswordHash()));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        ladderStatusProvisioner.provision(savedUser.getId());
+        return savedUser;
     }
 
     @Override
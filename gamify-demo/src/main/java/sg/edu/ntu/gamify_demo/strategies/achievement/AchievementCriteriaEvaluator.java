@@ -48,24 +48,36 @@ public final class AchievementCriteriaEvaluator {
     }
     
     /**
-     * Evaluates whether a user meets the criteria for an achievement.
+     * Compiles the criteria for an achievement into a predicate, using the strategy for its type.
+     * The criteria are only read here; the predicate keeps no reference to them.
      * 
-     * @param user The user to evaluate.
-     * @param criteria The criteria to evaluate against.
-     * @return true if the user meets the criteria, false otherwise.
+     * @param criteria The criteria to compile.
+     * @return The predicate, or CompiledCriteria.NEVER if the criteria have no known type.
      */
-    public boolean evaluateCriteria(User user, JsonNode criteria) {
+    public CompiledCriteria compile(JsonNode criteria) {
         if (criteria == null || !criteria.has("type")) {
-            return false;
+            return CompiledCriteria.NEVER;
         }
         
         String type = criteria.get("type").asText();
         AchievementCriteriaStrategy strategy = strategies.get(type);
         
         if (strategy == null) {
-            return false;
+            return CompiledCriteria.NEVER;
         }
         
-        return strategy.evaluate(user, criteria);
+        return strategy.compile(criteria);
+    }
+    
+    /**
+     * Evaluates whether a user meets the criteria for an achievement.
+     * Compiles the criteria on every call; prefer compiling once and reusing the predicate.
+     * 
+     * @param user The user to evaluate.
+     * @param criteria The criteria to evaluate against.
+     * @return true if the user meets the criteria, false otherwise.
+     */
+    public boolean evaluateCriteria(User user, JsonNode criteria) {
+        return compile(criteria).test(user);
     }
 }
@@ -5,16 +5,28 @@ import sg.edu.ntu.gamify_demo.models.User;
 
 /**
  * Strategy interface for evaluating different types of achievement criteria.
- * Each implementation handles a specific type of achievement criteria.
+ * Each implementation handles a specific type of achievement criteria by compiling
+ * it into a predicate once, which can then be tested against any number of users.
  */
 public interface AchievementCriteriaStrategy {
     
+    /**
+     * Compiles criteria of this strategy's type into a predicate.
+     * 
+     * @param criteria The criteria to compile.
+     * @return The predicate, or CompiledCriteria.NEVER if the criteria lack a required field.
+     */
+    CompiledCriteria compile(JsonNode criteria);
+    
     /**
      * Evaluates whether a user meets the specified criteria for an achievement.
+     * Compiles the criteria on every call; prefer compiling once and reusing the predicate.
      * 
      * @param user The user to evaluate.
      * @param criteria The criteria to evaluate against.
      * @return true if the user meets the criteria, false otherwise.
      */
-    boolean evaluate(User user, JsonNode criteria);
+    default boolean evaluate(User user, JsonNode criteria) {
+        return compile(criteria).test(user);
+    }
 }
@@ -0,0 +1,25 @@
+package sg.edu.ntu.gamify_demo.strategies.achievement;
+
+import sg.edu.ntu.gamify_demo.models.User;
+
+/**
+ * Achievement criteria compiled into a typed, immutable predicate.
+ * The criteria JSON is read once when the predicate is built, so testing a user
+ * neither re-parses nor modifies it.
+ */
+@FunctionalInterface
+public interface CompiledCriteria {
+
+    /**
+     * Criteria that no user meets, used for missing, untyped or malformed criteria.
+     */
+    CompiledCriteria NEVER = user -> false;
+
+    /**
+     * Tests whether a user meets the criteria.
+     * 
+     * @param user The user to test.
+     * @return true if the user meets the criteria, false otherwise.
+     */
+    boolean test(User user);
+}
@@ -13,20 +13,22 @@ import sg.edu.ntu.gamify_demo.models.UserLadderStatus;
 public class LevelBasedStrategy implements AchievementCriteriaStrategy {
 
     /**
-     * Evaluates whether a user has reached the required level.
+     * Compiles a check that a user has reached the required level.
      * 
-     * @param user The user to evaluate.
      * @param criteria The criteria containing the required level.
-     * @return true if the user's level meets or exceeds the required level, false otherwise.
+     * @return A predicate that is true if the user's level meets or exceeds the required level.
      */
     @Override
-    public boolean evaluate(User user, JsonNode criteria) {
+    public CompiledCriteria compile(JsonNode criteria) {
         if (criteria == null || !criteria.has("requiredLevel")) {
-            return false;
+            return CompiledCriteria.NEVER;
         }
         
         int requiredLevel = criteria.get("requiredLevel").asInt();
-        
+        return user -> hasReachedLevel(user, requiredLevel);
+    }
+    
+    private static boolean hasReachedLevel(User user, int requiredLevel) {
         // Get the user's ladder status
         UserLadderStatus ladderStatus = user.getLadderStatus();
         if (ladderStatus == null) {
@@ -34,7 +36,6 @@ public class LevelBasedStrategy implements AchievementCriteriaStrategy {
         }
         
         // Check if the user has reached the required level
-        Long currentLevel = ladderStatus.getCurrentLevel().getLevel();
-        return currentLevel >= requiredLevel;
+        return ladderStatus.getCurrentLevel().getLevel() >= requiredLevel;
     }
 }
@@ -2,7 +2,6 @@ package sg.edu.ntu.gamify_demo.strategies.achievement;
 
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.JsonNode;
-import sg.edu.ntu.gamify_demo.models.User;
 
 /**
  * Strategy implementation for evaluating points threshold achievement criteria.
@@ -12,19 +11,18 @@ import sg.edu.ntu.gamify_demo.models.User;
 public class PointsThresholdStrategy implements AchievementCriteriaStrategy {
 
     /**
-     * Evaluates whether a user has earned enough points to meet the threshold.
+     * Compiles a check that a user has earned enough points to meet the threshold.
      * 
-     * @param user The user to evaluate.
      * @param criteria The criteria containing the points threshold.
-     * @return true if the user's earned points meet or exceed the threshold, false otherwise.
+     * @return A predicate that is true if the user's earned points meet or exceed the threshold.
      */
     @Override
-    public boolean evaluate(User user, JsonNode criteria) {
+    public CompiledCriteria compile(JsonNode criteria) {
         if (criteria == null || !criteria.has("threshold")) {
-            return false;
+            return CompiledCriteria.NEVER;
         }
         
         int threshold = criteria.get("threshold").asInt();
-        return user.getEarnedPoints() >= threshold;
+        return user -> user.getEarnedPoints() >= threshold;
     }
 }
@@ -1,69 +1,43 @@
 package sg.edu.ntu.gamify_demo.strategies.achievement;
 
-import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.JsonNode;
-import sg.edu.ntu.gamify_demo.models.TaskEvent;
-import sg.edu.ntu.gamify_demo.models.User;
-import sg.edu.ntu.gamify_demo.models.enums.TaskStatus;
-import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+import sg.edu.ntu.gamify_demo.services.TaskCompletionCounter;
 
 /**
  * Strategy implementation for evaluating task completion achievement criteria.
- * This strategy checks if a user has completed enough tasks to meet the threshold.
+ * This strategy checks if a user has completed enough tasks to meet the threshold,
+ * reading the user's completion count rather than their task events.
  */
 @Component
 public class TaskCompletionStrategy implements AchievementCriteriaStrategy {
 
-    private final TaskEventRepository taskEventRepository;
+    private final TaskCompletionCounter taskCompletionCounter;
     
     /**
      * Constructor for dependency injection.
      * 
-     * @param taskEventRepository Repository for task events.
+     * @param taskCompletionCounter Counter of users' completed tasks.
      */
     //@Autowired
-    public TaskCompletionStrategy(TaskEventRepository taskEventRepository) {
-        this.taskEventRepository = taskEventRepository;
+    public TaskCompletionStrategy(TaskCompletionCounter taskCompletionCounter) {
+        this.taskCompletionCounter = taskCompletionCounter;
     }
     
     /**
-     * Evaluates whether a user has completed enough tasks to meet the threshold.
+     * Compiles a check that a user has completed enough tasks to meet the threshold.
      * 
-     * @param user The user to evaluate.
-     * @param criteria The criteria containing the task completion threshold.
-     * @return true if the user's completed tasks meet or exceed the threshold, false otherwise.
+     * @param criteria The criteria containing the task completion threshold and an optional task type.
+     * @return A predicate that is true if the user's completed tasks meet or exceed the threshold.
      */
     @Override
-    public boolean evaluate(User user, JsonNode criteria) {
+    public CompiledCriteria compile(JsonNode criteria) {
         if (criteria == null || !criteria.has("count")) {
-            return false;
+            return CompiledCriteria.NEVER;
         }
         
         int requiredCount = criteria.get("count").asInt();
-        
-        // Get all task events for the user
-        List<TaskEvent> userTaskEvents = taskEventRepository.findByUser(user);
-        
-        // Filter for completed tasks
-        List<TaskEvent> completedTasks = userTaskEvents.stream()
-                .filter(event -> event.getStatus() == TaskStatus.COMPLETED)
-                .collect(Collectors.toList());
-        
-        // Check if specific task type is required
-        if (criteria.has("taskType")) {
-            String taskType = criteria.get("taskType").asText();
-            completedTasks = completedTasks.stream()
-                    .filter(event -> {
-                        JsonNode metadata = event.getMetadata();
-                        return metadata != null && 
-                               metadata.has("taskType") && 
-                               metadata.get("taskType").asText().equals(taskType);
-                    })
-                    .collect(Collectors.toList());
-        }
-        
-        return completedTasks.size() >= requiredCount;
+        String taskType = criteria.has("taskType") ? criteria.get("taskType").asText() : null;
+        return user -> taskCompletionCounter.getCompletedCount(user.getId(), taskType) >= requiredCount;
     }
 }
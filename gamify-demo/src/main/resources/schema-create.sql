@@ -1,12 +1,17 @@
 -- Drop tables in reverse order of dependencies
+DROP TABLE IF EXISTS job_checkpoints;
 DROP TABLE IF EXISTS user_achievements;
 DROP TABLE IF EXISTS achievements;
+DROP TABLE IF EXISTS task_event_intake;
+DROP TABLE IF EXISTS task_completion_counts;
 DROP TABLE IF EXISTS task_events;
 DROP TABLE IF EXISTS leaderboard;
 DROP TABLE IF EXISTS user_ladder_status;
 DROP TABLE IF EXISTS ladder_levels;
 DROP TABLE IF EXISTS redemptions;
 DROP TABLE IF EXISTS rewards;
+DROP TABLE IF EXISTS user_streaks;
+DROP TABLE IF EXISTS points_balance_snapshots;
 DROP TABLE IF EXISTS points_transactions;
 DROP TABLE IF EXISTS users;
 
@@ -25,6 +30,8 @@ CREATE TABLE IF NOT EXISTS "users" (
     PRIMARY KEY ("id")
 );
 
+CREATE INDEX IF NOT EXISTS "idx_users_earned_points_id" ON "users" ("earned_points" DESC, "id");
+
 -- Points transactions table
 CREATE TABLE IF NOT EXISTS "points_transactions" (
     "transaction_id" varchar(36) NOT NULL,
@@ -34,9 +41,39 @@ CREATE TABLE IF NOT EXISTS "points_transactions" (
     "timestamp" timestamp with time zone,
     "metadata" jsonb,
     "created_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "ledger_seq" bigserial NOT NULL,
+    "applied" boolean NOT NULL DEFAULT true,
+    "xid" bigint NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint),
     PRIMARY KEY ("transaction_id"),
     FOREIGN KEY ("user_id") REFERENCES "users"("id")
 );
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_ledger_seq" ON "points_transactions" ("ledger_seq");
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_user_ledger_seq" ON "points_transactions" ("user_id", "ledger_seq");
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_created_at" ON "points_transactions" ("created_at");
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_xid" ON "points_transactions" ("xid");
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_unapplied" ON "points_transactions" ("user_id") WHERE NOT "applied";
+
+-- Points balance snapshots (per-user balances summed from the ledger up to ledger_seq)
+CREATE TABLE IF NOT EXISTS "points_balance_snapshots" (
+    "user_id" varchar(36) NOT NULL,
+    "ledger_seq" bigint NOT NULL,
+    "earned_points" bigint NOT NULL,
+    "available_points" bigint NOT NULL,
+    "taken_at" timestamp with time zone NOT NULL,
+    "xid_watermark" bigint NOT NULL,
+    PRIMARY KEY ("user_id")
+);
+
+-- User activity streaks (consecutive days with a points transaction, in the configured zone)
+CREATE TABLE IF NOT EXISTS "user_streaks" (
+    "user_id" varchar(36) NOT NULL,
+    "last_active_date" date NOT NULL,
+    "current_streak" integer NOT NULL,
+    "longest_streak" integer NOT NULL,
+    "updated_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY ("user_id"),
+    FOREIGN KEY ("user_id") REFERENCES "users"("id")
+);
 
 -- Rewards table
 CREATE TABLE IF NOT EXISTS "rewards" (
@@ -74,6 +111,7 @@ CREATE TABLE IF NOT EXISTS "ladder_levels" (
 
 -- User ladder status table
 CREATE TABLE IF NOT EXISTS "user_ladder_status" (
+    "id" varchar(36) NOT NULL,
     "user_id" varchar(36) NOT NULL,
     "current_level" bigint NOT NULL,
     "earned_points" bigint NOT NULL,
@@ -111,11 +149,22 @@ CREATE TABLE IF NOT EXISTS "task_events" (
     "completion_time" timestamp with time zone,
     "metadata" jsonb,
     "points_earned" bigint,
+    "idempotency_key" varchar(512) UNIQUE,
     "created_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
     "updated_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
     PRIMARY KEY ("event_id"),
     FOREIGN KEY ("user_id") REFERENCES "users"("id")
 );
+CREATE INDEX IF NOT EXISTS "idx_task_events_user_id" ON "task_events" ("user_id");
+
+-- Task completion counts (completed task events per user and task type; '' counts every type)
+CREATE TABLE IF NOT EXISTS "task_completion_counts" (
+    "user_id" varchar(36) NOT NULL,
+    "task_type" varchar(255) NOT NULL,
+    "completed_count" bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY ("user_id", "task_type"),
+    FOREIGN KEY ("user_id") REFERENCES "users"("id")
+);
 
 -- Achievements table
 CREATE TABLE IF NOT EXISTS "achievements" (
@@ -136,4 +185,37 @@ CREATE TABLE IF NOT EXISTS "user_achievements" (
     PRIMARY KEY ("user_id", "achievement_id"),
     FOREIGN KEY ("user_id") REFERENCES "users"("id"),
     FOREIGN KEY ("achievement_id") REFERENCES "achievements"("achievement_id")
-);
\ No newline at end of file
+);
+
+-- Task event intake table (asynchronous processing queue)
+CREATE TABLE IF NOT EXISTS "task_event_intake" (
+    "id" bigserial NOT NULL,
+    "tracking_id" varchar(36) NOT NULL UNIQUE,
+    "user_id" varchar(36) NOT NULL,
+    "payload" jsonb NOT NULL,
+    "status" varchar(20) NOT NULL,
+    "result" jsonb,
+    "error" text,
+    "attempts" integer NOT NULL DEFAULT 0,
+    "claimed_by" varchar(64),
+    "claimed_at" timestamp with time zone,
+    "created_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "processed_at" timestamp with time zone,
+    PRIMARY KEY ("id")
+);
+CREATE INDEX IF NOT EXISTS "idx_task_event_intake_status_id" ON "task_event_intake" ("status", "id");
+CREATE INDEX IF NOT EXISTS "idx_task_event_intake_user_id" ON "task_event_intake" ("user_id", "id");
+
+-- Background job checkpoints (resumable chunked jobs)
+CREATE TABLE IF NOT EXISTS "job_checkpoints" (
+    "job_name" varchar(64) NOT NULL,
+    "status" varchar(20) NOT NULL,
+    "cursor" varchar(255),
+    "processed_count" bigint NOT NULL DEFAULT 0,
+    "changed_count" bigint NOT NULL DEFAULT 0,
+    "started_at" timestamp with time zone NOT NULL,
+    "updated_at" timestamp with time zone NOT NULL,
+    "finished_at" timestamp with time zone,
+    "error" text,
+    PRIMARY KEY ("job_name")
+);
@@ -171,5 +171,107 @@ BEGIN
     END IF;
 END $$;
 
+-- 11. Idempotency key for task event deduplication
+ALTER TABLE "task_events"
+    ADD COLUMN IF NOT EXISTS "idempotency_key" varchar(512);
+CREATE UNIQUE INDEX IF NOT EXISTS "uk_task_events_idempotency_key" ON "task_events" ("idempotency_key");
+
+-- 12. Ledger sequence and balance snapshots
+ALTER TABLE "points_transactions"
+    ADD COLUMN IF NOT EXISTS "ledger_seq" bigserial NOT NULL;
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_ledger_seq" ON "points_transactions" ("ledger_seq");
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_user_ledger_seq" ON "points_transactions" ("user_id", "ledger_seq");
+CREATE TABLE IF NOT EXISTS "points_balance_snapshots" (
+    "user_id" varchar(36) NOT NULL,
+    "ledger_seq" bigint NOT NULL,
+    "earned_points" bigint NOT NULL,
+    "available_points" bigint NOT NULL,
+    "taken_at" timestamp with time zone NOT NULL,
+    PRIMARY KEY ("user_id")
+);
+
+-- 13. Background job checkpoints
+CREATE TABLE IF NOT EXISTS "job_checkpoints" (
+    "job_name" varchar(64) NOT NULL,
+    "status" varchar(20) NOT NULL,
+    "cursor" varchar(255),
+    "processed_count" bigint NOT NULL DEFAULT 0,
+    "changed_count" bigint NOT NULL DEFAULT 0,
+    "started_at" timestamp with time zone NOT NULL,
+    "updated_at" timestamp with time zone NOT NULL,
+    "finished_at" timestamp with time zone,
+    "error" text,
+    PRIMARY KEY ("job_name")
+);
+
+-- 14. Entity id column on user_ladder_status (always equal to user_id)
+ALTER TABLE "user_ladder_status"
+    ADD COLUMN IF NOT EXISTS "id" varchar(36);
+UPDATE "user_ladder_status" SET "id" = "user_id" WHERE "id" IS NULL;
+ALTER TABLE "user_ladder_status"
+    ALTER COLUMN "id" SET NOT NULL;
+
+-- 15. Time-range index for rebuilding the rolling leaderboards
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_created_at" ON "points_transactions" ("created_at");
+
+-- 16. Rank-order index for the chunked leaderboard sync
+CREATE INDEX IF NOT EXISTS "idx_users_earned_points_id" ON "users" ("earned_points" DESC, "id");
+
+-- 17. Task completion counters (seeded from task_events by the backfill job)
+CREATE INDEX IF NOT EXISTS "idx_task_events_user_id" ON "task_events" ("user_id");
+CREATE TABLE IF NOT EXISTS "task_completion_counts" (
+    "user_id" varchar(36) NOT NULL,
+    "task_type" varchar(255) NOT NULL,
+    "completed_count" bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY ("user_id", "task_type"),
+    FOREIGN KEY ("user_id") REFERENCES "users"("id")
+);
+
+-- 18. User activity streaks (seeded from points_transactions by the backfill job)
+CREATE TABLE IF NOT EXISTS "user_streaks" (
+    "user_id" varchar(36) NOT NULL,
+    "last_active_date" date NOT NULL,
+    "current_streak" integer NOT NULL,
+    "longest_streak" integer NOT NULL,
+    "updated_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY ("user_id"),
+    FOREIGN KEY ("user_id") REFERENCES "users"("id")
+);
+
+-- 19. Asynchronous task event intake, with a lease on entries being processed
+CREATE TABLE IF NOT EXISTS "task_event_intake" (
+    "id" bigserial NOT NULL,
+    "tracking_id" varchar(36) NOT NULL UNIQUE,
+    "user_id" varchar(36) NOT NULL,
+    "payload" jsonb NOT NULL,
+    "status" varchar(20) NOT NULL,
+    "result" jsonb,
+    "error" text,
+    "attempts" integer NOT NULL DEFAULT 0,
+    "created_at" timestamp with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "processed_at" timestamp with time zone,
+    PRIMARY KEY ("id")
+);
+ALTER TABLE "task_event_intake"
+    ADD COLUMN IF NOT EXISTS "claimed_by" varchar(64),
+    ADD COLUMN IF NOT EXISTS "claimed_at" timestamp with time zone;
+CREATE INDEX IF NOT EXISTS "idx_task_event_intake_status_id" ON "task_event_intake" ("status", "id");
+CREATE INDEX IF NOT EXISTS "idx_task_event_intake_user_id" ON "task_event_intake" ("user_id", "id");
+
+-- 20. Write-behind awards not yet added to the user's balances
+ALTER TABLE "points_transactions"
+    ADD COLUMN IF NOT EXISTS "applied" boolean NOT NULL DEFAULT true;
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_unapplied" ON "points_transactions" ("user_id") WHERE NOT "applied";
+
+-- 21. Writing transaction ID on ledger rows; snapshots fold only rows of transactions that have ended
+ALTER TABLE "points_transactions"
+    ADD COLUMN IF NOT EXISTS "xid" bigint NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint);
+CREATE INDEX IF NOT EXISTS "idx_points_transactions_xid" ON "points_transactions" ("xid");
+ALTER TABLE "points_balance_snapshots"
+    ADD COLUMN IF NOT EXISTS "xid_watermark" bigint;
+-- Snapshots taken up to a ledger sequence are dropped and rebuilt by the next pass
+DELETE FROM "points_balance_snapshots" WHERE "xid_watermark" IS NULL;
+ALTER TABLE "points_balance_snapshots" ALTER COLUMN "xid_watermark" SET NOT NULL;
+
 -- Re-enable foreign key constraints
 SET session_replication_role = 'origin';
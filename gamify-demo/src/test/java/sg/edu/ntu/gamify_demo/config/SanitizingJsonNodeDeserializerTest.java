@@ -0,0 +1,118 @@
+package sg.edu.ntu.gamify_demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for the SanitizingJsonNodeDeserializer class.
+ * Also compares allocation against the previous serialize/regex/re-parse sanitization.
+ */
+public class SanitizingJsonNodeDeserializerTest {
+
+    private static final String PAYLOAD = """
+            {
+                "userId": "123e4567-e89b-12d3-a456-426614174000",
+                "taskId": "task-789",
+                "event_type": "TASK_COMPLETED",
+                "data": {
+                    "priority": "HIGH",
+                    "details": "Line one\\nLine two\\twith tab\\u0007bell",
+                    "tags": ["sprint-42", "backend"],
+                    "estimate": 3,
+                    "ratio": 0.75,
+                    "big": 12345678901234,
+                    "skip_ladder_update": false,
+                    "reviewer": null
+                }
+            }""";
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        objectMapper = new JsonTypeConfig().objectMapper();
+    }
+
+    @Test
+    public void testDeserialize_StripsControlCharactersFromValuesAndNames() throws Exception {
+        JsonNode node = objectMapper.readTree("{\"na\\u0000me\": \"a\\u0001b\\u007Fc\", \"list\": [\"x\\u001Fy\"]}");
+
+        assertEquals("abc", node.get("name").asText());
+        assertEquals("xy", node.get("list").get(0).asText());
+    }
+
+    @Test
+    public void testDeserialize_KeepsLineBreaksTabsAndScalarTypes() throws Exception {
+        JsonNode data = objectMapper.readTree(PAYLOAD).get("data");
+
+        assertEquals("Line one\nLine two\twith tabbell", data.get("details").asText());
+        assertTrue(data.get("estimate").isInt());
+        assertTrue(data.get("big").isLong());
+        assertTrue(data.get("ratio").isDouble());
+        assertTrue(data.get("skip_ladder_update").isBoolean());
+        assertTrue(data.get("reviewer").isNull());
+        assertEquals(2, data.get("tags").size());
+    }
+
+    @Test
+    public void testDeserialize_MatchesPlainTreeForCleanInput() throws Exception {
+        String clean = PAYLOAD.replace("\\u0007", "");
+
+        assertEquals(new ObjectMapper().readTree(clean), objectMapper.readTree(clean));
+    }
+
+    @Test
+    public void testSanitize_ReturnsSameInstanceWhenNothingToStrip() {
+        String value = "no control characters\n";
+
+        assertSame(value, SanitizingJsonNodeDeserializer.sanitize(value));
+    }
+
+    /**
+     * Allocation benchmark: bytes allocated per request by the old controller path
+     * (parse, toString, regex replaceAll, parse again) versus a single sanitizing parse.
+     * Skipped unless run explicitly:
+     * mvn test -Dtest=SanitizingJsonNodeDeserializerTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkAllocation_SinglePassVersusReparse() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ObjectMapper plainMapper = new ObjectMapper();
+        int iterations = 20_000;
+
+        // Warm up both paths
+        for (int i = 0; i < iterations; i++) {
+            reparse(plainMapper);
+            objectMapper.readTree(PAYLOAD);
+        }
+
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            reparse(plainMapper);
+        }
+        long before = (threads.getCurrentThreadAllocatedBytes() - start) / iterations;
+
+        start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readTree(PAYLOAD);
+        }
+        long after = (threads.getCurrentThreadAllocatedBytes() - start) / iterations;
+
+        assertTrue(after < before, "single-pass sanitization allocated " + after
+                + " bytes per request, not less than the " + before + " of serialize/regex/re-parse");
+    }
+
+    private JsonNode reparse(ObjectMapper plainMapper) throws Exception {
+        JsonNode eventData = plainMapper.readTree(PAYLOAD);
+        String sanitizedJson = eventData.toString().replaceAll("[\\p{Cntrl}&&[^\r\n\t]]", "");
+        return plainMapper.readTree(sanitizedJson);
+    }
+}
@@ -26,6 +26,7 @@ import sg.edu.ntu.gamify_demo.dtos.RegistrationRequest;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.models.enums.UserRole;
 import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.services.LadderStatusProvisioner;
 
 /**
  * Test class for AuthController.
@@ -51,6 +52,9 @@ public class AuthControllerTest {
     @MockBean
     private AuthenticationService authService;
 
+    @MockBean
+    private LadderStatusProvisioner ladderStatusProvisioner;
+
     private User testUser;
     private RegistrationRequest registrationRequest;
     private LoginRequest loginRequest;
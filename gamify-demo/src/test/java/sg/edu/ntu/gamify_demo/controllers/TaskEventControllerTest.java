@@ -28,7 +28,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import sg.edu.ntu.gamify_demo.services.GamificationService;
 import sg.edu.ntu.gamify_demo.services.LadderService;
+import sg.edu.ntu.gamify_demo.services.TaskEventBatchService;
+import sg.edu.ntu.gamify_demo.services.TaskEventIntakeService;
 import sg.edu.ntu.gamify_demo.services.TaskEventService;
+import sg.edu.ntu.gamify_demo.services.TaskEventStreamService;
 import sg.edu.ntu.gamify_demo.interfaces.UserService;
 import sg.edu.ntu.gamify_demo.mappers.TaskEventMapper;
 import sg.edu.ntu.gamify_demo.models.TaskEvent;
@@ -53,6 +56,15 @@ public class TaskEventControllerTest {
 
     @MockBean
     private TaskEventService taskEventService;
+
+    @MockBean
+    private TaskEventBatchService taskEventBatchService;
+
+    @MockBean
+    private TaskEventStreamService taskEventStreamService;
+
+    @MockBean
+    private TaskEventIntakeService taskEventIntakeService;
     
     @MockBean
     private UserService userService;
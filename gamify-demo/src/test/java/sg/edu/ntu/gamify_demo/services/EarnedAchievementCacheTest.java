@@ -0,0 +1,130 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sg.edu.ntu.gamify_demo.repositories.UserAchievementRepository;
+
+/**
+ * Unit tests for the EarnedAchievementCache class.
+ * These tests focus on loading once per user, updating on commit, invalidation and eviction.
+ */
+public class EarnedAchievementCacheTest {
+
+    private EarnedAchievementCache cache;
+    private UserAchievementRepository userAchievementRepository;
+
+    @BeforeEach
+    public void setup() {
+        userAchievementRepository = mock(UserAchievementRepository.class);
+        when(userAchievementRepository.findEarnedAchievementIds("u1")).thenReturn(List.of("a1", "a3"));
+        when(userAchievementRepository.findEarnedAchievementIds("u2")).thenReturn(List.of());
+        cache = new EarnedAchievementCache(userAchievementRepository, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testHasEarned_LoadsOncePerUser() {
+        assertTrue(cache.hasEarned("u1", "a1"));
+        assertFalse(cache.hasEarned("u1", "a2"));
+        assertTrue(cache.hasEarned("u1", "a3"));
+        assertFalse(cache.hasEarned("u2", "a1"));
+
+        verify(userAchievementRepository, times(1)).findEarnedAchievementIds("u1");
+        verify(userAchievementRepository, times(1)).findEarnedAchievementIds("u2");
+    }
+
+    @Test
+    public void testMarkEarnedAfterCommit_SetsBitOnlyAfterCommit() {
+        // Arrange
+        assertFalse(cache.hasEarned("u2", "a1"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.markEarnedAfterCommit("u2", "a1");
+
+        // Assert
+        assertFalse(cache.hasEarned("u2", "a1"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(cache.hasEarned("u2", "a1"));
+        verify(userAchievementRepository, times(1)).findEarnedAchievementIds("u2");
+    }
+
+    @Test
+    public void testInvalidate_ReloadsOnNextCheck() {
+        // Arrange: an achievement written outside the service
+        assertFalse(cache.hasEarned("u2", "a1"));
+        when(userAchievementRepository.findEarnedAchievementIds("u2")).thenReturn(List.of("a1"));
+
+        // Act
+        cache.invalidate("u2");
+
+        // Assert
+        assertTrue(cache.hasEarned("u2", "a1"));
+        verify(userAchievementRepository, times(2)).findEarnedAchievementIds("u2");
+    }
+
+    @Test
+    public void testHasEarned_OnlyChangesToTheSameUserDiscardAnOverlappingLoad() {
+        // Arrange: u2 changes while u1 loads, then u1 changes while u1 reloads
+        when(userAchievementRepository.findEarnedAchievementIds("u1"))
+                .thenAnswer(invocation -> {
+                    cache.invalidate("u2");
+                    return List.of("a1");
+                })
+                .thenAnswer(invocation -> {
+                    cache.invalidate("u1");
+                    return List.of("a1");
+                })
+                .thenReturn(List.of("a1"));
+
+        // Act
+        cache.hasEarned("u1", "a1");
+        cache.hasEarned("u1", "a1");
+        cache.invalidate("u1");
+        cache.hasEarned("u1", "a1");
+        cache.hasEarned("u1", "a1");
+        cache.hasEarned("u1", "a1");
+
+        // Assert: the first load is cached, the second is not, the third is
+        verify(userAchievementRepository, times(3)).findEarnedAchievementIds("u1");
+    }
+
+    @Test
+    public void testHasEarned_EvictsLeastRecentlyUsedUser() {
+        when(userAchievementRepository.findEarnedAchievementIds("u3")).thenReturn(List.of());
+        cache.hasEarned("u1", "a1");
+        cache.hasEarned("u2", "a1");
+        cache.hasEarned("u1", "a1");
+
+        cache.hasEarned("u3", "a1");
+        cache.hasEarned("u1", "a1");
+
+        assertEquals(2, cache.size());
+        verify(userAchievementRepository, times(1)).findEarnedAchievementIds("u1");
+    }
+
+    @Test
+    public void testConstructor_RejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new EarnedAchievementCache(userAchievementRepository, 0));
+    }
+}
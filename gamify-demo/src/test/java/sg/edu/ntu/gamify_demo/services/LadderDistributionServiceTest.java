@@ -0,0 +1,116 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.ntu.gamify_demo.dtos.LadderDistributionDTO;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.repositories.LadderLevelRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository.ValueCount;
+
+/**
+ * Unit tests for the LadderDistributionService class.
+ * These tests focus on incremental counter updates, reconciliation and bucketed percentiles.
+ */
+public class LadderDistributionServiceTest {
+
+    private LadderDistributionService distributionService;
+    private UserLadderStatusRepository userLadderStatusRepository;
+
+    @BeforeEach
+    public void setup() {
+        userLadderStatusRepository = mock(UserLadderStatusRepository.class);
+        LadderLevelRepository ladderLevelRepository = mock(LadderLevelRepository.class);
+        when(ladderLevelRepository.findAllByOrderByLevelAsc()).thenReturn(List.of(
+                new LadderLevel(1L, "Beginner", 0L),
+                new LadderLevel(2L, "Intermediate", 200L)));
+
+        // 100 users at level 1 with 1..100 points, 10 users at level 2 with 1000 points
+        List<ValueCount> points = new ArrayList<>();
+        for (long value = 1; value <= 100; value++) {
+            points.add(count(value, 1));
+        }
+        points.add(count(1000, 10));
+        when(userLadderStatusRepository.countByLevel()).thenReturn(List.of(count(1, 100), count(2, 10)));
+        when(userLadderStatusRepository.countByEarnedPoints()).thenReturn(points);
+
+        distributionService = new LadderDistributionService(userLadderStatusRepository,
+                new LadderLevelIndex(ladderLevelRepository));
+    }
+
+    @Test
+    public void testReconcile_RebuildsCountsFromTable() {
+        distributionService.reconcile();
+
+        LadderDistributionDTO distribution = distributionService.getDistribution();
+
+        assertEquals(110L, distribution.getTotalUsers());
+        assertEquals(100L, distribution.getLevels().get(0).getUserCount());
+        assertEquals("Intermediate", distribution.getLevels().get(1).getLabel());
+        assertEquals(10L, distribution.getLevels().get(1).getUserCount());
+    }
+
+    @Test
+    public void testRecordChange_MovesUserBetweenLevels() {
+        // Arrange
+        distributionService.reconcile();
+
+        // Act: no transaction is active, so the change applies immediately
+        distributionService.recordChange(1L, 2L, 100L, 250L);
+
+        // Assert
+        LadderDistributionDTO distribution = distributionService.getDistribution();
+        assertEquals(99L, distribution.getLevels().get(0).getUserCount());
+        assertEquals(11L, distribution.getLevels().get(1).getUserCount());
+        assertEquals(110L, distribution.getTotalUsers());
+    }
+
+    @Test
+    public void testGetDistribution_PercentilesWithinBucketError() {
+        distributionService.reconcile();
+
+        Map<String, Long> percentiles = distributionService.getDistribution().getEarnedPointsPercentiles();
+
+        // The 55th of 110 users has 55 points, the 99th has 99 and the 109th has 1000
+        assertWithinBucket(55, percentiles.get("p50"));
+        assertWithinBucket(83, percentiles.get("p75"));
+        assertWithinBucket(99, percentiles.get("p90"));
+        assertWithinBucket(1000, percentiles.get("p99"));
+    }
+
+    @Test
+    public void testBuckets_CoverValuesWithoutGaps() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LadderDistributionService.bucketFor(value);
+            assertTrue(LadderDistributionService.bucketUpperBound(bucket) >= value);
+            assertTrue(bucket == 0 || LadderDistributionService.bucketUpperBound(bucket - 1) < value);
+        }
+        assertEquals(LadderDistributionService.BUCKET_COUNT - 1, LadderDistributionService.bucketFor(Long.MAX_VALUE));
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 8,
+                "expected about " + expected + " but was " + actual);
+    }
+
+    private static ValueCount count(long value, long userCount) {
+        return new ValueCount() {
+            @Override
+            public Long getValue() {
+                return value;
+            }
+
+            @Override
+            public Long getUserCount() {
+                return userCount;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.repositories.LadderLevelRepository;
+
+/**
+ * Unit tests for the LadderLevelIndex class.
+ * These tests focus on binary-search level resolution and snapshot reloads.
+ */
+public class LadderLevelIndexTest {
+
+    private LadderLevelIndex ladderLevelIndex;
+    private LadderLevelRepository ladderLevelRepository;
+
+    @BeforeEach
+    public void setup() {
+        ladderLevelRepository = mock(LadderLevelRepository.class);
+        when(ladderLevelRepository.findAllByOrderByLevelAsc()).thenReturn(Arrays.asList(
+                new LadderLevel(1L, "Beginner", 0L),
+                new LadderLevel(2L, "Intermediate", 200L),
+                new LadderLevel(3L, "Advanced", 500L),
+                new LadderLevel(5L, "Master", 1000L)));
+
+        ladderLevelIndex = new LadderLevelIndex(ladderLevelRepository);
+    }
+
+    @Test
+    public void testLevelFor_ResolvesHighestLevelReached() {
+        LadderLevelIndex.Snapshot levels = ladderLevelIndex.snapshot();
+
+        assertEquals(1L, levels.levelFor(0).getLevel());
+        assertEquals(1L, levels.levelFor(199).getLevel());
+        assertEquals(2L, levels.levelFor(200).getLevel());
+        assertEquals(3L, levels.levelFor(999).getLevel());
+        assertEquals(5L, levels.levelFor(5000).getLevel());
+        assertNull(levels.levelFor(-1));
+    }
+
+    @Test
+    public void testLevelFor_MatchesLinearScanWhenThresholdsAreOutOfOrder() {
+        // Arrange: level 3 was configured with a lower threshold than level 2
+        when(ladderLevelRepository.findAllByOrderByLevelAsc()).thenReturn(Arrays.asList(
+                new LadderLevel(1L, "Beginner", 0L),
+                new LadderLevel(2L, "Intermediate", 300L),
+                new LadderLevel(3L, "Advanced", 250L)));
+
+        // Act
+        LadderLevelIndex.Snapshot levels = ladderLevelIndex.reload();
+
+        // Assert
+        assertEquals(1L, levels.levelFor(249).getLevel());
+        assertEquals(3L, levels.levelFor(250).getLevel());
+        assertEquals(3L, levels.levelFor(300).getLevel());
+    }
+
+    @Test
+    public void testFindAndNextAfter_UseLevelNumbers() {
+        LadderLevelIndex.Snapshot levels = ladderLevelIndex.snapshot();
+
+        assertEquals("Advanced", levels.find(3).getLabel());
+        assertNull(levels.find(4));
+        assertEquals(5L, levels.nextAfter(3).getLevel());
+        assertEquals(5L, levels.nextAfter(4).getLevel());
+        assertNull(levels.nextAfter(5));
+    }
+
+    @Test
+    public void testSnapshot_LoadsOnceAndSwapsOnRefresh() {
+        // Arrange
+        LadderLevelIndex.Snapshot first = ladderLevelIndex.snapshot();
+        ladderLevelIndex.snapshot();
+        when(ladderLevelRepository.findAllByOrderByLevelAsc()).thenReturn(Collections.emptyList());
+
+        // Act: no transaction is active, so the refresh happens immediately
+        ladderLevelIndex.refreshAfterCommit();
+        LadderLevelIndex.Snapshot second = ladderLevelIndex.snapshot();
+
+        // Assert
+        verify(ladderLevelRepository, times(2)).findAllByOrderByLevelAsc();
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertEquals(4, first.size());
+        assertEquals(0, second.size());
+        assertNull(second.levelFor(100));
+    }
+}
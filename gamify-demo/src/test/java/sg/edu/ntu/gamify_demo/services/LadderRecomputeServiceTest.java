@@ -0,0 +1,157 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import sg.edu.ntu.gamify_demo.dtos.JobProgressDTO;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository.RecomputeChunk;
+
+/**
+ * Unit tests for the LadderRecomputeService class.
+ * These tests focus on chunk checkpointing, resuming and restarts after threshold changes.
+ */
+public class LadderRecomputeServiceTest {
+
+    private LadderRecomputeService recomputeService;
+    private UserLadderStatusRepository userLadderStatusRepository;
+    private JobCheckpointRepository jobCheckpointRepository;
+    private LadderDistributionService ladderDistributionService;
+    private JobCheckpoint checkpoint;
+
+    @BeforeEach
+    public void setup() {
+        userLadderStatusRepository = mock(UserLadderStatusRepository.class);
+        jobCheckpointRepository = mock(JobCheckpointRepository.class);
+        ladderDistributionService = mock(LadderDistributionService.class);
+
+        checkpoint = JobCheckpoint.builder().jobName(LadderRecomputeService.JOB_NAME).build();
+        when(jobCheckpointRepository.findById(LadderRecomputeService.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(jobCheckpointRepository.save(any(JobCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userLadderStatusRepository.recomputeChunk(anyString(), anyInt())).thenReturn(chunk(null, 0, 0));
+
+        recomputeService = new LadderRecomputeService(userLadderStatusRepository, jobCheckpointRepository,
+                ladderDistributionService, mock(PlatformTransactionManager.class), 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recomputeService.shutdown();
+    }
+
+    @Test
+    public void testStart_ProcessesChunksAndCheckpointsEachOne() throws Exception {
+        // Arrange
+        when(userLadderStatusRepository.recomputeChunk("", 2)).thenReturn(chunk("b", 2, 1));
+        when(userLadderStatusRepository.recomputeChunk("b", 2)).thenReturn(chunk("c", 1, 1));
+
+        // Act
+        JobProgressDTO progress = recomputeService.start(false);
+        awaitFinish();
+
+        // Assert
+        assertNotNull(progress);
+        assertEquals(JobStatus.COMPLETED, checkpoint.getStatus());
+        assertEquals("c", checkpoint.getCursor());
+        assertEquals(3L, checkpoint.getProcessedCount());
+        assertEquals(2L, checkpoint.getChangedCount());
+        assertNotNull(checkpoint.getFinishedAt());
+        verify(ladderDistributionService).reconcile();
+    }
+
+    @Test
+    public void testStart_ResumesFailedRunFromCheckpoint() throws Exception {
+        // Arrange: a previous run failed after user "m"
+        checkpoint.setStatus(JobStatus.FAILED);
+        checkpoint.setCursor("m");
+        checkpoint.setProcessedCount(10);
+        checkpoint.setStartedAt(ZonedDateTime.now());
+        when(userLadderStatusRepository.recomputeChunk("m", 2)).thenReturn(chunk("n", 1, 0));
+
+        // Act
+        recomputeService.start(true);
+        awaitFinish();
+
+        // Assert
+        assertEquals(JobStatus.COMPLETED, checkpoint.getStatus());
+        assertEquals(11L, checkpoint.getProcessedCount());
+        verify(userLadderStatusRepository).recomputeChunk("m", 2);
+    }
+
+    @Test
+    public void testRequestRecompute_RestartsRunInProgressFromBeginning() throws Exception {
+        // Arrange: thresholds change while the first chunk is being processed
+        AtomicInteger calls = new AtomicInteger();
+        when(userLadderStatusRepository.recomputeChunk("", 2)).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                recomputeService.requestRecomputeAfterCommit();
+            }
+            return chunk("b", 2, 2);
+        });
+
+        // Act
+        recomputeService.start(false);
+        awaitFinish();
+
+        // Assert: the second pass started over, so only its chunk is counted
+        assertEquals(2, calls.get());
+        assertEquals(JobStatus.COMPLETED, checkpoint.getStatus());
+        assertEquals(2L, checkpoint.getProcessedCount());
+        assertEquals(2L, checkpoint.getChangedCount());
+    }
+
+    @Test
+    public void testStart_RecordsFailure() throws Exception {
+        when(userLadderStatusRepository.recomputeChunk("", 2)).thenThrow(new IllegalStateException("deadlock detected"));
+
+        recomputeService.start(false);
+        awaitFinish();
+
+        assertEquals(JobStatus.FAILED, checkpoint.getStatus());
+        assertEquals("deadlock detected", checkpoint.getError());
+    }
+
+    private void awaitFinish() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (!recomputeService.isRunning()) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Recompute did not finish");
+    }
+
+    private static RecomputeChunk chunk(String lastUserId, long scanned, long changed) {
+        return new RecomputeChunk() {
+            @Override
+            public String getLastUserId() {
+                return lastUserId;
+            }
+
+            @Override
+            public Long getScanned() {
+                return scanned;
+            }
+
+            @Override
+            public Long getChanged() {
+                return changed;
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.repositories.LadderLevelRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserLadderStatusRepository;
+
+/**
+ * Unit tests for the LadderStatusProvisioner class.
+ * These tests focus on eager provisioning under a savepoint, the bulk backfill and the default level.
+ */
+public class LadderStatusProvisionerTest {
+
+    private LadderStatusProvisioner provisioner;
+    private UserLadderStatusRepository userLadderStatusRepository;
+    private LadderLevelRepository ladderLevelRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setup() {
+        userLadderStatusRepository = mock(UserLadderStatusRepository.class);
+        ladderLevelRepository = mock(LadderLevelRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(ladderLevelRepository.findAllByOrderByLevelAsc())
+                .thenReturn(List.of(new LadderLevel(1L, "Beginner", 0L)));
+
+        provisioner = new LadderStatusProvisioner(userLadderStatusRepository, ladderLevelRepository,
+                new LadderLevelIndex(ladderLevelRepository), transactionManager, true);
+    }
+
+    @Test
+    public void testProvision_InsertsStatusForUser() {
+        when(userLadderStatusRepository.provisionForUser("user123")).thenReturn(1);
+
+        assertTrue(provisioner.provision("user123"));
+        verify(ladderLevelRepository, never()).save(any(LadderLevel.class));
+    }
+
+    @Test
+    public void testProvision_FailureIsLeftToLazyCreation() {
+        when(userLadderStatusRepository.provisionForUser("user123")).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertFalse(provisioner.provision("user123"));
+        // Only the savepoint is rolled back, leaving the caller's transaction usable
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void testBackfill_CreatesDefaultLevelWhenLadderIsEmpty() {
+        // Arrange
+        when(ladderLevelRepository.findAllByOrderByLevelAsc()).thenReturn(Collections.emptyList());
+        when(userLadderStatusRepository.provisionMissing()).thenReturn(42);
+
+        // Act
+        int created = provisioner.backfill();
+
+        // Assert
+        assertEquals(42, created);
+        verify(ladderLevelRepository).save(any(LadderLevel.class));
+    }
+}
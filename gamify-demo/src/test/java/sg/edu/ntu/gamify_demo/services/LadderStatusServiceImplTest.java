@@ -5,15 +5,19 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.Optional;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 import sg.edu.ntu.gamify_demo.dtos.LadderStatusDTO;
 import sg.edu.ntu.gamify_demo.interfaces.UserService;
 import sg.edu.ntu.gamify_demo.models.LadderLevel;
@@ -39,7 +43,12 @@ public class LadderStatusServiceImplTest {
     @Mock
     private PointsCalculationStrategy pointsCalculationStrategy;
 
-    @InjectMocks
+    @Mock
+    private LadderStatusProvisioner ladderStatusProvisioner;
+
+    @Mock
+    private LadderDistributionService ladderDistributionService;
+
     private LadderStatusServiceImpl ladderStatusService;
 
     private User testUser;
@@ -49,6 +58,11 @@ public class LadderStatusServiceImplTest {
 
     @BeforeEach
     public void setup() {
+        ladderStatusService = new LadderStatusServiceImpl(userService, ladderLevelRepository,
+                userLadderStatusRepository, pointsCalculationStrategy, new LadderLevelIndex(ladderLevelRepository),
+                ladderStatusProvisioner, ladderDistributionService,
+                new LadderUpdateCoalescer(new SimpleMeterRegistry(), mock(PlatformTransactionManager.class)));
+
         // Setup test data
         testUser = User.builder()
                 .id("test-user-id")
@@ -108,7 +122,6 @@ public class LadderStatusServiceImplTest {
         // Arrange
         when(userLadderStatusRepository.findById(anyString())).thenReturn(Optional.empty());
         when(userService.getUserById(anyString())).thenReturn(testUser);
-        when(ladderLevelRepository.findByLevel(1)).thenReturn(level1);
         when(ladderLevelRepository.findAllByOrderByLevelAsc()).thenReturn(Arrays.asList(level1, level2));
         when(pointsCalculationStrategy.calculatePointsToNextLevel(anyLong(), any(), any())).thenReturn(100L);
         when(userLadderStatusRepository.save(any(UserLadderStatus.class))).thenReturn(userLadderStatus);
@@ -123,6 +136,22 @@ public class LadderStatusServiceImplTest {
         assertEquals(100, result.getPointsToNextLevel());
     }
 
+    @Test
+    public void testGetUserLadderStatus_MissingStatus_ProvisionedWithoutInitialization() {
+        // Arrange: the first lookup misses, the provisioner inserts the row
+        when(userLadderStatusRepository.findById(anyString()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(userLadderStatus));
+
+        // Act
+        LadderStatusDTO result = ladderStatusService.getUserLadderStatus("test-user-id");
+
+        // Assert
+        assertEquals(1, result.getCurrentLevel());
+        verify(ladderStatusProvisioner).provision("test-user-id");
+        verify(userLadderStatusRepository, never()).save(any(UserLadderStatus.class));
+    }
+
     @Test
     public void testUpdateUserLadderStatus_UserLevelsUp_ReturnsUpdatedDTO() {
         // Arrange
@@ -143,6 +172,7 @@ public class LadderStatusServiceImplTest {
         assertEquals("Intermediate", result.getLevelLabel());
         assertEquals(250, result.getEarnedPoints());
         assertEquals(0, result.getPointsToNextLevel());
+        verify(ladderDistributionService).recordChange(1L, 2L, 100L, 250L);
     }
 
     @Test
@@ -0,0 +1,104 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for the LadderUpdateCoalescer class.
+ * These tests focus on deferring updates to commit and running them once per user.
+ */
+public class LadderUpdateCoalescerTest {
+
+    private LadderUpdateCoalescer coalescer;
+    private SimpleMeterRegistry meterRegistry;
+    private PlatformTransactionManager transactionManager;
+    private List<String> updated;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = mock(PlatformTransactionManager.class);
+        coalescer = new LadderUpdateCoalescer(meterRegistry, transactionManager);
+        updated = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testMarkDirty_NoTransaction_UpdatesImmediately() {
+        coalescer.markDirty("user1", updated::add);
+        coalescer.markDirty("user1", updated::add);
+
+        assertEquals(List.of("user1", "user1"), updated);
+    }
+
+    @Test
+    public void testMarkDirty_InTransaction_UpdatesOncePerUserAtCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act: the award, the event subscriber and the task command all request an update
+        coalescer.markDirty("user1", updated::add);
+        coalescer.markDirty("user1", updated::add);
+        coalescer.markDirty("user2", updated::add);
+        coalescer.markDirty("user1", updated::add);
+
+        // Assert: nothing runs before commit
+        assertEquals(List.of(), updated);
+
+        commit();
+        assertEquals(List.of("user1", "user2"), updated);
+        assertEquals(2.0, meterRegistry.counter("gamify.ladder.updates.deferred").count());
+        assertEquals(2.0, meterRegistry.counter("gamify.ladder.updates.coalesced").count());
+    }
+
+    @Test
+    public void testMarkDirty_FailedUpdate_DoesNotStopOthers() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        coalescer.markDirty("user1", this::failForUser1);
+        coalescer.markDirty("user2", this::failForUser1);
+
+        // Act
+        commit();
+
+        // Assert: each update ran under its own savepoint, and only the failed one was rolled back
+        assertEquals(List.of("user2"), updated);
+        verify(transactionManager, times(2)).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED));
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    private void failForUser1(String userId) {
+        if ("user1".equals(userId)) {
+            throw new IllegalStateException("ladder unavailable");
+        }
+        updated.add(userId);
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import sg.edu.ntu.gamify_demo.dtos.LeaderboardEntryDTO;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.UserScore;
+
+/**
+ * Unit tests for the LeaderBoardService class.
+ * These tests focus on rebuilding, event-driven updates in both directions and persisting only changed ranks.
+ */
+public class LeaderBoardServiceTest {
+
+    private LeaderBoardService leaderBoardService;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private List<Collection<?>> persistedBatches;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        persistedBatches = new ArrayList<>();
+
+        when(userRepository.findAllScores()).thenReturn(List.of(
+                score("u1", "alice", "IT", 100L),
+                score("u2", "bob", "HR", 300L),
+                score("u3", "carol", "IT", 200L)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<?> rows = invocation.getArgument(1);
+                    persistedBatches.add(new ArrayList<>(rows));
+                    int[] counts = new int[rows.size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][] {counts};
+                });
+
+        leaderBoardService = new LeaderBoardService(userRepository, jdbcTemplate);
+    }
+
+    @Test
+    public void testRebuild_RanksUsersByEarnedPoints() {
+        leaderBoardService.rebuild();
+
+        List<LeaderboardEntryDTO> top = leaderBoardService.getTop(10);
+
+        assertEquals(3, top.size());
+        assertEquals("bob", top.get(0).getUsername());
+        assertEquals(1L, top.get(0).getRank());
+        assertEquals("alice", top.get(2).getUsername());
+        assertEquals(3L, top.get(2).getRank());
+    }
+
+    @Test
+    public void testGetUserEntry_ReturnsGlobalAndDepartmentRank() {
+        leaderBoardService.rebuild();
+
+        LeaderboardEntryDTO entry = leaderBoardService.getUserEntry("u1");
+
+        assertEquals(3L, entry.getRank());
+        assertEquals(2L, entry.getDepartmentRank());
+        assertEquals("IT", entry.getDepartment());
+    }
+
+    @Test
+    public void testGetDepartmentTop_RanksWithinDepartment() {
+        leaderBoardService.rebuild();
+
+        List<LeaderboardEntryDTO> it = leaderBoardService.getDepartmentTop("IT", 10);
+
+        assertEquals(List.of("carol", "alice"), it.stream().map(LeaderboardEntryDTO::getUsername).toList());
+        assertEquals(1L, it.get(0).getDepartmentRank());
+        assertEquals(2L, it.get(0).getRank());
+        assertEquals(List.of(), leaderBoardService.getDepartmentTop("Finance", 10));
+    }
+
+    @Test
+    public void testRecordScore_DepartmentChangeMovesShard() {
+        // Arrange
+        leaderBoardService.rebuild();
+
+        // Act
+        leaderBoardService.recordScore(User.builder().id("u1").username("alice").department("HR").earnedPoints(100L).build());
+
+        // Assert
+        assertEquals(List.of("carol"), leaderBoardService.getDepartmentTop("IT", 10).stream()
+                .map(LeaderboardEntryDTO::getUsername).toList());
+        assertEquals(2L, leaderBoardService.getUserEntry("u1").getDepartmentRank());
+        assertEquals(3, leaderBoardService.getTop(10).size());
+    }
+
+    @Test
+    public void testMerge_InterleavesShardsInRankOrder() {
+        List<RankIndex.Ranked> merged = LeaderBoardService.merge(List.of(
+                List.of(new RankIndex.Ranked("a", 500, 1, 0), new RankIndex.Ranked("c", 200, 2, 1)),
+                List.of(new RankIndex.Ranked("b", 200, 1, 0), new RankIndex.Ranked("d", 100, 2, 1)),
+                List.of()), 3);
+
+        assertEquals(List.of("a", "b", "c"), merged.stream().map(RankIndex.Ranked::userId).toList());
+    }
+
+    @Test
+    public void testRecordScore_ReranksUserOnIncreaseAndDecrease() {
+        // Arrange
+        leaderBoardService.rebuild();
+
+        // Act: no transaction is active, so the scores apply immediately
+        leaderBoardService.recordScore(user("u1", "alice", 400L));
+        LeaderboardEntryDTO raised = leaderBoardService.getUserEntry("u1");
+        leaderBoardService.recordScore(user("u1", "alice", 150L));
+        LeaderboardEntryDTO lowered = leaderBoardService.getUserEntry("u1");
+
+        // Assert
+        assertEquals(1L, raised.getRank());
+        assertEquals(3L, lowered.getRank());
+        assertEquals(150L, lowered.getEarnedPoints());
+        assertNull(leaderBoardService.getUserEntry("missing"));
+    }
+
+    @Test
+    public void testRebuildPeriodically_DropsDeletedUsersAndAppliesRepairs() {
+        // Arrange
+        leaderBoardService.rebuild();
+        when(userRepository.findAllScores()).thenReturn(List.of(
+                score("u1", "alice", "IT", 50L),
+                score("u3", "carol", "IT", 200L)));
+
+        // Act
+        leaderBoardService.rebuildPeriodically();
+
+        // Assert
+        assertNull(leaderBoardService.getUserEntry("u2"));
+        assertEquals(50L, leaderBoardService.getUserEntry("u1").getEarnedPoints());
+        assertEquals(2L, leaderBoardService.getUserEntry("u1").getRank());
+    }
+
+    @Test
+    public void testGetAround_CapsRadius() {
+        leaderBoardService.rebuild();
+
+        List<LeaderboardEntryDTO> window = leaderBoardService.getAround("u3", 5000);
+
+        assertEquals(3, window.size());
+        assertEquals("carol", window.get(1).getUsername());
+        assertEquals(2L, window.get(1).getRank());
+        assertNull(leaderBoardService.getAround("missing", 1));
+    }
+
+    @Test
+    public void testPersist_WritesOnlyChangedRows() {
+        // Arrange
+        leaderBoardService.rebuild();
+        assertEquals(3, leaderBoardService.persist());
+
+        // Act: u1 overtakes u3, so both ranks change but u2 is untouched
+        leaderBoardService.recordScore(user("u1", "alice", 250L));
+        int written = leaderBoardService.persist();
+
+        // Assert
+        assertEquals(2, written);
+        assertEquals(2, persistedBatches.get(1).size());
+        assertEquals(0, leaderBoardService.persist());
+    }
+
+    @Test
+    public void testPersist_SkippedBeforeRebuild() {
+        assertEquals(0, leaderBoardService.persist());
+    }
+
+    private static User user(String id, String username, Long earnedPoints) {
+        return User.builder().id(id).username(username).department("IT").earnedPoints(earnedPoints).build();
+    }
+
+    private static UserScore score(String id, String username, String department, Long earnedPoints) {
+        return new UserScore() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getDepartment() {
+                return department;
+            }
+
+            @Override
+            public Long getEarnedPoints() {
+                return earnedPoints;
+            }
+        };
+    }
+}
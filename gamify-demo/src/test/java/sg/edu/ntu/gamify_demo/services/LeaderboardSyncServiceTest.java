@@ -0,0 +1,75 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.ntu.gamify_demo.repositories.LeaderboardRepository;
+import sg.edu.ntu.gamify_demo.repositories.LeaderboardRepository.SyncChunk;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+
+/**
+ * Unit tests for the LeaderboardSyncService class.
+ * These tests focus on walking the users in chunks and carrying the rank cursor between them.
+ */
+public class LeaderboardSyncServiceTest {
+
+    private LeaderboardSyncService leaderboardSyncService;
+    private LeaderboardRepository leaderboardRepository;
+
+    @BeforeEach
+    public void setup() {
+        leaderboardRepository = mock(LeaderboardRepository.class);
+        leaderboardSyncService = new LeaderboardSyncService(leaderboardRepository, mock(UserRepository.class), 2);
+    }
+
+    @Test
+    public void testSyncAllLeaderboards_CarriesCursorAcrossChunks() {
+        // Arrange: five users, the second chunk ending in a tie continued by the third
+        SyncChunk first = chunk("u2", 300L, 2L, 2L, 2L);
+        SyncChunk second = chunk("u4", 100L, 3L, 2L, 1L);
+        SyncChunk third = chunk("u5", 100L, 3L, 1L, 0L);
+        when(leaderboardRepository.syncChunk(Long.MAX_VALUE, "", 0L, 0L, 2)).thenReturn(first);
+        when(leaderboardRepository.syncChunk(300L, "u2", 2L, 2L, 2)).thenReturn(second);
+        when(leaderboardRepository.syncChunk(100L, "u4", 3L, 4L, 2)).thenReturn(third);
+
+        // Act
+        long changed = leaderboardSyncService.syncAllLeaderboards();
+
+        // Assert: the short third chunk ends the walk without another query
+        assertEquals(3L, changed);
+        verify(leaderboardRepository, never()).syncChunk(100L, "u5", 3L, 5L, 2);
+    }
+
+    @Test
+    public void testSyncAllLeaderboards_StopsWhenNoUsersRemain() {
+        // Arrange
+        SyncChunk first = chunk("u2", 300L, 2L, 2L, 1L);
+        SyncChunk empty = chunk(null, null, null, 0L, 0L);
+        when(leaderboardRepository.syncChunk(anyLong(), anyString(), anyLong(), anyLong(), anyInt())).thenReturn(empty);
+        when(leaderboardRepository.syncChunk(Long.MAX_VALUE, "", 0L, 0L, 2)).thenReturn(first);
+
+        // Act
+        long changed = leaderboardSyncService.syncAllLeaderboards();
+
+        // Assert
+        assertEquals(1L, changed);
+        verify(leaderboardRepository).syncChunk(300L, "u2", 2L, 2L, 2);
+    }
+
+    private static SyncChunk chunk(String lastUserId, Long lastEarnedPoints, Long lastRank, Long scanned, Long changed) {
+        SyncChunk chunk = mock(SyncChunk.class);
+        when(chunk.getLastUserId()).thenReturn(lastUserId);
+        when(chunk.getLastEarnedPoints()).thenReturn(lastEarnedPoints);
+        when(chunk.getLastRank()).thenReturn(lastRank);
+        when(chunk.getScanned()).thenReturn(scanned);
+        when(chunk.getChanged()).thenReturn(changed);
+        return chunk;
+    }
+}
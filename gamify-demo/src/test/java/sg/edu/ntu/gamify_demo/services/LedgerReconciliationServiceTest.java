@@ -0,0 +1,175 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.ntu.gamify_demo.dtos.ReconciliationReportDTO;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository.LedgerMismatch;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+
+/**
+ * Unit tests for the LedgerReconciliationService class.
+ * These tests focus on keyset range dispatch, mismatch reporting and compare-and-set repairs.
+ */
+public class LedgerReconciliationServiceTest {
+
+    private LedgerReconciliationService reconciliationService;
+    private UserRepository userRepository;
+    private PointsTransactionRepository pointsTransactionRepository;
+    private PointsWriteBehindAggregator writeBehind;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        pointsTransactionRepository = mock(PointsTransactionRepository.class);
+        writeBehind = mock(PointsWriteBehindAggregator.class);
+
+        // Five users a..e in chunks of two: (""..b], (b..d], then a partial (d..e]
+        when(userRepository.findKeysetBoundary("", 1)).thenReturn("b");
+        when(userRepository.findKeysetBoundary("b", 1)).thenReturn("d");
+        when(userRepository.findKeysetBoundary("d", 1)).thenReturn(null);
+        when(userRepository.countByIdGreaterThan("d")).thenReturn(1L);
+        when(userRepository.findMaxId()).thenReturn("e");
+        when(pointsTransactionRepository.findLedgerMismatches(anyString(), anyString()))
+                .thenReturn(Collections.emptyList());
+
+        reconciliationService = new LedgerReconciliationService(
+                userRepository, pointsTransactionRepository, writeBehind, 2, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reconciliationService.shutdown();
+    }
+
+    @Test
+    public void testReconcile_ChecksEveryRangeAndReportsMismatches() throws Exception {
+        // Arrange
+        when(pointsTransactionRepository.findLedgerMismatches("b", "d"))
+                .thenReturn(List.of(mismatch("c", 100, 60, 120, 80)));
+
+        // Act
+        reconciliationService.start(false);
+        ReconciliationReportDTO report = awaitCompletion();
+
+        // Assert
+        assertEquals(JobStatus.COMPLETED, report.getStatus());
+        assertEquals(3L, report.getRangesCompleted());
+        assertEquals(5L, report.getUsersChecked());
+        assertEquals(1L, report.getMismatchCount());
+        assertEquals("c", report.getMismatches().get(0).getUserId());
+        assertFalse(report.getMismatches().get(0).isRepaired());
+        verify(pointsTransactionRepository).findLedgerMismatches("", "b");
+        verify(pointsTransactionRepository).findLedgerMismatches("d", "e");
+        verify(userRepository, never()).replaceBalances(anyString(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testReconcile_RepairsWithCompareAndSetAndSkipsBufferedUsers() throws Exception {
+        // Arrange: "a" can be repaired, "c" has write-behind points pending, "e" moved concurrently
+        when(pointsTransactionRepository.findLedgerMismatches("", "b"))
+                .thenReturn(List.of(mismatch("a", 100, 60, 120, 80)));
+        when(pointsTransactionRepository.findLedgerMismatches("b", "d"))
+                .thenReturn(List.of(mismatch("c", 10, 10, 30, 30)));
+        when(pointsTransactionRepository.findLedgerMismatches("d", "e"))
+                .thenReturn(List.of(mismatch("e", 50, 50, 40, 40)));
+        when(writeBehind.getPendingPoints("c")).thenReturn(20L);
+        when(userRepository.replaceBalances("a", 100, 60, 120, 80)).thenReturn(1);
+        when(userRepository.replaceBalances("e", 50, 50, 40, 40)).thenReturn(0);
+
+        // Act
+        reconciliationService.start(true);
+        ReconciliationReportDTO report = awaitCompletion();
+
+        // Assert
+        assertEquals(3L, report.getMismatchCount());
+        assertEquals(1L, report.getRepairedCount());
+        assertEquals(2L, report.getSkippedCount());
+        verify(userRepository, never()).replaceBalances("c", 10, 10, 30, 30);
+    }
+
+    @Test
+    public void testReconcile_RecordsFailure() throws Exception {
+        when(pointsTransactionRepository.findLedgerMismatches("b", "d"))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        reconciliationService.start(false);
+        ReconciliationReportDTO report = awaitCompletion();
+
+        assertEquals(JobStatus.FAILED, report.getStatus());
+        assertEquals("connection reset", report.getError());
+    }
+
+    @Test
+    public void testReconcile_EmptyTableCompletesImmediately() throws Exception {
+        when(userRepository.findKeysetBoundary("", 1)).thenReturn(null);
+        when(userRepository.countByIdGreaterThan("")).thenReturn(0L);
+
+        reconciliationService.start(false);
+        ReconciliationReportDTO report = awaitCompletion();
+
+        assertEquals(JobStatus.COMPLETED, report.getStatus());
+        assertEquals(0L, report.getUsersChecked());
+    }
+
+    @Test
+    public void testGetLatestReport_NullBeforeFirstRun() {
+        assertNull(reconciliationService.getLatestReport());
+    }
+
+    private ReconciliationReportDTO awaitCompletion() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ReconciliationReportDTO report = reconciliationService.getLatestReport();
+            if (report.getStatus() != JobStatus.RUNNING) {
+                assertTrue(report.getFinishedAt() != null);
+                return report;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Reconciliation did not finish");
+    }
+
+    private static LedgerMismatch mismatch(String userId, long userEarned, long userAvailable,
+                                           long ledgerEarned, long ledgerAvailable) {
+        return new LedgerMismatch() {
+            @Override
+            public String getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getUserEarnedPoints() {
+                return userEarned;
+            }
+
+            @Override
+            public Long getUserAvailablePoints() {
+                return userAvailable;
+            }
+
+            @Override
+            public Long getLedgerEarnedPoints() {
+                return ledgerEarned;
+            }
+
+            @Override
+            public Long getLedgerAvailablePoints() {
+                return ledgerAvailable;
+            }
+        };
+    }
+}
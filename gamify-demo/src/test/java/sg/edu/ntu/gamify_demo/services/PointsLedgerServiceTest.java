@@ -0,0 +1,135 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.ntu.gamify_demo.dtos.LedgerBalanceDTO;
+import sg.edu.ntu.gamify_demo.dtos.LedgerVerificationDTO;
+import sg.edu.ntu.gamify_demo.models.PointsBalanceSnapshot;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.PointsBalanceSnapshotRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
+
+/**
+ * Unit tests for the PointsLedgerService class.
+ * These tests focus on snapshot-plus-delta balances, drift detection and snapshot positions.
+ */
+public class PointsLedgerServiceTest {
+
+    private PointsLedgerService ledgerService;
+    private PointsTransactionRepository pointsTransactionRepository;
+    private PointsBalanceSnapshotRepository snapshotRepository;
+    private UserRepository userRepository;
+    private PointsWriteBehindAggregator writeBehind;
+    private User testUser;
+
+    @BeforeEach
+    public void setup() {
+        pointsTransactionRepository = mock(PointsTransactionRepository.class);
+        snapshotRepository = mock(PointsBalanceSnapshotRepository.class);
+        userRepository = mock(UserRepository.class);
+        writeBehind = mock(PointsWriteBehindAggregator.class);
+
+        testUser = new User();
+        testUser.setId("user123");
+        testUser.setEarnedPoints(180L);
+        testUser.setAvailablePoints(130L);
+        when(userRepository.findById("user123")).thenReturn(Optional.of(testUser));
+
+        PointsBalanceSnapshot snapshot = new PointsBalanceSnapshot("user123", 40L, 150L, 120L, ZonedDateTime.now(), 900L);
+        when(snapshotRepository.findById("user123")).thenReturn(Optional.of(snapshot));
+        when(pointsTransactionRepository.sumPointsSince("user123", 900L)).thenReturn(balance(30, 10));
+
+        ledgerService = new PointsLedgerService(pointsTransactionRepository, snapshotRepository, userRepository, writeBehind);
+    }
+
+    @Test
+    public void testGetLedgerBalance_AddsNewerRowsToSnapshot() {
+        LedgerBalanceDTO ledger = ledgerService.getLedgerBalance("user123");
+
+        assertEquals(40L, ledger.getSnapshotLedgerSeq());
+        assertEquals(180L, ledger.getEarnedPoints());
+        assertEquals(130L, ledger.getAvailablePoints());
+    }
+
+    @Test
+    public void testGetLedgerBalance_WithoutSnapshotSumsWholeHistory() {
+        when(snapshotRepository.findById("user456")).thenReturn(Optional.empty());
+        when(pointsTransactionRepository.sumPointsSince("user456", 0L)).thenReturn(balance(75, 25));
+
+        LedgerBalanceDTO ledger = ledgerService.getLedgerBalance("user456");
+
+        assertEquals(0L, ledger.getSnapshotLedgerSeq());
+        assertEquals(75L, ledger.getEarnedPoints());
+        assertEquals(25L, ledger.getAvailablePoints());
+    }
+
+    @Test
+    public void testVerify_ReportsConsistentBalances() {
+        LedgerVerificationDTO result = ledgerService.verify("user123");
+
+        assertTrue(result.isConsistent());
+        assertEquals(0L, result.getEarnedDrift());
+    }
+
+    @Test
+    public void testVerify_ReportsDriftAndCountsWriteBehindPoints() {
+        // Arrange: 20 points are buffered, and available points drifted by -5
+        testUser.setEarnedPoints(160L);
+        testUser.setAvailablePoints(105L);
+        when(writeBehind.getPendingPoints("user123")).thenReturn(20L);
+
+        // Act
+        LedgerVerificationDTO result = ledgerService.verify("user123");
+
+        // Assert
+        assertFalse(result.isConsistent());
+        assertEquals(0L, result.getEarnedDrift());
+        assertEquals(-5L, result.getAvailableDrift());
+        assertEquals(20L, result.getPendingWriteBehindPoints());
+    }
+
+    @Test
+    public void testTakeSnapshot_AdvancesToOldestTransactionStillInProgress() {
+        // Arrange: a long transaction keeps the watermark at 500 across two passes
+        when(pointsTransactionRepository.findFinishedXidWatermark()).thenReturn(500L, 500L, 800L);
+        when(snapshotRepository.advanceTo(500L)).thenReturn(3);
+        when(snapshotRepository.advanceTo(800L)).thenReturn(1);
+
+        // Act
+        int first = ledgerService.takeSnapshot();
+        int second = ledgerService.takeSnapshot();
+        int third = ledgerService.takeSnapshot();
+
+        // Assert
+        assertEquals(3, first);
+        assertEquals(0, second);
+        assertEquals(1, third);
+        verify(snapshotRepository, times(1)).advanceTo(500L);
+        assertEquals(800L, ledgerService.getSnapshotPosition());
+    }
+
+    private static PointsBalance balance(long earnedPoints, long availablePoints) {
+        return new PointsBalance() {
+            @Override
+            public Long getEarnedPoints() {
+                return earnedPoints;
+            }
+
+            @Override
+            public Long getAvailablePoints() {
+                return availablePoints;
+            }
+        };
+    }
+}
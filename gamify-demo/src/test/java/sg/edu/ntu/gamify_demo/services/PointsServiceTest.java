@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -13,9 +14,11 @@ import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import sg.edu.ntu.gamify_demo.interfaces.LadderStatusService;
 import sg.edu.ntu.gamify_demo.events.EventPublisher;
 import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
@@ -25,6 +28,8 @@ import sg.edu.ntu.gamify_demo.interfaces.UserService;
 import sg.edu.ntu.gamify_demo.models.PointsTransaction;
 import sg.edu.ntu.gamify_demo.models.User;
 import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
 
 /**
  * Unit tests for the PointsService class.
@@ -34,11 +39,13 @@ public class PointsServiceTest {
 
     private PointsService pointsService;
     private UserService userService;
+    private UserRepository userRepository;
     private PointsTransactionRepository pointsTransactionRepository;
     private EventPublisher eventPublisher;
     private DomainEventPublisher domainEventPublisher;
     private ObjectMapper objectMapper;
     private LadderStatusService ladderService;
+    private RollingLeaderboardService rollingLeaderboard;
     private User testUser;
     private JsonNode testMetadata;
 
@@ -46,11 +53,13 @@ public class PointsServiceTest {
     public void setup() {
         // Create mocks
         userService = mock(UserService.class);
+        userRepository = mock(UserRepository.class);
         pointsTransactionRepository = mock(PointsTransactionRepository.class);
         eventPublisher = mock(EventPublisher.class);
         domainEventPublisher = mock(DomainEventPublisher.class);
         objectMapper = new ObjectMapper();
         ladderService = mock(LadderStatusService.class);
+        rollingLeaderboard = mock(RollingLeaderboardService.class);
 
         // Create test user
         testUser = new User();
@@ -67,15 +76,29 @@ public class PointsServiceTest {
         // Configure mocks
         when(userService.getUserById("user123")).thenReturn(testUser);
         when(pointsTransactionRepository.save(any(PointsTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.addPoints(eq("user123"), anyLong(), anyLong())).thenAnswer(invocation -> balance(
+                testUser.getEarnedPoints() + (long) invocation.getArgument(1),
+                testUser.getAvailablePoints() + (long) invocation.getArgument(2)));
+        when(userRepository.debitAvailablePoints(eq("user123"), anyLong())).thenAnswer(invocation -> {
+            long points = invocation.getArgument(1);
+            return testUser.getAvailablePoints() >= points
+                    ? balance(testUser.getEarnedPoints(), testUser.getAvailablePoints() - points)
+                    : null;
+        });
 
         // Create PointsService instance
         pointsService = new PointsService(
                 userService,
+                userRepository,
                 pointsTransactionRepository,
                 eventPublisher,
                 domainEventPublisher,
                 objectMapper,
-                ladderService);
+                ladderService,
+                new PointsMutationExecutor(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 2, 5000),
+                null,
+                mock(StreakTracker.class),
+                rollingLeaderboard);
     }
 
     @Test
@@ -101,16 +124,40 @@ public class PointsServiceTest {
         assertEquals(source, capturedEvent.getSource());
         assertEquals(testMetadata, capturedEvent.getMetadata());
         
-        // Verify user was updated
-        verify(userService, times(1)).updateUser(eq("user123"), any(User.class));
+        // Verify balances were updated atomically rather than through a full user save
+        verify(userRepository, times(1)).addPoints("user123", 50L, 50L);
+        verify(userService, times(0)).updateUser(anyString(), any(User.class));
         
         // Verify ladder status was updated
-        verify(ladderService, times(1)).updateUserLadderStatus("user123");
+        verify(ladderService, times(1)).requestLadderStatusUpdate("user123");
         
         // Verify transaction was saved
         verify(pointsTransactionRepository, times(1)).save(any(PointsTransaction.class));
     }
 
+    @Test
+    public void testAwardPoints_LoadedUserWithoutNotifyOnlyUpdatesBalance() {
+        // Arrange: the user of a task event flagged skip_ladder_update
+        User eventUser = new User();
+        eventUser.setId("user123");
+        eventUser.setEarnedPoints(100L);
+        eventUser.setAvailablePoints(100L);
+
+        // Act
+        long newPoints = pointsService.awardPoints(eventUser, 20L, "TASK_COMPLETED", testMetadata, false);
+
+        // Assert: applied in one statement and copied onto the loaded entity
+        assertEquals(120, newPoints);
+        verify(userRepository, times(1)).addPoints("user123", 20L, 20L);
+        assertEquals(120L, eventUser.getEarnedPoints());
+        assertEquals(120L, eventUser.getAvailablePoints());
+        verify(pointsTransactionRepository, times(1)).save(any(PointsTransaction.class));
+        verify(domainEventPublisher, times(0)).publish(any());
+        verify(ladderService, times(0)).requestLadderStatusUpdate(anyString());
+        // The rolling leaderboards still count the points without the event
+        verify(rollingLeaderboard, times(1)).recordTransaction(any(PointsTransaction.class));
+    }
+
     @Test
     public void testSpendPoints_PublishesDomainEvent() {
         // Arrange
@@ -134,8 +181,9 @@ public class PointsServiceTest {
         assertEquals(source, capturedEvent.getSource());
         assertEquals(testMetadata, capturedEvent.getMetadata());
         
-        // Verify user was updated
-        verify(userService, times(1)).updateUser(eq("user123"), any(User.class));
+        // Verify the conditional debit was used rather than a full user save
+        verify(userRepository, times(1)).debitAvailablePoints("user123", 30L);
+        verify(userService, times(0)).updateUser(anyString(), any(User.class));
         
         // Verify transaction was saved
         verify(pointsTransactionRepository, times(1)).save(any(PointsTransaction.class));
@@ -162,4 +210,18 @@ public class PointsServiceTest {
         // Verify no transaction was saved
         verify(pointsTransactionRepository, times(0)).save(any(PointsTransaction.class));
     }
+
+    private static PointsBalance balance(long earnedPoints, long availablePoints) {
+        return new PointsBalance() {
+            @Override
+            public Long getEarnedPoints() {
+                return earnedPoints;
+            }
+
+            @Override
+            public Long getAvailablePoints() {
+                return availablePoints;
+            }
+        };
+    }
 }
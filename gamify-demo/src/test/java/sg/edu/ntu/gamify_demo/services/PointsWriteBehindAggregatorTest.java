@@ -0,0 +1,228 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import sg.edu.ntu.gamify_demo.events.EventPublisher;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
+import sg.edu.ntu.gamify_demo.events.domain.PointsEarnedEvent;
+import sg.edu.ntu.gamify_demo.interfaces.LadderStatusService;
+import sg.edu.ntu.gamify_demo.interfaces.UserService;
+import sg.edu.ntu.gamify_demo.models.PointsTransaction;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository.AppliedAwards;
+
+/**
+ * Unit tests for the PointsWriteBehindAggregator class.
+ * These tests focus on coalescing awards per user and flushing them through PointsService.
+ */
+public class PointsWriteBehindAggregatorTest {
+
+    private PointsWriteBehindAggregator aggregator;
+    private PointsService pointsService;
+    private UserRepository userRepository;
+    private UserService userService;
+    private PointsTransactionRepository pointsTransactionRepository;
+    private DomainEventPublisher domainEventPublisher;
+    private LadderStatusService ladderService;
+    private SimpleMeterRegistry meterRegistry;
+    private User testUser;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        userService = mock(UserService.class);
+        pointsTransactionRepository = mock(PointsTransactionRepository.class);
+        domainEventPublisher = mock(DomainEventPublisher.class);
+        ladderService = mock(LadderStatusService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        testUser = new User();
+        testUser.setId("user123");
+        testUser.setEarnedPoints(100L);
+        testUser.setAvailablePoints(100L);
+        when(userService.getUserById("user123")).thenReturn(testUser);
+
+        PointsMutationExecutor mutationExecutor =
+                new PointsMutationExecutor(mock(PlatformTransactionManager.class), meterRegistry, 2, 5000);
+        aggregator = new PointsWriteBehindAggregator(pointsTransactionRepository, userService, domainEventPublisher,
+                mutationExecutor, objectMapper, meterRegistry, true, 250);
+        pointsService = new PointsService(userService, userRepository, pointsTransactionRepository,
+                mock(EventPublisher.class), domainEventPublisher, objectMapper, ladderService,
+                mutationExecutor, aggregator, mock(StreakTracker.class), mock(RollingLeaderboardService.class));
+    }
+
+    @Test
+    public void testAwardPoints_RecordsTransactionButDefersBalanceAndLadder() {
+        // Act
+        long first = pointsService.awardPoints("user123", 10L, "TASK_COMPLETED", null);
+        long second = pointsService.awardPoints("user123", 15L, "TASK_COMPLETED", null);
+
+        // Assert
+        assertEquals(110, first);
+        assertEquals(125, second);
+        assertEquals(25, aggregator.getPendingPoints("user123"));
+        ArgumentCaptor<PointsTransaction> transactionCaptor = ArgumentCaptor.forClass(PointsTransaction.class);
+        verify(pointsTransactionRepository, times(2)).save(transactionCaptor.capture());
+        assertTrue(transactionCaptor.getAllValues().stream().noneMatch(PointsTransaction::isApplied));
+        verify(userRepository, never()).addPoints(anyString(), anyLong(), anyLong());
+        verify(pointsTransactionRepository, never()).applyBufferedAwards(anyString());
+        verify(ladderService, never()).requestLadderStatusUpdate(anyString());
+        verify(domainEventPublisher, never()).publish(any());
+    }
+
+    @Test
+    public void testAwardPoints_BuffersTaskEventAwardsForLoadedUser() {
+        // Act: the path RecordTransactionCommand takes for TASK_COMPLETED events
+        long newPoints = pointsService.awardPoints(testUser, 10L, "TASK_COMPLETED", null, true);
+
+        // Assert
+        assertEquals(110, newPoints);
+        assertEquals(10, aggregator.getPendingPoints("user123"));
+        assertEquals(100L, testUser.getEarnedPoints());
+        verify(userRepository, never()).addPoints(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testAwardPoints_BuffersPointsOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            long newPoints = pointsService.awardPoints("user123", 10L, "TASK_COMPLETED", null);
+
+            // Assert: nothing is pending until the transaction commits
+            assertEquals(110, newPoints);
+            assertEquals(0, aggregator.getPendingPoints("user123"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(10, aggregator.getPendingPoints("user123"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testFlush_AppliesOneUpdateAndOneEventPerUser() {
+        // Arrange
+        when(pointsTransactionRepository.applyBufferedAwards("user123")).thenReturn(applied(25, 2, 125L));
+        pointsService.awardPoints("user123", 10L, "TASK_COMPLETED", null);
+        pointsService.awardPoints("user123", 15L, "TASK_COMPLETED", null);
+
+        // Act
+        int flushed = aggregator.flush();
+
+        // Assert
+        assertEquals(1, flushed);
+        assertEquals(0, aggregator.getPendingPoints("user123"));
+        verify(pointsTransactionRepository, times(1)).applyBufferedAwards("user123");
+
+        ArgumentCaptor<PointsEarnedEvent> eventCaptor = ArgumentCaptor.forClass(PointsEarnedEvent.class);
+        verify(domainEventPublisher, times(1)).publish(eventCaptor.capture());
+        assertEquals(25, eventCaptor.getValue().getPoints());
+        assertEquals(125, eventCaptor.getValue().getNewTotal());
+        assertEquals(2, eventCaptor.getValue().getMetadata().get("awards").asInt());
+    }
+
+    @Test
+    public void testFlush_KeepsPointsPendingWhenUpdateFails() {
+        // Arrange
+        aggregator.add("user123", 10L, "TASK_COMPLETED");
+        when(pointsTransactionRepository.applyBufferedAwards("user123"))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(applied(15, 2, 115L));
+
+        // Act
+        int failedFlush = aggregator.flush();
+        aggregator.add("user123", 5L, "TASK_COMPLETED");
+        aggregator.shutdown();
+
+        // Assert
+        assertEquals(0, failedFlush);
+        verify(pointsTransactionRepository, times(2)).applyBufferedAwards("user123");
+        assertEquals(0, aggregator.getPendingPoints("user123"));
+    }
+
+    @Test
+    public void testFlush_PublishesNothingWhenRowsWereAlreadyApplied() {
+        // Arrange: an earlier flush committed after its caller timed out and re-queued the user
+        aggregator.add("user123", 10L, "TASK_COMPLETED");
+        when(pointsTransactionRepository.applyBufferedAwards("user123")).thenReturn(applied(0, 0, null));
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verify(domainEventPublisher, never()).publish(any());
+        assertEquals(0, aggregator.getPendingPoints("user123"));
+    }
+
+    @Test
+    public void testFlushUnapplied_AppliesAwardsLeftByPreviousRun() {
+        // Arrange
+        when(pointsTransactionRepository.findUserIdsWithUnappliedAwards()).thenReturn(List.of("user123"));
+        when(pointsTransactionRepository.applyBufferedAwards("user123")).thenReturn(applied(30, 3, 130L));
+
+        // Act
+        aggregator.flushUnapplied();
+
+        // Assert
+        ArgumentCaptor<PointsEarnedEvent> eventCaptor = ArgumentCaptor.forClass(PointsEarnedEvent.class);
+        verify(domainEventPublisher, times(1)).publish(eventCaptor.capture());
+        assertEquals(30, eventCaptor.getValue().getPoints());
+        assertEquals(130, eventCaptor.getValue().getNewTotal());
+    }
+
+    @Test
+    public void testWindowGauge_ExposesConfiguredWindow() {
+        assertEquals(250.0, meterRegistry.get("gamify.points.write_behind.window").gauge().value());
+        assertTrue(aggregator.isEnabled());
+    }
+
+    private static AppliedAwards applied(long points, long awards, Long earnedPoints) {
+        return new AppliedAwards() {
+            @Override
+            public Long getPoints() {
+                return points;
+            }
+
+            @Override
+            public Long getAwards() {
+                return awards;
+            }
+
+            @Override
+            public String getSource() {
+                return awards > 0 ? "TASK_COMPLETED" : null;
+            }
+
+            @Override
+            public Long getEarnedPoints() {
+                return earnedPoints;
+            }
+
+            @Override
+            public Long getAvailablePoints() {
+                return earnedPoints;
+            }
+        };
+    }
+}
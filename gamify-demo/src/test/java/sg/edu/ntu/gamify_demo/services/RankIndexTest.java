@@ -0,0 +1,106 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the RankIndex class.
+ * These tests focus on competition ranks, ordered ranges and updates, checked against a sorted list.
+ */
+public class RankIndexTest {
+
+    @Test
+    public void testFind_TiesShareRank() {
+        // Arrange
+        RankIndex index = new RankIndex();
+        index.update("a", 300);
+        index.update("b", 500);
+        index.update("c", 300);
+        index.update("d", 100);
+
+        // Act & Assert
+        assertEquals(1, index.find("b").rank());
+        assertEquals(2, index.find("a").rank());
+        assertEquals(2, index.find("c").rank());
+        assertEquals(4, index.find("d").rank());
+        assertEquals(2, index.find("c").position());
+        assertNull(index.find("unknown"));
+    }
+
+    @Test
+    public void testTop_ReturnsEntriesInRankOrder() {
+        RankIndex index = new RankIndex();
+        index.update("a", 300);
+        index.update("b", 500);
+        index.update("c", 300);
+        index.update("d", 100);
+
+        List<RankIndex.Ranked> top = index.top(3);
+
+        assertEquals(List.of(
+                new RankIndex.Ranked("b", 500, 1, 0),
+                new RankIndex.Ranked("a", 300, 2, 1),
+                new RankIndex.Ranked("c", 300, 2, 2)), top);
+    }
+
+    @Test
+    public void testUpdateAndRemove_MoveUsers() {
+        // Arrange
+        RankIndex index = new RankIndex();
+        index.update("a", 100);
+        index.update("b", 200);
+
+        // Act
+        index.update("a", 250);
+        index.update("b", 150);
+        RankIndex.Ranked lowered = index.find("b");
+        index.remove("b");
+
+        // Assert
+        assertEquals(new RankIndex.Ranked("b", 150, 2, 1), lowered);
+        assertEquals(1, index.size());
+        assertEquals(new RankIndex.Ranked("a", 250, 1, 0), index.find("a"));
+    }
+
+    @Test
+    public void testRandomUpdates_MatchSortedList() {
+        RankIndex index = new RankIndex();
+        Map<String, Long> scores = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5000; i++) {
+            String userId = "user" + random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                index.remove(userId);
+                scores.remove(userId);
+            } else {
+                long score = random.nextInt(50);
+                index.update(userId, score);
+                scores.put(userId, score);
+            }
+        }
+
+        List<Map.Entry<String, Long>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(Comparator.comparing((Map.Entry<String, Long> entry) -> -entry.getValue())
+                .thenComparing(Map.Entry::getKey));
+        assertEquals(expected.size(), index.size());
+
+        List<RankIndex.Ranked> all = index.range(0, index.size());
+        for (int position = 0; position < expected.size(); position++) {
+            Map.Entry<String, Long> entry = expected.get(position);
+            long score = entry.getValue();
+            long rank = expected.stream().filter(other -> other.getValue() > score).count() + 1;
+            RankIndex.Ranked ranked = new RankIndex.Ranked(entry.getKey(), score, rank, position);
+            assertEquals(ranked, all.get(position));
+            assertEquals(ranked, index.find(entry.getKey()));
+        }
+        assertEquals(all.subList(40, 50), index.range(40, 10));
+    }
+}
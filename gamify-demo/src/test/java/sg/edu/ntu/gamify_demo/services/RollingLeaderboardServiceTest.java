@@ -0,0 +1,222 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sg.edu.ntu.gamify_demo.dtos.LeaderboardEntryDTO;
+import sg.edu.ntu.gamify_demo.models.PointsTransaction;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.models.enums.LeaderboardWindow;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository;
+import sg.edu.ntu.gamify_demo.repositories.PointsTransactionRepository.DailyPoints;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+
+/**
+ * Unit tests for the RollingLeaderboardService class.
+ * These tests focus on window totals, midnight rollover and rebuilding from the ledger
+ * while new rows commit.
+ */
+public class RollingLeaderboardServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    private RollingLeaderboardService rollingLeaderboardService;
+    private PointsTransactionRepository pointsTransactionRepository;
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setup() {
+        pointsTransactionRepository = mock(PointsTransactionRepository.class);
+        LeaderBoardService leaderBoardService = new LeaderBoardService(mock(UserRepository.class), mock(JdbcTemplate.class));
+        clock = new MutableClock(START.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        rollingLeaderboardService = new RollingLeaderboardService(pointsTransactionRepository, leaderBoardService, clock);
+    }
+
+    @Test
+    public void testRecordPoints_RanksEachWindowByPointsInIt() {
+        // Arrange: u1 earns early in the month, u2 earns today
+        earn("u1", 500);
+        advanceDays(10);
+        rollingLeaderboardService.rollover();
+        earn("u2", 50);
+
+        // Act
+        List<LeaderboardEntryDTO> day = rollingLeaderboardService.getTop(LeaderboardWindow.DAY, 10);
+        List<LeaderboardEntryDTO> month = rollingLeaderboardService.getTop(LeaderboardWindow.MONTH, 10);
+
+        // Assert
+        assertEquals(1, day.size());
+        assertEquals("u2", day.get(0).getUserId());
+        assertNull(rollingLeaderboardService.getUserEntry(LeaderboardWindow.WEEK, "u1"));
+        assertEquals(List.of("u1", "u2"), month.stream().map(LeaderboardEntryDTO::getUserId).toList());
+        assertEquals(500L, month.get(0).getEarnedPoints());
+    }
+
+    @Test
+    public void testRecordPoints_AccumulatesWithinTheDay() {
+        earn("u1", 30);
+        earn("u2", 40);
+        earn("u1", 20);
+
+        LeaderboardEntryDTO entry = rollingLeaderboardService.getUserEntry(LeaderboardWindow.DAY, "u1");
+        assertEquals(50L, entry.getEarnedPoints());
+        assertEquals(1L, entry.getRank());
+        assertNull(entry.getDepartmentRank());
+    }
+
+    @Test
+    public void testRollover_DropsDaysThatLeaveTheWindow() {
+        // Arrange
+        earn("u1", 100);
+        advanceDays(6);
+        rollingLeaderboardService.rollover();
+        earn("u1", 10);
+        assertEquals(110L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.WEEK, "u1").getEarnedPoints());
+
+        // Act: the first day leaves the week
+        advanceDays(1);
+        rollingLeaderboardService.rollover();
+
+        // Assert
+        assertEquals(10L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.WEEK, "u1").getEarnedPoints());
+        assertEquals(110L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.MONTH, "u1").getEarnedPoints());
+        assertNull(rollingLeaderboardService.getUserEntry(LeaderboardWindow.DAY, "u1"));
+    }
+
+    @Test
+    public void testRollover_RemovesUsersWithNoPointsLeft() {
+        earn("u1", 100);
+        advanceDays(30);
+        rollingLeaderboardService.rollover();
+
+        assertNull(rollingLeaderboardService.getUserEntry(LeaderboardWindow.MONTH, "u1"));
+        assertEquals(0, rollingLeaderboardService.getTop(LeaderboardWindow.MONTH, 10).size());
+    }
+
+    @Test
+    public void testRebuild_LoadsRecentDaysFromLedger() {
+        // Arrange
+        long today = START.toEpochDay();
+        List<DailyPoints> rows = List.of(
+                daily("u1", today, 20L),
+                daily("u1", today - 3, 30L),
+                daily("u2", today - 20, 200L));
+        when(pointsTransactionRepository.sumDailyEarnedPointsSince(any(ZonedDateTime.class), eq("Z"))).thenReturn(rows);
+
+        // Act
+        int active = rollingLeaderboardService.rebuild();
+
+        // Assert
+        assertEquals(2, active);
+        assertEquals(20L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.DAY, "u1").getEarnedPoints());
+        assertEquals(50L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.WEEK, "u1").getEarnedPoints());
+        assertNull(rollingLeaderboardService.getUserEntry(LeaderboardWindow.WEEK, "u2"));
+        assertEquals(1L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.MONTH, "u2").getRank());
+    }
+
+    @Test
+    public void testRebuild_CountsRowsCommittedDuringReadOnlyIfReadMissedThem() {
+        // Arrange: two rows commit while the ledger is read; the read summed up to sequence 5
+        long today = START.toEpochDay();
+        when(pointsTransactionRepository.sumDailyEarnedPointsSince(any(ZonedDateTime.class), eq("Z"))).thenAnswer(invocation -> {
+            rollingLeaderboardService.recordCommitted("u1", 20L, 5L);
+            rollingLeaderboardService.recordCommitted("u1", 7L, 9L);
+            return List.of(daily("u1", today, 20L, 5L));
+        });
+
+        // Act
+        rollingLeaderboardService.rebuild();
+
+        // Assert
+        assertEquals(27L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.DAY, "u1").getEarnedPoints());
+    }
+
+    @Test
+    public void testRecordCommitted_SkipsRowsTheLastRebuildCounted() {
+        // Arrange
+        long today = START.toEpochDay();
+        List<DailyPoints> rows = List.of(daily("u1", today, 20L, 5L));
+        when(pointsTransactionRepository.sumDailyEarnedPointsSince(any(ZonedDateTime.class), eq("Z"))).thenReturn(rows);
+        rollingLeaderboardService.rebuild();
+
+        // Act: a row the rebuild read reports its commit late, then a newer row
+        rollingLeaderboardService.recordCommitted("u1", 20L, 5L);
+        rollingLeaderboardService.recordCommitted("u1", 3L, 6L);
+
+        // Assert
+        assertEquals(23L, rollingLeaderboardService.getUserEntry(LeaderboardWindow.DAY, "u1").getEarnedPoints());
+    }
+
+    @Test
+    public void testDayRing_ClearsSkippedDays() {
+        RollingLeaderboardService.DayRing ring = new RollingLeaderboardService.DayRing();
+        ring.add(100, 5);
+        ring.add(101, 7);
+
+        // A whole ring later, the old buckets must not be counted again
+        ring.add(131, 1);
+
+        assertEquals(1L, ring.sum(131, 30));
+        assertEquals(0L, ring.sum(130, 30));
+    }
+
+    private void advanceDays(int days) {
+        clock.instant = clock.instant.plus(Duration.ofDays(days));
+    }
+
+    private void earn(String userId, long points) {
+        User user = new User();
+        user.setId(userId);
+        rollingLeaderboardService.recordTransaction(new PointsTransaction(user, "TEST", points, null));
+    }
+
+    private static DailyPoints daily(String userId, long epochDay, long points) {
+        return daily(userId, epochDay, points, 1L);
+    }
+
+    private static DailyPoints daily(String userId, long epochDay, long points, long maxLedgerSeq) {
+        DailyPoints row = mock(DailyPoints.class);
+        when(row.getUserId()).thenReturn(userId);
+        when(row.getEpochDay()).thenReturn(epochDay);
+        when(row.getPoints()).thenReturn(points);
+        when(row.getMaxLedgerSeq()).thenReturn(maxLedgerSeq);
+        return row;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.models.UserStreak;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserStreakRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserStreakRepository.SeedChunk;
+
+/**
+ * Unit tests for the StreakTracker class.
+ * These tests focus on calendar days in the configured zone, broken streaks and the backfill.
+ */
+public class StreakTrackerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Singapore");
+
+    private StreakTracker streakTracker;
+    private UserStreakRepository userStreakRepository;
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @BeforeEach
+    public void setup() {
+        userStreakRepository = mock(UserStreakRepository.class);
+        jobCheckpointRepository = mock(JobCheckpointRepository.class);
+
+        JobCheckpoint checkpoint = JobCheckpoint.builder().jobName(StreakTracker.JOB_NAME).build();
+        when(jobCheckpointRepository.findById(StreakTracker.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(jobCheckpointRepository.save(any(JobCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userStreakRepository.seedChunk(anyString(), anyInt(), anyString())).thenReturn(chunk(null, 0, 0));
+
+        // 2026-10-17 09:00 in Singapore
+        Clock clock = Clock.fixed(Instant.parse("2026-10-17T01:00:00Z"), ZONE);
+        streakTracker = new StreakTracker(userStreakRepository, jobCheckpointRepository,
+                mock(PlatformTransactionManager.class), clock, 2, true);
+    }
+
+    @Test
+    public void testRecordActivity_UsesTheCalendarDayInTheConfiguredZone() {
+        // Act: late evening UTC is already the next day in Singapore
+        streakTracker.recordActivity("user1", ZonedDateTime.parse("2026-10-16T20:00:00Z"));
+        streakTracker.recordActivity("user2", null);
+
+        // Assert
+        verify(userStreakRepository).recordActivity("user1", LocalDate.of(2026, 10, 17));
+        verify(userStreakRepository).recordActivity("user2", LocalDate.of(2026, 10, 17));
+    }
+
+    @Test
+    public void testGetStreak_KeepsStreakEndingYesterdayAndBreaksOlderOne() {
+        // Arrange
+        when(userStreakRepository.findById("active")).thenReturn(Optional.of(streak("active", 16, 4, 9)));
+        when(userStreakRepository.findById("lapsed")).thenReturn(Optional.of(streak("lapsed", 15, 6, 6)));
+
+        // Act
+        StreakTracker.Streak active = streakTracker.getStreak("active");
+        StreakTracker.Streak lapsed = streakTracker.getStreak("lapsed");
+        StreakTracker.Streak unknown = streakTracker.getStreak("unknown");
+
+        // Assert
+        assertEquals(new StreakTracker.Streak(4, 9), active);
+        assertEquals(new StreakTracker.Streak(0, 6), lapsed);
+        assertEquals(new StreakTracker.Streak(0, 0), unknown);
+    }
+
+    @Test
+    public void testGetLongestStreak_ReadsOneRowAndDefaultsToZero() {
+        // Arrange
+        when(userStreakRepository.findById("user1")).thenReturn(Optional.of(streak("user1", 10, 1, 12)));
+
+        // Act & Assert
+        assertEquals(12, streakTracker.getLongestStreak("user1"));
+        assertEquals(0, streakTracker.getLongestStreak("user2"));
+    }
+
+    @Test
+    public void testBackfill_SeedsChunksInTheConfiguredZoneUnderLock() {
+        // Arrange
+        when(userStreakRepository.seedChunk("", 2, "Asia/Singapore")).thenReturn(chunk("b", 2, 2));
+
+        // Act
+        JobCheckpoint result = streakTracker.backfill(false);
+
+        // Assert
+        assertEquals(JobStatus.COMPLETED, result.getStatus());
+        assertEquals("b", result.getCursor());
+        assertEquals(2L, result.getProcessedCount());
+        assertEquals(2L, result.getChangedCount());
+        verify(userStreakRepository).seedChunk("b", 2, "Asia/Singapore");
+    }
+
+    private static UserStreak streak(String userId, int lastActiveDay, int current, int longest) {
+        return UserStreak.builder()
+                .userId(userId)
+                .lastActiveDate(LocalDate.of(2026, 10, lastActiveDay))
+                .currentStreak(current)
+                .longestStreak(longest)
+                .updatedAt(ZonedDateTime.now())
+                .build();
+    }
+
+    private static SeedChunk chunk(String lastUserId, long scanned, long changed) {
+        return new SeedChunk() {
+            @Override
+            public String getLastUserId() {
+                return lastUserId;
+            }
+
+            @Override
+            public Long getScanned() {
+                return scanned;
+            }
+
+            @Override
+            public Long getChanged() {
+                return changed;
+            }
+        };
+    }
+}
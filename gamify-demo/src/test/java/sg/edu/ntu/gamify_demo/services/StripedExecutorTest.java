@@ -0,0 +1,155 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for the StripedExecutor class.
+ * These tests focus on per-key serialization, re-entrant calls, bounded waits and queue-depth gauges.
+ */
+public class StripedExecutorTest {
+
+    private StripedExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new StripedExecutor("test", 4, meterRegistry);
+    }
+
+    @AfterEach
+    public void teardown() throws InterruptedException {
+        executor.shutdown(5);
+    }
+
+    @Test
+    public void testCall_SerializesReadModifyWriteForSameKey() throws Exception {
+        // Arrange
+        long[] balance = {0};
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            futures.add(callers.submit(() -> executor.call("user-a", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                long current = balance[0];
+                Thread.yield();
+                balance[0] = current + 1;
+                running.decrementAndGet();
+                return null;
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        // Assert
+        assertEquals(400, balance[0]);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testCall_RunsNestedCallForSameKeyInline() {
+        Integer result = executor.call("user-a", () -> executor.call("user-a", () -> 42));
+
+        assertEquals(42, result);
+    }
+
+    @Test
+    public void testCall_PropagatesRuntimeExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> executor.call("user-a", () -> {
+            throw new IllegalArgumentException("Insufficient points");
+        }));
+    }
+
+    @Test
+    public void testCall_WithdrawsTaskNotStartedBeforeTimeout() throws Exception {
+        // Arrange: hold the lane so the next call stays queued
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute("user-a", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> executor.call("user-a", ran::incrementAndGet, 50));
+        release.countDown();
+        executor.call("user-a", () -> null);
+        assertEquals(0, ran.get());
+    }
+
+    @Test
+    public void testCall_WaitsForStartedTaskPastTimeout() throws Exception {
+        // Arrange: the task starts in time but finishes after the timeout
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+
+        // Act
+        Future<Integer> result = caller.submit(() -> executor.call("user-a", () -> {
+            awaitQuietly(release);
+            return 42;
+        }, 50));
+        Thread.sleep(150);
+        release.countDown();
+
+        // Assert
+        assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        caller.shutdown();
+    }
+
+    @Test
+    public void testQueueDepthGauge_ReportsWaitingTasksPerStripe() throws Exception {
+        // Arrange
+        int stripe = executor.stripeFor("user-a");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute("user-a", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        // Act
+        executor.execute("user-a", () -> { });
+        executor.execute("user-a", () -> { });
+
+        // Assert
+        assertEquals(2, executor.getQueueDepth(stripe));
+        assertEquals(2.0, meterRegistry.get("gamify.stripes.queue.depth")
+                .tag("executor", "test")
+                .tag("stripe", String.valueOf(stripe))
+                .gauge()
+                .value());
+        assertEquals(4, meterRegistry.find("gamify.stripes.queue.depth").gauges().size());
+
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
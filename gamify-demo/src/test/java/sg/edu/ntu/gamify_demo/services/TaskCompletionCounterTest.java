@@ -0,0 +1,138 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.models.JobCheckpoint;
+import sg.edu.ntu.gamify_demo.models.enums.JobStatus;
+import sg.edu.ntu.gamify_demo.repositories.JobCheckpointRepository;
+import sg.edu.ntu.gamify_demo.repositories.TaskCompletionCountRepository;
+import sg.edu.ntu.gamify_demo.repositories.TaskCompletionCountRepository.SeedChunk;
+
+/**
+ * Unit tests for the TaskCompletionCounter class.
+ * These tests focus on per-type increments, single-row reads and the checkpointed backfill.
+ */
+public class TaskCompletionCounterTest {
+
+    private TaskCompletionCounter counter;
+    private TaskCompletionCountRepository taskCompletionCountRepository;
+    private JobCheckpointRepository jobCheckpointRepository;
+    private JobCheckpoint checkpoint;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setup() {
+        taskCompletionCountRepository = mock(TaskCompletionCountRepository.class);
+        jobCheckpointRepository = mock(JobCheckpointRepository.class);
+
+        checkpoint = JobCheckpoint.builder().jobName(TaskCompletionCounter.JOB_NAME).build();
+        when(jobCheckpointRepository.findById(TaskCompletionCounter.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(jobCheckpointRepository.save(any(JobCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskCompletionCountRepository.seedChunk(anyString(), anyInt())).thenReturn(chunk(null, 0, 0));
+
+        counter = new TaskCompletionCounter(taskCompletionCountRepository, jobCheckpointRepository,
+                mock(PlatformTransactionManager.class), 2, true);
+    }
+
+    @Test
+    public void testRecordCompletions_IncrementsTotalAndEachTypeOnceInKeyOrder() {
+        // Arrange
+        ObjectNode review = objectMapper.createObjectNode().put("taskType", "REVIEW");
+        ObjectNode bugfix = objectMapper.createObjectNode().put("taskType", "BUGFIX");
+        ObjectNode untyped = objectMapper.createObjectNode();
+
+        // Act
+        counter.recordCompletions("user1", Arrays.asList(review, bugfix, review, untyped, null));
+
+        // Assert
+        InOrder order = inOrder(taskCompletionCountRepository);
+        order.verify(taskCompletionCountRepository).increment("user1", "", 5L);
+        order.verify(taskCompletionCountRepository).increment("user1", "BUGFIX", 1L);
+        order.verify(taskCompletionCountRepository).increment("user1", "REVIEW", 2L);
+        verify(taskCompletionCountRepository, times(3)).increment(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    public void testGetCompletedCount_ReadsOneRowAndDefaultsToZero() {
+        // Arrange
+        when(taskCompletionCountRepository.findCompletedCount("user1", "")).thenReturn(Optional.of(7L));
+        when(taskCompletionCountRepository.findCompletedCount("user1", "REVIEW")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(7L, counter.getCompletedCount("user1", null));
+        assertEquals(0L, counter.getCompletedCount("user1", "REVIEW"));
+    }
+
+    @Test
+    public void testBackfill_SeedsChunksUnderLockAndCheckpointsEachOne() {
+        // Arrange
+        when(taskCompletionCountRepository.seedChunk("", 2)).thenReturn(chunk("b", 2, 3));
+        when(taskCompletionCountRepository.seedChunk("b", 2)).thenReturn(chunk("c", 1, 1));
+
+        // Act
+        JobCheckpoint result = counter.backfill(false);
+
+        // Assert
+        assertEquals(JobStatus.COMPLETED, result.getStatus());
+        assertEquals("c", result.getCursor());
+        assertEquals(3L, result.getProcessedCount());
+        assertEquals(4L, result.getChangedCount());
+        assertNotNull(result.getFinishedAt());
+        verify(taskCompletionCountRepository, times(3)).lockForSeeding();
+    }
+
+    @Test
+    public void testBackfillOnStartup_ResumesUnfinishedRunAndSkipsCompletedOne() {
+        // Arrange: a previous run failed after user "m"
+        checkpoint.setStatus(JobStatus.FAILED);
+        checkpoint.setCursor("m");
+        when(taskCompletionCountRepository.seedChunk("m", 2)).thenReturn(chunk("n", 1, 1));
+
+        // Act
+        counter.backfillOnStartup();
+        counter.backfillOnStartup();
+
+        // Assert: the second startup finds the run completed
+        assertEquals(JobStatus.COMPLETED, checkpoint.getStatus());
+        assertEquals("n", checkpoint.getCursor());
+        verify(taskCompletionCountRepository).seedChunk("m", 2);
+        verify(taskCompletionCountRepository, never()).seedChunk("", 2);
+    }
+
+    private static SeedChunk chunk(String lastUserId, long scanned, long changed) {
+        return new SeedChunk() {
+            @Override
+            public String getLastUserId() {
+                return lastUserId;
+            }
+
+            @Override
+            public Long getScanned() {
+                return scanned;
+            }
+
+            @Override
+            public Long getChanged() {
+                return changed;
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEvent;
+import sg.edu.ntu.gamify_demo.events.domain.DomainEventPublisher;
+import sg.edu.ntu.gamify_demo.events.domain.PointsEarnedEvent;
+import sg.edu.ntu.gamify_demo.models.PointsTransaction;
+import sg.edu.ntu.gamify_demo.models.TaskEvent;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository.PointsBalance;
+import sg.edu.ntu.gamify_demo.strategies.task.TaskPointsCalculationStrategy;
+
+/**
+ * Unit tests for the TaskEventBatchService class.
+ * These tests focus on per-item results and per-user aggregation within a chunk.
+ */
+public class TaskEventBatchServiceTest {
+
+    private TaskEventBatchService batchService;
+    private UserRepository userRepository;
+    private TaskPointsCalculationStrategy pointsCalculationStrategy;
+    private DomainEventPublisher domainEventPublisher;
+    private EntityManager entityManager;
+    private TaskEventRepository taskEventRepository;
+    private TaskCompletionCounter taskCompletionCounter;
+    private StreakTracker streakTracker;
+    private RollingLeaderboardService rollingLeaderboard;
+    private ObjectMapper objectMapper;
+    private User testUser;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        pointsCalculationStrategy = mock(TaskPointsCalculationStrategy.class);
+        domainEventPublisher = mock(DomainEventPublisher.class);
+        entityManager = mock(EntityManager.class);
+        taskEventRepository = mock(TaskEventRepository.class);
+        taskCompletionCounter = mock(TaskCompletionCounter.class);
+        streakTracker = mock(StreakTracker.class);
+        rollingLeaderboard = mock(RollingLeaderboardService.class);
+        objectMapper = new ObjectMapper();
+
+        testUser = new User();
+        testUser.setId("user123");
+        testUser.setUsername("testuser");
+        testUser.setEarnedPoints(100L);
+        testUser.setAvailablePoints(100L);
+
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(testUser));
+        when(pointsCalculationStrategy.calculatePoints(anyString(), any(JsonNode.class))).thenReturn(10);
+        when(userRepository.addPoints(eq("user123"), anyLong(), anyLong())).thenAnswer(invocation -> balance(
+                testUser.getEarnedPoints() + invocation.<Long>getArgument(1),
+                testUser.getAvailablePoints() + invocation.<Long>getArgument(2)));
+
+        batchService = new TaskEventBatchService(
+                userRepository,
+                pointsCalculationStrategy,
+                domainEventPublisher,
+                new TaskEventDeduplicator(taskEventRepository, 100),
+                taskCompletionCounter,
+                streakTracker,
+                rollingLeaderboard,
+                entityManager,
+                mock(PlatformTransactionManager.class),
+                objectMapper,
+                2);
+    }
+
+    @Test
+    public void testProcessBatch_AggregatesPointsPerUserAndReportsPerItem() {
+        // Arrange
+        ArrayNode events = objectMapper.createArrayNode();
+        events.add(event("user123", "task-1", "TASK_COMPLETED"));
+        events.add(event("user123", "task-2", "TASK_COMPLETED"));
+        events.add(event("unknown", "task-3", "TASK_COMPLETED"));
+
+        // Act
+        ArrayNode results = batchService.processBatch(events);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).get("success").asBoolean());
+        assertTrue(results.get(1).get("success").asBoolean());
+        assertFalse(results.get(2).get("success").asBoolean());
+        assertEquals(2, results.get(2).get("index").asInt());
+
+        // Two task events and two transactions persisted, one balance update for the user
+        verify(entityManager, times(4)).persist(any());
+        verify(userRepository, times(1)).addPoints("user123", 20L, 20L);
+        assertEquals(120L, testUser.getEarnedPoints());
+        assertEquals(120L, testUser.getAvailablePoints());
+
+        // Both completions counted together, in the chunk's transaction
+        verify(taskCompletionCounter).recordCompletions(eq("user123"), argThat(metadata -> metadata.size() == 2));
+        verify(streakTracker).recordActivity("user123", null);
+        verify(rollingLeaderboard, times(2)).recordTransaction(any(PointsTransaction.class));
+
+        // One PointsEarnedEvent (and so one ladder recompute) for the user's chunk
+        ArgumentCaptor<DomainEvent> captor = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(domainEventPublisher, times(3)).publish(captor.capture());
+        List<PointsEarnedEvent> pointsEvents = captor.getAllValues().stream()
+                .filter(PointsEarnedEvent.class::isInstance)
+                .map(PointsEarnedEvent.class::cast)
+                .toList();
+        assertEquals(1, pointsEvents.size());
+        assertEquals(20, pointsEvents.get(0).getPoints());
+    }
+
+    @Test
+    public void testProcessBatch_UnsupportedEventTypeFailsOnlyThatItem() {
+        // Arrange
+        ArrayNode events = objectMapper.createArrayNode();
+        events.add(event("user123", "task-1", "TASK_ARCHIVED"));
+        events.add(event("user123", "task-2", "TASK_ASSIGNED"));
+
+        // Act
+        ArrayNode results = batchService.processBatch(events);
+
+        // Assert
+        assertFalse(results.get(0).get("success").asBoolean());
+        assertEquals("Unsupported event type: TASK_ARCHIVED", results.get(0).get("error").asText());
+        assertTrue(results.get(1).get("success").asBoolean());
+        assertEquals("ASSIGNED", results.get(1).get("status").asText());
+        assertEquals(100L, testUser.getEarnedPoints());
+    }
+
+    @Test
+    public void testProcessBatch_SkipsDuplicatesWithinAndAcrossBatches() {
+        // Arrange
+        TaskEvent existing = new TaskEvent();
+        existing.setEventId("event-1");
+        existing.setIdempotencyKey("user123|task-1|TASK_COMPLETED");
+        when(taskEventRepository.findByIdempotencyKeyIn(anyCollection())).thenReturn(List.of(existing));
+
+        ArrayNode events = objectMapper.createArrayNode();
+        events.add(event("user123", "task-1", "TASK_COMPLETED"));
+        events.add(event("user123", "task-2", "TASK_COMPLETED"));
+        events.add(event("user123", "task-2", "TASK_COMPLETED"));
+
+        // Act
+        ArrayNode results = batchService.processBatch(events);
+
+        // Assert
+        assertTrue(results.get(0).get("duplicate").asBoolean());
+        assertEquals("event-1", results.get(0).get("eventId").asText());
+        assertFalse(results.get(1).has("duplicate"));
+        assertTrue(results.get(2).get("duplicate").asBoolean());
+        assertEquals(results.get(1).get("eventId").asText(), results.get(2).get("eventId").asText());
+        assertEquals(110L, testUser.getEarnedPoints());
+    }
+
+    @Test
+    public void testProcessBatch_RejectsNonArrayPayload() {
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.processBatch(event("user123", "task-1", "TASK_COMPLETED")));
+    }
+
+    private ObjectNode event(String userId, String taskId, String eventType) {
+        ObjectNode event = objectMapper.createObjectNode();
+        event.put("userId", userId);
+        event.put("taskId", taskId);
+        event.put("event_type", eventType);
+        return event;
+    }
+
+    private static PointsBalance balance(long earnedPoints, long availablePoints) {
+        return new PointsBalance() {
+            @Override
+            public Long getEarnedPoints() {
+                return earnedPoints;
+            }
+
+            @Override
+            public Long getAvailablePoints() {
+                return availablePoints;
+            }
+        };
+    }
+}
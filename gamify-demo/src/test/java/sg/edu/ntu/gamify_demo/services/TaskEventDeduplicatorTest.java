@@ -0,0 +1,94 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.models.TaskEvent;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+
+/**
+ * Unit tests for the TaskEventDeduplicator class.
+ * These tests focus on key resolution and the bounded recent-key cache.
+ */
+public class TaskEventDeduplicatorTest {
+
+    private TaskEventDeduplicator deduplicator;
+    private TaskEventRepository taskEventRepository;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        taskEventRepository = mock(TaskEventRepository.class);
+        objectMapper = new ObjectMapper();
+        deduplicator = new TaskEventDeduplicator(taskEventRepository, 2);
+    }
+
+    @Test
+    public void testResolveKey_UsesNaturalKeyByDefault() {
+        assertEquals("user123|task-1|TASK_COMPLETED", deduplicator.resolveKey(event(), null));
+    }
+
+    @Test
+    public void testResolveKey_PrefersClientKeyScopedToUser() {
+        ObjectNode event = event();
+        event.put("idempotency_key", "body-key");
+
+        assertEquals("user123|key|header-key", deduplicator.resolveKey(event, "header-key"));
+        assertEquals("user123|key|body-key", deduplicator.resolveKey(event, null));
+        assertThrows(IllegalArgumentException.class, () -> deduplicator.resolveKey(event, " "));
+    }
+
+    @Test
+    public void testFindExistingEventId_CachesDatabaseHits() {
+        // Arrange
+        TaskEvent existing = new TaskEvent();
+        existing.setEventId("event-1");
+        when(taskEventRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(existing));
+
+        // Act
+        String first = deduplicator.findExistingEventId("key-1");
+        String second = deduplicator.findExistingEventId("key-1");
+
+        // Assert
+        assertEquals("event-1", first);
+        assertEquals("event-1", second);
+        verify(taskEventRepository, times(1)).findByIdempotencyKey("key-1");
+    }
+
+    @Test
+    public void testRemember_EvictsLeastRecentlyUsedKey() {
+        // Arrange
+        when(taskEventRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        deduplicator.remember("key-1", "event-1");
+        deduplicator.remember("key-2", "event-2");
+        deduplicator.findExistingEventId("key-1");
+        deduplicator.remember("key-3", "event-3");
+
+        // Assert
+        assertEquals(2, deduplicator.getCachedKeyCount());
+        assertEquals("event-1", deduplicator.findExistingEventId("key-1"));
+        assertNull(deduplicator.findExistingEventId("key-2"));
+        verify(taskEventRepository, never()).findByIdempotencyKey("key-1");
+    }
+
+    private ObjectNode event() {
+        ObjectNode event = objectMapper.createObjectNode();
+        event.put("userId", "user123");
+        event.put("taskId", "task-1");
+        event.put("event_type", "TASK_COMPLETED");
+        return event;
+    }
+}
@@ -0,0 +1,146 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.models.TaskEventIntake;
+import sg.edu.ntu.gamify_demo.models.enums.IntakeStatus;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventIntakeRepository;
+
+/**
+ * Unit tests for the TaskEventIntakeWorker class.
+ * These tests focus on claiming, per-user ordering, lease expiry and outcome recording.
+ */
+public class TaskEventIntakeWorkerTest {
+
+    private TaskEventIntakeWorker worker;
+    private TaskEventIntakeRepository intakeRepository;
+    private TaskEventService taskEventService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        intakeRepository = mock(TaskEventIntakeRepository.class);
+        taskEventService = mock(TaskEventService.class);
+        objectMapper = new ObjectMapper();
+
+        worker = new TaskEventIntakeWorker(intakeRepository, taskEventService, 4, 10, 300000, 3);
+    }
+
+    @Test
+    public void testDispatch_ProcessesEachUsersEventsInArrivalOrder() throws Exception {
+        // Arrange
+        List<TaskEventIntake> pending = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            TaskEventIntake entry = entry((i % 2 == 0) ? "user-a" : "user-b", "task-" + i);
+            entry.setId((long) i);
+            entry.setStatus(IntakeStatus.PROCESSING);
+            pending.add(entry);
+        }
+        // The claim returns rows in no particular order
+        List<TaskEventIntake> claimed = new ArrayList<>(pending);
+        Collections.reverse(claimed);
+        when(intakeRepository.claimPending(anyString(), eq(10))).thenReturn(claimed);
+
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        when(taskEventService.processTaskEvent(any(JsonNode.class))).thenAnswer(invocation -> {
+            JsonNode payload = invocation.getArgument(0);
+            processed.add(payload.get("userId").asText() + ":" + payload.get("taskId").asText());
+            return objectMapper.createObjectNode().put("success", true);
+        });
+
+        // Act
+        worker.dispatch();
+        worker.shutdown();
+
+        // Assert
+        List<String> userA = processed.stream().filter(p -> p.startsWith("user-a")).toList();
+        assertEquals(List.of("user-a:task-0", "user-a:task-2", "user-a:task-4"), userA);
+        pending.forEach(entry -> assertEquals(IntakeStatus.COMPLETED, entry.getStatus()));
+        assertEquals(0, worker.getInFlight());
+    }
+
+    @Test
+    public void testProcess_RecordsFailure() {
+        // Arrange
+        TaskEventIntake entry = entry("user-a", "task-1");
+        entry.setStatus(IntakeStatus.PROCESSING);
+        when(taskEventService.processTaskEvent(any(JsonNode.class)))
+                .thenThrow(new IllegalArgumentException("Unsupported event type: TASK_ARCHIVED"));
+
+        // Act
+        worker.process(entry);
+
+        // Assert
+        assertEquals(IntakeStatus.FAILED, entry.getStatus());
+        assertEquals("Unsupported event type: TASK_ARCHIVED", entry.getError());
+        assertNull(entry.getResult());
+        verify(intakeRepository).save(entry);
+    }
+
+    @Test
+    public void testProcess_RequeuesDatabaseErrorsUntilMaxAttempts() {
+        // Arrange
+        TaskEventIntake entry = entry("user-a", "task-1");
+        entry.setStatus(IntakeStatus.PROCESSING);
+        entry.setClaimedBy("instance-1");
+        when(taskEventService.processTaskEvent(any(JsonNode.class)))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"));
+
+        // Act & Assert: re-queued while attempts remain
+        entry.setAttempts(2);
+        worker.process(entry);
+        assertEquals(IntakeStatus.PENDING, entry.getStatus());
+        assertNull(entry.getClaimedBy());
+        assertEquals("deadlock detected", entry.getError());
+
+        // Act & Assert: failed for good on the last attempt
+        entry.setStatus(IntakeStatus.PROCESSING);
+        entry.setAttempts(3);
+        worker.process(entry);
+        assertEquals(IntakeStatus.FAILED, entry.getStatus());
+        verify(intakeRepository, times(2)).save(entry);
+    }
+
+    @Test
+    public void testDispatch_DoesNothingWhenQueueIsEmpty() {
+        when(intakeRepository.claimPending(anyString(), eq(10))).thenReturn(List.of());
+
+        worker.dispatch();
+
+        verify(taskEventService, never()).processTaskEvent(any(JsonNode.class));
+    }
+
+    @Test
+    public void testRequeueExpired_OnlyRequeuesExpiredLeases() {
+        when(intakeRepository.requeueExpired(300000L)).thenReturn(2);
+
+        worker.requeueExpired();
+
+        verify(intakeRepository).requeueExpired(300000L);
+    }
+
+    private TaskEventIntake entry(String userId, String taskId) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("userId", userId);
+        payload.put("taskId", taskId);
+        payload.put("event_type", "TASK_COMPLETED");
+        return new TaskEventIntake(userId, payload);
+    }
+}
@@ -0,0 +1,179 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.repositories.TaskEventRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserRepository;
+
+/**
+ * Unit tests for the TaskEventStreamService class.
+ * These tests focus on NDJSON framing and per-line results.
+ */
+public class TaskEventStreamServiceTest {
+
+    private TaskEventStreamService streamService;
+    private TaskEventService taskEventService;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private User testUser;
+
+    @BeforeEach
+    public void setup() {
+        taskEventService = mock(TaskEventService.class);
+        userRepository = mock(UserRepository.class);
+        entityManager = mock(EntityManager.class);
+        objectMapper = new ObjectMapper();
+
+        testUser = new User();
+        testUser.setId("user123");
+
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(testUser));
+        when(taskEventService.executeTaskEvent(any(User.class), anyString(), anyString(), any(JsonNode.class), anyString()))
+                .thenAnswer(invocation -> {
+                    var response = objectMapper.createObjectNode();
+                    response.put("success", true);
+                    response.put("taskId", (String) invocation.getArgument(1));
+                    response.put("eventId", "event-" + invocation.getArgument(1));
+                    return response;
+                });
+
+        streamService = new TaskEventStreamService(
+                taskEventService,
+                userRepository,
+                new TaskEventDeduplicator(mock(TaskEventRepository.class), 100),
+                entityManager,
+                mock(PlatformTransactionManager.class),
+                objectMapper,
+                2);
+    }
+
+    @Test
+    public void testProcessStream_WritesOneLinePerEventAndSummary() throws Exception {
+        // Arrange
+        String body = """
+                {"userId":"user123","taskId":"task-1","event_type":"TASK_COMPLETED"}
+                {"userId":"user123","taskId":"task-2","event_type":"TASK_ASSIGNED"}
+                {"userId":"missing","taskId":"task-3","event_type":"TASK_COMPLETED"}
+                """;
+
+        // Act
+        List<JsonNode> lines = run(body);
+
+        // Assert
+        assertEquals(4, lines.size());
+        assertEquals("task-1", lines.get(0).get("taskId").asText());
+        assertEquals(1, lines.get(1).get("line").asInt());
+        assertFalse(lines.get(2).get("success").asBoolean());
+        assertEquals("User not found: missing", lines.get(2).get("error").asText());
+
+        JsonNode summary = lines.get(3);
+        assertTrue(summary.get("summary").asBoolean());
+        assertEquals(3, summary.get("total").asInt());
+        assertEquals(2, summary.get("succeeded").asInt());
+        verify(taskEventService, times(2)).executeTaskEvent(eq(testUser), anyString(), anyString(), any(JsonNode.class), anyString());
+    }
+
+    @Test
+    public void testProcessStream_FailedEventDoesNotFailRestOfWindow() throws Exception {
+        // Arrange
+        when(taskEventService.executeTaskEvent(any(User.class), eq("task-1"), anyString(), any(JsonNode.class), anyString()))
+                .thenThrow(new IllegalStateException("constraint violation"));
+        String body = """
+                {"userId":"user123","taskId":"task-1","event_type":"TASK_COMPLETED"}
+                {"userId":"user123","taskId":"task-2","event_type":"TASK_COMPLETED"}
+                """;
+
+        // Act
+        List<JsonNode> lines = run(body);
+
+        // Assert
+        assertFalse(lines.get(0).get("success").asBoolean());
+        assertEquals("constraint violation", lines.get(0).get("error").asText());
+        assertTrue(lines.get(1).get("success").asBoolean());
+        assertEquals(1, lines.get(2).get("succeeded").asInt());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testProcessStream_FailedEventDropsItsAfterCommitCallbacks() throws Exception {
+        // Arrange: the first event registers a leaderboard-style callback, then fails at flush
+        TransactionSynchronization kept = mock(TransactionSynchronization.class);
+        TransactionSynchronization dropped = mock(TransactionSynchronization.class);
+        when(taskEventService.executeTaskEvent(any(User.class), eq("task-1"), anyString(), any(JsonNode.class), anyString()))
+                .thenAnswer(invocation -> {
+                    TransactionSynchronizationManager.registerSynchronization(dropped);
+                    throw new IllegalStateException("duplicate key value violates unique constraint");
+                });
+        String body = """
+                {"userId":"user123","taskId":"task-1","event_type":"TASK_COMPLETED"}
+                {"userId":"user123","taskId":"task-2","event_type":"TASK_COMPLETED"}
+                """;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            TransactionSynchronizationManager.registerSynchronization(kept);
+
+            // Act
+            run(body);
+
+            // Assert
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(kept).afterCommit();
+            verify(dropped, never()).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testProcessStream_ReportsMalformedInputInSummary() throws Exception {
+        // Arrange
+        String body = "{\"userId\":\"user123\",\"taskId\":\"task-1\",\"event_type\":\"TASK_COMPLETED\"}\n{not json\n";
+
+        // Act
+        List<JsonNode> lines = run(body);
+
+        // Assert
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).get("success").asBoolean());
+        assertEquals(1, lines.get(1).get("total").asInt());
+        assertTrue(lines.get(1).has("error"));
+    }
+
+    private List<JsonNode> run(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        streamService.processStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
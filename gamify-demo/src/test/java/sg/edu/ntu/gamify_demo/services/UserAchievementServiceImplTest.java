@@ -0,0 +1,141 @@
+package sg.edu.ntu.gamify_demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import sg.edu.ntu.gamify_demo.factories.UserAchievementFactory;
+import sg.edu.ntu.gamify_demo.interfaces.AchievementService;
+import sg.edu.ntu.gamify_demo.interfaces.UserService;
+import sg.edu.ntu.gamify_demo.mappers.AchievementMapper;
+import sg.edu.ntu.gamify_demo.models.Achievement;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.models.UserAchievement;
+import sg.edu.ntu.gamify_demo.repositories.AchievementRepository;
+import sg.edu.ntu.gamify_demo.repositories.UserAchievementRepository;
+import sg.edu.ntu.gamify_demo.strategies.achievement.AchievementCriteriaEvaluator;
+import sg.edu.ntu.gamify_demo.strategies.achievement.CompiledCriteria;
+
+/**
+ * Unit tests for the UserAchievementServiceImpl class.
+ * These tests focus on processing only the achievements an event can trigger.
+ */
+public class UserAchievementServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserAchievementServiceImpl userAchievementService;
+    private UserAchievementRepository userAchievementRepository;
+    private AchievementRepository achievementRepository;
+    private AchievementService achievementService;
+    private AchievementCriteriaEvaluator criteriaEvaluator;
+    private User user;
+    private Achievement levelAchievement;
+    private Achievement taskAchievement;
+
+    @BeforeEach
+    public void setup() {
+        userAchievementRepository = mock(UserAchievementRepository.class);
+        achievementRepository = mock(AchievementRepository.class);
+        achievementService = mock(AchievementService.class);
+        criteriaEvaluator = mock(AchievementCriteriaEvaluator.class);
+
+        levelAchievement = achievement("level-3", objectMapper.createObjectNode().put("requiredLevel", 3));
+        taskAchievement = achievement("tasks-10", objectMapper.createObjectNode().put("taskCount", 10));
+        when(achievementRepository.findAll()).thenReturn(List.of(levelAchievement, taskAchievement));
+        when(achievementService.getAchievementById("level-3")).thenReturn(levelAchievement);
+        when(achievementService.getAchievementById("tasks-10")).thenReturn(taskAchievement);
+        when(userAchievementRepository.save(any(UserAchievement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(criteriaEvaluator.compile(any(JsonNode.class))).thenReturn(CompiledCriteria.NEVER);
+
+        userAchievementService = new UserAchievementServiceImpl(
+                userAchievementRepository,
+                achievementService,
+                mock(UserService.class),
+                new UserAchievementFactory(),
+                criteriaEvaluator,
+                mock(AchievementMapper.class),
+                objectMapper,
+                new AchievementTriggerIndex(achievementRepository, criteriaEvaluator),
+                new EarnedAchievementCache(userAchievementRepository, 100),
+                mock(StreakTracker.class));
+
+        user = new User();
+        user.setId("user1");
+    }
+
+    @Test
+    public void testProcessAchievements_EvaluatesOnlyTriggeredAchievements() {
+        // Arrange
+        CompiledCriteria met = candidate -> true;
+        when(criteriaEvaluator.compile(any(JsonNode.class))).thenReturn(met);
+
+        // Act
+        List<UserAchievement> awarded = userAchievementService.processAchievements(
+                user, "TASK_COMPLETED", objectMapper.createObjectNode());
+
+        // Assert
+        assertEquals(1, awarded.size());
+        assertEquals(taskAchievement, awarded.get(0).getAchievement());
+        verify(achievementService, never()).getAchievementById("level-3");
+        verify(achievementService, never()).getAllAchievements();
+    }
+
+    @Test
+    public void testAwardAchievement_UpdatesCacheWithoutReloading() {
+        // Arrange
+        when(userAchievementRepository.findEarnedAchievementIds("user1")).thenReturn(List.of());
+
+        // Act
+        userAchievementService.awardAchievement(user, taskAchievement, objectMapper.createObjectNode());
+
+        // Assert: one load for the award's own check, then bit tests only
+        assertTrue(userAchievementService.hasAchievement(user, taskAchievement));
+        assertFalse(userAchievementService.hasAchievement(user, levelAchievement));
+        verify(userAchievementRepository, times(1)).findEarnedAchievementIds("user1");
+        verify(userAchievementRepository, never()).existsByUserAndAchievement(any(), any());
+    }
+
+    @Test
+    public void testProcessAchievements_SkipsEarnedAchievementsFromCache() {
+        // Arrange
+        CompiledCriteria untested = mock(CompiledCriteria.class);
+        when(criteriaEvaluator.compile(any(JsonNode.class))).thenReturn(untested);
+        when(userAchievementRepository.findEarnedAchievementIds("user1")).thenReturn(List.of("level-3"));
+
+        // Act
+        List<UserAchievement> awarded = userAchievementService.processAchievements(
+                user, "LEVEL_UP", objectMapper.createObjectNode());
+
+        // Assert
+        assertTrue(awarded.isEmpty());
+        verify(untested, never()).test(any());
+        verify(userAchievementRepository, never()).existsByUserAndAchievement(any(), any());
+    }
+
+    @Test
+    public void testProcessAchievements_UntriggeredEvent_NoQueries() {
+        List<UserAchievement> awarded = userAchievementService.processAchievements(
+                user, "USER_LOGGED_IN", objectMapper.createObjectNode());
+
+        assertTrue(awarded.isEmpty());
+        verify(userAchievementRepository, never()).findEarnedAchievementIds(any());
+    }
+
+    private static Achievement achievement(String id, ObjectNode criteria) {
+        Achievement achievement = new Achievement("Achievement " + id, null, criteria);
+        achievement.setAchievementId(id);
+        return achievement;
+    }
+}
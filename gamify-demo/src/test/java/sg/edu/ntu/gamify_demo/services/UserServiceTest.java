@@ -43,6 +43,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder encoder;
 
+    @Mock
+    private LadderStatusProvisioner ladderStatusProvisioner;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -98,6 +101,7 @@ public class UserServiceTest {
         // Verify the validator and repository were called
         verify(userValidator, times(1)).validateUser(testUser1);
         verify(userRepository, times(1)).save(testUser1);
+        verify(ladderStatusProvisioner, times(1)).provision(testUser1.getId());
     }
 
     @Test
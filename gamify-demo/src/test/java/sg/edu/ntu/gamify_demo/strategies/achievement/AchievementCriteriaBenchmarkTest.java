@@ -0,0 +1,109 @@
+package sg.edu.ntu.gamify_demo.strategies.achievement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import sg.edu.ntu.gamify_demo.models.LadderLevel;
+import sg.edu.ntu.gamify_demo.models.User;
+import sg.edu.ntu.gamify_demo.models.UserLadderStatus;
+import sg.edu.ntu.gamify_demo.services.StreakTracker;
+import sg.edu.ntu.gamify_demo.services.TaskCompletionCounter;
+
+/**
+ * Micro-benchmark of evaluating achievement criteria from JSON on every call against
+ * testing predicates compiled once. Only the in-memory criteria types are measured, since
+ * the others are dominated by their repository queries.
+ * Skipped unless run explicitly:
+ * mvn test -Dtest=AchievementCriteriaBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AchievementCriteriaBenchmarkTest {
+
+    private static final int USERS = 1000;
+    private static final int ROUNDS = 5;
+    private static final int PASSES = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void benchmarkInterpretedVersusCompiled() {
+        // Arrange
+        AchievementCriteriaEvaluator evaluator = new AchievementCriteriaEvaluator(
+                new PointsThresholdStrategy(),
+                new TaskCompletionStrategy(mock(TaskCompletionCounter.class)),
+                new ConsecutiveDaysStrategy(mock(StreakTracker.class)),
+                new LevelBasedStrategy());
+
+        List<JsonNode> criteria = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            criteria.add(objectMapper.createObjectNode().put("type", "POINTS_THRESHOLD").put("threshold", i * 250));
+            criteria.add(objectMapper.createObjectNode().put("type", "LEVEL_BASED").put("requiredLevel", i));
+        }
+        CompiledCriteria[] compiled = new CompiledCriteria[criteria.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = evaluator.compile(criteria.get(i));
+        }
+
+        User[] users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new User();
+            users[i].setEarnedPoints((long) (i * 7 % 1500));
+            users[i].setLadderStatus(new UserLadderStatus(users[i],
+                    new LadderLevel((long) (i % 5 + 1), "Level", 0L), 0L, 0L));
+        }
+
+        // Act: alternate the two so both see the same JIT and GC conditions
+        long interpretedNanos = 0;
+        long compiledNanos = 0;
+        long interpretedMatches = 0;
+        long compiledMatches = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            long matches = 0;
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (User user : users) {
+                    for (JsonNode node : criteria) {
+                        if (evaluator.evaluateCriteria(user, node)) {
+                            matches++;
+                        }
+                    }
+                }
+            }
+            long interpreted = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long compiledRoundMatches = 0;
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (User user : users) {
+                    for (CompiledCriteria predicate : compiled) {
+                        if (predicate.test(user)) {
+                            compiledRoundMatches++;
+                        }
+                    }
+                }
+            }
+            long compiledTime = System.nanoTime() - start;
+
+            // Round 0 is warm-up
+            if (round > 0) {
+                interpretedNanos += interpreted;
+                compiledNanos += compiledTime;
+                interpretedMatches += matches;
+                compiledMatches += compiledRoundMatches;
+            }
+        }
+
+        // Assert
+        assertEquals(interpretedMatches, compiledMatches);
+        double operations = (double) ROUNDS * PASSES * USERS * criteria.size();
+        assertTrue(compiledNanos < interpretedNanos, String.format(
+                "compiled criteria took %.1f ns/op, not less than the %.1f ns/op of interpreted criteria",
+                compiledNanos / operations, interpretedNanos / operations));
+    }
+}